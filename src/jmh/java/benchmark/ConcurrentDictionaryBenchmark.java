@@ -0,0 +1,163 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput benchmark for dictionaries shared between threads. Every thread runs the same mix of lookups and
+ * writes against a single shared dictionary, and the total operations per microsecond over all threads is reported,
+ * so a dictionary that scales keeps going up as threads are added and one that doesn't stays flat (or drops).
+ *
+ * The dictionaries are the lock-striped StripedHashingWithCount, OptimisticReadHashingWithCount (a
+ * LinearProbingWithCount whose lookups take no lock unless a write runs at the same time), a LinearProbingWithCount
+ * with every operation synchronized on it (the global lock both of them replace), and
+ * java.util.concurrent.ConcurrentHashMap as a baseline. Lookups are half successful and half unsuccessful, and a write
+ * replaces the value of a key that is already in the dictionary, so the number of entries never changes. A writeRatio
+ * of 0.0 measures pure read throughput, and 0.001 a read-mostly table that only now and then takes a write.
+ *
+ * Run main() to measure every dictionary at 1, 2, 4... threads up to the number of available processors, or the JMH
+ * runner with "-t" to pick the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentDictionaryBenchmark {
+    /** Number of operations each thread cycles through */
+    private static final int OPERATION_COUNT = 1024;
+
+    /** Which dictionary is being measured */
+    @Param({"striped", "optimistic", "synchronized", "concurrenthashmap"})
+    private String implementation;
+
+    /** Fraction of operations that are writes */
+    @Param({"0.0", "0.001", "0.1"})
+    private double writeRatio;
+
+    /** Initial capacity of the dictionary */
+    @Param({"4001"})
+    private int tableSize;
+
+    /** Operations of the shared dictionary */
+    private DictionaryOperations dictionary;
+    /** Keys that were added to the dictionary */
+    private Integer[] addedKeys;
+
+
+    /**
+     * Builds the shared dictionary and fills it to a quarter of tableSize.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (implementation) {
+            case "striped":
+                dictionary = DictionaryOperations.create("StripedHashingWithCount", tableSize);
+                break;
+            case "optimistic":
+                dictionary = DictionaryOperations.create("OptimisticReadHashingWithCount", tableSize);
+                break;
+            case "synchronized":
+                dictionary = DictionaryOperations.synchronize(
+                        DictionaryOperations.create("LinearProbingWithCount", tableSize));
+                break;
+            case "concurrenthashmap":
+                dictionary = DictionaryOperations.forConcurrentHashMap(tableSize);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+
+        addedKeys = new Integer[tableSize / 4];
+        for (int i = 0; i < addedKeys.length; i++) {
+            addedKeys[i] = i;
+            dictionary.add.apply(addedKeys[i], addedKeys[i]);
+        }
+    }
+
+
+    /**
+     * The operations of a single thread, drawn from its own random stream so threads don't run in lockstep.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        /** Key of each operation */
+        private Integer[] keys;
+        /** Whether each operation is a write */
+        private boolean[] writes;
+        /** Position in keys and writes */
+        private int next;
+
+
+        /**
+         * Draws this thread's operations.
+         * @param benchmark the shared benchmark state
+         * @param threadParams tells the threads apart
+         */
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentDictionaryBenchmark benchmark, ThreadParams threadParams) {
+            SplittableRandom random = new SplittableRandom(threadParams.getThreadIndex());
+            keys = new Integer[OPERATION_COUNT];
+            writes = new boolean[OPERATION_COUNT];
+            for (int i = 0; i < OPERATION_COUNT; i++) {
+                writes[i] = random.nextDouble() < benchmark.writeRatio;
+                if (writes[i] || random.nextBoolean()) {
+                    keys[i] = benchmark.addedKeys[random.nextInt(benchmark.addedKeys.length)];
+                } else {
+                    keys[i] = -1 - random.nextInt(benchmark.addedKeys.length); // never added
+                }
+            }
+            next = 0;
+        }
+    }
+
+
+    @Benchmark
+    public Object mixed(ThreadState state) {
+        int i = state.next;
+        state.next = (i + 1) & (OPERATION_COUNT - 1);
+        Integer key = state.keys[i];
+        if (state.writes[i]) {
+            return dictionary.add.apply(key, key);
+        }
+        return dictionary.getValue.apply(key);
+    }
+
+
+    /**
+     * Runs the benchmark at 1, 2, 4... threads, up to and including the number of available processors.
+     * @param args not used
+     * @throws RunnerException if JMH fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads = (threads == processors) ? threads + 1 :
+                Math.min(2 * threads, processors)) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentDictionaryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+}
@@ -0,0 +1,247 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the operations of both DictionaryInterface implementations, with java.util.HashMap as a
+ * baseline. GetStatistics only tells us how many probes a search takes, this tells us how long it takes.
+ *
+ * Every benchmark is run for each combination of implementation, key type, table size, load factor and hit ratio.
+ * The table size is the initial capacity handed to the dictionary, and the load factor decides how many entries are
+ * added to it (tableSize * loadFactor). The hit ratio is the fraction of lookups that search for a key that is in
+ * the dictionary, so a hit ratio of 0.0 is the all unsuccessful search workload from the experiment.
+ *
+ * The dictionaries are reached through DictionaryOperations, see there for why.
+ *
+ * Run main() (or the JMH runner with "-prof gc") to get ns/op together with the allocation rate of each benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DictionaryBenchmark {
+    /** Number of keys we cycle through for the lookup benchmarks */
+    private static final int QUERY_COUNT = 1024;
+
+    /** Which dictionary is being measured */
+    @Param({"linear", "double", "robinhood", "cuckoo", "swiss", "hashmap"})
+    private String implementation;
+
+    /** Type of search key stored in the dictionary */
+    @Param({"string", "integer"})
+    private String keyType;
+
+    /** Initial capacity of the dictionary */
+    @Param({"347", "4001"})
+    private int tableSize;
+
+    /** Fraction of tableSize that is filled before measuring */
+    @Param({"0.25", "0.45"})
+    private double loadFactor;
+
+    /** Fraction of lookups that are successful searches */
+    @Param({"0.0", "0.5", "1.0"})
+    private double hitRatio;
+
+    /** Operations of the dictionary being measured */
+    private DictionaryOperations dictionary;
+    /** Keys that were added to the dictionary */
+    private Object[] addedKeys;
+    /** Mix of added and missing keys used for lookups, in the proportion given by hitRatio */
+    private Object[] queryKeys;
+    /** Keys that are never added to the dictionary */
+    private Object[] missingKeys;
+    /** Position in queryKeys */
+    private int nextQuery;
+    /** Position in addedKeys, for the remove and add benchmark */
+    private int nextAdded;
+
+
+    /**
+     * Builds the dictionary and the key arrays for this combination of parameters.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int entries = Math.max(1, (int) (tableSize * loadFactor));
+        addedKeys = new Object[entries];
+        missingKeys = new Object[QUERY_COUNT];
+        for (int i = 0; i < entries; i++) {
+            addedKeys[i] = createKey(i, true);
+        }
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            missingKeys[i] = createKey(i, false);
+        }
+
+        Random r = new Random(42);
+        queryKeys = new Object[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            if (r.nextDouble() < hitRatio) {
+                queryKeys[i] = addedKeys[r.nextInt(entries)];
+            } else {
+                queryKeys[i] = missingKeys[i];
+            }
+        }
+
+        dictionary = createDictionary();
+        fill();
+        nextQuery = 0;
+        nextAdded = 0;
+    }
+
+
+    /**
+     * Creates a key for the chosen key type. Added and missing keys never collide with each other.
+     * @param i number of the key
+     * @param added true for a key that is added to the dictionary, false for one that is only searched for
+     * @return a String or Integer key
+     */
+    private Object createKey(int i, boolean added) {
+        if (keyType.equals("string")) {
+            return (added ? "a" : "m") + i;
+        } else {
+            return added ? i : -i - 1;
+        }
+    }
+
+
+    /**
+     * Creates the dictionary chosen by the implementation parameter.
+     * @return the operations of an empty dictionary
+     */
+    private DictionaryOperations createDictionary() {
+        switch (implementation) {
+            case "linear":
+                return DictionaryOperations.create("LinearProbingWithCount", tableSize);
+            case "double":
+                return DictionaryOperations.create("DoubleHashingWithCount", tableSize);
+            case "robinhood":
+                return DictionaryOperations.create("RobinHoodHashingWithCount", tableSize);
+            case "cuckoo":
+                return DictionaryOperations.create("CuckooHashingWithCount", tableSize);
+            case "swiss":
+                return DictionaryOperations.create("SwissTableHashingWithCount", tableSize);
+            case "hashmap":
+                return DictionaryOperations.forHashMap(tableSize);
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+
+    /**
+     * Adds every key in addedKeys to the dictionary.
+     */
+    private void fill() {
+        for (Object key : addedKeys) {
+            dictionary.add.apply(key, key);
+        }
+    }
+
+
+    /**
+     * Returns the next key from queryKeys, wrapping around at the end of the array.
+     * @return the key to search for
+     */
+    private Object nextQueryKey() {
+        Object key = queryKeys[nextQuery];
+        nextQuery = (nextQuery + 1) & (QUERY_COUNT - 1);
+        return key;
+    }
+
+
+    @Benchmark
+    public Object getValue() {
+        return dictionary.getValue.apply(nextQueryKey());
+    }
+
+
+    @Benchmark
+    public boolean contains() {
+        return dictionary.contains.test(nextQueryKey());
+    }
+
+
+    /**
+     * Removes a key that is in the dictionary and adds it back, so the number of entries stays the same from one
+     * invocation to the next. The add reuses the location the remove left in the available state (or an earlier one on
+     * the key's probe sequence), so the tables that leave removed entries behind never gain more of them and stay at
+     * the nominal load factor. Adding and removing keys that are not in the dictionary would instead turn a new empty
+     * location into an available one every time, until no search could stop before going round the whole table.
+     */
+    @Benchmark
+    public Object removeThenAdd() {
+        Object key = addedKeys[nextAdded];
+        if (++nextAdded == addedKeys.length)
+            nextAdded = 0;
+        dictionary.remove.apply(key);
+        return dictionary.add.apply(key, key);
+    }
+
+
+    /**
+     * Clears the dictionary and adds every entry back, this is the per trial work done by runExperiment.
+     */
+    @Benchmark
+    public int clearThenFill() {
+        dictionary.clear.run();
+        fill();
+        return dictionary.size.getAsInt();
+    }
+
+
+    @Benchmark
+    public void keyIterator(Blackhole blackhole) {
+        Iterator<Object> keys = dictionary.keyIterator.get();
+        while (keys.hasNext()) {
+            blackhole.consume(keys.next());
+        }
+    }
+
+
+    @Benchmark
+    public void valueIterator(Blackhole blackhole) {
+        Iterator<Object> values = dictionary.valueIterator.get();
+        while (values.hasNext()) {
+            blackhole.consume(values.next());
+        }
+    }
+
+
+    /**
+     * Runs every benchmark in this class with the GC profiler, which adds the allocation rate (gc.alloc.rate.norm is
+     * bytes per operation) next to ns/op.
+     * @param args not used
+     * @throws RunnerException if JMH fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DictionaryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,251 @@
+package benchmark;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The dictionaries live in the default package, which JMH does not allow benchmarks in and which a named package
+ * cannot import from. This class looks a dictionary up by name and binds its DictionaryInterface methods to
+ * java.util.function objects using LambdaMetafactory, so each benchmark call is a plain interface call that the JIT can
+ * inline, the same as calling the dictionary directly.
+ */
+final class DictionaryOperations {
+    /** DictionaryInterface.add */
+    final BiFunction<Object, Object, Object> add;
+    /** DictionaryInterface.remove */
+    final Function<Object, Object> remove;
+    /** DictionaryInterface.getValue */
+    final Function<Object, Object> getValue;
+    /** DictionaryInterface.contains */
+    final Predicate<Object> contains;
+    /** DictionaryInterface.getKeyIterator */
+    final Supplier<Iterator<Object>> keyIterator;
+    /** DictionaryInterface.getValueIterator */
+    final Supplier<Iterator<Object>> valueIterator;
+    /** DictionaryInterface.getSize */
+    final IntSupplier size;
+    /** DictionaryInterface.clear */
+    final Runnable clear;
+    /** The dictionary (or HashMap) the operations are bound to */
+    final Object target;
+
+
+    /**
+     * Full Constructor
+     */
+    private DictionaryOperations(Object target, BiFunction<Object, Object, Object> add, Function<Object, Object> remove,
+                                 Function<Object, Object> getValue, Predicate<Object> contains,
+                                 Supplier<Iterator<Object>> keyIterator, Supplier<Iterator<Object>> valueIterator,
+                                 IntSupplier size, Runnable clear) {
+        this.target = target;
+        this.add = add;
+        this.remove = remove;
+        this.getValue = getValue;
+        this.contains = contains;
+        this.keyIterator = keyIterator;
+        this.valueIterator = valueIterator;
+        this.size = size;
+        this.clear = clear;
+    }
+
+
+    /**
+     * Binds the operations of an existing DictionaryInterface implementation.
+     * @param dictionary any object that implements DictionaryInterface
+     * @return the bound operations
+     */
+    static DictionaryOperations bind(Object dictionary) {
+        try {
+            Class<?> dictionaryInterface = Class.forName("DictionaryInterface");
+            if (!dictionaryInterface.isInstance(dictionary)) {
+                throw new IllegalArgumentException(dictionary.getClass() + " is not a DictionaryInterface.");
+            }
+            return new DictionaryOperations(dictionary,
+                    bind(dictionary, dictionaryInterface, "add", BiFunction.class, "apply",
+                            MethodType.methodType(Object.class, Object.class, Object.class)),
+                    bind(dictionary, dictionaryInterface, "remove", Function.class, "apply",
+                            MethodType.methodType(Object.class, Object.class)),
+                    bind(dictionary, dictionaryInterface, "getValue", Function.class, "apply",
+                            MethodType.methodType(Object.class, Object.class)),
+                    bind(dictionary, dictionaryInterface, "contains", Predicate.class, "test",
+                            MethodType.methodType(boolean.class, Object.class)),
+                    bind(dictionary, dictionaryInterface, "getKeyIterator", Supplier.class, "get",
+                            MethodType.methodType(Object.class)),
+                    bind(dictionary, dictionaryInterface, "getValueIterator", Supplier.class, "get",
+                            MethodType.methodType(Object.class)),
+                    bind(dictionary, dictionaryInterface, "getSize", IntSupplier.class, "getAsInt",
+                            MethodType.methodType(int.class)),
+                    bind(dictionary, dictionaryInterface, "clear", Runnable.class, "run",
+                            MethodType.methodType(void.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not bind dictionary operations.", e);
+        }
+    }
+
+
+    /**
+     * Creates a dictionary from the default package by class name and binds its operations.
+     * @param className simple name of the dictionary class, such as "LinearProbingWithCount"
+     * @param initialCapacity value passed to the dictionary's (int initialCapacity) constructor
+     * @return the bound operations
+     */
+    static DictionaryOperations create(String className, int initialCapacity) {
+        try {
+            Object dictionary = Class.forName(className).getConstructor(int.class).newInstance(initialCapacity);
+            return bind(dictionary);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + className + ".", e);
+        }
+    }
+
+
+    /**
+     * Binds the same operations to a java.util.HashMap, for use as a baseline.
+     * @param initialCapacity initial capacity of the HashMap
+     * @return the bound operations
+     */
+    static DictionaryOperations forHashMap(int initialCapacity) {
+        return forMap(new HashMap<>(initialCapacity));
+    }
+
+
+    /**
+     * Binds the same operations to a java.util.concurrent.ConcurrentHashMap, the baseline for the thread safe
+     * dictionaries.
+     * @param initialCapacity initial capacity of the ConcurrentHashMap
+     * @return the bound operations
+     */
+    static DictionaryOperations forConcurrentHashMap(int initialCapacity) {
+        return forMap(new ConcurrentHashMap<>(initialCapacity));
+    }
+
+
+    /**
+     * Wraps every operation in a block synchronized on the dictionary, the way a dictionary that isn't thread safe has
+     * to be shared between threads. The iterators are created inside the block but used outside of it, which is only
+     * safe while no other thread changes the dictionary.
+     * @param operations operations of any dictionary
+     * @return the same operations, each holding the dictionary's monitor
+     */
+    static DictionaryOperations synchronize(DictionaryOperations operations) {
+        Object lock = operations.target;
+        return new DictionaryOperations(lock,
+                (key, value) -> {
+                    synchronized (lock) {
+                        return operations.add.apply(key, value);
+                    }
+                },
+                key -> {
+                    synchronized (lock) {
+                        return operations.remove.apply(key);
+                    }
+                },
+                key -> {
+                    synchronized (lock) {
+                        return operations.getValue.apply(key);
+                    }
+                },
+                key -> {
+                    synchronized (lock) {
+                        return operations.contains.test(key);
+                    }
+                },
+                () -> {
+                    synchronized (lock) {
+                        return operations.keyIterator.get();
+                    }
+                },
+                () -> {
+                    synchronized (lock) {
+                        return operations.valueIterator.get();
+                    }
+                },
+                () -> {
+                    synchronized (lock) {
+                        return operations.size.getAsInt();
+                    }
+                },
+                () -> {
+                    synchronized (lock) {
+                        operations.clear.run();
+                    }
+                });
+    }
+
+
+    /**
+     * Binds the operations to a java.util.Map, checking for null the way DictionaryInterface.add does.
+     * @param map the map to bind
+     * @return the bound operations
+     */
+    private static DictionaryOperations forMap(Map<Object, Object> map) {
+        return new DictionaryOperations(map,
+                (key, value) -> {
+                    if ((key == null) || (value == null))
+                        throw new IllegalArgumentException("Cannot add null to a dictionary.");
+                    return map.put(key, value);
+                },
+                map::remove, map::get, map::containsKey,
+                () -> map.keySet().iterator(), () -> map.values().iterator(),
+                map::size, map::clear);
+    }
+
+
+    /**
+     * Spins a lambda of the given functional interface whose single method calls methodName on the receiver.
+     * @param receiver object the method is called on
+     * @param owner class or interface that declares the method
+     * @param methodName name of the method to call
+     * @param functionalInterface the java.util.function interface to implement
+     * @param samName name of the functional interface's single abstract method
+     * @param samType erased type of the functional interface's single abstract method
+     * @param <T> type of the functional interface
+     * @return the functional interface bound to receiver
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T bind(Object receiver, Class<?> owner, String methodName, Class<?> functionalInterface,
+                              String samName, MethodType samType) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle implementation = lookup.unreflect(findMethod(owner, methodName));
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, samName,
+                    MethodType.methodType(functionalInterface, owner),
+                    samType, implementation, implementation.type().dropParameterTypes(0, 1));
+            return (T) site.getTarget().invoke(receiver);
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+
+    /**
+     * Finds a public method by name, the DictionaryInterface methods are not overloaded.
+     * @param owner class or interface that declares the method
+     * @param methodName name of the method
+     * @return the method
+     * @throws NoSuchMethodException if there is no method with that name
+     */
+    private static java.lang.reflect.Method findMethod(Class<?> owner, String methodName)
+            throws NoSuchMethodException {
+        for (java.lang.reflect.Method method : owner.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(owner.getName() + "." + methodName);
+    }
+}
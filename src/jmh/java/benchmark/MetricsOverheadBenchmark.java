@@ -0,0 +1,129 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark showing that publishing a dictionary's metrics over JMX (see DictionaryMetrics) costs add and getValue
+ * nothing. Each benchmark runs once on a dictionary with no MBean and once on one with an MBean registered, whose
+ * sampler thread reads the dictionary's histograms every second while the benchmark runs; the two should be within
+ * the error of each other.
+ *
+ * The dictionary is filled to a quarter of tableSize, lookups are half successful and half unsuccessful, and add
+ * replaces the value of a key that is already in the dictionary, so the number of entries never changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MetricsOverheadBenchmark {
+    /** Number of keys we cycle through */
+    private static final int QUERY_COUNT = 1024;
+
+    /** Which dictionary is being measured */
+    @Param({"linear", "double"})
+    private String implementation;
+
+    /** Whether an MBean is registered for the dictionary */
+    @Param({"false", "true"})
+    private boolean monitored;
+
+    /** Initial capacity of the dictionary */
+    @Param({"4001"})
+    private int tableSize;
+
+    /** Operations of the dictionary being measured */
+    private DictionaryOperations dictionary;
+    /** The registered DictionaryMetrics, or null when not monitored */
+    private Object metrics;
+    /** Mix of added and missing keys used for lookups */
+    private Integer[] queryKeys;
+    /** Keys that are in the dictionary, used for add */
+    private Integer[] addedKeys;
+    /** Position in queryKeys and addedKeys */
+    private int nextQuery;
+
+
+    /**
+     * Builds and fills the dictionary, and registers its MBean if monitored.
+     * @throws ReflectiveOperationException if DictionaryMetrics cannot be reached
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        switch (implementation) {
+            case "linear":
+                dictionary = DictionaryOperations.create("LinearProbingWithCount", tableSize);
+                break;
+            case "double":
+                dictionary = DictionaryOperations.create("DoubleHashingWithCount", tableSize);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+
+        int entries = tableSize / 4;
+        for (int i = 0; i < entries; i++) {
+            dictionary.add.apply(i, i);
+        }
+        Random r = new Random(42);
+        queryKeys = new Integer[QUERY_COUNT];
+        addedKeys = new Integer[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryKeys[i] = r.nextBoolean() ? r.nextInt(entries) : -1 - r.nextInt(entries); // negative keys are missing
+            addedKeys[i] = r.nextInt(entries);
+        }
+        nextQuery = 0;
+
+        if (monitored) {
+            metrics = Class.forName("DictionaryMetrics")
+                    .getMethod("register", Class.forName("InstrumentedDictionary"), String.class)
+                    .invoke(null, dictionary.target, "benchmark " + implementation);
+        }
+    }
+
+
+    /**
+     * Unregisters the MBean, so the next trial can register one under the same name.
+     * @throws ReflectiveOperationException if DictionaryMetrics cannot be reached
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws ReflectiveOperationException {
+        if (metrics != null) {
+            metrics.getClass().getMethod("unregister").invoke(metrics);
+            metrics = null;
+        }
+    }
+
+
+    @Benchmark
+    public Object getValue() {
+        Integer key = queryKeys[nextQuery];
+        nextQuery = (nextQuery + 1) & (QUERY_COUNT - 1);
+        return dictionary.getValue.apply(key);
+    }
+
+
+    @Benchmark
+    public Object add() {
+        Integer key = addedKeys[nextQuery];
+        nextQuery = (nextQuery + 1) & (QUERY_COUNT - 1);
+        return dictionary.add.apply(key, key);
+    }
+
+}
@@ -0,0 +1,179 @@
+/**
+ * The cluster structure of a linear probing table at one moment, as found by LinearProbingWithCount.analyzeClusters.
+ * A cluster is a run of locations that are not null (entries, or locations in the available state left by removed
+ * entries), ending at a null location; runs wrap around from the end of the table to its start, as the probe sequence
+ * does. Primary clustering shows up as a long tail in the cluster lengths, and since an unsuccessful search has to
+ * walk to the end of the cluster it starts in, the expected cost of one follows directly from them.
+ *
+ * The statistics are a snapshot and don't change as the table does.
+ */
+public final class ClusterStatistics
+{
+    /** Number of locations in the table */
+    private final int tableSize;
+    /** Distribution of the cluster lengths */
+    private final ProbeHistogram clusterLengths;
+    /** Index of the first location of the largest cluster, or -1 if there are no clusters */
+    private final int largestClusterStart;
+    /** Number of locations that are in a cluster */
+    private final long clusterLocations;
+    /** Number of locations in the available state, all of which are in a cluster */
+    private final long tombstoneCount;
+    /** Sum over all clusters of length * (length + 1) / 2, the probes they add to unsuccessful searches */
+    private final long clusterProbeSum;
+
+
+    /**
+     * Full Constructor
+     * @param tableSize number of locations in the table
+     * @param clusterLengths distribution of the cluster lengths
+     * @param largestClusterStart index of the first location of the largest cluster, or -1 if there are no clusters
+     * @param clusterLocations number of locations that are in a cluster
+     * @param tombstoneCount number of locations in the available state
+     * @param clusterProbeSum sum over all clusters of length * (length + 1) / 2
+     */
+    ClusterStatistics(int tableSize, ProbeHistogram clusterLengths, int largestClusterStart, long clusterLocations,
+                      long tombstoneCount, long clusterProbeSum)
+    {
+        this.tableSize = tableSize;
+        this.clusterLengths = clusterLengths;
+        this.largestClusterStart = largestClusterStart;
+        this.clusterLocations = clusterLocations;
+        this.tombstoneCount = tombstoneCount;
+        this.clusterProbeSum = clusterProbeSum;
+    }
+
+
+    /**
+     * Returns the number of probes an unsuccessful search is expected to take with uniform hashing, following Knuth:
+     * (1 + 1 / (1 - loadFactor)^2) / 2. For comparison with getExpectedUnsuccessfulProbes.
+     * @param loadFactor fraction of the locations that are not null, from 0 to 1
+     * @return the expected probes, infinite for a full table
+     * @throws IllegalArgumentException if loadFactor is not between 0 and 1
+     */
+    public static double getTheoreticalUnsuccessfulProbes(double loadFactor) {
+        if (!(loadFactor >= 0 && loadFactor <= 1))
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        double free = 1 - loadFactor;
+        return (1 + 1 / (free * free)) / 2;
+    }
+
+
+    /**
+     * Returns the number of locations in the table.
+     * @return the table size
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+
+    /**
+     * Returns the number of clusters.
+     * @return the cluster count
+     */
+    public long getClusterCount() {
+        return clusterLengths.getCount();
+    }
+
+
+    /**
+     * Returns a copy of the distribution of the cluster lengths, in which each cluster is recorded once with its
+     * length, so percentiles of it are percentiles over clusters.
+     * @return the histogram of cluster lengths
+     */
+    public ProbeHistogram getClusterLengths() {
+        return clusterLengths.copy();
+    }
+
+
+    /**
+     * Returns the average length of a cluster.
+     * @return the mean length, or 0 if there are no clusters
+     */
+    public double getMeanClusterLength() {
+        return clusterLengths.getMean();
+    }
+
+
+    /**
+     * Returns the length of the largest cluster.
+     * @return the largest length, or 0 if there are no clusters
+     */
+    public long getLargestClusterLength() {
+        return clusterLengths.getMax();
+    }
+
+
+    /**
+     * Returns where the largest cluster starts. If several are the largest, this is the first in index order.
+     * @return index of its first location, or -1 if there are no clusters
+     */
+    public int getLargestClusterStart() {
+        return largestClusterStart;
+    }
+
+
+    /**
+     * Returns the number of locations that are in a cluster, entries and tombstones together.
+     * @return the locations in clusters
+     */
+    public long getClusterLocations() {
+        return clusterLocations;
+    }
+
+
+    /**
+     * Returns the number of locations in the available state.
+     * @return the number of tombstones
+     */
+    public long getTombstoneCount() {
+        return tombstoneCount;
+    }
+
+
+    /**
+     * Returns the fraction of the locations in clusters that are tombstones, lengthening searches without holding an
+     * entry.
+     * @return the tombstone density, or 0 if there are no clusters
+     */
+    public double getTombstoneDensity() {
+        return (clusterLocations == 0) ? 0 : (double) tombstoneCount / clusterLocations;
+    }
+
+
+    /**
+     * Returns the fraction of the locations that are in a cluster, the load factor as searches see it.
+     * @return the effective load factor
+     */
+    public double getEffectiveLoadFactor() {
+        return (double) clusterLocations / tableSize;
+    }
+
+
+    /**
+     * Returns the average number of probes an unsuccessful search takes, over every location it could start at. A
+     * search starting at a null location takes 1 probe, and one starting at the i-th location from the end of a cluster
+     * takes i + 1 probes, so a cluster of length L adds 1 + 2 + ... + L = L * (L + 1) / 2 probes to the total. Where
+     * the hash function spreads keys evenly this is the expected cost; compare it with getTheoreticalUnsuccessfulProbes
+     * of the effective load factor to see how much worse the clustering is than uniform hashing predicts.
+     * @return the expected probes of an unsuccessful search
+     */
+    public double getExpectedUnsuccessfulProbes() {
+        return (tableSize + (double) clusterProbeSum) / tableSize;
+    }
+
+
+    /**
+     * Returns a one line summary of the statistics.
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("%d clusters in %d locations: mean length %.2f, p99 %d, largest %d at %d, "
+                        + "tombstone density %.3f, expected unsuccessful probes %.2f (uniform hashing %.2f)",
+                getClusterCount(), tableSize, getMeanClusterLength(), clusterLengths.getValueAtPercentile(99),
+                getLargestClusterLength(), largestClusterStart, getTombstoneDensity(),
+                getExpectedUnsuccessfulProbes(), getTheoreticalUnsuccessfulProbes(getEffectiveLoadFactor()));
+    }
+}
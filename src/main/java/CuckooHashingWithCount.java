@@ -0,0 +1,780 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Hashed Dictionary that resolves collisions with cuckoo hashing. The hash table is split into one sub-table per hash
+ * function, and every entry is stored at the location one of the hash functions gives it in that function's
+ * sub-table. A search therefore looks at no more than one location per hash function, plus a small stash, no matter
+ * how full the table is or how the keys collide, which makes the cost of getValue, contains and remove O(1) in the
+ * worst case rather than only on average.
+ *
+ * To add an entry whose locations are all taken, the entry evicts the one at its first location, which moves to its
+ * location in the next sub-table, possibly evicting another entry, and so on. The number of evictions is bounded; an
+ * entry that is still without a location at the end goes in the stash, and once the stash is full the table picks new
+ * hash functions and rehashes every entry (growing if that keeps failing).
+ *
+ * Every hash function is computed from the key's hashCode(), so keys with equal hash codes always share the same
+ * locations. Once those locations are all taken by such keys no choice of hash functions can place another one, and
+ * the stash grows to hold it instead, so only a search for one of these hash codes looks at more than STASH_SIZE
+ * stash locations.
+ *
+ * Probes are counted as the number of hash table and stash locations looked at, so getProbeCount can be compared
+ * directly with the other dictionaries.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class CuckooHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private int numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary. */
+    private static final int MAX_CAPACITY = 10000;
+
+    // The hash table:
+
+    /** Table where dictionary elements are stored, made of one sub-table per hash function laid end to end. */
+    private Entry<K, V>[] hashTable;
+    /** Number of locations in each sub-table */
+    private int subTableSize;
+    /** Maximum size of the hashTable */
+    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Checks that nothing went wrong during hashTable initialization */
+    private boolean integrityOK = false;
+    /** Fraction of the hash table that can be filled. */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    // Cuckoo hashing:
+
+    /** Default number of hash functions (and sub-tables) */
+    private static final int DEFAULT_HASH_FUNCTION_COUNT = 2;
+    /** Largest number of hash functions allowed */
+    private static final int MAX_HASH_FUNCTION_COUNT = 4;
+    /** Number of entries the stash can hold, unless it grows for keys with equal hash codes */
+    private static final int STASH_SIZE = 4;
+    /** Number of times to pick new hash functions at one size before growing the table */
+    private static final int MAX_REHASH_ATTEMPTS = 8;
+    /** Number of hash functions (and sub-tables) */
+    private final int hashFunctionCount;
+    /** Seed of each hash function */
+    private final int[] seeds;
+    /** Source of new seeds when the table is rehashed, seeded so a run can be repeated */
+    private final SplittableRandom seedGenerator;
+    /** Entries that could not be placed within maxEvictions evictions */
+    private Entry<K, V>[] stash;
+    /** Number of entries in the stash */
+    private int stashCount;
+    /** Number of evictions allowed while adding an entry, grows with the log of the sub-table size */
+    private int maxEvictions;
+    /** Number of times the table has picked new hash functions */
+    private int rehashCount;
+
+    //With Probe:
+
+    /** Number of probes total when using any function that searches the hashTable until the counter is reset using
+     * resetProbeCount() */
+    private long probeCount;
+
+
+    /**
+     * Default Constructor
+     */
+    public CuckooHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call next constructor
+    }
+
+
+    /**
+     * Constructor that uses two hash functions.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, split evenly between the sub-tables
+     *                        (rounded up), so the table takes the same memory as other tables of the same capacity.
+     */
+    public CuckooHashingWithCount(int initialCapacity)
+    {
+        this(initialCapacity, DEFAULT_HASH_FUNCTION_COUNT); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, split evenly between the sub-tables
+     *                        (rounded up), so the table takes the same memory as other tables of the same capacity.
+     * @param hashFunctionCount number of hash functions, from 2 to 4. A search looks at one location per function.
+     * @throws IllegalArgumentException if hashFunctionCount is out of range
+     */
+    public CuckooHashingWithCount(int initialCapacity, int hashFunctionCount)
+    {
+        if (hashFunctionCount < 2 || hashFunctionCount > MAX_HASH_FUNCTION_COUNT) {
+            throw new IllegalArgumentException("Must use between 2 and " + MAX_HASH_FUNCTION_COUNT +
+                    " hash functions.");
+        }
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = 0;    // Dictionary is empty
+        probeCount = 0;  // No searches have been done yet
+        rehashCount = 0;
+        this.hashFunctionCount = hashFunctionCount;
+        seeds = new int[hashFunctionCount];
+        seedGenerator = new SplittableRandom(initialCapacity);
+
+        // Set up hash table:
+        allocate((initialCapacity + hashFunctionCount - 1) / hashFunctionCount);
+        integrityOK = true;
+    }
+
+
+    /**
+     * Displays the hashTable, one sub-table after the other, followed by the stash.
+     */
+    public void displayHashTable()
+    {
+        checkIntegrity();
+        for (int index = 0; index < hashTable.length; index++)
+        {
+            if (index % subTableSize == 0)
+                System.out.println("sub-table " + (index / subTableSize) + ":");
+            if (hashTable[index] == null)
+                System.out.println("null ");
+            else
+                System.out.println(hashTable[index].getKey() + " " + hashTable[index].getValue());
+        }
+        System.out.println("stash:");
+        for (int index = 0; index < stashCount; index++)
+            System.out.println(stash[index].getKey() + " " + stash[index].getValue());
+        System.out.println();
+    } // end displayHashTable
+
+
+    /**
+     * Retrieves the current probeCount
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount = 0;
+    }
+
+
+    /**
+     * Returns the number of times the table has picked new hash functions and rehashed its entries, including when it
+     * grew.
+     * @return the number of rehashes
+     */
+    public int getRehashCount() {
+        return rehashCount;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        checkIntegrity();
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        int hash = key.hashCode();
+        int index = locate(key, hash);
+
+        if (index != -1)
+        { // Key found; get old value for return and then replace it
+            Entry<K, V> entry = getEntry(index);
+            V oldValue = entry.getValue();
+            entry.setValue(value);
+            return oldValue;
+        }
+
+        Entry<K, V> homeless = insert(new Entry<>(key, value, hash));
+        if ( (homeless != null) && !addToStash(homeless) )
+            rehash(subTableSize, homeless); // Stash is full; pick new hash functions
+        numberOfEntries++;
+
+        // Ensure that hash table is large enough for another add
+        if (isHashTableTooFull())
+            enlargeHashTable();
+
+        return null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        checkIntegrity();
+        V removedValue = null;
+
+        int index = locate(key, key.hashCode());
+
+        if (index != -1)
+        { // Key found; remove it and return its value
+            removedValue = getEntry(index).getValue();
+            if (index < hashTable.length) {
+                hashTable[index] = null;
+            } else { // Fill the gap in the stash with its last entry
+                stashCount--;
+                stash[index - hashTable.length] = stash[stashCount];
+                stash[stashCount] = null;
+            }
+            numberOfEntries--;
+        }
+        // Else not found; result is null
+        return removedValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        checkIntegrity();
+        V result = null;
+
+        int index = locate(key, key.hashCode());
+
+        if (index != -1)
+            result = getEntry(index).getValue(); // Key found; get value
+        // Else not found; result is null
+
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /** Returns the current load factor of the dictionary, the stash is not counted
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) numberOfEntries/hashTable.length;
+    }
+
+
+    /** Returns the size of the hash table, the total of every sub-table, the stash is not counted
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return hashTable.length;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return numberOfEntries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void clear() {
+        checkIntegrity();
+        for (int index = 0; index < hashTable.length; index++)
+            hashTable[index] = null;
+        for (int index = 0; index < stashCount; index++)
+            stash[index] = null;
+
+        stashCount = 0;
+        numberOfEntries = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        return new KeyIterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        return new ValueIterator();
+    }
+
+
+    /**
+     * Finds the location of a search key by looking at its location in each sub-table and then at the stash.
+     * @param key An object search key we want to find
+     * @param hash hash code of the search key
+     * @return the index of the key, indexes from hashTable.length on are in the stash, or -1 if the key is not in the
+     * dictionary
+     * Time Complexity: O(1), at most hashFunctionCount + STASH_SIZE locations are looked at, unless the stash has grown
+     * for keys with equal hash codes.
+     */
+    private int locate(K key, int hash) {
+        for (int function = 0; function < hashFunctionCount; function++)
+        {
+            int index = getHashIndex(hash, function);
+            probeCount++;
+            if ( (hashTable[index] != null) && (hashTable[index].getHash() == hash) &&
+                    key.equals(hashTable[index].getKey()) )
+                return index; // Key found
+        }
+
+        for (int index = 0; index < stashCount; index++)
+        {
+            probeCount++;
+            if ( (stash[index].getHash() == hash) && key.equals(stash[index].getKey()) )
+                return hashTable.length + index; // Key found in stash
+        }
+
+        return -1; // Key not found
+    }
+
+
+    /**
+     * Returns the entry at an index returned by locate.
+     * @param index index of an entry in the hash table, or hashTable.length plus its index in the stash
+     * @return the entry
+     */
+    private Entry<K, V> getEntry(int index) {
+        return (index < hashTable.length) ? hashTable[index] : stash[index - hashTable.length];
+    }
+
+
+    /**
+     * Places an entry in the hash table. If one of its locations is empty the entry goes there, otherwise it evicts
+     * the entry at its first location, which moves on to its location in the next sub-table, and so on, until an
+     * evicted entry finds an empty location or maxEvictions evictions have been made.
+     * @param entry entry whose key is not in the dictionary
+     * @return null if every entry was placed, otherwise the entry that was left without a location
+     */
+    private Entry<K, V> insert(Entry<K, V> entry) {
+        for (int function = 0; function < hashFunctionCount; function++)
+        {
+            int index = getHashIndex(entry.getHash(), function);
+            probeCount++;
+            if (hashTable[index] == null) {
+                hashTable[index] = entry;
+                return null;
+            }
+        }
+
+        Entry<K, V> carried = entry;
+        int function = 0;
+        for (int evictions = 0; evictions < maxEvictions; evictions++)
+        {
+            int index = getHashIndex(carried.getHash(), function);
+            probeCount++;
+            Entry<K, V> evicted = hashTable[index];
+            hashTable[index] = carried;
+            if (evicted == null)
+                return null;
+
+            // The evicted entry moves on to its location in the next sub-table
+            carried = evicted;
+            function = (index / subTableSize + 1) % hashFunctionCount;
+        }
+
+        return carried;
+    }
+
+
+    /**
+     * Adds an entry to the stash if there is room. A full stash only grows for an entry that shares its hash code with
+     * the entries at all of its locations, since rehashing or growing the table could never place that entry.
+     * @param entry entry to add
+     * @return true if the entry was added, false if the stash is full
+     */
+    private boolean addToStash(Entry<K, V> entry) {
+        if (stashCount == stash.length) {
+            if (!isFullCollision(entry))
+                return false;
+            stash = Arrays.copyOf(stash, stash.length + stash.length);
+        }
+
+        stash[stashCount++] = entry;
+        return true;
+    }
+
+
+    /**
+     * Checks whether every location of an entry holds an entry with the same hash code. The locations only depend on
+     * the hash code, so those entries have the same locations whatever the hash functions' seeds are, and there is no
+     * room for this one.
+     * @param entry an entry that was left without a location
+     * @return true if every location of the entry holds an entry with the same hash code
+     */
+    private boolean isFullCollision(Entry<K, V> entry) {
+        for (int function = 0; function < hashFunctionCount; function++)
+        {
+            Entry<K, V> occupant = hashTable[getHashIndex(entry.getHash(), function)];
+            if ( (occupant == null) || (occupant.getHash() != entry.getHash()) )
+                return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Doubles the size of every sub-table and rehashes the entries.
+     */
+    private void enlargeHashTable() {
+        rehash(subTableSize + subTableSize, null);
+    }
+
+
+    /**
+     * Picks new hash functions and places every entry again. If some entry still can't be placed, new hash functions
+     * are picked again, and after MAX_REHASH_ATTEMPTS attempts at one size the sub-tables are doubled.
+     * @param newSubTableSize size to give each sub-table
+     * @param extra an entry that is not in the table or the stash yet, or null
+     * @throws IllegalStateException if the table would grow past MAX_SIZE
+     */
+    private void rehash(int newSubTableSize, Entry<K, V> extra) {
+        ArrayList<Entry<K, V>> entries = new ArrayList<>(numberOfEntries + 1);
+        for (Entry<K, V> entry : hashTable) {
+            if (entry != null)
+                entries.add(entry);
+        }
+        for (int index = 0; index < stashCount; index++)
+            entries.add(stash[index]);
+        if (extra != null)
+            entries.add(extra);
+
+        int attempts = 0;
+        boolean placed;
+        do {
+            if (attempts == MAX_REHASH_ATTEMPTS) { // These hash functions aren't the problem, the table is too full
+                newSubTableSize = newSubTableSize + newSubTableSize;
+                attempts = 0;
+            }
+            allocate(newSubTableSize);
+            rehashCount++;
+            attempts++;
+
+            placed = true;
+            for (int index = 0; placed && index < entries.size(); index++)
+            {
+                Entry<K, V> homeless = insert(entries.get(index));
+                placed = (homeless == null) || addToStash(homeless);
+            }
+        } while (!placed);
+    }
+
+
+    /**
+     * Creates empty sub-tables and an empty stash, and picks new hash functions.
+     * @param newSubTableSize number of locations in each sub-table
+     * @throws IllegalStateException if the table would be larger than MAX_SIZE
+     */
+    private void allocate(int newSubTableSize) {
+        checkSize(newSubTableSize * hashFunctionCount); // Check that the size is not too large
+
+        // The casts are safe because the new arrays contain null entries
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<K, V>[] tempTable = (Entry<K, V>[])new Entry[newSubTableSize * hashFunctionCount];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<K, V>[] tempStash = (Entry<K, V>[])new Entry[STASH_SIZE];
+        hashTable = tempTable;
+        stash = tempStash;
+        stashCount = 0;
+        subTableSize = newSubTableSize;
+        maxEvictions = 6 * (32 - Integer.numberOfLeadingZeros(newSubTableSize));
+
+        for (int function = 0; function < hashFunctionCount; function++)
+            seeds[function] = seedGenerator.nextInt();
+    }
+
+
+    /**
+     * Returns the location a hash function gives a hash code.
+     * @param hash hash code of a search key
+     * @param function which hash function to use, also the sub-table the location is in
+     * @return index into hashTable
+     */
+    private int getHashIndex(int hash, int function) {
+        int hashIndex = (mix(hash ^ seeds[function]) & Integer.MAX_VALUE) % subTableSize;
+        return function * subTableSize + hashIndex;
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that hash codes that differ only in their
+     * seed give unrelated locations.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+
+    /**
+     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
+     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     */
+    private boolean isHashTableTooFull() {
+        return numberOfEntries > MAX_LOAD_FACTOR * hashTable.length;
+    }
+
+
+    /**
+     * Throws an exception if this object is not initialized.
+     * @throws SecurityException if object is not initialized
+     */
+    private void checkIntegrity() {
+        if (!integrityOK)
+            throw new SecurityException ("HashedDictionary object is corrupt.");
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * Verifies size of the hashTable itself.
+     * @param size current size of hashTable
+     * @throws IllegalStateException if hashTable exceeds MAX_SIZE
+     */
+    private void checkSize(int size)
+    {
+        if (size > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+    }
+
+
+    /**
+     * Iterator object that iterates through the keys of this dictionary, the hash table first and then the stash.
+     */
+    private class KeyIterator implements Iterator<K>
+    {
+        /** Current position in hash table, positions from hashTable.length on are in the stash */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for KeyIterator
+         */
+        private KeyIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (getEntry(currentIndex) == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return getEntry(currentIndex++).getKey();
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end KeyIterator
+
+
+    /**
+     * Iterator object that iterates through the values of this dictionary, the hash table first and then the stash.
+     */
+    private class ValueIterator implements Iterator<V>
+    {
+        /** Current position in hash table, positions from hashTable.length on are in the stash */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for ValueIterator
+         */
+        private ValueIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (getEntry(currentIndex) == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return getEntry(currentIndex++).getValue();
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end ValueIterator
+
+
+    /**
+     * Object that holds the key, value pairs for this dictionary
+     * @param <K> generic of type K, for key
+     * @param <V> generic of type V, for value
+     */
+    protected static final class Entry<K, V>
+    {
+        /** Object search key for this dictionary */
+        private final K key;
+        /** Value for this dictionary */
+        private V value;
+        /** Hash code of the search key, cached so entries can be moved without calling hashCode() */
+        private final int hash;
+
+
+        /**
+         * Full constructor for Entry
+         * @param searchKey object search key we want to store
+         * @param dataValue value we want to store with this search key
+         * @param hashCode hash code of the search key
+         */
+        private Entry(K searchKey, V dataValue, int hashCode) {
+            key = searchKey;
+            value = dataValue;
+            hash = hashCode;
+        }
+
+
+        /**
+         * Returns the search key for this Entry.
+         * @return search key for this Entry
+         */
+        private K getKey() {
+            return key;
+        }
+
+
+        /**
+         * Returns the Value for this Entry.
+         * @return Value for this Entry
+         */
+        private V getValue() {
+            return value;
+        } // end getValue
+
+
+        /**
+         * sets a new value for this Entry
+         * @param newValue new value to set for this Entry
+         */
+        private void setValue(V newValue) {
+            value = newValue;
+        }
+
+
+        /**
+         * Returns the cached hash code of the search key for this Entry.
+         * @return hash code of the search key
+         */
+        private int getHash() {
+            return hash;
+        }
+    } // end Entry
+} // end CuckooHashingWithCount
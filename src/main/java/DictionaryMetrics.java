@@ -0,0 +1,264 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * JMX MBean that publishes the live metrics of one dictionary, so a long-running service can be inspected with
+ * jconsole or any other JMX client. Registering one is optional and done per dictionary:
+ *
+ *     DictionaryMetrics metrics = DictionaryMetrics.register(dictionary, "sessions");
+ *     ...
+ *     metrics.unregister();
+ *
+ * The dictionary does nothing extra for it. Every attribute is read from counters the dictionary keeps anyway (the
+ * tombstone and resize counters are only touched by remove and by add when it reuses a location or enlarges the
+ * table), and only when a JMX client asks. The one metric that needs history, the average probes per lookup over the
+ * last minute, comes from a shared background thread that reads the lookup histograms once a second into a ring of
+ * samples; add and getValue never see it.
+ *
+ * The attributes are read from another thread without locking. The dictionaries are not thread safe, so while one is
+ * being changed a reading can be slightly out of date, but never inconsistent enough to matter for monitoring.
+ */
+public final class DictionaryMetrics implements DictionaryMetricsMBean
+{
+    /** Domain of the ObjectName every dictionary is registered under */
+    private static final String DOMAIN = "hashing";
+    /** Time between two samples of the lookup histograms, in milliseconds */
+    private static final long SAMPLE_PERIOD_MILLIS = 1000;
+    /** Number of sample periods the recent average covers */
+    private static final int WINDOW_PERIODS = 60;
+
+    /** Thread that takes the samples of every registered dictionary, null while none is registered */
+    private static ScheduledExecutorService sampler;
+    /** Number of registered dictionaries */
+    private static int registeredCount;
+
+    /** The dictionary being published */
+    private final InstrumentedDictionary<?, ?> dictionary;
+    /** Name it is registered under */
+    private final ObjectName name;
+    /** Lookups counted at each sample, a ring with room for WINDOW_PERIODS + 1 samples */
+    private final long[] sampledLookups;
+    /** Total lookup probes counted at each sample, in the same ring */
+    private final long[] sampledProbes;
+    /** Location in the rings of the newest sample */
+    private int newestSample;
+    /** Number of samples in the rings */
+    private int sampleCount;
+    /** The periodic sampling task, cancelled when the dictionary is unregistered */
+    private ScheduledFuture<?> sampling;
+
+
+    /**
+     * Full Constructor
+     * @param dictionary the dictionary to publish
+     * @param name name to register it under
+     */
+    private DictionaryMetrics(InstrumentedDictionary<?, ?> dictionary, ObjectName name)
+    {
+        this.dictionary = dictionary;
+        this.name = name;
+        sampledLookups = new long[WINDOW_PERIODS + 1];
+        sampledProbes = new long[WINDOW_PERIODS + 1];
+        newestSample = -1;
+        sampleCount = 0;
+    }
+
+
+    /**
+     * Registers an MBean for a dictionary with the platform MBeanServer, under "hashing:type=Dictionary,name=" and
+     * the given name, and starts sampling its lookups.
+     * @param dictionary a LinearProbingWithCount, DoubleHashingWithCount or other instrumented dictionary
+     * @param name name that tells this dictionary apart from the others registered
+     * @return the registered MBean, to unregister it with once the dictionary is no longer needed
+     * @throws IllegalArgumentException if another dictionary is already registered under the name
+     * @throws IllegalStateException if the MBeanServer rejects the MBean
+     */
+    public static DictionaryMetrics register(InstrumentedDictionary<?, ?> dictionary, String name) {
+        ObjectName objectName;
+        try {
+            objectName = new ObjectName(DOMAIN + ":type=Dictionary,name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Cannot register a dictionary under the name " + name + ".", e);
+        }
+
+        DictionaryMetrics metrics = new DictionaryMetrics(dictionary, objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(metrics, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalArgumentException("A dictionary is already registered under the name " + name + ".", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the dictionary " + name + ".", e);
+        }
+        metrics.startSampling();
+        return metrics;
+    }
+
+
+    /**
+     * Unregisters the MBean and stops sampling. Unregistering it again does nothing.
+     */
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            return; // Already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister the dictionary " + name + ".", e);
+        }
+        stopSampling();
+    }
+
+
+    /**
+     * Returns the name the MBean is registered under.
+     * @return the ObjectName
+     */
+    public ObjectName getObjectName() {
+        return name;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getLoadFactor() {
+        return dictionary.getLoadFactor();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getHashTableSize() {
+        return dictionary.getHashTableSize();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getEntryCount() {
+        return dictionary.getSize();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getTombstoneCount() {
+        return dictionary.getTombstoneCount();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getProbeCount() {
+        return dictionary.getProbeCount();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getResizeCount() {
+        return dictionary.getResizeCount();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getResizeMillis() {
+        return dictionary.getResizeNanos() / 1e6;
+    }
+
+
+    /**
+     * Returns the average probes per lookup between the oldest and the newest sample in the window, up to a minute
+     * apart. Before the first sample period has passed there is nothing to compare, and the result is 0.
+     * @return the average probes per lookup, or 0 if there were no lookups
+     */
+    @Override
+    public synchronized double getRecentProbesPerLookup() {
+        if (sampleCount < 2)
+            return 0;
+        int oldestSample = (newestSample - sampleCount + 1 + sampledLookups.length) % sampledLookups.length;
+        long lookups = sampledLookups[newestSample] - sampledLookups[oldestSample];
+        long probes = sampledProbes[newestSample] - sampledProbes[oldestSample];
+        return (lookups == 0) ? 0 : (double) probes / lookups;
+    }
+
+
+    /**
+     * Records how many lookups the dictionary has made, and how many probes they took, as the newest sample in the
+     * window, pushing out the oldest once the window is full. A reset of the probe count also resets the histograms
+     * the counts come from, so if they have gone down the window starts again from this sample.
+     */
+    synchronized void sample() {
+        ProbeHistogram successful = dictionary.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH);
+        ProbeHistogram unsuccessful = dictionary.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH);
+        long lookups = successful.getCount() + unsuccessful.getCount();
+        long probes = successful.getTotal() + unsuccessful.getTotal();
+
+        if ((sampleCount > 0) && (lookups < sampledLookups[newestSample]))
+            sampleCount = 0; // The counts were reset
+        newestSample = (newestSample + 1) % sampledLookups.length;
+        sampledLookups[newestSample] = lookups;
+        sampledProbes[newestSample] = probes;
+        sampleCount = Math.min(sampleCount + 1, sampledLookups.length);
+    }
+
+
+    /**
+     * Takes the first sample and schedules the rest on the shared sampler thread, starting it if this is the only
+     * registered dictionary.
+     */
+    private void startSampling() {
+        sample();
+        synchronized (DictionaryMetrics.class) {
+            if (sampler == null) {
+                sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "dictionary-metrics-sampler");
+                    thread.setDaemon(true); // Never keeps the program running
+                    return thread;
+                });
+            }
+            registeredCount++;
+            sampling = sampler.scheduleAtFixedRate(this::sample, SAMPLE_PERIOD_MILLIS, SAMPLE_PERIOD_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Cancels the sampling of this dictionary, and stops the sampler thread if no other dictionary is registered.
+     */
+    private void stopSampling() {
+        synchronized (DictionaryMetrics.class) {
+            sampling.cancel(false);
+            registeredCount--;
+            if (registeredCount == 0) {
+                sampler.shutdown();
+                sampler = null;
+            }
+        }
+    }
+}
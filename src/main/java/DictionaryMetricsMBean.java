@@ -0,0 +1,36 @@
+/**
+ * The attributes DictionaryMetrics publishes over JMX, one read-only attribute per getter.
+ */
+public interface DictionaryMetricsMBean {
+    /** Gets the current load factor of the hash table.
+     @return  The number of entries divided by the size of the hash table. */
+    public double getLoadFactor();
+
+    /** Gets the size of the hash table.
+     @return  The number of locations in the hash table. */
+    public int getHashTableSize();
+
+    /** Gets the number of entries in the dictionary.
+     @return  The number of entries. */
+    public int getEntryCount();
+
+    /** Gets the number of locations left in the available state by removed entries.
+     @return  The number of tombstones. */
+    public int getTombstoneCount();
+
+    /** Gets the number of probes made since the probe count was last reset.
+     @return  The probe count. */
+    public long getProbeCount();
+
+    /** Gets the number of times the hash table has been enlarged.
+     @return  The number of resizes. */
+    public long getResizeCount();
+
+    /** Gets the total time spent enlarging the hash table.
+     @return  The time spent resizing, in milliseconds. */
+    public double getResizeMillis();
+
+    /** Gets the average probes taken by a getValue or contains over the last minute.
+     @return  The average probes per lookup, or 0 if there were no lookups. */
+    public double getRecentProbesPerLookup();
+}
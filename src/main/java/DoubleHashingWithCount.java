@@ -1,5 +1,6 @@
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Hashed Dictionary that resolves collisions with double hashing probing. Contains extra fields and methods for
@@ -11,15 +12,15 @@ import java.util.NoSuchElementException;
  * @param <K> generic of type K for the search key
  * @param <V> generic of type V for the value
  */
-public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
+public class DoubleHashingWithCount<K, V> implements InstrumentedDictionary<K, V>
 {
     // The dictionary:
     /** Number of elements in the dictionary. */
     private int numberOfEntries;
     /** Default capacity of the dictionary when using empty constructor, must be prime. */
     private static final int DEFAULT_CAPACITY = 11;
-    /** Max capacity of the dictionary. */
-    private static final int MAX_CAPACITY = 10000;
+    /** Max capacity of the dictionary, half of MAX_SIZE so the table can be created at DEFAULT_MAX_LOAD_FACTOR. */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / 2;
 
     // The hash table:
 
@@ -27,14 +28,23 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
     private Entry<K, V>[] hashTable;
     /** Number of cells in the entire hashTable, must be prime */
     private int tableSize;
-    /** Maximum size of the hashTable */
-    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Maximum size of the hashTable, the largest array length most JVMs allow */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    /** Bytes of heap a location of the hashTable takes up (a reference, without compressed pointers) */
+    private static final int BYTES_PER_LOCATION = 8;
     /** Checks that nothing went wrong during hashTable initialization */
     private boolean integrityOK = false;
-    /** Fraction of the hash table that can be filled. */
-    private static final double MAX_LOAD_FACTOR = 0.5;
+    /** Fraction of the hash table that can be filled, unless the constructor is given another. */
+    private static final double DEFAULT_MAX_LOAD_FACTOR = 0.5;
+    /** Fraction of the hash table that can be filled before it is enlarged. */
+    private final double maxLoadFactor;
     /** Occupies locations in the hash table in the available state (locations whose entries were removed) */
-    private final Entry<K, V> AVAILABLE = new Entry<>(null, null);
+    private final Entry<K, V> AVAILABLE = new Entry<>(null, null, 0);
+    /** True if the hashTable size is a power of two and indices are found by mixing the hash code and masking it,
+     * false if the size is prime and indices are found with % */
+    private final boolean powerOfTwoSizing;
+    /** Hash function search keys are turned into hash codes with */
+    private final HashStrategy hashStrategy;
 
 
     //Double Hash:
@@ -44,8 +54,19 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
 
     // With Count:
     /** Number of probes total when using any function that calls getHashIndex() or linearProbe() until the counter
-     * is reset using resetLinearProbe() */
-    private int probeCount;
+     * is reset using resetLinearProbe(). Safe to read while another thread is using the dictionary. */
+    private final ProbeCounter probeCount;
+    /** Probe histogram of each kind of operation, reset together with the probeCount */
+    private final OperationHistograms probeHistograms = new OperationHistograms();
+
+    // For monitoring:
+
+    /** Number of hashTable locations in the available state */
+    private int tombstoneCount;
+    /** Number of times enlargeHashTable has run */
+    private long resizeCount;
+    /** Total time spent in enlargeHashTable, in nanoseconds */
+    private long resizeNanos;
 
 
     /**
@@ -63,27 +84,14 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
      *                        prime number, if not already prime).
      */
     public DoubleHashingWithCount(int initialCapacity) {
-        initialCapacity = checkCapacity(initialCapacity);
-        doubleHashPrime = findCoPrime();
-        numberOfEntries = 0;    // Dictionary is empty
-        probeCount = 0; // No searches have been done yet
-
-        // Set up hash table:
-        tableSize = initialCapacity;
-        checkSize(tableSize);
-
-        // The cast is safe because the new array contains null entries
-        @SuppressWarnings({"unchecked", "rawtypes"})
-        Entry<K, V>[] temp = (Entry<K, V>[]) new Entry[tableSize];
-        hashTable = temp;
-        integrityOK = true;
+        this(initialCapacity, false);
     }
 
 
 
         /**
-         * Full Constructor - lets you set an initial capacity and lets you pick your own initial doubleHashPrime, will
-         * change at rehash.
+         * Partial Constructor - lets you set an initial capacity and lets you pick your own initial doubleHashPrime,
+         * will change at rehash.
          * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
          *                        prime number, if not already prime).
          * @param doubleHashPrime Sets the prime number in the doubleHashFunction, only use for experimental
@@ -91,14 +99,91 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
          */
     public DoubleHashingWithCount(int initialCapacity, int doubleHashPrime)
     {
+        this(initialCapacity, doubleHashPrime, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Partial Constructor - also lets you choose how full the hashTable can get before it is enlarged.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime).
+     * @param doubleHashPrime Sets the prime number in the doubleHashFunction, only use for experimental
+     *                        purposes! Best to have both this number and table size be prime!
+     * @param maxLoadFactor fraction of the hashTable that can be filled before it is enlarged, greater than 0 and less
+     *                      than 1 (the other constructors use 0.5)
+     * @throws IllegalArgumentException if maxLoadFactor is not greater than 0 and less than 1
+     */
+    public DoubleHashingWithCount(int initialCapacity, int doubleHashPrime, double maxLoadFactor)
+    {
+        this(initialCapacity, doubleHashPrime, maxLoadFactor, HashStrategy.IDENTITY);
+    }
+
+
+    /**
+     * Partial Constructor - also lets you choose the hash function search keys are turned into hash codes with.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime).
+     * @param doubleHashPrime Sets the prime number in the doubleHashFunction, only use for experimental
+     *                        purposes! Best to have both this number and table size be prime!
+     * @param maxLoadFactor fraction of the hashTable that can be filled before it is enlarged, greater than 0 and less
+     *                      than 1 (the other constructors use 0.5)
+     * @param hashStrategy hash function to turn search keys into hash codes with
+     * @throws IllegalArgumentException if maxLoadFactor is not greater than 0 and less than 1
+     */
+    public DoubleHashingWithCount(int initialCapacity, int doubleHashPrime, double maxLoadFactor,
+                                  HashStrategy hashStrategy)
+    {
+        this(initialCapacity, doubleHashPrime, false, maxLoadFactor, hashStrategy);
+    }
+
+
+    /**
+     * Sizing Constructor - lets you choose power of two sizing. The hashTable size is then always a power of two,
+     * hash codes are mixed and masked instead of reduced with % by a prime, and the second hash function always gives
+     * an odd step. An odd step is coprime to any power of two, so the probe sequence still visits every location.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next power of
+     *                        two when powerOfTwoSizing is true).
+     * @param powerOfTwoSizing true for power of two sizing, false for the prime sizing of the other constructors
+     */
+    public DoubleHashingWithCount(int initialCapacity, boolean powerOfTwoSizing)
+    {
+        this(initialCapacity, 0, powerOfTwoSizing, DEFAULT_MAX_LOAD_FACTOR, HashStrategy.IDENTITY);
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param doubleHashPrime Sets the prime number in the doubleHashFunction, or 0 to pick one that is coprime to the
+     *                        initial table size. Not used with power of two sizing, whose steps are always odd.
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, mixing and masking hash codes instead of
+     *                         reducing them with % by a prime
+     * @param maxLoadFactor fraction of the hashTable that can be filled before it is enlarged, greater than 0 and less
+     *                      than 1 (the other constructors use 0.5)
+     * @param hashStrategy hash function to turn search keys into hash codes with (the other constructors use
+     *                     HashStrategy.IDENTITY, the key's own hashCode())
+     * @throws IllegalArgumentException if maxLoadFactor is not greater than 0 and less than 1
+     * @throws NullPointerException if hashStrategy is null
+     */
+    public DoubleHashingWithCount(int initialCapacity, int doubleHashPrime, boolean powerOfTwoSizing,
+                                  double maxLoadFactor, HashStrategy hashStrategy)
+    {
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1))
+            throw new IllegalArgumentException("Max load factor must be greater than 0 and less than 1.");
         initialCapacity = checkCapacity(initialCapacity);
-        this.doubleHashPrime = doubleHashPrime;
+        this.powerOfTwoSizing = powerOfTwoSizing;
+        this.maxLoadFactor = maxLoadFactor;
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
         numberOfEntries = 0;    // Dictionary is empty
-        probeCount = 0; // No searches have been done yet
+        probeCount = new ProbeCounter(); // No searches have been done yet
 
         // Set up hash table:
-        tableSize = initialCapacity;
+        tableSize = powerOfTwoSizing ? nextPowerOfTwo(initialCapacity) : initialCapacity;
         checkSize(tableSize);
+        if (!powerOfTwoSizing) {
+            this.doubleHashPrime = (doubleHashPrime == 0) ? findCoPrime() : doubleHashPrime;
+        }
 
         // The cast is safe because the new array contains null entries
         @SuppressWarnings({"unchecked", "rawtypes"})
@@ -136,16 +221,67 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
      *
      * @return the current probeCount
      */
-    public int getProbeCount() {
-        return probeCount;
+    public long getProbeCount() {
+        return probeCount.sum();
     }
 
 
     /**
-     * resets the probeCount to 0.
+     * resets the probeCount, and the probe histograms, to 0.
      */
     public void resetProbeCount() {
-        probeCount = 0;
+        probeCount.reset();
+        probeHistograms.reset();
+    }
+
+
+    /**
+     * Returns a copy of the histogram of the probes taken by one kind of operation since the dictionary was created or
+     * the probeCount was reset. The probes made placing entries in an enlarged hashTable are left out.
+     * @param operation the kind of operation
+     * @return the histogram, which doesn't change as the dictionary is used
+     */
+    public ProbeHistogram getProbeHistogram(ProbeHistogram.Operation operation) {
+        return probeHistograms.copy(operation);
+    }
+
+
+    /**
+     * Adds the histogram of the probes taken by one kind of operation to another histogram, as
+     * histogram.add(getProbeHistogram(operation)) would but without making a copy.
+     * @param operation the kind of operation
+     * @param histogram the histogram to add to
+     */
+    public void addProbeHistogramTo(ProbeHistogram.Operation operation, ProbeHistogram histogram) {
+        probeHistograms.addTo(operation, histogram);
+    }
+
+
+    /**
+     * Returns the number of hashTable locations in the available state, left behind by removed entries. They are
+     * dropped when the hashTable is enlarged.
+     * @return the number of tombstones
+     */
+    public int getTombstoneCount() {
+        return tombstoneCount;
+    }
+
+
+    /**
+     * Returns the number of times the hashTable has been enlarged.
+     * @return the number of resizes
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+
+    /**
+     * Returns the total time spent enlarging the hashTable.
+     * @return the time spent resizing, in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
     }
 
 
@@ -161,14 +297,18 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
         {
             V oldValue; // Value to return
 
-            int index = getHashIndex(key);
+            int hash = hashStrategy.hash(key);
+            long search = getHashIndex(key, hash);
+            int index = indexOf(search);
 
             // Assertion: index is within legal range for hashTable
             assert (index >= 0) && (index < hashTable.length);
 
             if ( (hashTable[index] == null) || (hashTable[index] == AVAILABLE) )
             { // Key not found, so insert new entry
-                hashTable[index] = new Entry<>(key, value);
+                if (hashTable[index] == AVAILABLE)
+                    tombstoneCount--;
+                hashTable[index] = new Entry<>(key, value, hash);
                 numberOfEntries++;
                 oldValue = null;
             }
@@ -178,9 +318,17 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
                 hashTable[index].setValue(value);
             } // end if
 
+            recordProbes(ProbeHistogram.Operation.INSERT, probesOf(search));
+
             // Ensure that hash table is large enough for another add
             if (isHashTableTooFull())
-                enlargeHashTable();
+            {
+                long resizeStart = System.nanoTime();
+                if (enlargeHashTable()) {
+                    resizeNanos += System.nanoTime() - resizeStart;
+                    resizeCount++;
+                }
+            }
 
             return oldValue;
         }
@@ -194,17 +342,20 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
         checkIntegrity();
         V removedValue = null;
 
-        int index = getHashIndex(key);
+        long search = getHashIndex(key, hashStrategy.hash(key));
+        int index = indexOf(search);
 
         if ((hashTable[index] != null) && (hashTable[index] != AVAILABLE))
         {
             // Key found; flag entry as removed and return its value
             removedValue = hashTable[index].getValue();
             hashTable[index] = AVAILABLE;
+            tombstoneCount++;
             numberOfEntries--;
         } // end if
         // Else not found; result is null
 
+        recordProbes(ProbeHistogram.Operation.REMOVE, probesOf(search));
         return removedValue;
     } // end remove
 
@@ -216,16 +367,57 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
         checkIntegrity();
         V result = null;
 
-        int index = getHashIndex(key);
+        long search = getHashIndex(key, hashStrategy.hash(key));
+        int index = indexOf(search);
 
         if ((hashTable[index] != null) && (hashTable[index] != AVAILABLE))
             result = hashTable[index].getValue(); // Key found; get value
         // Else not found; result is null
 
+        recordProbes((result != null)
+                ? ProbeHistogram.Operation.SUCCESSFUL_SEARCH : ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH,
+                probesOf(search));
         return result;
     } // end getValue
 
 
+    /**
+     * Searches for a key the way getValue does, but without counting probes, so it writes nothing at all. It is meant
+     * for a reader that runs while another thread may be changing the dictionary and checks afterwards whether one
+     * did (see OptimisticReadHashingWithCount). The hashTable and doubleHashPrime are read once, and the search gives
+     * up after as many probes as the table has locations, so a table changing underneath it can give a wrong answer
+     * but can't keep it searching forever or make it index outside the table.
+     * @param key An object search key
+     * @return the key's value, or null if it was not found
+     */
+    public V peekValue(K key) {
+        checkIntegrity();
+        Entry<K, V>[] table = hashTable;
+        int hash = hashStrategy.hash(key);
+
+        int index;
+        if (powerOfTwoSizing) {
+            index = mix(hash) & (table.length - 1);
+        } else {
+            index = hash % table.length;
+            if (index < 0)
+                index = index + table.length;
+        }
+        int step = getStep(hash, table.length, doubleHashPrime);
+
+        for (int n = 0; n < table.length; n++)
+        {
+            Entry<K, V> entry = table[index];
+            if (entry == null)
+                return null; // Key not found
+            if ((entry != AVAILABLE) && (hash == entry.getHash()) && key.equals(entry.getKey()))
+                return entry.getValue();
+            index = nextIndex(index, step, table.length);
+        }
+        return null;
+    }
+
+
     /**
      * {@inheritDoc}
      */
@@ -274,6 +466,7 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
             hashTable[index] = null;
 
         numberOfEntries = 0;
+        tombstoneCount = 0;
     }
 
 
@@ -296,46 +489,70 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
     /**
      * Finds and retrieves an unused or available hashIndex for this key.
      * @param key An object search key we want hashIndex for
-     * @return First available or unused hashIndex for this search key.
+     * @param hash hash code of the key, so it is only computed once per operation
+     * @return First available or unused hashIndex for this search key, packed with the probes made finding it (see
+     *         probeResult).
      */
-    private int getHashIndex(K key) {
-        int hashIndex = key.hashCode() % hashTable.length;
+    private long getHashIndex(K key, int hash) {
+        int hashIndex;
 
-        if (hashIndex < 0)
+        if (powerOfTwoSizing)
         {
-            hashIndex = hashIndex + hashTable.length;
+            hashIndex = mix(hash) & (hashTable.length - 1);
         }
+        else
+        {
+            hashIndex = hash % hashTable.length;
 
-        probeCount++; // count initial probe
+            if (hashIndex < 0)
+            {
+                hashIndex = hashIndex + hashTable.length;
+            }
+        }
 
         // Check for and resolve collision.
-        return getSecondHashIndex(hashIndex, key);
+        return getSecondHashIndex(hashIndex, key, hash);
     }
 
 
     /**
      * Check to see if the initial hashIndex is unused or available, and if it is not, finds one via double hashing.
+     * The cached hash codes are compared first, so equals() is only called on entries that are likely to match.
      * @param index the initial hashIndex for this key
      * @param key An object search key we want hashIndex for
-     * @return the initial hashIndex if it is unused or available, or the first available or unused one.
+     * @param hash hash code of the key
+     * @return the initial hashIndex if it is unused or available, or the first available or unused one, packed with the
+     *         probes made, the initial one included (see probeResult).
+     * @throws IllegalStateException if the probe sequence has visited as many locations as the hashTable has without
+     *                               finding the key or a location it can use, which can only happen when the step and
+     *                               the hashTable size are not coprime
      */
-    private int getSecondHashIndex(int index, K key)
+    private long getSecondHashIndex(int index, K key, int hash)
     {
-        int originalHashCode = index;
+        // second hash function, the same for every probe, reduced to less than the hashTable size
+        int step = getStep(hash, hashTable.length, doubleHashPrime);
         int n = 0; // number of times we've used the double hash function, or seen an AVAILABLE entry.
+        long probes = 1; // count initial probe
 
         boolean found = false;
         int availableIndex = -1; // Index of first available location (from which an entry was removed)
 
         while ( !found && (hashTable[index] != null) ) {
-            //System.out.println("index " + index + " hashCode " + key.hashCode() + " numberOfEntries " + numberOfEntries + " hashTable.length " + hashTable.length + " n " + n + " found " + found);
+            if (n == hashTable.length) { // The probe sequence has gone round without reaching null
+                if (availableIndex == -1) {
+                    throw new IllegalStateException("Double hash sequence cannot reach an empty location; the step " +
+                            "is not coprime to the hash table size " + hashTable.length + ".");
+                }
+                return probeResult(availableIndex, probes);
+            }
+
             if (hashTable[index] != AVAILABLE) {
-                if (key.equals(hashTable[index].getKey())) {
+                if ( (hash == hashTable[index].getHash()) && key.equals(hashTable[index].getKey()) ) {
                     found = true; // Key found
                 } else { // DOUBLE HASH FUNCTION
                     n++; // increment the number of times we've used the double hash function.
-                    index = ( originalHashCode + n * ( doubleHashPrime - (key.hashCode() % doubleHashPrime) ) ) % hashTable.length;
-                    probeCount++; // add to probe count every time we use the second hash function.
+                    index = nextIndex(index, step, hashTable.length);
+                    probes++; // add to probe count every time we use the second hash function.
                 }
 
             } else { // Skip entries that were removed.
@@ -347,21 +564,125 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
                 // If we hit this code, then we have found another AVAILABLE entry, but we don't need to save the info,
                 // just continue to search until we find null or find the key. Still consider this a probe.
                 n++;
-                index = (originalHashCode + n * (doubleHashPrime - (key.hashCode() % doubleHashPrime))) % hashTable.length;
+                index = nextIndex(index, step, hashTable.length);
 
-                probeCount++;
+                probes++;
             }
         }
 
         // Assertion: Either key or null is found at hashTable[index]
         if (found || (availableIndex == -1) ) { // Index of either key or null
-            return index;
+            return probeResult(index, probes);
         } else { // Index of an available location
-            return availableIndex;
+            return probeResult(availableIndex, probes);
         }
     } // end getSecondIndexHash
 
 
+    /**
+     * Packs the index a double hash sequence ended at and the number of probes it took into one long, which
+     * getHashIndex returns so the caller can count the probes without a shared field.
+     * @param index index the probe sequence ended at
+     * @param probes number of probes made, less than 2^31
+     * @return the index in the low 32 bits and the probes in the high 32 bits
+     */
+    private static long probeResult(int index, long probes) {
+        return (probes << 32) | (index & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Returns the index packed by probeResult.
+     * @param probeResult an index packed with a probe count
+     * @return the index
+     */
+    private static int indexOf(long probeResult) {
+        return (int) probeResult;
+    }
+
+
+    /**
+     * Returns the probe count packed by probeResult.
+     * @param probeResult an index packed with a probe count
+     * @return the probe count
+     */
+    private static long probesOf(long probeResult) {
+        return probeResult >>> 32;
+    }
+
+
+    /**
+     * Records the probes an add, remove or getValue made in the histogram of its kind, and adds them to probeCount.
+     * @param operation the kind of operation
+     * @param probes number of probes the operation made
+     */
+    private void recordProbes(ProbeHistogram.Operation operation, long probes) {
+        probeHistograms.record(operation, probes);
+        probeCount.add(probes);
+    }
+
+
+    /**
+     * Returns the step of a key's double hash sequence, the second hash function.
+     * @param hash hash code of the key
+     * @param length length of the table
+     * @param prime the doubleHashPrime of the table
+     * @return the step, from 1 to length - 1
+     */
+    private int getStep(int hash, int length, int prime) {
+        if (powerOfTwoSizing) {
+            // Take the step from the high bits of the mixed hash (the index came from the low bits) and force it odd
+            return (Integer.rotateLeft(mix(hash), 16) | 1) & (length - 1);
+        } else {
+            // floorMod keeps the step from 1 to prime for negative hash codes too; with % it could reach twice the
+            // prime, and a multiple of the table length would never leave the first location
+            int step = (prime - Math.floorMod(hash, prime)) % length;
+            return (step == 0) ? 1 : step;
+        }
+    }
+
+
+    /**
+     * Moves one step along the double hash sequence. The index and step are both less than the table size, so
+     * the sum is reduced by subtracting rather than computed outright, which can't overflow even when the hashTable is
+     * close to the largest array size. This gives the same sequence as (originalHashCode + n * step) % size.
+     * @param index current index in the table
+     * @param step the key's step, less than the table size
+     * @param length length of the table
+     * @return the next index in the sequence
+     */
+    private int nextIndex(int index, int step, int length) {
+        int remaining = length - step; // Distance the index can go before it must wrap around
+        return (index < remaining) ? index + step : index - remaining;
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that masking off the low bits for a power of
+     * two table still depends on every bit of the hash code.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given integer.
+     * @param anInteger any positive integer
+     * @return a power of two
+     */
+    private static int nextPowerOfTwo(int anInteger) {
+        return Integer.highestOneBit(anInteger - 1) << 1;
+    }
+
+
     /**
      * Returns an integer that is coprime to the size of the hashTable, prioritizes choosing a prime number first.
      * @return an integer that is coprime to the size of the hashTable
@@ -394,40 +715,91 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
 
 
     /**
-     * Increases the size of a hash table to a prime greater than or equal to twice its old size.
-     * Then, rehashes the entries.
+     * Increases the size of a hash table to a prime greater than or equal to twice its old size (or to exactly twice
+     * its old size with power of two sizing). Then, rehashes the entries, adding the probes made placing them to
+     * probeCount. If there is no room for a larger table, the hashTable is left as it is, fuller than maxLoadFactor.
+     * @return true if the hashTable was enlarged, false if it was left as it is
      */
-    private void enlargeHashTable() {
+    private boolean enlargeHashTable() {
         Entry<K, V>[] oldTable = hashTable;
         int oldSize = hashTable.length;
-        int newSize = getNextPrime(oldSize + oldSize);
-        checkSize(newSize); // Check that the prime size is not too large
-        tableSize = newSize;
-        doubleHashPrime = findCoPrime();
+        int newSize = getEnlargedSize(oldSize);
+        if (newSize == oldSize)
+            return false; // No room to grow, so the table stays too full until there is
 
         // The cast is safe because the new array contains null entries
         @SuppressWarnings({"unchecked", "rawtypes"})
-        Entry<K, V>[] tempTable = (Entry<K, V>[])new Entry[newSize]; // Increase size of array
-        hashTable = tempTable;
+        Entry<K, V>[] newTable = (Entry<K, V>[]) new Entry[newSize]; // Increase size of array
+        tableSize = newSize;
+        if (!powerOfTwoSizing) { // Odd steps already cover a power of two table, no coprime needed
+            doubleHashPrime = findCoPrime();
+        }
+
+        hashTable = newTable;
+        tombstoneCount = 0;
         numberOfEntries = 0; // Reset number of dictionary entries, since
-        // it will be incremented by add during rehash
+        // it will be incremented by rehash
 
         // Rehash dictionary entries from old array to the new and bigger array;
         // skip both null locations and removed entries
+        long probes = 0;
         for (int index = 0; index < oldSize; index++)
         {
             if ( (oldTable[index] != null) && (oldTable[index] != AVAILABLE) )
-                add(oldTable[index].getKey(), oldTable[index].getValue());
+                probes += rehash(oldTable[index]);
         }
+        probeCount.add(probes);
+        return true;
+    }
+
+
+    /**
+     * Moves an existing entry into the (new) hashTable during enlargeHashTable(). The entry's cached hash code is used
+     * and the Entry object itself is reused, so a resize neither calls hashCode() nor allocates entries.
+     * @param entry an entry from the old hashTable
+     * @return number of probes made
+     */
+    private long rehash(Entry<K, V> entry) {
+        long search = getHashIndex(entry.getKey(), entry.getHash());
+        hashTable[indexOf(search)] = entry;
+        numberOfEntries++;
+        return probesOf(search);
     }
 
 
     /**
-     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
-     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     * Returns the size to enlarge the hashTable to: a prime greater than or equal to twice its old size, or exactly
+     * twice its old size with power of two sizing. The new table is created while the old one is still in use, so if
+     * MAX_SIZE or the heap's free memory leaves no room for that, a prime size is cut back to the largest prime that
+     * fits. The free memory doesn't count garbage a collection would reclaim, so it errs on the low side. A table that
+     * can't grow by at least a quarter of its size (or double, with power of two sizing) keeps its size, since a
+     * smaller step would soon need another rehash; the following adds try again once there is room.
+     * @param oldSize current size of the hashTable
+     * @return the new size of the hashTable, or oldSize if it can't grow
+     */
+    private int getEnlargedSize(int oldSize) {
+        Runtime runtime = Runtime.getRuntime();
+        long freeHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        long limit = Math.min(MAX_SIZE, freeHeap / BYTES_PER_LOCATION);
+        long doubledSize = 2L * oldSize;
+
+        if (powerOfTwoSizing)
+            return (doubledSize <= limit) ? (int) doubledSize : oldSize;
+        if (limit < oldSize + oldSize / 4)
+            return oldSize;
+        int newSize = getNextPrime((int) Math.min(doubledSize, limit));
+        if (newSize > limit)
+            newSize = getPreviousPrime((int) limit);
+        return (newSize < oldSize + oldSize / 4) ? oldSize : newSize;
+    }
+
+
+    /**
+     * Checks if the current load factor (lambda) is greater than maxLoadFactor
+     * @return true if lambda is greater than maxLoadFactor for hash table; otherwise returns false.
      */
     private boolean isHashTableTooFull() {
-        return numberOfEntries > MAX_LOAD_FACTOR * hashTable.length;
+        return numberOfEntries > maxLoadFactor * hashTable.length;
     }
 
 
@@ -451,6 +823,24 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
     }
 
 
+    /**
+     * Returns the largest prime integer that is less than or equal to the given integer.
+     * @param anInteger any integer greater than or equal to 5
+     * @return a prime integer
+     */
+    private int getPreviousPrime(int anInteger) {
+        // if even, subtract 1 to make odd
+        if (anInteger % 2 == 0)
+            anInteger--;
+
+        // test odd integers
+        while (!isPrime(anInteger))
+            anInteger = anInteger - 2;
+
+        return anInteger;
+    }
+
+
     /**
      * Determines whether an integer is prime.
      * @param anInteger any integer
@@ -474,7 +864,7 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
 
             // a prime is odd and not divisible by every odd integer up to its square root
             result = true; // assume prime
-            for (int divisor = 3; divisor * divisor <= anInteger; divisor = divisor + 2)
+            for (int divisor = 3; (long) divisor * divisor <= anInteger; divisor = divisor + 2)
             {
                 if (anInteger % divisor == 0) {
                     result = false; // divisible; not prime
@@ -660,16 +1050,29 @@ public class DoubleHashingWithCount<K, V> implements DictionaryInterface<K, V>
         private final K key;
         /** Value for this dictionary */
         private V value;
+        /** Hash code of the search key, cached so probes can compare it before calling equals() */
+        private final int hash;
 
 
         /**
          * Full constructor for Entry
          * @param searchKey object search key we want to store
          * @param dataValue value we want to store with this search key
+         * @param hashCode hash code of the search key
          */
-        private Entry(K searchKey, V dataValue) {
+        private Entry(K searchKey, V dataValue, int hashCode) {
             key = searchKey;
             value = dataValue;
+            hash = hashCode;
+        }
+
+
+        /**
+         * Returns the cached hash code of the search key for this Entry.
+         * @return hash code of the search key
+         */
+        private int getHash() {
+            return hash;
         }
 
 
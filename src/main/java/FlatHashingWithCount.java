@@ -0,0 +1,666 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hashed Dictionary that stores its entries as a struct of arrays: the keys, the values and the hash code of every key
+ * are kept in three parallel arrays instead of in an array of Entry objects. A probe reads the cached hash straight out
+ * of a contiguous int[] and only follows the key reference (and calls equals()) when the hash codes match, and an add
+ * does not allocate anything outside of a resize. Removed entries are marked by the AVAILABLE sentinel in keys.
+ *
+ * Collisions are resolved with linear probing or double hashing, chosen at construction. The probe sequences, probe
+ * counting and resize policy are the same as LinearProbingWithCount and DoubleHashingWithCount, so the probe counts
+ * from an experiment match theirs exactly.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class FlatHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private int numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary. */
+    private static final int MAX_CAPACITY = 10000;
+
+    // The hash table:
+
+    /** Search keys of the dictionary, null for a location that was never used and AVAILABLE for a removed entry */
+    private Object[] keys;
+    /** Values of the dictionary, parallel to keys */
+    private Object[] values;
+    /** Hash code of each key, parallel to keys */
+    private int[] hashes;
+    /** Maximum size of the hashTable */
+    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Checks that nothing went wrong during hashTable initialization */
+    private boolean integrityOK = false;
+    /** Fraction of the hash table that can be filled. */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    /** Occupies locations in keys in the available state (locations whose entries were removed) */
+    private static final Object AVAILABLE = new Object();
+
+    // Collision resolution:
+
+    /** True to resolve collisions with double hashing, false for linear probing */
+    private final boolean useDoubleHashing;
+    /** The prime that is used during the double hash sequence*/
+    private int doubleHashPrime;
+
+    //With Probe:
+
+    /** Number of probes total when using any function that calls getHashIndex() until the counter is reset using
+     * resetProbeCount() */
+    private long probeCount;
+
+
+    /**
+     * Default Constructor, uses linear probing.
+     */
+    public FlatHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY, false); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime).
+     * @param useDoubleHashing true to resolve collisions with double hashing, false for linear probing
+     */
+    public FlatHashingWithCount(int initialCapacity, boolean useDoubleHashing)
+    {
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = 0;    // Dictionary is empty
+        probeCount = 0;  // No searches have been done yet
+        this.useDoubleHashing = useDoubleHashing;
+
+        // Set up hash table:
+        checkSize(initialCapacity); // Check that the size is not too large
+        keys = new Object[initialCapacity];
+        values = new Object[initialCapacity];
+        hashes = new int[initialCapacity];
+        doubleHashPrime = findCoPrime(initialCapacity);
+        integrityOK = true;
+    }
+
+
+    /**
+     * Displays the hashTable.
+     */
+    public void displayHashTable()
+    {
+        checkIntegrity();
+        for (int index = 0; index < keys.length; index++)
+        {
+            if (keys[index] == null)
+                System.out.println("null ");
+            else if (keys[index] == AVAILABLE)
+                System.out.println("available - removed state");
+            else
+                System.out.println(keys[index] + " " + values[index]);
+        }
+        System.out.println();
+    } // end displayHashTable
+
+
+    /**
+     * Retrieves the current probeCount
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        checkIntegrity();
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        int hash = key.hashCode();
+        return insert(key, value, hash);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        checkIntegrity();
+        V removedValue = null;
+
+        int index = getHashIndex(key, key.hashCode());
+
+        if ((keys[index] != null) && (keys[index] != AVAILABLE)) {
+            // Key found; flag entry as removed and return its value
+            removedValue = valueAt(index);
+            keys[index] = AVAILABLE;
+            values[index] = null;
+            numberOfEntries--;
+        }
+        // Else not found; result is null
+        return removedValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        checkIntegrity();
+        V result = null;
+
+        int index = getHashIndex(key, key.hashCode());
+
+        if ((keys[index] != null) && (keys[index] != AVAILABLE))
+            result = valueAt(index); // Key found; get value
+        // Else not found; result is null
+
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) numberOfEntries/keys.length;
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return keys.length;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return numberOfEntries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void clear() {
+        checkIntegrity();
+        for (int index = 0; index < keys.length; index++) {
+            keys[index] = null;
+            values[index] = null;
+        }
+
+        numberOfEntries = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        return new KeyIterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        return new ValueIterator();
+    }
+
+
+    /**
+     * Adds an entry whose hash code is already known, used by add() and by enlargeHashTable() so a resize never
+     * calls hashCode() again.
+     * @param key An object search key of the new entry
+     * @param value An object associated with the search key
+     * @param hash hash code of the key
+     * @return Either null if the new entry was added or the value that was replaced
+     */
+    private V insert(K key, V value, int hash) {
+        V oldValue; // Value to return
+
+        int index = getHashIndex(key, hash);
+
+        // Assertion: index is within legal range for hashTable
+        assert (index >= 0) && (index < keys.length);
+
+        if ( (keys[index] == null) || (keys[index] == AVAILABLE) )
+        { // Key not found, so insert new entry
+            keys[index] = key;
+            values[index] = value;
+            hashes[index] = hash;
+            numberOfEntries++;
+            oldValue = null;
+        }
+        else
+        { // Key found; get old value for return and then replace it
+            oldValue = valueAt(index);
+            values[index] = value;
+        }
+
+        // Ensure that hash table is large enough for another add
+        if (isHashTableTooFull())
+            enlargeHashTable();
+
+        return oldValue;
+    }
+
+
+    /**
+     * Returns the value stored at a location of the hash table.
+     * @param index location of an occupied entry
+     * @return the value at that location
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        // The cast is safe because only values of type V are stored
+        return (V) values[index];
+    }
+
+
+    /**
+     * Finds and retrieves an unused or available hashIndex for this key.
+     * @param key An object search key we want hashIndex for
+     * @param hash hash code of the key
+     * @return first available or unused hashIndex for this search key
+     */
+    private int getHashIndex(K key, int hash) {
+        int hashIndex = hash % keys.length;
+
+        if (hashIndex < 0) {
+            hashIndex = hashIndex + keys.length;
+        }
+
+        probeCount++; // count initial probe
+
+        // Check for and resolve collision
+        return probe(hashIndex, key, hash);
+    }
+
+
+    /**
+     * Check to see if the initial hashIndex is unused or available, and if it is not, finds one via linear probing or
+     * double hashing. The key is only compared with equals() when the cached hash codes match.
+     * @param index the initial hashIndex for this key
+     * @param key An object search key we want hashIndex for
+     * @param hash hash code of the key
+     * @return the initial hashIndex if it is unused or available, or the first available or unused one.
+     * Time Complexity: O(n), possibly needs to check every index in the hash table.
+     * @throws IllegalStateException if the probe sequence has visited as many locations as the hash table has without
+     *                               finding the key or a location it can use, which can only happen with double
+     *                               hashing when the step and the hash table size are not coprime
+     */
+    private int probe(int index, K key, int hash) {
+        // Linear probing steps by 1, double hashing by the same second hash as DoubleHashingWithCount
+        int step = useDoubleHashing ? getStep(hash, keys.length) : 1;
+        int n = 0; // Number of locations visited after the initial one
+        boolean found = false;
+        int availableIndex = -1; // Index of first available location (from which an entry was removed)
+
+        while ( !found && (keys[index] != null) )
+        {
+            if (n == keys.length) { // The probe sequence has gone round without reaching null
+                if (availableIndex == -1) {
+                    throw new IllegalStateException("Probe sequence cannot reach an empty location; the step is " +
+                            "not coprime to the hash table size " + keys.length + ".");
+                }
+                return availableIndex;
+            }
+
+            if ( (keys[index] != AVAILABLE) && (hashes[index] == hash) && key.equals(keys[index]) ) {
+                found = true; // Key found
+            } else { // Follow probe sequence, skipping entries that were removed
+                // Save index of first location in removed state
+                if ( (keys[index] == AVAILABLE) && (availableIndex == -1) ) {
+                    availableIndex = index;
+                }
+                n++;
+                index = nextIndex(index, step, keys.length);
+                probeCount++; // Add to probe count for every probe we do.
+            }
+        }
+
+        // Assertion: Either key or null is found at index
+        if (found || (availableIndex == -1) ) { // Index of either key or null
+            return index;
+        } else { // Index of an available location
+            return availableIndex;
+        }
+    } // end probe
+
+
+    /**
+     * Returns the step of a key's double hash sequence, the same second hash as DoubleHashingWithCount. The hash code
+     * is reduced with floorMod so a negative one still gives a step from 1 to doubleHashPrime; with % the step could
+     * reach twice doubleHashPrime, a multiple of the table size, and the sequence would never leave its first location.
+     * @param hash hash code of the key
+     * @param length length of the table
+     * @return the step, from 1 to length - 1
+     */
+    private int getStep(int hash, int length) {
+        int step = (doubleHashPrime - Math.floorMod(hash, doubleHashPrime)) % length;
+        return (step == 0) ? 1 : step;
+    }
+
+
+    /**
+     * Moves one step along the probe sequence. The index and step are both less than the table size, so the sum is
+     * reduced by subtracting rather than computed outright, which can't overflow.
+     * @param index current index in the table
+     * @param step the key's step, less than the table size
+     * @param length length of the table
+     * @return the next index in the sequence
+     */
+    private int nextIndex(int index, int step, int length) {
+        int remaining = length - step; // Distance the index can go before it must wrap around
+        return (index < remaining) ? index + step : index - remaining;
+    }
+
+
+    /**
+     * Increases the size of a hash table to a prime greater than or equal to twice its old size.
+     * Then, rehashes the entries using their cached hash codes.
+     */
+    private void enlargeHashTable() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        int oldSize = keys.length;
+        int newSize = getNextPrime(oldSize + oldSize);
+        checkSize(newSize); // Check that the prime size is not too large
+
+        keys = new Object[newSize];
+        values = new Object[newSize];
+        hashes = new int[newSize];
+        doubleHashPrime = findCoPrime(newSize);
+        numberOfEntries = 0; // Reset number of dictionary entries, since
+        // it will be incremented by insert during rehash
+
+        // Rehash dictionary entries from old array to the new and bigger array;
+        // skip both null locations and removed entries
+        for (int index = 0; index < oldSize; index++)
+        {
+            if ( (oldKeys[index] != null) && (oldKeys[index] != AVAILABLE) ) {
+                // The casts are safe because only keys of type K and values of type V are stored
+                @SuppressWarnings("unchecked")
+                K key = (K) oldKeys[index];
+                @SuppressWarnings("unchecked")
+                V value = (V) oldValues[index];
+                insert(key, value, oldHashes[index]);
+            }
+        }
+    }
+
+
+    /**
+     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
+     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     */
+    private boolean isHashTableTooFull() {
+        return numberOfEntries > MAX_LOAD_FACTOR * keys.length;
+    }
+
+
+    /**
+     * Returns an integer that is coprime to the size of the hashTable, prioritizes choosing a prime number first. Same
+     * choice as DoubleHashingWithCount.findCoPrime().
+     * @param tableSize size of the hashTable
+     * @return an integer that is coprime to the size of the hashTable
+     */
+    private int findCoPrime(int tableSize) {
+        //first try to find a prime that is coprime
+        int testPrime = 5;
+        while (testPrime < tableSize) {
+            testPrime = testPrime + 2;
+            if (isPrime(testPrime) && (tableSize % testPrime != 0)) {
+                return testPrime;
+            }
+        }
+        return 7;
+    }
+
+
+    /**
+     * Returns a prime integer that is greater than or equal to the given integer, but less than or equal to MAX_SIZE.
+     * @param anInteger any positive integer
+     * @return a prime integer
+     */
+    private int getNextPrime(int anInteger) {
+        // if even, add 1 to make odd
+        if (anInteger % 2 == 0)
+        {
+            anInteger++;
+        } // end if
+
+        // test odd integers
+        while (!isPrime(anInteger))
+        {
+            anInteger = anInteger + 2;
+        } // end while
+
+        return anInteger;
+    } // end getNextPrime
+
+
+    /**
+     * Determines whether an odd integer greater than 3 is prime.
+     * @param anInteger any odd integer greater than 3
+     * @return true if the given integer is prime, false otherwise.
+     */
+    private boolean isPrime(int anInteger) {
+        // a prime is odd and not divisible by every odd integer up to its square root
+        for (int divisor = 3; divisor * divisor <= anInteger; divisor = divisor + 2)
+        {
+            if (anInteger % divisor == 0) {
+                return false; // divisible; not prime
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Throws an exception if this object is not initialized.
+     * @throws SecurityException if object is not initialized
+     */
+    private void checkIntegrity() {
+        if (!integrityOK)
+            throw new SecurityException ("HashedDictionary object is corrupt.");
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * Verifies size of the hashTable itself.
+     * @param size current size of hashTable
+     * @throws IllegalStateException if hashTable exceeds MAX_SIZE
+     */
+    private void checkSize(int size)
+    {
+        if (size > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+    }
+
+
+    /**
+     * Iterator object that iterates through the keys of this dictionary
+     */
+    private class KeyIterator implements Iterator<K>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for KeyIterator
+         */
+        private KeyIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain a current entry
+            while ( (keys[currentIndex] == null) || (keys[currentIndex] == AVAILABLE) ) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            // The cast is safe because only keys of type K are stored
+            return (K) keys[currentIndex++];
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end KeyIterator
+
+
+    /**
+     * Iterator object that iterates through the values of this dictionary.
+     */
+    private class ValueIterator implements Iterator<V>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for ValueIterator
+         */
+        private ValueIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain a current entry
+            while ( (keys[currentIndex] == null) || (keys[currentIndex] == AVAILABLE) ) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return valueAt(currentIndex++);
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end ValueIterator
+} // end FlatHashingWithCount
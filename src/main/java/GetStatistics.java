@@ -1,9 +1,14 @@
+import java.io.PrintStream;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.Random;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
 
 /**
  * Object that allows you to run experiments on unsuccessful searches of HashedDictionaries that resolve collisions
@@ -17,12 +22,44 @@ public class GetStatistics {
     private final LinearProbingWithCount<String, String> linearHash;
     /** Hashed Dictionary that resolves collisions with Double Hashing */
     private final DoubleHashingWithCount<String, String> doubleHash;
-    /** Array that holds the 1000 unique strings, must be disjoint from searchNames */
+    /** Array that holds the 1000 unique strings, must be disjoint from searchNames, null when running on a corpus */
     private final String[] addNames;
-    /** Array that holds 10000 unique strings, must be disjoint from addNames */
+    /** Array that holds 10000 unique strings, must be disjoint from addNames, null when running on a corpus */
     private final String[] searchNames;
+    /** Names that are added to the hash tables, addNames or a corpus */
+    private final KeyCorpus addKeys;
+    /** Names that are searched for in the hash tables, searchNames or a corpus */
+    private final KeyCorpus searchKeys;
     /** number of Avg Unsuccessful Searches this Experiment cares about*/
     private final double avgUnsuccessfulSearch;
+    /** Initial capacity of the linear probing table, used when each parallel worker builds its own table */
+    private final int linearCapacity;
+    /** Initial capacity of the double hashing table, used when each parallel worker builds its own table */
+    private final int doubleCapacity;
+    /** Prime used by the double hash function, used when each parallel worker builds its own table */
+    private final int doubleHashPrime;
+    /** Size of the linear probing table before any trial has run */
+    private final int linearInitialSize;
+    /** Size of the double hashing table before any trial has run */
+    private final int doubleInitialSize;
+    /** Seed that createDisjointNameArrays2 generates the names from */
+    private final long nameSeed;
+    /** Number of trials in each experiment */
+    private static final int EXPERIMENT_COUNT = 1000;
+    /**
+     * Number of consecutive trials whose probe counts are gathered into one block of running statistics. The blocks
+     * are merged in trial order once every trial has run, so a parallel run gives the same mean and variance bit for
+     * bit as a serial one, however its trials were split between workers.
+     */
+    private static final int TRIALS_PER_BLOCK = 25;
+    /** Number of unsuccessful searches made on each table by runScalingExperiment */
+    private static final int SCALING_SEARCHES = 1000000;
+    /** Estimated heap taken by each hashTable location in runScalingExperiment (a reference) */
+    private static final int SCALING_BYTES_PER_LOCATION = 8;
+    /** Estimated heap taken by each entry in runScalingExperiment (an Entry and its Integer key) */
+    private static final int SCALING_BYTES_PER_ENTRY = 48;
+    /** Size of the tables in runLoadFactorSweep */
+    private static final int SWEEP_TABLE_SIZE = 1009;
 
     /**
      * Default Constructor
@@ -35,7 +72,7 @@ public class GetStatistics {
 
 
     /**
-     * Full Constructor.
+     * Constructor.
      * Run your own 1000 case experiment using your own set number of names per test, and set your own average
      * unsuccessful searches. Size of hash table will be calculated based on both parameters.
      *
@@ -46,25 +83,112 @@ public class GetStatistics {
      * @param useSecondSet true if you want to use the secondary name set, false if you want to use the original
      */
     public GetStatistics(int numberOfNamesAdd, double avgUnsuccessfulSearch, int doubleHashPrime, boolean useSecondSet) {
-        if (numberOfNamesAdd < 0 || numberOfNamesAdd > 1000) {
-            throw new IllegalArgumentException("Must add between 1 to 1000 names to the hash table.");
+        this(numberOfNamesAdd, avgUnsuccessfulSearch, doubleHashPrime, useSecondSet, new SplittableRandom().nextLong());
+    }
+
+
+    /**
+     * Full Constructor, with the seed the secondary name set is generated from so that it can be generated again.
+     *
+     * @param numberOfNamesAdd number of unique names you want to add to each hash table, must be between 1 and 1000
+     * @param avgUnsuccessfulSearch average number of unsuccessful searches you want during the experiment, must be
+     *                              greater than 1.1.
+     * @param doubleHashPrime sets the number of the double hash function, should be prime!
+     * @param useSecondSet true if you want to use the secondary name set, false if you want to use the original
+     * @param nameSeed seed the secondary name set is generated from, not used for the original
+     */
+    public GetStatistics(int numberOfNamesAdd, double avgUnsuccessfulSearch, int doubleHashPrime, boolean useSecondSet,
+                         long nameSeed) {
+        this(numberOfNamesAdd, avgUnsuccessfulSearch, doubleHashPrime, nameSeed, new String[1000], new String[10000]);
+        if (useSecondSet) {
+            createDisjointNameArrays2();
+        } else {
+            createDisjointNameArrays();
+        }
+    }
+
+
+    /**
+     * Constructor for running the experiments on key corpora, such as real key sets, instead of the generated names.
+     * The corpora are checked first: every key to add must be different, and none of them may be a key to search for.
+     *
+     * @param numberOfNamesAdd number of unique names you want to add to each hash table, must be between 1 and the
+     *                         number of keys in addCorpus
+     * @param avgUnsuccessfulSearch average number of unsuccessful searches you want during the experiment, must be
+     *                              greater than 1.1.
+     * @param doubleHashPrime sets the number of the double hash function, should be prime!
+     * @param addCorpus keys that are added to the hash tables
+     * @param searchCorpus keys that are searched for, none of which are in addCorpus
+     * @throws IllegalArgumentException if addCorpus repeats a key or shares one with searchCorpus
+     */
+    public GetStatistics(int numberOfNamesAdd, double avgUnsuccessfulSearch, int doubleHashPrime,
+                         MappedKeyCorpus addCorpus, MappedKeyCorpus searchCorpus) {
+        this(numberOfNamesAdd, avgUnsuccessfulSearch, doubleHashPrime, 0, null, null, addCorpus, searchCorpus);
+        String duplicate = addCorpus.findDuplicateKey();
+        if (duplicate != null) {
+            throw new IllegalArgumentException("The key \"" + duplicate + "\" is in the add corpus more than once.");
+        }
+        String shared = addCorpus.findSharedKey(searchCorpus);
+        if (shared != null) {
+            throw new IllegalArgumentException("The key \"" + shared + "\" is in both the add and search corpora.");
+        }
+    }
+
+
+    /**
+     * Constructor for the generated name sets, which wraps the arrays the names are put in.
+     *
+     * @param numberOfNamesAdd number of unique names you want to add to each hash table
+     * @param avgUnsuccessfulSearch average number of unsuccessful searches you want during the experiment, must be
+     *                              greater than 1.1.
+     * @param doubleHashPrime sets the number of the double hash function, should be prime!
+     * @param nameSeed seed the secondary name set is generated from, 0 when running on a corpus
+     * @param addNames array the names added to the hash tables are put in
+     * @param searchNames array the names searched for are put in
+     */
+    private GetStatistics(int numberOfNamesAdd, double avgUnsuccessfulSearch, int doubleHashPrime, long nameSeed,
+                          String[] addNames, String[] searchNames) {
+        this(numberOfNamesAdd, avgUnsuccessfulSearch, doubleHashPrime, nameSeed, addNames, searchNames,
+                KeyCorpus.of(addNames), KeyCorpus.of(searchNames));
+    }
+
+
+    /**
+     * Constructor that every other one ends in, which sizes the hash tables.
+     *
+     * @param numberOfNamesAdd number of unique names you want to add to each hash table
+     * @param avgUnsuccessfulSearch average number of unsuccessful searches you want during the experiment, must be
+     *                              greater than 1.1.
+     * @param doubleHashPrime sets the number of the double hash function, should be prime!
+     * @param nameSeed seed the secondary name set is generated from, 0 when running on a corpus
+     * @param addNames array the names added to the hash tables are put in, null when running on a corpus
+     * @param searchNames array the names searched for are put in, null when running on a corpus
+     * @param addKeys keys that are added to the hash tables
+     * @param searchKeys keys that are searched for, none of which are in addKeys
+     * @throws IllegalArgumentException if numberOfNamesAdd is out of range or avgUnsuccessfulSearch is below 1.1
+     */
+    private GetStatistics(int numberOfNamesAdd, double avgUnsuccessfulSearch, int doubleHashPrime, long nameSeed,
+                          String[] addNames, String[] searchNames, KeyCorpus addKeys, KeyCorpus searchKeys) {
+        if (numberOfNamesAdd < 0 || numberOfNamesAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
         }
         if (avgUnsuccessfulSearch < 1.1) {
             throw new IllegalArgumentException("Average Unsuccessful Searches must be greater than 1.1.");
         }
         this.avgUnsuccessfulSearch = avgUnsuccessfulSearch;
-        int linearCapacity = calculateLinearCapacity(numberOfNamesAdd, avgUnsuccessfulSearch);
-        int doubleCapacity = calculateDoubleCapacity(numberOfNamesAdd, avgUnsuccessfulSearch);
+        this.doubleHashPrime = doubleHashPrime;
+        this.nameSeed = nameSeed;
+        linearCapacity = calculateLinearCapacity(numberOfNamesAdd, avgUnsuccessfulSearch);
+        doubleCapacity = calculateDoubleCapacity(numberOfNamesAdd, avgUnsuccessfulSearch);
         linearHash = new LinearProbingWithCount<>(linearCapacity);
         doubleHash = new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime);
+        linearInitialSize = linearHash.getHashTableSize();
+        doubleInitialSize = doubleHash.getHashTableSize();
 
-        addNames = new String[1000];
-        searchNames = new String[10000];
-        if (useSecondSet) {
-            createDisjointNameArrays2();
-        } else {
-            createDisjointNameArrays();
-        }
+        this.addNames = addNames;
+        this.searchNames = searchNames;
+        this.addKeys = addKeys;
+        this.searchKeys = searchKeys;
     }
 
 
@@ -98,11 +222,15 @@ public class GetStatistics {
     /**
      * As this was extra, I looked online for a different way to generate random strings and used one from this page:
      * https://www.baeldung.com/java-random-string
+     * <p>
+     * The bytes come from a stream seeded with getNameSeed(), so the same seed always gives the same names. Bytes that
+     * aren't valid UTF-8 decode to a replacement character, which means a 10 byte name can decode to the same string
+     * as a 7 byte one; such names are skipped so the two arrays stay disjoint.
      */
     public void createDisjointNameArrays2() {
         HashSet<String> tempSet1 = new HashSet<>();
         String generatedString;
-        Random r = new Random();
+        SplittableRandom r = new SplittableRandom(nameSeed);
         while (tempSet1.size() < 1000) {
             byte[] array = new byte[7]; // length is bounded by 7
             r.nextBytes(array);
@@ -120,7 +248,9 @@ public class GetStatistics {
             byte[] array = new byte[10]; // length is bounded by 10
             r.nextBytes(array);
             generatedString = new String(array, StandardCharsets.UTF_8);
-            tempSet2.add(generatedString);
+            if (!tempSet1.contains(generatedString)) {
+                tempSet2.add(generatedString);
+            }
         }
 
         int index2 = 0;
@@ -133,7 +263,7 @@ public class GetStatistics {
 
     /**
      * Returns the array of names that are added to the hashTable. (Public for testing purposes).
-     * @return the array of names that we can randomly add to the hashTable
+     * @return the array of names that we can randomly add to the hashTable, or null when running on a corpus
      */
     public String[] getAddNames() {
         return addNames;
@@ -141,12 +271,21 @@ public class GetStatistics {
 
     /**
      * Returns the array of names that are usd to search to the hashTable. (Public for testing purposes).
-     * @return the array of names that we can randomly choose to search the hashTable
+     * @return the array of names that we can randomly choose to search the hashTable, or null when running on a corpus
      */
     public String[] getSearchNames() {
         return searchNames;
     }
 
+    /**
+     * Returns the seed the secondary name set is generated from, which passed to the full constructor gives the same
+     * names again.
+     * @return the name seed
+     */
+    public long getNameSeed() {
+        return nameSeed;
+    }
+
 
     /** For linear probing, the formula for the number of unsuccessful searches is 0.5{ 1+ 1 / [Math.pow(1-lambda), 2] }
      * where lambda is the load factor of the hashTable that average occurs at. This method calculates that load factor
@@ -183,6 +322,58 @@ public class GetStatistics {
     }
 
 
+    /**
+     * Returns the average probes Knuth's formulas give for a search of a linear probing table:
+     * 0.5{ 1 + 1 / (1-lambda) } for a successful search and 0.5{ 1 + 1 / [Math.pow(1-lambda), 2] } for an unsuccessful
+     * one. calculateLinearCapacity inverts the second one.
+     * @param loadFactor load factor (lambda) of the table, at least 0 and less than 1
+     * @param successful true for a search for a key in the table, false for one that is not
+     * @return the expected probes per search
+     */
+    public static double expectedLinearProbes(double loadFactor, boolean successful) {
+        if (successful)
+            return 0.5 * (1 + 1 / (1 - loadFactor));
+        return ClusterStatistics.getTheoreticalUnsuccessfulProbes(loadFactor);
+    }
+
+
+    /**
+     * Returns the average probes the uniform hashing formulas give for a search of a double hashing table:
+     * (1/lambda) ln[1 / (1-lambda)] for a successful search and 1 / (1-lambda) for an unsuccessful one.
+     * calculateDoubleCapacity inverts the second one.
+     * @param loadFactor load factor (lambda) of the table, at least 0 and less than 1
+     * @param successful true for a search for a key in the table, false for one that is not
+     * @return the expected probes per search
+     */
+    public static double expectedDoubleProbes(double loadFactor, boolean successful) {
+        if (successful)
+            return (loadFactor == 0) ? 1 : -Math.log1p(-loadFactor) / loadFactor;
+        return 1 / (1 - loadFactor);
+    }
+
+
+    /**
+     * Returns evenly spaced load factors for runLoadFactorSweep, such as loadFactorGrid(0.05, 0.95, 0.05) for 0.05,
+     * 0.10, ... 0.95. Each one is rounded to 6 decimal places, so 0.05 + 2 * 0.05 comes out as 0.15 rather than
+     * 0.15000000000000002.
+     * @param first the first load factor
+     * @param last the last load factor, included if the steps land on it
+     * @param step the difference between neighbouring load factors, greater than 0
+     * @return the load factors, in increasing order
+     */
+    public static double[] loadFactorGrid(double first, double last, double step) {
+        if (!(step > 0) || last < first) {
+            throw new IllegalArgumentException("Step must be greater than 0 and last must not be less than first.");
+        }
+        int points = (int) Math.floor((last - first) / step + 1e-9) + 1;
+        double[] grid = new double[points];
+        for (int i = 0; i < points; i++) {
+            grid[i] = Math.round((first + i * step) * 1e6) / 1e6;
+        }
+        return grid;
+    }
+
+
     /**
      * Generates n unique random integers between 0 and given intervalEndpoint (exclusive).
      * @param n number of unique random integers you want in the set
@@ -190,14 +381,26 @@ public class GetStatistics {
      * @return an ArrayList of n unique random integers, in a random order, between 0 and intervalEndpoint (exclusive)
      */
     public ArrayList<Integer> generateNUniqueIntegers(int n, int intervalEndpoint) {
-        HashSet<Integer> randomNums = new HashSet<>();
-        Random r = new Random();
-        while (randomNums.size() < n) {
-            randomNums.add(r.nextInt(intervalEndpoint));
-        }
+        return generateNUniqueIntegers(n, intervalEndpoint, new SplittableRandom());
+    }
+
+
+    /**
+     * Generates n unique random integers between 0 and given intervalEndpoint (exclusive), taking every random number
+     * from the given stream so the result can be reproduced.
+     * @param n number of unique random integers you want in the set
+     * @param intervalEndpoint the endpoint of the interval you want to search on (between 0 and this number, exclusive)
+     * @param random the random stream to draw from
+     * @return an ArrayList of n unique random integers, in a random order, between 0 and intervalEndpoint (exclusive)
+     */
+    public ArrayList<Integer> generateNUniqueIntegers(int n, int intervalEndpoint, SplittableRandom random) {
+        UniqueIntegerSampler sampler = new UniqueIntegerSampler(intervalEndpoint);
+        sampler.sample(n, random);
 
-        ArrayList<Integer> randomNumsArray = new ArrayList<>(randomNums);
-        Collections.shuffle(randomNumsArray);
+        ArrayList<Integer> randomNumsArray = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            randomNumsArray.add(sampler.get(i));
+        }
 
         return randomNumsArray;
     }
@@ -211,7 +414,7 @@ public class GetStatistics {
      */
     public double computeAverageOfArray(int[] intArray) {
         int size = intArray.length;
-        int sum = 0;
+        long sum = 0;
         for (int num : intArray) {
             sum += num;
         }
@@ -235,6 +438,38 @@ public class GetStatistics {
     }
 
 
+    /**
+     * Computes and returns the average of an array of longs, such as the probe counts of a set of trials.
+     *
+     * @param longArray an array of longs
+     * @return the average of the array
+     */
+    public double computeAverageOfArray(long[] longArray) {
+        int size = longArray.length;
+        double sum = 0.0;
+        for (long num : longArray) {
+            sum += num;
+        }
+        return sum / size;
+    }
+
+
+    /**
+     * Computes and returns the standard deviation of an array of longs.
+     * @param longArray an array of longs
+     * @return the standard deviation of the array.
+     */
+    public double computeStandardDeviation(long[] longArray) {
+        int size = longArray.length;
+        double average = computeAverageOfArray(longArray);
+        double sum = 0.0;
+        for (long num : longArray) {
+            sum += Math.pow(num - average, 2);
+        }
+        return Math.sqrt(sum/(size-1));
+    }
+
+
     /**
      * Runs 1000 experiments where parameters are used to set the number of names added to the hash tables
      * and the number of names to search on each experiment. Prints data about the average number of probes and the
@@ -244,61 +479,285 @@ public class GetStatistics {
      * @param showArray true if you want to show the arrays associated with this experiment, false otherwise
      */
     public void runExperiment(int namesToAdd, int namesToSearch, boolean showArray) {
-        if (namesToAdd < 0 || namesToAdd > 1000) {
-            throw new IllegalArgumentException("Must add between 1 to 1000 names to the hash table.");
+        runExperiment(namesToAdd, namesToSearch, showArray, new SplittableRandom().nextLong(), false);
+    }
+
+
+    /**
+     * Runs 1000 experiments where parameters are used to set the number of names added to the hash tables
+     * and the number of names to search on each experiment. Prints data about the average number of probes and the
+     * standard deviation for both hash table.
+     * <p>
+     * Every trial draws its names from its own random stream, which only depends on the seed and the number of the
+     * trial. That means the trials can run in any order, on any thread, and still pick the same names, so a parallel
+     * run prints exactly the same results as a serial run with the same seed.
+     * <p>
+     * In parallel mode the trials are split across the common ForkJoinPool. Each worker builds its own pair of hash
+     * tables (the shared tables are only used in serial mode) and keeps its own statistics of the probe counts, which
+     * are merged into the results once the worker is done.
+     * <p>
+     * The seed is printed with the results, along with the trials that took the most probes, and runTrial reruns any
+     * one trial on its own, for instance under a profiler.
+     * @param namesToAdd number of names to add to both hash table, must be between 1 and 1000.
+     * @param namesToSearch number of names to search per experiment, must be between 1 and 10,000
+     * @param showArray true if you want to show the arrays associated with this experiment, false otherwise
+     * @param seed seed that every trial's random stream is derived from
+     * @param parallel true to run the trials on a ForkJoinPool, false to run them one after another
+     */
+    public void runExperiment(int namesToAdd, int namesToSearch, boolean showArray, long seed, boolean parallel) {
+        if (namesToAdd < 0 || namesToAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
         }
-        if (namesToSearch < 0 || namesToSearch > 10000) {
-            throw new IllegalArgumentException("Must add between 1 to 1000 names to the hash table.");
+        if (namesToSearch < 0 || namesToSearch > searchKeys.size()) {
+            throw new IllegalArgumentException("Must search between 1 to " + searchKeys.size() + " names.");
         }
 
-        int EXPERIMENT_COUNT = 1000;
-        int[] linearProbes = new int[EXPERIMENT_COUNT];
-        int[] doubleHashProbes  = new int[EXPERIMENT_COUNT];
+        TrialResults results = runAllTrials(namesToAdd, namesToSearch, showArray, seed, parallel);
+        printResults(namesToAdd, namesToSearch, showArray, seed, results);
+    }
+
 
-        ArrayList<Integer> randomNumsAdd;
-        ArrayList<Integer> randomNumsSearch;
+    /**
+     * Returns the statistics of the probe counts of every trial of an experiment, without printing anything.
+     * @param namesToAdd number of names to add to both hash tables
+     * @param namesToSearch number of names to search per trial
+     * @param seed seed that every trial's random stream is derived from
+     * @param parallel true to run the trials on a ForkJoinPool, false to run them one after another
+     * @return statistics for the linear probing table followed by those for the double hashing table
+     */
+    RunningStatistics[] getExperimentStatistics(int namesToAdd, int namesToSearch, long seed, boolean parallel) {
+        TrialResults results = runAllTrials(namesToAdd, namesToSearch, false, seed, parallel);
+        return new RunningStatistics[] {results.linearStatistics, results.doubleHashStatistics};
+    }
+
+
+    /**
+     * Runs every trial of an experiment and merges their statistics in trial order.
+     * @param namesToAdd number of names to add to both hash tables
+     * @param namesToSearch number of names to search per trial
+     * @param keepProbes true to keep the probe count of every trial as well as their statistics
+     * @param seed seed that every trial's random stream is derived from
+     * @param parallel true to run the trials on a ForkJoinPool, false to run them one after another
+     * @return probe counts and table details of the experiment
+     */
+    private TrialResults runAllTrials(int namesToAdd, int namesToSearch, boolean keepProbes, long seed,
+                                      boolean parallel) {
+        TrialResults results = new TrialResults(0, EXPERIMENT_COUNT, keepProbes);
+        if (parallel) {
+            // A task never splits a block, so it needs at least a block's worth of trials
+            int trialsPerTask = Math.max(TRIALS_PER_BLOCK,
+                    EXPERIMENT_COUNT / (4 * ForkJoinPool.getCommonPoolParallelism()));
+            ForkJoinPool.commonPool().invoke(new TrialTask(0, EXPERIMENT_COUNT, trialsPerTask, namesToAdd,
+                    namesToSearch, seed, results));
+        } else {
+            runTrials(0, EXPERIMENT_COUNT, namesToAdd, namesToSearch, seed, linearHash, doubleHash, results);
+        }
+        results.mergeBlocks();
+        return results;
+    }
+
+
+    /**
+     * Reruns a single trial of runExperiment on its own, on a fresh pair of hash tables. The trial picks the same names
+     * it did in the experiment with the same seed, whichever trials ran before it, so it takes the same probes. Prints
+     * the probes taken by both hash tables.
+     * @param namesToAdd number of names to add to both hash table, must be between 1 and 1000.
+     * @param namesToSearch number of names to search, must be between 1 and 10,000
+     * @param seed seed of the experiment the trial was part of
+     * @param trial number of the trial, from 0 to 999
+     * @return the probes taken by the linear probing table and the double hashing table, in that order
+     */
+    public long[] runTrial(int namesToAdd, int namesToSearch, long seed, int trial) {
+        if (namesToAdd < 0 || namesToAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
+        }
+        if (namesToSearch < 0 || namesToSearch > searchKeys.size()) {
+            throw new IllegalArgumentException("Must search between 1 to " + searchKeys.size() + " names.");
+        }
+        if (trial < 0 || trial >= EXPERIMENT_COUNT) {
+            throw new IllegalArgumentException("Trial must be between 0 and " + (EXPERIMENT_COUNT - 1) + ".");
+        }
+
+        TrialResults results = new TrialResults(trial, 1, true);
+        runTrials(trial, trial + 1, namesToAdd, namesToSearch, seed, new LinearProbingWithCount<>(linearCapacity),
+                new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime), results);
+        results.mergeBlocks();
+        System.out.printf("Trial %d of seed %d: %d probes using linear probing, %d probes using double hashing%n",
+                trial, seed, results.linearProbes[0], results.doubleHashProbes[0]);
+        return new long[] {results.linearProbes[0], results.doubleHashProbes[0]};
+    }
+
+
+    /**
+     * Runs the trials numbered from start (inclusive) to end (exclusive) on the given tables and records their
+     * probe counts in results. Each trial's counts go into running statistics as soon as it ends, so unless results
+     * keeps the probe count of every trial, memory doesn't grow with the number of trials. The names are chosen by
+     * samplers made once per call, which keep each trial's random stream in a local long rather than a new
+     * SplittableRandom. What the trials still allocate is the entries the tables add, a table to replace one an
+     * earlier trial enlarged, and, when the names come from a MappedKeyCorpus, a String for every name drawn.
+     * @param start number of the first trial to run
+     * @param end number after the last trial to run
+     * @param namesToAdd number of names to add to both hash tables
+     * @param namesToSearch number of names to search per trial
+     * @param seed seed that every trial's random stream is derived from
+     * @param linear linear probing table to run the trials on
+     * @param doubleHashing double hashing table to run the trials on
+     * @param results where the probe counts and table details are recorded
+     */
+    private void runTrials(int start, int end, int namesToAdd, int namesToSearch, long seed,
+                           LinearProbingWithCount<String, String> linear,
+                           DoubleHashingWithCount<String, String> doubleHashing, TrialResults results) {
+        ProbeHistogram linearHistogram = new ProbeHistogram();
+        ProbeHistogram doubleHashHistogram = new ProbeHistogram();
+        int slowestLinearTrial = -1;
+        int slowestDoubleHashTrial = -1;
+        long slowestLinearProbes = -1;
+        long slowestDoubleHashProbes = -1;
+
+        UniqueIntegerSampler addSampler = new UniqueIntegerSampler(addKeys.size());
+        UniqueIntegerSampler searchSampler = new UniqueIntegerSampler(searchKeys.size());
         String tempName;
 
-        for (int i = 0; i < EXPERIMENT_COUNT; i++) {
-            linearHash.clear();
-            doubleHash.clear();
-            randomNumsAdd = generateNUniqueIntegers(namesToAdd,1000);
-            for (int num : randomNumsAdd) {
-                tempName = addNames[num];
-                linearHash.add(tempName, tempName);
-                doubleHash.add(tempName, tempName);
+        for (int i = start; i < end; i++) {
+            long stream = trialSeed(seed, i); // State of the trial's random stream
+            // clear() never shrinks a table, so replace any table an earlier trial enlarged. Every trial then starts
+            // from the same table no matter which trials ran before it on this worker.
+            if (linear.getHashTableSize() != linearInitialSize) {
+                linear = new LinearProbingWithCount<>(linearCapacity);
+            }
+            if (doubleHashing.getHashTableSize() != doubleInitialSize) {
+                doubleHashing = new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime);
+            }
+            linear.clear();
+            doubleHashing.clear();
+            stream = addSampler.sample(namesToAdd, stream);
+            for (int j = 0; j < namesToAdd; j++) {
+                tempName = addKeys.get(addSampler.get(j));
+                linear.add(tempName, tempName);
+                doubleHashing.add(tempName, tempName);
+            }
+            linear.resetProbeCount();
+            doubleHashing.resetProbeCount();
+            searchSampler.sample(namesToSearch, stream);
+            for (int j = 0; j < namesToSearch; j++) {
+                tempName = searchKeys.get(searchSampler.get(j));
+                linear.contains(tempName);
+                doubleHashing.contains(tempName);
+            }
+
+            if (linear.getProbeCount() > slowestLinearProbes) { // The first of equally slow trials is kept
+                slowestLinearTrial = i;
+                slowestLinearProbes = linear.getProbeCount();
             }
-            linearHash.resetProbeCount();
-            doubleHash.resetProbeCount();
-            randomNumsSearch = generateNUniqueIntegers(namesToSearch,10000);
-            for (int num: randomNumsSearch) {
-                tempName = searchNames[num];
-                linearHash.contains(tempName);
-                doubleHash.contains(tempName);
+            if (doubleHashing.getProbeCount() > slowestDoubleHashProbes) {
+                slowestDoubleHashTrial = i;
+                slowestDoubleHashProbes = doubleHashing.getProbeCount();
             }
+            // A block's trials all run on one worker, so only that worker ever adds to its statistics
+            int block = (i - results.firstTrial) / TRIALS_PER_BLOCK;
+            results.linearBlocks[block].add(linear.getProbeCount());
+            results.doubleHashBlocks[block].add(doubleHashing.getProbeCount());
+            if (results.linearProbes != null) { // Each worker writes only its own range of trials
+                results.linearProbes[i - results.firstTrial] = linear.getProbeCount();
+                results.doubleHashProbes[i - results.firstTrial] = doubleHashing.getProbeCount();
+            }
+            linear.addProbeHistogramTo(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH, linearHistogram);
+            doubleHashing.addProbeHistogramTo(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH, doubleHashHistogram);
+        }
 
-            linearProbes[i] = linearHash.getProbeCount();
-            doubleHashProbes[i] = doubleHash.getProbeCount();
+        // Merge this worker's probe counts into the results
+        synchronized (results) {
+            int slowerLinearTrial = slowerTrial(results.slowestLinearTrial, results.slowestLinearProbes,
+                    slowestLinearTrial, slowestLinearProbes);
+            if (slowerLinearTrial != results.slowestLinearTrial) {
+                results.slowestLinearTrial = slowerLinearTrial;
+                results.slowestLinearProbes = slowestLinearProbes;
+            }
+            int slowerDoubleHashTrial = slowerTrial(results.slowestDoubleHashTrial, results.slowestDoubleHashProbes,
+                    slowestDoubleHashTrial, slowestDoubleHashProbes);
+            if (slowerDoubleHashTrial != results.slowestDoubleHashTrial) {
+                results.slowestDoubleHashTrial = slowerDoubleHashTrial;
+                results.slowestDoubleHashProbes = slowestDoubleHashProbes;
+            }
+            results.linearHistogram.add(linearHistogram);
+            results.doubleHashHistogram.add(doubleHashHistogram);
+        }
+        if (end == results.firstTrial + results.trials) { // Report the tables as they were after the last trial
+            results.linearTableSize = linear.getHashTableSize();
+            results.linearLoadFactor = linear.getLoadFactor();
+            results.doubleTableSize = doubleHashing.getHashTableSize();
+            results.doubleLoadFactor = doubleHashing.getLoadFactor();
         }
+    }
+
+
+    /**
+     * Returns whichever of two trials took more probes, or the one with the lower number if they took the same, so the
+     * slowest trial doesn't depend on the order workers finish in.
+     * @param trial number of one trial, or -1 if there is none
+     * @param probes probes the trial took
+     * @param otherTrial number of the other trial, or -1 if there is none
+     * @param otherProbes probes the other trial took
+     * @return number of the slower trial
+     */
+    private static int slowerTrial(int trial, double probes, int otherTrial, double otherProbes) {
+        if (otherTrial == -1)
+            return trial;
+        if (trial == -1 || otherProbes > probes || (otherProbes == probes && otherTrial < trial))
+            return otherTrial;
+        return trial;
+    }
+
+
+    /**
+     * Derives the seed of a single trial's random stream from the experiment seed, using the SplitMix64 finalizer so
+     * that neighbouring trials get unrelated streams.
+     * @param seed seed of the whole experiment
+     * @param trial number of the trial
+     * @return seed of the trial's random stream
+     */
+    private static long trialSeed(long seed, int trial) {
+        long z = seed + (trial + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+
+    /**
+     * Prints the average number of probes, its 95% confidence interval and the standard deviation for both hash
+     * tables.
+     * @param namesToAdd number of names added to both hash tables
+     * @param namesToSearch number of names searched per trial
+     * @param showArray true if you want to show the arrays associated with this experiment, false otherwise
+     * @param seed seed that every trial's random stream was derived from
+     * @param results probe counts and table details of the experiment
+     */
+    private void printResults(int namesToAdd, int namesToSearch, boolean showArray, long seed, TrialResults results) {
+        RunningStatistics linearStatistics = results.linearStatistics;
+        RunningStatistics doubleHashStatistics = results.doubleHashStatistics;
 
-        double linearCollisionAvg = computeAverageOfArray(linearProbes);
-        double doubleCollisionAvg = computeAverageOfArray(doubleHashProbes);
-        double linearCollisionSD = computeStandardDeviation(linearProbes);
-        double doubleCollisionSD = computeStandardDeviation(doubleHashProbes);
+        double linearCollisionAvg = linearStatistics.getMean();
+        double doubleCollisionAvg = doubleHashStatistics.getMean();
+        double linearCollisionSD = linearStatistics.getStandardDeviation();
+        double doubleCollisionSD = doubleHashStatistics.getStandardDeviation();
 
         System.out.println();
         System.out.println("For an experiment with " + namesToAdd + " names added and " + avgUnsuccessfulSearch +
                             " average unsuccessful searches, these are necessary hash table sizes and load factors:");
         System.out.println();
-        System.out.println("Linear Probing Table Size: " + linearHash.getHashTableSize());
-        System.out.printf("Linear Probing Load Factor: %.4f", linearHash.getLoadFactor());
+        System.out.println("Linear Probing Table Size: " + results.linearTableSize);
+        System.out.printf("Linear Probing Load Factor: %.4f", results.linearLoadFactor);
         System.out.println();
-        System.out.println("Double Hashing Table Size: " + doubleHash.getHashTableSize());
-        System.out.printf("Double Hashing Load Factor: %.4f", doubleHash.getLoadFactor());
+        System.out.println("Double Hashing Table Size: " + results.doubleTableSize);
+        System.out.printf("Double Hashing Load Factor: %.4f", results.doubleLoadFactor);
         System.out.println();
         System.out.println();
-
         System.out.println("For this experiment, " + namesToSearch + " unique names were searched per experiment.");
+        String nameSource = (addNames == null) ? "names from a key corpus" : "name set seed " + nameSeed;
+        System.out.println("Seed: " + seed + " (" + nameSource + "). The trials with the most probes were "
+                + results.slowestLinearTrial + " using linear probing and " + results.slowestDoubleHashTrial
+                + " using double hashing.");
 
         System.out.println();
         System.out.printf("The average number of probes for an unsuccessful search using linear probing collision resolution" +
@@ -317,17 +776,808 @@ public class GetStatistics {
                 "hashing collision resolution was: %.3f", doubleCollisionSD);
         System.out.printf(" (%.3f per search)", doubleCollisionSD/namesToSearch);
         System.out.println();
+        printConfidenceInterval("linear probing", linearStatistics, namesToSearch);
+        printConfidenceInterval("double hashing", doubleHashStatistics, namesToSearch);
+        printPercentiles("linear probing", results.linearHistogram);
+        printPercentiles("double hashing", results.doubleHashHistogram);
 
         System.out.println();
 
         if (showArray) {
             System.out.println("Table for Linear Probing Experiment: ");
-            System.out.println(Arrays.toString(linearProbes));
+            System.out.println(Arrays.toString(results.linearProbes));
             System.out.println();
             System.out.println("Table for Double Hashing Experiment: ");
-            System.out.println(Arrays.toString(doubleHashProbes));
+            System.out.println(Arrays.toString(results.doubleHashProbes));
+        }
+
+
+    }
+
+
+    /**
+     * Prints the 95% confidence interval for the average number of probes of a trial, and the fewest and most probes
+     * any trial took.
+     * @param scheme name of the collision resolution scheme
+     * @param statistics probe counts of every trial
+     * @param namesToSearch number of names searched per trial
+     */
+    private static void printConfidenceInterval(String scheme, RunningStatistics statistics, int namesToSearch) {
+        double halfWidth = statistics.getConfidenceHalfWidth();
+        System.out.printf("The 95%% confidence interval for the average number of probes using " + scheme +
+                " collision resolution was: %.3f to %.3f", statistics.getMean() - halfWidth,
+                statistics.getMean() + halfWidth);
+        System.out.printf(" (%.3f to %.3f per search), and trials took from %.0f to %.0f probes",
+                (statistics.getMean() - halfWidth) / namesToSearch, (statistics.getMean() + halfWidth) / namesToSearch,
+                statistics.getMin(), statistics.getMax());
+        System.out.println();
+    }
+
+
+    /**
+     * Prints the percentiles of the probes taken by a single unsuccessful search, from the histogram of every search in
+     * an experiment.
+     * @param scheme name of the collision resolution scheme
+     * @param histogram probes of every unsuccessful search
+     */
+    private static void printPercentiles(String scheme, ProbeHistogram histogram) {
+        System.out.printf("The probes for a single unsuccessful search using %s collision resolution were: " +
+                        "p50 %d, p90 %d, p99 %d, max %d", scheme, histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getMax());
+        System.out.println();
+    }
+
+
+    /**
+     * Compares prime sizing (% by a prime table size) with power of two sizing (mixing the hash code and masking it)
+     * for both collision resolution schemes. Every table is run through the same 1000 trials, with the same names
+     * added and searched for in each, and the average probes and time per unsuccessful search are printed.
+     * <p>
+     * The power of two tables are rounded up from the same capacities as the prime tables, so their load factor is
+     * lower; the table sizes and load factors are printed alongside so that can be taken into account.
+     * @param namesToAdd number of names to add to the hash tables, must be between 1 and 1000.
+     * @param namesToSearch number of names to search per trial, must be between 1 and 10,000
+     * @param seed seed that every trial's random stream is derived from
+     */
+    public void runSizingComparison(int namesToAdd, int namesToSearch, long seed) {
+        if (namesToAdd < 1 || namesToAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
+        }
+        if (namesToSearch < 1 || namesToSearch > searchKeys.size()) {
+            throw new IllegalArgumentException("Must search between 1 to " + searchKeys.size()
+                    + " names in the hash table.");
+        }
+
+        System.out.println();
+        System.out.println("Prime sizing vs power of two sizing, " + namesToAdd + " names added and " + namesToSearch +
+                " unique names searched per trial:");
+        System.out.println();
+        printSchemeResults("Linear probing, prime sizing", namesToSearch, runSchemeTrials(
+                () -> new LinearProbingWithCount<>(linearCapacity), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Linear probing, power of two sizing", namesToSearch, runSchemeTrials(
+                () -> new LinearProbingWithCount<>(linearCapacity, true), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Double hashing, prime sizing", namesToSearch, runSchemeTrials(
+                () -> new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Double hashing, power of two sizing", namesToSearch, runSchemeTrials(
+                () -> new DoubleHashingWithCount<>(doubleCapacity, true), namesToAdd, namesToSearch, seed));
+        System.out.println();
+    }
+
+
+    /**
+     * Compares the collision resolution schemes against each other. Every table is run through the same 1000 trials,
+     * with the same names added and searched for in each, and the average and standard deviation of the probes per
+     * unsuccessful search are printed, along with the most probes any one search took. Robin Hood hashing uses the
+     * same capacity as linear probing, since it probes the same locations and only changes where entries are placed,
+     * and cuckoo hashing splits that same capacity between its sub-tables, so they all take the same memory. The
+     * SwissTable rounds the capacity up to a power of two and counts one probe per group of 16 locations checked.
+     * @param namesToAdd number of names to add to the hash tables, must be between 1 and 1000.
+     * @param namesToSearch number of names to search per trial, must be between 1 and 10,000
+     * @param seed seed that every trial's random stream is derived from
+     */
+    public void runSchemeComparison(int namesToAdd, int namesToSearch, long seed) {
+        if (namesToAdd < 1 || namesToAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
+        }
+        if (namesToSearch < 1 || namesToSearch > searchKeys.size()) {
+            throw new IllegalArgumentException("Must search between 1 to " + searchKeys.size()
+                    + " names in the hash table.");
+        }
+
+        System.out.println();
+        System.out.println("Collision resolution schemes, " + namesToAdd + " names added and " + namesToSearch +
+                " unique names searched per trial:");
+        System.out.println();
+        printSchemeResults("Linear probing", namesToSearch, runSchemeTrials(
+                () -> new LinearProbingWithCount<>(linearCapacity), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Double hashing", namesToSearch, runSchemeTrials(
+                () -> new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Robin Hood hashing", namesToSearch, runSchemeTrials(
+                () -> new RobinHoodHashingWithCount<>(linearCapacity), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Cuckoo hashing, 2 hash functions", namesToSearch, runSchemeTrials(
+                () -> new CuckooHashingWithCount<>(linearCapacity), namesToAdd, namesToSearch, seed));
+        printSchemeResults("Cuckoo hashing, 3 hash functions", namesToSearch, runSchemeTrials(
+                () -> new CuckooHashingWithCount<>(linearCapacity, 3), namesToAdd, namesToSearch, seed));
+        printSchemeResults("SwissTable group probing", namesToSearch, runSchemeTrials(
+                () -> new SwissTableHashingWithCount<>(linearCapacity), namesToAdd, namesToSearch, seed));
+        System.out.println();
+    }
+
+
+    /**
+     * Compares the hash functions of HashStrategy on both collision resolution schemes. Every table is run through the
+     * same 1000 trials, with the same names added and searched for in each, and the average probes and time per
+     * unsuccessful search are printed. The probes show how evenly each function spreads the names over the table, and
+     * the time adds what it costs to hash them; IDENTITY is the names' own String.hashCode(), which the String caches,
+     * so it is only computed once per name while the other functions hash the name again on every search.
+     * @param namesToAdd number of names to add to the hash tables, must be between 1 and 1000.
+     * @param namesToSearch number of names to search per trial, must be between 1 and 10,000
+     * @param seed seed that every trial's random stream is derived from
+     */
+    public void runHashStrategyComparison(int namesToAdd, int namesToSearch, long seed) {
+        if (namesToAdd < 1 || namesToAdd > addKeys.size()) {
+            throw new IllegalArgumentException("Must add between 1 to " + addKeys.size() + " names to the hash table.");
+        }
+        if (namesToSearch < 1 || namesToSearch > searchKeys.size()) {
+            throw new IllegalArgumentException("Must search between 1 to " + searchKeys.size()
+                    + " names in the hash table.");
+        }
+
+        System.out.println();
+        System.out.println("Hash functions, " + namesToAdd + " names added and " + namesToSearch +
+                " unique names searched per trial:");
+        System.out.println();
+        for (HashStrategy strategy : HashStrategy.values()) {
+            printSchemeResults("Linear probing, " + strategy, namesToSearch, runSchemeTrials(
+                    () -> new LinearProbingWithCount<>(linearCapacity, strategy), namesToAdd, namesToSearch, seed));
+        }
+        for (HashStrategy strategy : HashStrategy.values()) {
+            printSchemeResults("Double hashing, " + strategy, namesToSearch, runSchemeTrials(
+                    () -> new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime, 0.5, strategy), namesToAdd,
+                    namesToSearch, seed));
+        }
+        System.out.println();
+    }
+
+
+    /**
+     * Shows how removals affect unsuccessful searches in a linear probing table over a long run of insert/delete
+     * churn. Two tables are filled with the same numberOfEntries names and then put through the same rounds, each of
+     * which removes a random name that is in the table and adds a random one that is not, so the number of entries
+     * never changes and the tables never grow. One table leaves removed entries in the available state, which build up
+     * until they and the entries fill the table past its max load factor and it is rehashed at the same size. The other
+     * uses backward shift deletion. Ten times during the run, both tables are searched for 10,000 names that are not
+     * in them, and the average probes per unsuccessful search is printed.
+     * @param numberOfEntries number of names kept in the tables, must be between 1 and one less than the number of
+     *                        names that can be added (999 for the generated names)
+     * @param rounds number of remove/add rounds, must be between 10 and 10,000,000
+     * @param seed seed for the random choice of names
+     */
+    public void runChurnExperiment(int numberOfEntries, int rounds, long seed) {
+        if (numberOfEntries < 1 || numberOfEntries > addKeys.size() - 1) {
+            throw new IllegalArgumentException("Must keep between 1 to " + (addKeys.size() - 1)
+                    + " names in the hash table.");
+        }
+        if (rounds < 10 || rounds > 10000000) {
+            throw new IllegalArgumentException("Must run between 10 and 10,000,000 rounds.");
+        }
+
+        LinearProbingWithCount<String, String> tombstones = new LinearProbingWithCount<>(linearCapacity);
+        LinearProbingWithCount<String, String> backwardShift =
+                new LinearProbingWithCount<>(linearCapacity, false, true);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // The first numberOfEntries positions of names are in the tables, the rest are not
+        int[] names = new int[addKeys.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = i;
+        }
+        for (int i = 0; i < numberOfEntries; i++) {
+            int swap = i + random.nextInt(names.length - i);
+            int temp = names[i];
+            names[i] = names[swap];
+            names[swap] = temp;
+            tombstones.add(addKeys.get(names[i]), addKeys.get(names[i]));
+            backwardShift.add(addKeys.get(names[i]), addKeys.get(names[i]));
+        }
+
+        System.out.println();
+        System.out.println("Insert/delete churn on linear probing, " + numberOfEntries + " names kept in a table of " +
+                tombstones.getHashTableSize() + ", average probes per unsuccessful search:");
+        System.out.println();
+        System.out.printf("%10s %20s %20s%n", "Round", "Available state", "Backward shift");
+        System.out.printf("%10d %20.3f %20.3f%n", 0,
+                averageUnsuccessfulProbes(tombstones), averageUnsuccessfulProbes(backwardShift));
+
+        for (int round = 1; round <= rounds; round++) {
+            int removed = random.nextInt(numberOfEntries);
+            int added = numberOfEntries + random.nextInt(names.length - numberOfEntries);
+            tombstones.remove(addKeys.get(names[removed]));
+            backwardShift.remove(addKeys.get(names[removed]));
+            tombstones.add(addKeys.get(names[added]), addKeys.get(names[added]));
+            backwardShift.add(addKeys.get(names[added]), addKeys.get(names[added]));
+            int temp = names[removed];
+            names[removed] = names[added];
+            names[added] = temp;
+
+            if (round % (rounds / 10) == 0) {
+                System.out.printf("%10d %20.3f %20.3f%n", round,
+                        averageUnsuccessfulProbes(tombstones), averageUnsuccessfulProbes(backwardShift));
+            }
+        }
+        System.out.println();
+    }
+
+
+    /**
+     * Compares enlarging a linear probing table all at once with enlarging it incrementally. Both tables start at the
+     * default capacity and have the same names added in the same random order, growing several times, and then each
+     * name is looked up again. The names are taken from searchKeys, which has enough of them for the tables to grow
+     * to several thousand locations. For each table, the most work done by a single operation (probes plus locations of an
+     * old table visited by a resize) and the total probes are printed. The all at once table pays for every resize
+     * in a single add, the incremental one spreads it over the operations that follow.
+     * @param numberOfNames number of names to add, must be between 1 and 5000
+     * @param seed seed for the order the names are added in
+     */
+    public void runResizeComparison(int numberOfNames, long seed) {
+        if (numberOfNames < 1 || numberOfNames > 5000) {
+            throw new IllegalArgumentException("Must add between 1 to 5000 names to the hash table.");
+        }
+
+        ArrayList<Integer> order = generateNUniqueIntegers(numberOfNames, searchKeys.size(),
+                new SplittableRandom(seed));
+        System.out.println();
+        System.out.println("Enlarging a linear probing table all at once vs incrementally, " + numberOfNames +
+                " names added and then searched for:");
+        System.out.println();
+        for (boolean incremental : new boolean[] {false, true}) {
+            LinearProbingWithCount<String, String> table = new LinearProbingWithCount<>(11, false, false, incremental);
+            for (int num : order) {
+                table.add(searchKeys.get(num), searchKeys.get(num));
+            }
+            for (int num : order) {
+                table.getValue(searchKeys.get(num));
+            }
+            System.out.printf("%s (table size %d): most work by one operation %d, %d probes in total%n",
+                    incremental ? "Incremental resizing" : "All at once resizing", table.getHashTableSize(),
+                    table.getMaxOperationWork(), table.getProbeCount());
+        }
+        System.out.println();
+    }
+
+
+    /**
+     * Runs linear probing and double hashing at sizes far beyond the name sets, to see whether the probes per
+     * unsuccessful search still follow the formulas once the tables no longer fit in the CPU caches. For each size n,
+     * each table is created at the prime capacity the formulas give for n entries at this experiment's average
+     * unsuccessful search, has n distinct Integer keys added, and is then searched for SCALING_SEARCHES keys that are
+     * not in it. The keys come from scrambling even and odd integers with a bijection, so the two sets are disjoint and
+     * spread over the whole int range without needing to be stored or checked. Probes per search, load factor, and
+     * the time per add and per search are printed.
+     * <p>
+     * A table of 10^8 entries takes several gigabytes, so a size whose estimated footprint is more than the JVM's
+     * maximum heap (-Xmx) is skipped with a message rather than failing part way through.
+     * @param seed seed for scrambling the keys
+     * @param sizes numbers of entries to add, each between 1 and 100,000,000
+     */
+    public void runScalingExperiment(long seed, int... sizes) {
+        for (int n : sizes) {
+            if (n < 1 || n > 100000000) {
+                throw new IllegalArgumentException("Must add between 1 to 100,000,000 keys to the hash table.");
+            }
+        }
+        int keySeed = (int) trialSeed(seed, 0);
+
+        System.out.println();
+        System.out.println("Linear probing vs double hashing at large sizes, " + SCALING_SEARCHES +
+                " unsuccessful searches per table:");
+        System.out.println();
+        System.out.printf("%12s %-16s %12s %12s %18s %12s %14s%n", "Entries", "Scheme", "Table size", "Load factor",
+                "Probes per search", "ns per add", "ns per search");
+        for (int n : sizes) {
+            int[] capacities = {
+                    nextPrime(calculateLinearCapacity(n, avgUnsuccessfulSearch)),
+                    nextPrime(calculateDoubleCapacity(n, avgUnsuccessfulSearch))};
+            for (int scheme = 0; scheme < 2; scheme++) {
+                String name = (scheme == 0) ? "Linear probing" : "Double hashing";
+                long estimatedBytes = (long) capacities[scheme] * SCALING_BYTES_PER_LOCATION +
+                        (long) n * SCALING_BYTES_PER_ENTRY;
+                if (estimatedBytes > Runtime.getRuntime().maxMemory()) {
+                    System.out.printf("%12d %-16s skipped, needs about %d MB of heap but at most %d MB is allowed " +
+                                    "(raise it with -Xmx)%n", n, name, estimatedBytes >> 20,
+                            Runtime.getRuntime().maxMemory() >> 20);
+                    continue;
+                }
+
+                ProbeCountingDictionary<Integer, Integer> table = (scheme == 0)
+                        ? new LinearProbingWithCount<>(capacities[scheme])
+                        : new DoubleHashingWithCount<>(capacities[scheme], doubleHashPrime);
+                long start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    Integer key = scalingKey(2 * i, keySeed);
+                    table.add(key, key);
+                }
+                long addNanos = System.nanoTime() - start;
+
+                table.resetProbeCount();
+                start = System.nanoTime();
+                for (int i = 0; i < SCALING_SEARCHES; i++) {
+                    table.contains(scalingKey(2 * i + 1, keySeed));
+                }
+                long searchNanos = System.nanoTime() - start;
+
+                System.out.printf("%12d %-16s %12d %12.4f %18.3f %12.1f %14.1f%n", n, name,
+                        table.getHashTableSize(), table.getLoadFactor(),
+                        (double) table.getProbeCount() / SCALING_SEARCHES, (double) addNanos / n,
+                        (double) searchNanos / SCALING_SEARCHES);
+            }
+        }
+        System.out.println();
+    }
+
+
+    /**
+     * Sweeps linear probing and double hashing across a grid of load factors, so MAX_LOAD_FACTOR can be chosen from
+     * measurements rather than fixed at 0.5. For each load factor, both tables are created at SWEEP_TABLE_SIZE with
+     * their max load factor set to it, so they never grow, and put through 1000 trials. Each trial fills them with as
+     * many keys as the load factor allows, searches for every one of those keys, and then makes unsuccessfulSearches
+     * searches for keys that are not in them.
+     * <p>
+     * The formulas assume the hash function spreads keys evenly over the table, which the names don't do: their hash
+     * codes are close together, so % puts them in neighbouring locations and linear probing's clusters run into each
+     * other. So the trials use scrambled Integer keys as runScalingExperiment does, drawn from each trial's own seed,
+     * and the comparison is of the collision resolution alone.
+     * <p>
+     * One CSV row is written per load factor and table, with a header row first. The load factor column is the one
+     * the tables actually had (entries / table size), and the theoretical values are worked out for it. The means are
+     * probes per search, and the SDs are the standard deviation between trials of each trial's probes per search, as
+     * in runSchemeComparison.
+     * @param unsuccessfulSearches number of unsuccessful searches per trial, must be between 1 and 10,000
+     * @param seed seed that every trial's random stream is derived from
+     * @param out stream the CSV is written to
+     * @param loadFactors load factors to measure, each one leaving at least one entry in the table and at most 0.99
+     */
+    public void runLoadFactorSweep(int unsuccessfulSearches, long seed, PrintStream out, double... loadFactors) {
+        if (unsuccessfulSearches < 1 || unsuccessfulSearches > 10000) {
+            throw new IllegalArgumentException("Must make between 1 and 10,000 unsuccessful searches per trial.");
+        }
+        for (double loadFactor : loadFactors) {
+            if (!(loadFactor * SWEEP_TABLE_SIZE >= 1 && loadFactor <= 0.99)) {
+                throw new IllegalArgumentException("Load factors must leave at least one entry in a table of " +
+                        SWEEP_TABLE_SIZE + " and be at most 0.99.");
+            }
+        }
+
+        out.println("load_factor,entries,table_size,scheme,successful_mean,successful_sd,successful_theory," +
+                "unsuccessful_mean,unsuccessful_sd,unsuccessful_theory");
+        for (double loadFactor : loadFactors) {
+            int entries = (int) (loadFactor * SWEEP_TABLE_SIZE);
+            double actualLoadFactor = (double) entries / SWEEP_TABLE_SIZE;
+            LinearProbingWithCount<Integer, Integer> linear =
+                    new LinearProbingWithCount<>(SWEEP_TABLE_SIZE, false, false, false, loadFactor);
+            DoubleHashingWithCount<Integer, Integer> doubleHashing =
+                    new DoubleHashingWithCount<>(SWEEP_TABLE_SIZE, doubleHashPrime, loadFactor);
+            long[][] linearProbes = new long[2][EXPERIMENT_COUNT]; // [0] successful, [1] unsuccessful
+            long[][] doubleHashProbes = new long[2][EXPERIMENT_COUNT];
+
+            for (int i = 0; i < EXPERIMENT_COUNT; i++) {
+                int keySeed = (int) trialSeed(seed, i); // Even keys are added, odd keys are searched for
+                linear.clear();
+                doubleHashing.clear();
+                for (int j = 0; j < entries; j++) {
+                    Integer key = scalingKey(2 * j, keySeed);
+                    linear.add(key, key);
+                    doubleHashing.add(key, key);
+                }
+
+                linear.resetProbeCount();
+                doubleHashing.resetProbeCount();
+                for (int j = 0; j < entries; j++) {
+                    Integer key = scalingKey(2 * j, keySeed);
+                    linear.contains(key);
+                    doubleHashing.contains(key);
+                }
+                linearProbes[0][i] = linear.getProbeCount();
+                doubleHashProbes[0][i] = doubleHashing.getProbeCount();
+
+                linear.resetProbeCount();
+                doubleHashing.resetProbeCount();
+                for (int j = 0; j < unsuccessfulSearches; j++) {
+                    Integer key = scalingKey(2 * j + 1, keySeed);
+                    linear.contains(key);
+                    doubleHashing.contains(key);
+                }
+                linearProbes[1][i] = linear.getProbeCount();
+                doubleHashProbes[1][i] = doubleHashing.getProbeCount();
+            }
+
+            printSweepRow(out, actualLoadFactor, entries, "linear", linearProbes, unsuccessfulSearches,
+                    expectedLinearProbes(actualLoadFactor, true), expectedLinearProbes(actualLoadFactor, false));
+            printSweepRow(out, actualLoadFactor, entries, "double", doubleHashProbes, unsuccessfulSearches,
+                    expectedDoubleProbes(actualLoadFactor, true), expectedDoubleProbes(actualLoadFactor, false));
+        }
+        out.flush();
+    }
+
+
+    /**
+     * Writes one CSV row of runLoadFactorSweep. The numbers are always written with a '.' decimal point, whatever the
+     * default locale, so they don't run into the commas between columns.
+     * @param out stream the row is written to
+     * @param loadFactor load factor the table had
+     * @param entries number of keys in the table, and of successful searches per trial
+     * @param scheme "linear" or "double"
+     * @param probes probes of each trial, successful searches in [0] and unsuccessful ones in [1]
+     * @param unsuccessfulSearches number of unsuccessful searches per trial
+     * @param successfulTheory expected probes per successful search
+     * @param unsuccessfulTheory expected probes per unsuccessful search
+     */
+    private void printSweepRow(PrintStream out, double loadFactor, int entries, String scheme, long[][] probes,
+                               int unsuccessfulSearches, double successfulTheory, double unsuccessfulTheory) {
+        out.println(String.format(Locale.ROOT, "%.4f,%d,%d,%s,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f", loadFactor, entries,
+                SWEEP_TABLE_SIZE, scheme,
+                computeAverageOfArray(probes[0]) / entries, computeStandardDeviation(probes[0]) / entries,
+                successfulTheory,
+                computeAverageOfArray(probes[1]) / unsuccessfulSearches,
+                computeStandardDeviation(probes[1]) / unsuccessfulSearches, unsuccessfulTheory));
+    }
+
+
+    /**
+     * Scrambles an integer into a search key for runScalingExperiment and runLoadFactorSweep with the MurmurHash3
+     * finalizer. Every step of the finalizer can be undone, so different integers always give different keys.
+     * @param x integer to scramble
+     * @param keySeed seed mixed in first, so different seeds give different key sets
+     * @return the key
+     */
+    private static int scalingKey(int x, int keySeed) {
+        x ^= keySeed;
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        x *= 0xC2B2AE35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+
+    /**
+     * Returns the smallest prime greater than or equal to the given integer, so the large tables are prime sized like
+     * the ones the experiments use.
+     * @param anInteger any positive integer
+     * @return a prime integer
+     */
+    private static int nextPrime(int anInteger) {
+        return BigInteger.valueOf(anInteger - 1L).nextProbablePrime().intValueExact();
+    }
+
+
+    /**
+     * Searches a table for every name in searchKeys, none of which are in it.
+     * @param table hash table to search
+     * @return the average probes per search
+     */
+    private double averageUnsuccessfulProbes(ProbeCountingDictionary<String, String> table) {
+        table.resetProbeCount();
+        for (int i = 0; i < searchKeys.size(); i++) {
+            table.contains(searchKeys.get(i));
+        }
+        return (double) table.getProbeCount() / searchKeys.size();
+    }
+
+
+    /**
+     * Runs 1000 trials on a single kind of hash table: each trial adds namesToAdd names to an empty table and then
+     * searches it for namesToSearch names from the disjoint search set, recording the probes and the time taken by the
+     * searches. Trial i draws the same names as trial i of runExperiment with the same seed, so different tables can
+     * be compared on identical workloads. An untimed warm up run comes first so the searches are timed after the JIT
+     * has compiled them. Each trial searches for its names twice: once reading the probe count after every search,
+     * and once timed without reading it, so the time per search doesn't include the cost of the instrumentation. When
+     * the names come from a MappedKeyCorpus, the time does include making a String of each name searched for.
+     * @param factory creates an empty hash table of the kind being measured
+     * @param namesToAdd number of names to add to the hash table
+     * @param namesToSearch number of names to search per trial
+     * @param seed seed that every trial's random stream is derived from
+     * @return the probe counts and search time of the trials
+     */
+    private SchemeResults runSchemeTrials(Supplier<? extends ProbeCountingDictionary<String, String>> factory,
+                                          int namesToAdd, int namesToSearch, long seed) {
+        SchemeResults results = new SchemeResults(EXPERIMENT_COUNT);
+        ProbeCountingDictionary<String, String> table = factory.get();
+        int initialSize = table.getHashTableSize();
+        UniqueIntegerSampler addSampler = new UniqueIntegerSampler(addKeys.size());
+        UniqueIntegerSampler searchSampler = new UniqueIntegerSampler(searchKeys.size());
+
+        for (int pass = 0; pass < 2; pass++) { // pass 0 is the warm up
+            results.searchNanos = 0;
+            for (int i = 0; i < EXPERIMENT_COUNT; i++) {
+                long stream = trialSeed(seed, i); // State of the trial's random stream
+                if (table.getHashTableSize() != initialSize) { // Undo growth from an earlier trial
+                    table = factory.get();
+                }
+                table.clear();
+                stream = addSampler.sample(namesToAdd, stream);
+                for (int j = 0; j < namesToAdd; j++) {
+                    String name = addKeys.get(addSampler.get(j)); // Got once, as a mapped corpus makes a new String
+                    table.add(name, name);
+                }
+
+                searchSampler.sample(namesToSearch, stream);
+                table.resetProbeCount();
+                for (int j = 0; j < namesToSearch; j++) {
+                    long probesBefore = table.getProbeCount();
+                    table.contains(searchKeys.get(searchSampler.get(j)));
+                    results.maxProbes = Math.max(results.maxProbes, table.getProbeCount() - probesBefore);
+                }
+                results.probes[i] = table.getProbeCount();
+
+                long start = System.nanoTime();
+                for (int j = 0; j < namesToSearch; j++) {
+                    table.contains(searchKeys.get(searchSampler.get(j)));
+                }
+                results.searchNanos += System.nanoTime() - start;
+            }
+        }
+
+        results.tableSize = table.getHashTableSize();
+        results.loadFactor = table.getLoadFactor();
+        return results;
+    }
+
+
+    /**
+     * Prints one line of a comparison between hash tables.
+     * @param description what kind of hash table was measured
+     * @param namesToSearch number of names searched per trial
+     * @param results the probe counts and search time of the trials
+     */
+    private void printSchemeResults(String description, int namesToSearch, SchemeResults results) {
+        double average = computeAverageOfArray(results.probes);
+        double standardDeviation = computeStandardDeviation(results.probes);
+        long searches = (long) results.probes.length * namesToSearch;
+        System.out.printf("%s (table size %d, load factor %.4f): %.3f probes per search (SD %.3f, max %d), " +
+                        "%.1f ns per search",
+                description, results.tableSize, results.loadFactor, average / namesToSearch,
+                standardDeviation / namesToSearch, results.maxProbes, (double) results.searchNanos / searches);
+        System.out.println();
+    }
+
+
+    /**
+     * Compares the memory footprint of the Entry[] layout used by LinearProbingWithCount and DoubleHashingWithCount
+     * with the parallel array layout of FlatHashingWithCount. Every table holds the same number of entries, and the
+     * keys and values themselves are not counted, so the difference is only the cost of the layout.
+     * <p>
+     * Measuring the heap with Runtime is too noisy at these sizes, so the footprint is worked out from the actual size
+     * of each table after filling it, using the object layout of a 64-bit JVM with compressed references: an array
+     * has a 16 byte header, a reference and an int take 4 bytes each, and an Entry is a 12 byte header plus two
+     * references, rounded up to 24 bytes.
+     * @param numberOfEntries number of entries in each table, must be between 1 and 5,000 (tables grow from their
+     *                        default capacity, and a larger one would pass MAX_SIZE while doubling)
+     */
+    public void printFootprintComparison(int numberOfEntries) {
+        if (numberOfEntries < 1 || numberOfEntries > 5000) {
+            throw new IllegalArgumentException("Must add between 1 and 5,000 entries to the hash table.");
+        }
+        LinearProbingWithCount<Integer, Integer> linear = new LinearProbingWithCount<>();
+        DoubleHashingWithCount<Integer, Integer> doubleHashing = new DoubleHashingWithCount<>();
+        FlatHashingWithCount<Integer, Integer> flatLinear = new FlatHashingWithCount<>(11, false);
+        FlatHashingWithCount<Integer, Integer> flatDouble = new FlatHashingWithCount<>(11, true);
+        for (int i = 0; i < numberOfEntries; i++) {
+            linear.add(i, i);
+            doubleHashing.add(i, i);
+            flatLinear.add(i, i);
+            flatDouble.add(i, i);
         }
 
+        // Entry[] layout: one array of references plus one Entry per entry
+        long linearBytes = arrayBytes(linear.getHashTableSize()) + 24L * numberOfEntries;
+        long doubleBytes = arrayBytes(doubleHashing.getHashTableSize()) + 24L * numberOfEntries;
+        // Parallel array layout: keys, values and hashes, nothing per entry
+        long flatLinearBytes = 3 * arrayBytes(flatLinear.getHashTableSize());
+        long flatDoubleBytes = 3 * arrayBytes(flatDouble.getHashTableSize());
+
+        System.out.println();
+        System.out.println("Memory footprint of a table holding " + numberOfEntries + " entries (keys and values " +
+                "not included):");
+        System.out.println();
+        printFootprint("Linear Probing, Entry[] layout", linearBytes, linear.getHashTableSize(), numberOfEntries);
+        printFootprint("Linear Probing, parallel array layout", flatLinearBytes, flatLinear.getHashTableSize(),
+                numberOfEntries);
+        printFootprint("Double Hashing, Entry[] layout", doubleBytes, doubleHashing.getHashTableSize(),
+                numberOfEntries);
+        printFootprint("Double Hashing, parallel array layout", flatDoubleBytes, flatDouble.getHashTableSize(),
+                numberOfEntries);
+        System.out.println();
+    }
+
+
+    /**
+     * Returns the size of an array of 4 byte elements (references or ints).
+     * @param length number of elements in the array
+     * @return size of the array in bytes, rounded up to a multiple of 8
+     */
+    private static long arrayBytes(int length) {
+        return (16 + 4L * length + 7) & ~7L;
+    }
+
 
+    /**
+     * Prints one line of the footprint comparison.
+     * @param layout description of the table
+     * @param bytes footprint of the table
+     * @param tableSize size of the table's arrays
+     * @param numberOfEntries number of entries in the table
+     */
+    private static void printFootprint(String layout, long bytes, int tableSize, int numberOfEntries) {
+        System.out.printf("%s: %d bytes for a table of size %d (%.1f per entry)", layout, bytes, tableSize,
+                (double) bytes / numberOfEntries);
+        System.out.println();
+    }
+
+
+    /**
+     * Running statistics of the probe counts of the trials in an experiment, plus the size and load factor of the
+     * tables after the last trial.
+     */
+    private static final class TrialResults {
+        /** Number of the first trial recorded */
+        private final int firstTrial;
+        /** Number of trials recorded */
+        private final int trials;
+        /** Number of the trial that took the most probes on the linear probing table, -1 before any trial */
+        private int slowestLinearTrial = -1;
+        /** Number of the trial that took the most probes on the double hashing table, -1 before any trial */
+        private int slowestDoubleHashTrial = -1;
+        /** Probes taken by the slowest trial on the linear probing table, -1 before any trial */
+        private long slowestLinearProbes = -1;
+        /** Probes taken by the slowest trial on the double hashing table, -1 before any trial */
+        private long slowestDoubleHashProbes = -1;
+        /** Statistics of the probe counts for the linear probing table of each block of TRIALS_PER_BLOCK trials */
+        private final RunningStatistics[] linearBlocks;
+        /** Statistics of the probe counts for the double hashing table of each block of TRIALS_PER_BLOCK trials */
+        private final RunningStatistics[] doubleHashBlocks;
+        /** Statistics of the probe counts of the trials for the linear probing table, set by mergeBlocks */
+        private final RunningStatistics linearStatistics = new RunningStatistics();
+        /** Statistics of the probe counts of the trials for the double hashing table, set by mergeBlocks */
+        private final RunningStatistics doubleHashStatistics = new RunningStatistics();
+        /** Probe count of each trial for the linear probing table, or null if they aren't kept */
+        private final long[] linearProbes;
+        /** Probe count of each trial for the double hashing table, or null if they aren't kept */
+        private final long[] doubleHashProbes;
+        /** Size of the linear probing table after the last trial */
+        private int linearTableSize;
+        /** Load factor of the linear probing table after the last trial */
+        private double linearLoadFactor;
+        /** Size of the double hashing table after the last trial */
+        private int doubleTableSize;
+        /** Load factor of the double hashing table after the last trial */
+        private double doubleLoadFactor;
+        /** Probes of every unsuccessful search on the linear probing tables, over every trial */
+        private final ProbeHistogram linearHistogram = new ProbeHistogram();
+        /** Probes of every unsuccessful search on the double hashing tables, over every trial */
+        private final ProbeHistogram doubleHashHistogram = new ProbeHistogram();
+
+
+        /**
+         * Full Constructor
+         * @param firstTrial number of the first trial recorded
+         * @param trials number of trials recorded
+         * @param keepProbes true to keep the probe count of every trial as well as their statistics
+         */
+        private TrialResults(int firstTrial, int trials, boolean keepProbes) {
+            this.firstTrial = firstTrial;
+            this.trials = trials;
+            linearProbes = keepProbes ? new long[trials] : null;
+            doubleHashProbes = keepProbes ? new long[trials] : null;
+            int blocks = (trials + TRIALS_PER_BLOCK - 1) / TRIALS_PER_BLOCK;
+            linearBlocks = new RunningStatistics[blocks];
+            doubleHashBlocks = new RunningStatistics[blocks];
+            for (int i = 0; i < blocks; i++) {
+                linearBlocks[i] = new RunningStatistics();
+                doubleHashBlocks[i] = new RunningStatistics();
+            }
+        }
+
+
+        /**
+         * Merges the statistics of every block in trial order. Must be called once, after every trial has run.
+         */
+        private void mergeBlocks() {
+            for (int i = 0; i < linearBlocks.length; i++) {
+                linearStatistics.merge(linearBlocks[i]);
+                doubleHashStatistics.merge(doubleHashBlocks[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Probe counts and search time of every trial run on a single kind of hash table.
+     */
+    private static final class SchemeResults {
+        /** Probe count of each trial */
+        private final long[] probes;
+        /** Most probes taken by a single search, over every trial */
+        private long maxProbes;
+        /** Total time spent searching, over every trial */
+        private long searchNanos;
+        /** Size of the hash table after the last trial */
+        private int tableSize;
+        /** Load factor of the hash table after the last trial */
+        private double loadFactor;
+
+
+        /**
+         * Full Constructor
+         * @param trials number of trials
+         */
+        private SchemeResults(int trials) {
+            probes = new long[trials];
+        }
+    }
+
+
+    /**
+     * Fork/join task that splits a range of trials in half until it is small enough to run on its own pair of tables.
+     */
+    private final class TrialTask extends RecursiveAction {
+        /** Version of the serialized form, which every RecursiveAction has */
+        private static final long serialVersionUID = 1L;
+        /** Number of the first trial in this task */
+        private final int start;
+        /** Number after the last trial in this task */
+        private final int end;
+        /** Largest number of trials a task runs without splitting */
+        private final int threshold;
+        /** Number of names to add to both hash tables */
+        private final int namesToAdd;
+        /** Number of names to search per trial */
+        private final int namesToSearch;
+        /** Seed that every trial's random stream is derived from */
+        private final long seed;
+        /** Where the probe counts are recorded */
+        private final TrialResults results;
+
+
+        /**
+         * Full Constructor
+         * @param start number of the first trial in this task
+         * @param end number after the last trial in this task
+         * @param threshold largest number of trials a task runs without splitting
+         * @param namesToAdd number of names to add to both hash tables
+         * @param namesToSearch number of names to search per trial
+         * @param seed seed that every trial's random stream is derived from
+         * @param results where the probe counts are recorded
+         */
+        private TrialTask(int start, int end, int threshold, int namesToAdd, int namesToSearch, long seed,
+                          TrialResults results) {
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+            this.namesToAdd = namesToAdd;
+            this.namesToSearch = namesToSearch;
+            this.seed = seed;
+            this.results = results;
+        }
+
+
+        /**
+         * Runs the trials if there are few enough of them, otherwise splits them between two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (end - start <= threshold) {
+                // This worker owns its tables, so no other thread ever touches them
+                runTrials(start, end, namesToAdd, namesToSearch, seed,
+                        new LinearProbingWithCount<>(linearCapacity),
+                        new DoubleHashingWithCount<>(doubleCapacity, doubleHashPrime), results);
+            } else {
+                // Split on a block boundary, so every block is run by a single worker
+                int middle = start + Math.max(1, (end - start) / TRIALS_PER_BLOCK / 2) * TRIALS_PER_BLOCK;
+                invokeAll(new TrialTask(start, middle, threshold, namesToAdd, namesToSearch, seed, results),
+                        new TrialTask(middle, end, threshold, namesToAdd, namesToSearch, seed, results));
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,376 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * The hash function a hashed dictionary turns its search keys into hash codes with, before reducing them to a
+ * hashTable index. IDENTITY uses the key's own hashCode(), which is what the dictionaries did before they could be
+ * given a strategy; String.hashCode() is a polynomial in 31 that gives short names with the same prefix nearby hash
+ * codes, which % by a prime and linear probing then turn into clusters. The other strategies hash the key's bytes with
+ * a well known function that mixes every bit of the input into every bit of the output.
+ *
+ * String keys are hashed over their UTF-16 code units in little endian order, without encoding or copying them, and
+ * byte[] keys over their contents. Any other key is hashed over the 4 bytes of its hashCode(), so keys that are equal
+ * still always get equal hash codes. The 64 bit functions are folded to 32 bits by xoring their two halves.
+ *
+ * All the functions are unseeded (seed 0, and wyhash's default secret), so they match published test vectors.
+ */
+public enum HashStrategy
+{
+    /** The key's own hashCode() */
+    IDENTITY,
+
+    /** MurmurHash3, the 32 bit x86 variant */
+    MURMUR3,
+
+    /** xxHash64 */
+    XXHASH64,
+
+    /** FNV-1a, the 32 bit variant */
+    FNV1A,
+
+    /** wyhash, the final4 version */
+    WYHASH;
+
+    /** First of the five xxHash64 primes */
+    private static final long XX_P1 = 0x9E3779B185EBCA87L;
+    /** Second of the five xxHash64 primes */
+    private static final long XX_P2 = 0xC2B2AE3D27D4EB4FL;
+    /** Third of the five xxHash64 primes */
+    private static final long XX_P3 = 0x165667B19E3779F9L;
+    /** Fourth of the five xxHash64 primes */
+    private static final long XX_P4 = 0x85EBCA77C2B2AE63L;
+    /** Fifth of the five xxHash64 primes */
+    private static final long XX_P5 = 0x27D4EB2F165667C5L;
+    /** First word of wyhash's default secret */
+    private static final long WY_S0 = 0x2d358dccaa6c78a5L;
+    /** Second word of wyhash's default secret */
+    private static final long WY_S1 = 0x8bb84b93962eacc9L;
+    /** Third word of wyhash's default secret */
+    private static final long WY_S2 = 0x4b33a62ed433d4a3L;
+    /** Fourth word of wyhash's default secret */
+    private static final long WY_S3 = 0x4d5a2da51de1aa47L;
+    /** Reads little endian ints out of a byte[] */
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    /** Reads little endian longs out of a byte[] */
+    private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+
+    /**
+     * Returns the hash code of a key, for a dictionary to reduce to a hashTable index.
+     * @param key the search key, not null
+     * @return the hash code
+     */
+    public int hash(Object key) {
+        if (this == IDENTITY)
+            return key.hashCode();
+        long hash = hash64(key, length(key));
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+
+    /**
+     * Returns the full hash of an array of bytes: 64 bits for xxHash64 and wyhash, and the 32 bit hash in the low
+     * bits for the others. For checking the functions against their published test vectors.
+     * @param bytes the bytes to hash
+     * @return the hash
+     */
+    public long hashBytes(byte[] bytes) {
+        return hash64(bytes, bytes.length);
+    }
+
+
+    /**
+     * Returns the full hash of a key's bytes.
+     * @param data a String, byte[] or other key
+     * @param length number of bytes in the key, as returned by length(data)
+     * @return the hash
+     */
+    private long hash64(Object data, int length) {
+        switch (this) {
+            case MURMUR3:
+                return murmur3(data, length);
+            case XXHASH64:
+                return xxHash64(data, length);
+            case FNV1A:
+                return fnv1a(data, length);
+            case WYHASH:
+                return wyhash(data, length);
+            default:
+                return data.hashCode() & 0xFFFFFFFFL;
+        }
+    }
+
+
+    /**
+     * Hashes a key's bytes with MurmurHash3, the 32 bit x86 variant.
+     * @param data a String, byte[] or other key
+     * @param length number of bytes in the key
+     * @return the 32 bit hash in the low bits
+     */
+    private static long murmur3(Object data, int length) {
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+        int h = 0;
+        int blocks = length & ~3;
+        for (int offset = 0; offset < blocks; offset += 4) {
+            h ^= Integer.rotateLeft(intAt(data, offset) * c1, 15) * c2;
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        int tail = length & 3;
+        if (tail != 0) { // The last 1 to 3 bytes
+            int k = byteAt(data, blocks);
+            if (tail > 1)
+                k ^= byteAt(data, blocks + 1) << 8;
+            if (tail > 2)
+                k ^= byteAt(data, blocks + 2) << 16;
+            h ^= Integer.rotateLeft(k * c1, 15) * c2;
+        }
+        h ^= length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0xFFFFFFFFL;
+    }
+
+
+    /**
+     * Hashes a key's bytes with xxHash64.
+     * @param data a String, byte[] or other key
+     * @param length number of bytes in the key
+     * @return the 64 bit hash
+     */
+    private static long xxHash64(Object data, int length) {
+        int offset = 0;
+        long h;
+        if (length >= 32) {
+            long v1 = XX_P1 + XX_P2;
+            long v2 = XX_P2;
+            long v3 = 0;
+            long v4 = -XX_P1;
+            for (; offset <= length - 32; offset += 32) {
+                v1 = xxRound(v1, longAt(data, offset));
+                v2 = xxRound(v2, longAt(data, offset + 8));
+                v3 = xxRound(v3, longAt(data, offset + 16));
+                v4 = xxRound(v4, longAt(data, offset + 24));
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                    + Long.rotateLeft(v4, 18);
+            h = xxMergeRound(h, v1);
+            h = xxMergeRound(h, v2);
+            h = xxMergeRound(h, v3);
+            h = xxMergeRound(h, v4);
+        } else {
+            h = XX_P5;
+        }
+        h += length;
+        for (; offset + 8 <= length; offset += 8) {
+            h ^= xxRound(0, longAt(data, offset));
+            h = Long.rotateLeft(h, 27) * XX_P1 + XX_P4;
+        }
+        if (offset + 4 <= length) {
+            h ^= (intAt(data, offset) & 0xFFFFFFFFL) * XX_P1;
+            h = Long.rotateLeft(h, 23) * XX_P2 + XX_P3;
+            offset += 4;
+        }
+        for (; offset < length; offset++) {
+            h ^= byteAt(data, offset) * XX_P5;
+            h = Long.rotateLeft(h, 11) * XX_P1;
+        }
+        h ^= h >>> 33;
+        h *= XX_P2;
+        h ^= h >>> 29;
+        h *= XX_P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+
+    /**
+     * Hashes a key's bytes with FNV-1a, the 32 bit variant.
+     * @param data a String, byte[] or other key
+     * @param length number of bytes in the key
+     * @return the 32 bit hash in the low bits
+     */
+    private static long fnv1a(Object data, int length) {
+        int h = 0x811C9DC5;
+        for (int offset = 0; offset < length; offset++)
+            h = (h ^ byteAt(data, offset)) * 0x01000193;
+        return h & 0xFFFFFFFFL;
+    }
+
+
+    /**
+     * Hashes a key's bytes with wyhash, the final4 version.
+     * @param data a String, byte[] or other key
+     * @param length number of bytes in the key
+     * @return the 64 bit hash
+     */
+    private static long wyhash(Object data, int length) {
+        long seed = wyMix(WY_S0, WY_S1);
+        long a;
+        long b;
+        if (length <= 16) {
+            if (length >= 4) {
+                int quarter = (length >>> 3) << 2;
+                a = (unsignedIntAt(data, 0) << 32) | unsignedIntAt(data, quarter);
+                b = (unsignedIntAt(data, length - 4) << 32) | unsignedIntAt(data, length - 4 - quarter);
+            } else if (length > 0) {
+                a = ((long) byteAt(data, 0) << 16) | ((long) byteAt(data, length >>> 1) << 8)
+                        | byteAt(data, length - 1);
+                b = 0;
+            } else {
+                a = 0;
+                b = 0;
+            }
+        } else {
+            int offset = 0;
+            int remaining = length;
+            if (remaining > 48) {
+                long see1 = seed;
+                long see2 = seed;
+                do {
+                    seed = wyMix(longAt(data, offset) ^ WY_S1, longAt(data, offset + 8) ^ seed);
+                    see1 = wyMix(longAt(data, offset + 16) ^ WY_S2, longAt(data, offset + 24) ^ see1);
+                    see2 = wyMix(longAt(data, offset + 32) ^ WY_S3, longAt(data, offset + 40) ^ see2);
+                    offset += 48;
+                    remaining -= 48;
+                } while (remaining > 48);
+                seed ^= see1 ^ see2;
+            }
+            while (remaining > 16) {
+                seed = wyMix(longAt(data, offset) ^ WY_S1, longAt(data, offset + 8) ^ seed);
+                offset += 16;
+                remaining -= 16;
+            }
+            a = longAt(data, offset + remaining - 16);
+            b = longAt(data, offset + remaining - 8);
+        }
+        a ^= WY_S1;
+        b ^= seed;
+        long low = a * b;
+        long high = unsignedMultiplyHigh(a, b);
+        return wyMix(low ^ WY_S0 ^ length, high ^ WY_S1);
+    }
+
+
+    /**
+     * Returns the number of bytes hashed for a key.
+     * @param data the key
+     * @return 2 per char of a String, the length of a byte[], or 4 for the hashCode() of any other key
+     */
+    private static int length(Object data) {
+        if (data instanceof byte[])
+            return ((byte[]) data).length;
+        if (data instanceof String)
+            return 2 * ((String) data).length();
+        return 4;
+    }
+
+
+    /**
+     * Returns one byte of a key.
+     * @param data the key
+     * @param offset offset of the byte
+     * @return the byte, from 0 to 255
+     */
+    private static int byteAt(Object data, int offset) {
+        if (data instanceof byte[])
+            return ((byte[]) data)[offset] & 0xFF;
+        if (data instanceof String)
+            return (((String) data).charAt(offset >> 1) >>> ((offset & 1) << 3)) & 0xFF;
+        return (data.hashCode() >>> (offset << 3)) & 0xFF;
+    }
+
+
+    /**
+     * Returns four bytes of a key as a little endian int.
+     * @param data the key
+     * @param offset offset of the first byte
+     * @return the int
+     */
+    private static int intAt(Object data, int offset) {
+        if (data instanceof byte[])
+            return (int) INT_LE.get((byte[]) data, offset);
+        if (!(data instanceof String))
+            return data.hashCode(); // The only four bytes there are
+        String string = (String) data;
+        if ((offset & 1) == 0)
+            return string.charAt(offset >> 1) | (string.charAt((offset >> 1) + 1) << 16);
+        return byteAt(data, offset) | (byteAt(data, offset + 1) << 8) | (byteAt(data, offset + 2) << 16)
+                | (byteAt(data, offset + 3) << 24);
+    }
+
+
+    /**
+     * Returns four bytes of a key as an unsigned little endian int.
+     * @param data the key
+     * @param offset offset of the first byte
+     * @return the int, from 0 to 2^32 - 1
+     */
+    private static long unsignedIntAt(Object data, int offset) {
+        return intAt(data, offset) & 0xFFFFFFFFL;
+    }
+
+
+    /**
+     * Returns eight bytes of a key as a little endian long. Only keys of at least 8 bytes are read this way, so the
+     * key is a String or a byte[].
+     * @param data the key
+     * @param offset offset of the first byte
+     * @return the long
+     */
+    private static long longAt(Object data, int offset) {
+        if (data instanceof byte[])
+            return (long) LONG_LE.get((byte[]) data, offset);
+        return unsignedIntAt(data, offset) | ((long) intAt(data, offset + 4) << 32);
+    }
+
+
+    /**
+     * One round of xxHash64's accumulation.
+     * @param accumulator the accumulator before the round
+     * @param input eight bytes of the key
+     * @return the accumulator after the round
+     */
+    private static long xxRound(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * XX_P2, 31) * XX_P1;
+    }
+
+
+    /**
+     * Merges an xxHash64 accumulator into the hash.
+     * @param hash the hash before the merge
+     * @param accumulator the accumulator to merge in
+     * @return the hash after the merge
+     */
+    private static long xxMergeRound(long hash, long accumulator) {
+        return (hash ^ xxRound(0, accumulator)) * XX_P1 + XX_P4;
+    }
+
+
+    /**
+     * wyhash's mixing function, the xor of the two halves of the 128 bit product.
+     * @param a the first factor
+     * @param b the second factor
+     * @return the low 64 bits of the product xored with the high 64 bits
+     */
+    private static long wyMix(long a, long b) {
+        return (a * b) ^ unsignedMultiplyHigh(a, b);
+    }
+
+
+    /**
+     * Returns the high 64 bits of the unsigned 128 bit product of two longs (Math.unsignedMultiplyHigh, which is not
+     * in every JDK this builds on).
+     * @param a the first factor, taken as unsigned
+     * @param b the second factor, taken as unsigned
+     * @return the high 64 bits of the product
+     */
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
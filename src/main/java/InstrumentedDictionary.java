@@ -0,0 +1,25 @@
+/**
+ * A probe counting dictionary that also reports what is needed to watch it while it is in use, such as the removed
+ * entries it is holding on to and the time it has spent resizing. DictionaryMetrics publishes these over JMX.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public interface InstrumentedDictionary<K, V> extends ProbeCountingDictionary<K, V> {
+    /** Gets the number of locations of the hash table in the available state, left behind by removed entries.
+     @return  The number of tombstones. */
+    public int getTombstoneCount();
+
+    /** Gets the number of times the hash table has been enlarged.
+     @return  The number of resizes. */
+    public long getResizeCount();
+
+    /** Gets the total time spent enlarging the hash table.
+     @return  The time spent resizing, in nanoseconds. */
+    public long getResizeNanos();
+
+    /** Gets a copy of the histogram of the probes taken by one kind of operation since the probe count was reset.
+     @param operation  The kind of operation.
+     @return  The histogram, which doesn't change as the dictionary is used. */
+    public ProbeHistogram getProbeHistogram(ProbeHistogram.Operation operation);
+}
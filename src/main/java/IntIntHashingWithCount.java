@@ -0,0 +1,673 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Hashed Dictionary with primitive int search keys and primitive int values. See IntKeyHashingWithCount, this is the
+ * same table with the values kept in a flat int[] too, so nothing is boxed or allocated outside of a resize.
+ *
+ * Since an int value cannot be null, add, remove and getValue return the missing value (chosen at construction,
+ * 0 by default) wherever DictionaryInterface would return null.
+ */
+public class IntIntHashingWithCount
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private int numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary, half of MAX_SIZE so the table can be created at MAX_LOAD_FACTOR. */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / 2;
+
+    // The hash table:
+
+    /** Search keys of the dictionary, only meaningful where states holds OCCUPIED */
+    private int[] keys;
+    /** Values of the dictionary, parallel to keys */
+    private int[] values;
+    /** State of each location in the hash table: EMPTY, OCCUPIED or AVAILABLE */
+    private byte[] states;
+    /** Maximum size of the hashTable, the largest array length most JVMs allow */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    /** Checks that nothing went wrong during hashTable initialization */
+    private boolean integrityOK = false;
+    /** Fraction of the hash table that can be filled. */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    /** State of a location that has never held an entry (the null of the Entry based dictionaries) */
+    private static final byte EMPTY = 0;
+    /** State of a location that holds an entry */
+    private static final byte OCCUPIED = 1;
+    /** State of a location whose entry was removed (the AVAILABLE of the Entry based dictionaries) */
+    private static final byte AVAILABLE = 2;
+
+    // Collision resolution:
+
+    /** Value returned where DictionaryInterface would return null */
+    private final int missingValue;
+    /** True to resolve collisions with double hashing, false for linear probing */
+    private final boolean useDoubleHashing;
+    /** The prime that is used during the double hash sequence*/
+    private int doubleHashPrime;
+
+    //With Probe:
+
+    /** Number of probes total when using any function that calls getHashIndex() until the counter is reset using
+     * resetProbeCount() */
+    private long probeCount;
+
+
+    /**
+     * Default Constructor, uses linear probing.
+     */
+    public IntIntHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY, false, 0); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime).
+     * @param useDoubleHashing true to resolve collisions with double hashing, false for linear probing
+     * @param missingValue value returned by add, remove and getValue when the key is not in the dictionary
+     */
+    public IntIntHashingWithCount(int initialCapacity, boolean useDoubleHashing, int missingValue)
+    {
+        this.missingValue = missingValue;
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = 0;    // Dictionary is empty
+        probeCount = 0;  // No searches have been done yet
+        this.useDoubleHashing = useDoubleHashing;
+
+        // Set up hash table:
+        checkSize(initialCapacity); // Check that the size is not too large
+        keys = new int[initialCapacity];
+        values = new int[initialCapacity];
+        states = new byte[initialCapacity];
+        doubleHashPrime = findCoPrime(initialCapacity);
+        integrityOK = true;
+    }
+
+
+    /**
+     * Displays the hashTable.
+     */
+    public void displayHashTable()
+    {
+        checkIntegrity();
+        for (int index = 0; index < states.length; index++)
+        {
+            if (states[index] == EMPTY)
+                System.out.println("null ");
+            else if (states[index] == AVAILABLE)
+                System.out.println("available - removed state");
+            else
+                System.out.println(keys[index] + " " + values[index]);
+        }
+        System.out.println();
+    } // end displayHashTable
+
+
+    /**
+     * Returns the value that add, remove and getValue return when the key is not in the dictionary.
+     * @return the missing value
+     */
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+
+    /**
+     * Retrieves the current probeCount
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount = 0;
+    }
+
+
+    /** Adds a new entry to this dictionary. If the given search key already exists in the dictionary, replaces the
+     * corresponding value.
+     * @param key    An int search key of the new entry.
+     * @param value  An int associated with the search key.
+     * @return  Either the missing value if the new entry was added to the dictionary or the value that was associated
+     * with key if that value was replaced. */
+    public int add(int key, int value) {
+        checkIntegrity();
+
+        int oldValue; // Value to return
+
+        int index = getHashIndex(key);
+
+        // Assertion: index is within legal range for hashTable
+        assert (index >= 0) && (index < states.length);
+
+        if (states[index] != OCCUPIED)
+        { // Key not found, so insert new entry
+            keys[index] = key;
+            values[index] = value;
+            states[index] = OCCUPIED;
+            numberOfEntries++;
+            oldValue = missingValue;
+        }
+        else
+        { // Key found; get old value for return and then replace it
+            oldValue = values[index];
+            values[index] = value;
+        }
+
+        // Ensure that hash table is large enough for another add
+        if (isHashTableTooFull())
+            enlargeHashTable();
+
+        return oldValue;
+    }
+
+
+    /** Removes a specific entry from this dictionary.
+     * @param key  An int search key of the entry to be removed.
+     * @return  Either the value that was associated with the search key or the missing value if no such entry
+     * exists. */
+    public int remove(int key) {
+        checkIntegrity();
+        int removedValue = missingValue;
+
+        int index = getHashIndex(key);
+
+        if (states[index] == OCCUPIED) {
+            // Key found; flag entry as removed and return its value
+            removedValue = values[index];
+            states[index] = AVAILABLE;
+            numberOfEntries--;
+        }
+        // Else not found; result is the missing value
+        return removedValue;
+    }
+
+
+    /** Retrieves from this dictionary the value associated with a given search key.
+     * @param key  An int search key of the entry to be retrieved.
+     * @return  Either the value that is associated with the search key or the missing value if no such entry
+     * exists. */
+    public int getValue(int key) {
+        checkIntegrity();
+        int result = missingValue;
+
+        int index = getHashIndex(key);
+
+        if (states[index] == OCCUPIED)
+            result = values[index]; // Key found; get value
+        // Else not found; result is the missing value
+
+        return result;
+    }
+
+
+    /** Sees whether a specific entry is in this dictionary.
+     * @param key  An int search key of the desired entry.
+     * @return  True if key is associated with an entry in the dictionary. */
+    public boolean contains(int key) {
+        // The missing value can also be stored, so look at the state instead of the value
+        checkIntegrity();
+        return states[getHashIndex(key)] == OCCUPIED;
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) numberOfEntries/states.length;
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return states.length;
+    }
+
+
+    /** Sees whether this dictionary is empty.
+     * @return  True if the dictionary is empty. */
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+
+    /** Gets the size of this dictionary.
+     * @return  The number of entries (key-value pairs) currently in the dictionary. */
+    public int getSize() {
+        return numberOfEntries;
+    }
+
+
+    /** Removes all entries from this dictionary. */
+    public final void clear() {
+        checkIntegrity();
+        for (int index = 0; index < states.length; index++)
+            states[index] = EMPTY;
+
+        numberOfEntries = 0;
+    }
+
+
+    /** Creates an iterator that traverses all search keys in this dictionary, without boxing them.
+     * @return  An iterator that provides sequential access to the search keys in the dictionary. */
+    public PrimitiveIterator.OfInt getKeyIterator() {
+        return new KeyIterator();
+    }
+
+
+    /** Creates an iterator that traverses all values in this dictionary.
+     * @return  An iterator that provides sequential access to the values in this dictionary. */
+    public PrimitiveIterator.OfInt getValueIterator() {
+        return new ValueIterator();
+    }
+
+
+    /**
+     * Finds and retrieves an unused or available hashIndex for this key.
+     * @param key An int search key we want hashIndex for
+     * @return first available or unused hashIndex for this search key
+     */
+    private int getHashIndex(int key) {
+        int hashCode = Integer.hashCode(key);
+        int hashIndex = hashCode % states.length;
+
+        if (hashIndex < 0) {
+            hashIndex = hashIndex + states.length;
+        }
+
+        probeCount++; // count initial probe
+
+        // Check for and resolve collision
+        return probe(hashIndex, hashCode, key);
+    }
+
+
+    /**
+     * Check to see if the initial hashIndex is unused or available, and if it is not, finds one via linear probing or
+     * double hashing.
+     * @param index the initial hashIndex for this key
+     * @param hashCode hash code of the key
+     * @param key An int search key we want hashIndex for
+     * @return the initial hashIndex if it is unused or available, or the first available or unused one.
+     * Time Complexity: O(n), possibly needs to check every index in the hash table.
+     * @throws IllegalStateException if the probe sequence has visited as many locations as the hash table has without
+     *                               finding the key or a location it can use, which can only happen with double
+     *                               hashing when the step and the hash table size are not coprime
+     */
+    private int probe(int index, int hashCode, int key) {
+        // Linear probing steps by 1, double hashing by the same second hash as DoubleHashingWithCount
+        int step = useDoubleHashing ? getStep(hashCode, states.length) : 1;
+        int n = 0; // Number of locations visited after the initial one
+        boolean found = false;
+        int availableIndex = -1; // Index of first available location (from which an entry was removed)
+
+        while ( !found && (states[index] != EMPTY) )
+        {
+            if (n == states.length) { // The probe sequence has gone round without reaching an empty location
+                if (availableIndex == -1) {
+                    throw new IllegalStateException("Probe sequence cannot reach an empty location; the step is " +
+                            "not coprime to the hash table size " + states.length + ".");
+                }
+                return availableIndex;
+            }
+
+            if ( (states[index] == OCCUPIED) && (keys[index] == key) ) {
+                found = true; // Key found
+            } else { // Follow probe sequence, skipping entries that were removed
+                // Save index of first location in removed state
+                if ( (states[index] == AVAILABLE) && (availableIndex == -1) ) {
+                    availableIndex = index;
+                }
+                n++;
+                index = nextIndex(index, step, states.length);
+                probeCount++; // Add to probe count for every probe we do.
+            }
+        }
+
+        // Assertion: Either key or an empty location is found at index
+        if (found || (availableIndex == -1) ) { // Index of either key or empty location
+            return index;
+        } else { // Index of an available location
+            return availableIndex;
+        }
+    } // end probe
+
+
+    /**
+     * Returns the step of a key's double hash sequence, the same second hash as DoubleHashingWithCount. The hash code
+     * is reduced with floorMod so a negative one still gives a step from 1 to doubleHashPrime; with % the step could
+     * reach twice doubleHashPrime, a multiple of the table size, and the sequence would never leave its first location.
+     * @param hashCode hash code of the key
+     * @param length length of the table
+     * @return the step, from 1 to length - 1
+     */
+    private int getStep(int hashCode, int length) {
+        int step = (doubleHashPrime - Math.floorMod(hashCode, doubleHashPrime)) % length;
+        return (step == 0) ? 1 : step;
+    }
+
+
+    /**
+     * Moves one step along the probe sequence. The index and step are both less than the table size, so the sum is
+     * reduced by subtracting rather than computed outright, which can't overflow even when the table is close to the
+     * largest array size.
+     * @param index current index in the table
+     * @param step the key's step, less than the table size
+     * @param length length of the table
+     * @return the next index in the sequence
+     */
+    private int nextIndex(int index, int step, int length) {
+        int remaining = length - step; // Distance the index can go before it must wrap around
+        return (index < remaining) ? index + step : index - remaining;
+    }
+
+
+    /**
+     * Increases the size of a hash table to a prime greater than or equal to twice its old size.
+     * Then, rehashes the entries.
+     * @throws IllegalStateException if the hash table cannot grow any larger, or the heap has no room for it
+     */
+    private void enlargeHashTable() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        byte[] oldStates = states;
+        int oldSize = states.length;
+        int newSize = getEnlargedSize(oldSize);
+        try {
+            keys = new int[newSize];
+            values = new int[newSize];
+            states = new byte[newSize];
+        } catch (OutOfMemoryError e) { // Leave the dictionary as it was
+            keys = oldKeys;
+            values = oldValues;
+            states = oldStates;
+            throw new IllegalStateException("Dictionary has become too large for the heap, which has no room for a " +
+                    "hash table of " + newSize + " locations.", e);
+        }
+        doubleHashPrime = findCoPrime(newSize);
+        numberOfEntries = 0; // Reset number of dictionary entries, since
+        // it will be incremented by add during rehash
+
+        // Rehash dictionary entries from old array to the new and bigger array;
+        // skip both empty locations and removed entries
+        for (int index = 0; index < oldSize; index++)
+        {
+            if (oldStates[index] == OCCUPIED)
+                add(oldKeys[index], oldValues[index]);
+        }
+    }
+
+
+    /**
+     * Returns the size to enlarge the hash table to, a prime greater than or equal to twice its old size. If that is
+     * more than MAX_SIZE it is cut back to the largest prime that fits, so a table close to the limit still grows.
+     * @param oldSize current size of the hash table
+     * @return the new size of the hash table
+     * @throws IllegalStateException if the hash table cannot grow any larger
+     */
+    private int getEnlargedSize(int oldSize) {
+        int newSize = getNextPrime((int) Math.min(2L * oldSize, MAX_SIZE));
+        if (newSize > MAX_SIZE)
+            newSize = getPreviousPrime(MAX_SIZE);
+        if (newSize <= oldSize)
+            throw new IllegalStateException("Dictionary has become too large.");
+        return newSize;
+    }
+
+
+    /**
+     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
+     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     */
+    private boolean isHashTableTooFull() {
+        return numberOfEntries > MAX_LOAD_FACTOR * states.length;
+    }
+
+
+    /**
+     * Returns an integer that is coprime to the size of the hashTable, prioritizes choosing a prime number first. Same
+     * choice as DoubleHashingWithCount.findCoPrime().
+     * @param tableSize size of the hashTable
+     * @return an integer that is coprime to the size of the hashTable
+     */
+    private int findCoPrime(int tableSize) {
+        //first try to find a prime that is coprime
+        int testPrime = 5;
+        while (testPrime < tableSize) {
+            testPrime = testPrime + 2;
+            if (isPrime(testPrime) && (tableSize % testPrime != 0)) {
+                return testPrime;
+            }
+        }
+        return 7;
+    }
+
+
+    /**
+     * Returns a prime integer that is greater than or equal to the given integer, but less than or equal to MAX_SIZE.
+     * @param anInteger any positive integer
+     * @return a prime integer
+     */
+    private int getNextPrime(int anInteger) {
+        // if even, add 1 to make odd
+        if (anInteger % 2 == 0)
+        {
+            anInteger++;
+        } // end if
+
+        // test odd integers
+        while (!isPrime(anInteger))
+        {
+            anInteger = anInteger + 2;
+        } // end while
+
+        return anInteger;
+    } // end getNextPrime
+
+
+    /**
+     * Returns the largest prime integer that is less than or equal to the given integer.
+     * @param anInteger any integer greater than or equal to 5
+     * @return a prime integer
+     */
+    private int getPreviousPrime(int anInteger) {
+        // if even, subtract 1 to make odd
+        if (anInteger % 2 == 0)
+            anInteger--;
+
+        // test odd integers
+        while (!isPrime(anInteger))
+            anInteger = anInteger - 2;
+
+        return anInteger;
+    }
+
+
+    /**
+     * Determines whether an odd integer greater than 3 is prime.
+     * @param anInteger any odd integer greater than 3
+     * @return true if the given integer is prime, false otherwise.
+     */
+    private boolean isPrime(int anInteger) {
+        // a prime is odd and not divisible by every odd integer up to its square root
+        for (int divisor = 3; (long) divisor * divisor <= anInteger; divisor = divisor + 2)
+        {
+            if (anInteger % divisor == 0) {
+                return false; // divisible; not prime
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Throws an exception if this object is not initialized.
+     * @throws SecurityException if object is not initialized
+     */
+    private void checkIntegrity() {
+        if (!integrityOK)
+            throw new SecurityException ("HashedDictionary object is corrupt.");
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * Verifies size of the hashTable itself.
+     * @param size current size of hashTable
+     * @throws IllegalStateException if hashTable exceeds MAX_SIZE
+     */
+    private void checkSize(int size)
+    {
+        if (size > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+    }
+
+
+    /**
+     * Iterator object that iterates through the keys of this dictionary without boxing them
+     */
+    private class KeyIterator implements PrimitiveIterator.OfInt
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for KeyIterator
+         */
+        private KeyIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public int nextInt() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain a current entry
+            while (states[currentIndex] != OCCUPIED) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return keys[currentIndex++];
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end KeyIterator
+
+
+    /**
+     * Iterator object that iterates through the values of this dictionary without boxing them
+     */
+    private class ValueIterator implements PrimitiveIterator.OfInt
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for ValueIterator
+         */
+        private ValueIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public int nextInt() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain a current entry
+            while (states[currentIndex] != OCCUPIED) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return values[currentIndex++];
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end ValueIterator
+} // end IntIntHashingWithCount
@@ -0,0 +1,32 @@
+/**
+ * A numbered collection of distinct keys for GetStatistics to draw names from. A corpus only has to produce a key as
+ * a String when it is asked for one, so it can hold far more keys than would fit in memory as Strings.
+ */
+public interface KeyCorpus {
+    /** Gets the number of keys in the corpus.
+     @return  The number of keys. */
+    public int size();
+
+    /** Gets one key of the corpus.
+     @param index  The number of the key, from 0 to size() - 1.
+     @return  The key.
+     @throws IndexOutOfBoundsException if index is not the number of a key. */
+    public String get(int index);
+
+    /** Wraps an array of keys, which is not copied.
+     @param keys  The keys, which should all be different.
+     @return  A corpus whose key i is keys[i]. */
+    public static KeyCorpus of(String... keys) {
+        return new KeyCorpus() {
+            @Override
+            public int size() {
+                return keys.length;
+            }
+
+            @Override
+            public String get(int index) {
+                return keys[index];
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAccumulator;
 
 /**
  * Hashed Dictionary that resolves collisions with linear probing. Contains extra fields and methods for counting
@@ -21,7 +23,7 @@ import java.util.NoSuchElementException;
  * @param <K> generic of type K for the search key
  * @param <V> generic of type V for the value
  */
-public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
+public class LinearProbingWithCount<K, V> implements InstrumentedDictionary<K, V>
 {
     // The dictionary:
 
@@ -29,8 +31,8 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     private int numberOfEntries;
     /** Default capacity of the dictionary when using empty constructor*/
     private static final int DEFAULT_CAPACITY = 11;
-    /** Max capacity of the dictionary. */
-    private static final int MAX_CAPACITY = 10000;
+    /** Max capacity of the dictionary, half of MAX_SIZE so the table can be created at DEFAULT_MAX_LOAD_FACTOR. */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / 2;
 
     // The hash table:
 
@@ -38,20 +40,56 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     private Entry<K, V>[] hashTable;
     /** Number of cells in the entire hashTable */
     private int tableSize;
-    /** Maximum size of the hashTable */
-    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Maximum size of the hashTable, the largest array length most JVMs allow */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    /** Bytes of heap a location of the hashTable takes up (a reference, without compressed pointers) */
+    private static final int BYTES_PER_LOCATION = 8;
     /** Checks that nothing went wrong during hashTable initialization */
     private boolean integrityOK = false;
-    /** Fraction of the hash table that can be filled. */
-    private static final double MAX_LOAD_FACTOR = 0.5;
+    /** Fraction of the hash table that can be filled, unless the constructor is given another. */
+    private static final double DEFAULT_MAX_LOAD_FACTOR = 0.5;
+    /** Fraction of the hash table that can be filled before it is enlarged. */
+    private final double maxLoadFactor;
     /** Occupies locations in the hash table in the available state (locations whose entries were removed) */
-    private final Entry<K, V> AVAILABLE = new Entry<>(null, null);
+    private final Entry<K, V> AVAILABLE = new Entry<>(null, null, 0);
+    /** True if the hashTable size is a power of two and indices are found by mixing the hash code and masking it,
+     * false if the size is prime and indices are found with % */
+    private final boolean powerOfTwoSizing;
+    /** True if remove shifts the rest of the cluster back over the removed entry instead of leaving AVAILABLE */
+    private final boolean backwardShiftDeletion;
+    /** True if the hashTable is enlarged a few locations per operation instead of all at once */
+    private final boolean incrementalResizing;
+    /** Table whose entries are being moved into hashTable by an incremental resize, null when none is running */
+    private Entry<K, V>[] previousTable;
+    /** Next location of previousTable to move */
+    private int migrationIndex;
+    /** Number of previousTable locations each add, remove and getValue moves during an incremental resize */
+    private static final int MIGRATION_STEP = 4;
+    /** Fraction of maxLoadFactor the entries alone can fill for the hashTable to be rehashed at the same size, rather
+     * than enlarged, when its entries and available locations together make it too full */
+    private static final double SAME_SIZE_REHASH_FRACTION = 0.75;
+    /** Hash function search keys are turned into hash codes with */
+    private final HashStrategy hashStrategy;
 
     //With Probe:
 
     /** Number of probes total when using any function that calls getHashIndex() or linearProbe() until the counter
-     * is reset using resetLinearProbe() */
-    private int probeCount;
+     * is reset using resetLinearProbe(). Safe to read while another thread is using the dictionary. */
+    private final ProbeCounter probeCount;
+    /** Probe histogram of each kind of operation, reset together with the probeCount */
+    private final OperationHistograms probeHistograms = new OperationHistograms();
+
+    // For monitoring:
+
+    /** Number of hashTable locations in the available state */
+    private int tombstoneCount;
+    /** Number of times enlargeHashTable has run */
+    private long resizeCount;
+    /** Total time spent in enlargeHashTable, in nanoseconds */
+    private long resizeNanos;
+    /** Most work (probes plus locations visited by a resize) done by a single add, remove or getValue until the
+     * counter is reset using resetMaxOperationWork(). Safe to update from several threads at once. */
+    private final LongAccumulator maxOperationWork = new LongAccumulator(Math::max, 0);
 
 
     /**
@@ -64,18 +102,129 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
 
 
     /**
-     * Full Constructor
+     * Partial Constructor - uses prime sizing.
      * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
      *                        prime number, if not already prime).
      */
     public LinearProbingWithCount(int initialCapacity)
     {
+        this(initialCapacity, false);
+    }
+
+
+    /**
+     * Partial Constructor - removes entries by leaving them in the available state.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, reducing hash codes with a mixing
+     *                         function and a bit mask instead of % by a prime
+     */
+    public LinearProbingWithCount(int initialCapacity, boolean powerOfTwoSizing)
+    {
+        this(initialCapacity, powerOfTwoSizing, false);
+    }
+
+
+    /**
+     * Partial Constructor - enlarges the hashTable all at once.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, reducing hash codes with a mixing
+     *                         function and a bit mask instead of % by a prime
+     * @param backwardShiftDeletion true to remove entries by shifting the rest of their cluster back (Knuth's
+     *                              Algorithm R), so the hashTable never holds entries in the available state
+     */
+    public LinearProbingWithCount(int initialCapacity, boolean powerOfTwoSizing, boolean backwardShiftDeletion)
+    {
+        this(initialCapacity, powerOfTwoSizing, backwardShiftDeletion, false);
+    }
+
+
+    /**
+     * Partial Constructor - enlarges the hashTable once it is more than half full.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, reducing hash codes with a mixing
+     *                         function and a bit mask instead of % by a prime
+     * @param backwardShiftDeletion true to remove entries by shifting the rest of their cluster back (Knuth's
+     *                              Algorithm R), so the hashTable never holds entries in the available state
+     * @param incrementalResizing true to keep the old table around when the hashTable is enlarged and move its
+     *                            entries a few locations per operation, so no single add pays for the whole rehash
+     */
+    public LinearProbingWithCount(int initialCapacity, boolean powerOfTwoSizing, boolean backwardShiftDeletion,
+                                  boolean incrementalResizing)
+    {
+        this(initialCapacity, powerOfTwoSizing, backwardShiftDeletion, incrementalResizing, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Partial Constructor - hashes keys with their own hashCode().
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, reducing hash codes with a mixing
+     *                         function and a bit mask instead of % by a prime
+     * @param backwardShiftDeletion true to remove entries by shifting the rest of their cluster back (Knuth's
+     *                              Algorithm R), so the hashTable never holds entries in the available state
+     * @param incrementalResizing true to keep the old table around when the hashTable is enlarged and move its
+     *                            entries a few locations per operation, so no single add pays for the whole rehash
+     * @param maxLoadFactor fraction of the hashTable that can be filled before it is enlarged, greater than 0 and less
+     *                      than 1 (the other constructors use 0.5)
+     * @throws IllegalArgumentException if maxLoadFactor is not greater than 0 and less than 1
+     */
+    public LinearProbingWithCount(int initialCapacity, boolean powerOfTwoSizing, boolean backwardShiftDeletion,
+                                  boolean incrementalResizing, double maxLoadFactor)
+    {
+        this(initialCapacity, powerOfTwoSizing, backwardShiftDeletion, incrementalResizing, maxLoadFactor,
+                HashStrategy.IDENTITY);
+    }
+
+
+    /**
+     * Partial Constructor - uses prime sizing and hashes keys with the given hash function.
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime).
+     * @param hashStrategy hash function to turn search keys into hash codes with
+     */
+    public LinearProbingWithCount(int initialCapacity, HashStrategy hashStrategy)
+    {
+        this(initialCapacity, false, false, false, DEFAULT_MAX_LOAD_FACTOR, hashStrategy);
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number, if not already prime, or to the next power of two).
+     * @param powerOfTwoSizing true to keep the hashTable size a power of two, reducing hash codes with a mixing
+     *                         function and a bit mask instead of % by a prime
+     * @param backwardShiftDeletion true to remove entries by shifting the rest of their cluster back (Knuth's
+     *                              Algorithm R), so the hashTable never holds entries in the available state
+     * @param incrementalResizing true to keep the old table around when the hashTable is enlarged and move its
+     *                            entries a few locations per operation, so no single add pays for the whole rehash
+     * @param maxLoadFactor fraction of the hashTable that can be filled before it is enlarged, greater than 0 and less
+     *                      than 1 (the other constructors use 0.5)
+     * @param hashStrategy hash function to turn search keys into hash codes with (the other constructors use
+     *                     HashStrategy.IDENTITY, the key's own hashCode())
+     * @throws IllegalArgumentException if maxLoadFactor is not greater than 0 and less than 1
+     * @throws NullPointerException if hashStrategy is null
+     */
+    public LinearProbingWithCount(int initialCapacity, boolean powerOfTwoSizing, boolean backwardShiftDeletion,
+                                  boolean incrementalResizing, double maxLoadFactor, HashStrategy hashStrategy)
+    {
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1))
+            throw new IllegalArgumentException("Max load factor must be greater than 0 and less than 1.");
+        this.hashStrategy = Objects.requireNonNull(hashStrategy);
         initialCapacity = checkCapacity(initialCapacity);
         numberOfEntries = 0;    // Dictionary is empty
-        probeCount = 0;  // No searches have been done yet
+        probeCount = new ProbeCounter();  // No searches have been done yet
+        this.powerOfTwoSizing = powerOfTwoSizing;
+        this.backwardShiftDeletion = backwardShiftDeletion;
+        this.incrementalResizing = incrementalResizing;
+        this.maxLoadFactor = maxLoadFactor;
 
         // Set up hash table:
-        tableSize = initialCapacity;
+        tableSize = powerOfTwoSizing ? nextPowerOfTwo(initialCapacity) : initialCapacity;
         checkSize(tableSize); // Check that the size is not too large
 
         // The cast is safe because the new array contains null entries
@@ -105,6 +254,17 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
             else
                 System.out.println(hashTable[index].getKey() + " " + hashTable[index].getValue());
         } // end for
+        if (previousTable != null) {
+            System.out.println("table being resized, moved up to " + migrationIndex + ":");
+            for (Entry<K, V> entry : previousTable) {
+                if (entry == null)
+                    System.out.println("null ");
+                else if (entry == AVAILABLE)
+                    System.out.println("available - removed state");
+                else
+                    System.out.println(entry.getKey() + " " + entry.getValue());
+            }
+        }
         System.out.println();
     } // end displayHashTable
     // -------------------------
@@ -115,16 +275,152 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
      *
      * @return the current probeCount
      */
-    public int getProbeCount() {
-        return probeCount;
+    public long getProbeCount() {
+        return probeCount.sum();
     }
 
 
     /**
-     * resets the probeCount to 0.
+     * resets the probeCount, and the probe histograms, to 0.
      */
     public void resetProbeCount() {
-        probeCount = 0;
+        probeCount.reset();
+        probeHistograms.reset();
+    }
+
+
+    /**
+     * Returns a copy of the histogram of the probes taken by one kind of operation since the dictionary was created or
+     * the probeCount was reset. An operation's probes are those of its search, plus the backward shift of a remove.
+     * The probes made placing entries in an enlarged or migrated hashTable are left out; getMaxOperationWork covers
+     * those.
+     * @param operation the kind of operation
+     * @return the histogram, which doesn't change as the dictionary is used
+     */
+    public ProbeHistogram getProbeHistogram(ProbeHistogram.Operation operation) {
+        return probeHistograms.copy(operation);
+    }
+
+
+    /**
+     * Adds the histogram of the probes taken by one kind of operation to another histogram, as
+     * histogram.add(getProbeHistogram(operation)) would but without making a copy.
+     * @param operation the kind of operation
+     * @param histogram the histogram to add to
+     */
+    public void addProbeHistogramTo(ProbeHistogram.Operation operation, ProbeHistogram histogram) {
+        probeHistograms.addTo(operation, histogram);
+    }
+
+
+    /**
+     * Returns the number of hashTable locations in the available state, left behind by removed entries. They count
+     * towards maxLoadFactor, and are dropped when the hashTable is enlarged or rehashed at the same size. In
+     * incremental mode only the locations of the new hashTable count; the old table is dropped once it has been
+     * migrated.
+     * @return the number of tombstones
+     */
+    public int getTombstoneCount() {
+        return tombstoneCount;
+    }
+
+
+    /**
+     * Returns the number of times the hashTable has been enlarged.
+     * @return the number of resizes
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+
+    /**
+     * Returns the total time spent enlarging the hashTable. In incremental mode this only covers creating the new
+     * hashTable; the entries are moved by later operations and counted in their work.
+     * @return the time spent resizing, in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+
+    /**
+     * Returns the most work done by a single add, remove or getValue since the dictionary was created or the counter
+     * was reset. Work is the probes made, including the probes that place entries into an enlarged hashTable, plus
+     * every location of the old table visited by a resize.
+     * @return the most work done by one operation
+     */
+    public long getMaxOperationWork() {
+        return maxOperationWork.get();
+    }
+
+
+    /**
+     * resets the maxOperationWork to 0.
+     */
+    public void resetMaxOperationWork() {
+        maxOperationWork.reset();
+    }
+
+
+    /**
+     * Analyzes the clusters of the hashTable in a single pass over it. Only a fixed amount of memory is allocated
+     * whatever the size of the table, and nothing is changed or counted as probes, so this can be called now and then
+     * on a large table that is in use. In incremental mode a table still being resized is left out; its entries are
+     * counted once they have been moved.
+     * @return the cluster statistics of the hashTable
+     */
+    public ClusterStatistics analyzeClusters() {
+        checkIntegrity();
+        Entry<K, V>[] table = hashTable;
+        ProbeHistogram clusterLengths = new ProbeHistogram();
+        long clusterLocations = 0;
+        long tombstones = 0;
+        long clusterProbeSum = 0;
+        int largestClusterStart = -1;
+        long largestClusterLength = 0;
+
+        int firstNull = -1; // A cluster running into the start of the table is finished off at the end of it
+        int clusterLength = 0;
+        for (int index = 0; index < table.length; index++)
+        {
+            Entry<K, V> entry = table[index];
+            if (entry != null) {
+                clusterLength++;
+                if (entry == AVAILABLE)
+                    tombstones++;
+                continue;
+            }
+
+            if (firstNull == -1) {
+                firstNull = index;
+            } else if (clusterLength > 0) {
+                clusterLengths.record(clusterLength);
+                clusterLocations += clusterLength;
+                clusterProbeSum += (long) clusterLength * (clusterLength + 1) / 2;
+                if (clusterLength > largestClusterLength) {
+                    largestClusterLength = clusterLength;
+                    largestClusterStart = index - clusterLength;
+                }
+            }
+            clusterLength = 0;
+        }
+
+        // The cluster at the end of the table wraps around into the one before the first null location
+        // (if there is no null location at all, the whole table is one cluster)
+        int start = (firstNull == -1) ? 0 : (table.length - clusterLength) % table.length;
+        clusterLength += (firstNull == -1) ? 0 : firstNull;
+        if (clusterLength > 0) {
+            clusterLengths.record(clusterLength);
+            clusterLocations += clusterLength;
+            clusterProbeSum += (long) clusterLength * (clusterLength + 1) / 2;
+            // If it starts at 0 it comes before any cluster of the same length found in the loop
+            if ( (clusterLength > largestClusterLength) || ((clusterLength == largestClusterLength) && (start == 0)) )
+                largestClusterStart = start;
+        }
+
+        return new ClusterStatistics(table.length, clusterLengths, largestClusterStart, clusterLocations, tombstones,
+                clusterProbeSum);
     }
 
 
@@ -139,17 +435,34 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
         else
         {
             V oldValue; // Value to return
+            long work = (previousTable != null) ? migrate(MIGRATION_STEP) : 0;
 
-            int index = getHashIndex(key);
+            int hash = hashStrategy.hash(key);
+            long search = getHashIndex(hashTable, key, hash);
+            int index = indexOf(search);
+            long probes = probesOf(search);
 
             // Assertion: index is within legal range for hashTable
             assert (index >= 0) && (index < hashTable.length);
 
             if ( (hashTable[index] == null) || (hashTable[index] == AVAILABLE) )
-            { // Key not found, so insert new entry
-                hashTable[index] = new Entry<>(key, value);
-                numberOfEntries++;
-                oldValue = null;
+            {
+                long previousSearch = findInPreviousTable(key, hash);
+                probes += probesOf(previousSearch);
+                int previousIndex = indexOf(previousSearch);
+                if (previousIndex != -1)
+                { // Key found in the table being resized; get old value for return and then replace it
+                    oldValue = previousTable[previousIndex].getValue();
+                    previousTable[previousIndex].setValue(value);
+                }
+                else
+                { // Key not found, so insert new entry
+                    if (hashTable[index] == AVAILABLE)
+                        tombstoneCount--;
+                    hashTable[index] = new Entry<>(key, value, hash);
+                    numberOfEntries++;
+                    oldValue = null;
+                }
             }
             else
             { // Key found; get old value for return and then replace it
@@ -157,10 +470,22 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
                 hashTable[index].setValue(value);
             }
 
+            recordProbes(ProbeHistogram.Operation.INSERT, probes);
+            work += probes;
+
             // Ensure that hash table is large enough for another add
             if (isHashTableTooFull())
-               enlargeHashTable();
+            {
+                long resizeStart = System.nanoTime();
+                long resizeWork = enlargeHashTable();
+                if (resizeWork != -1) {
+                    resizeNanos += System.nanoTime() - resizeStart;
+                    resizeCount++;
+                    work += resizeWork;
+                }
+            }
 
+            recordWork(work);
             return oldValue;
         }
     }
@@ -173,16 +498,39 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     public V remove(K key) {
         checkIntegrity();
         V removedValue = null;
+        long work = (previousTable != null) ? migrate(MIGRATION_STEP) : 0;
 
-        int index = getHashIndex(key);
+        int hash = hashStrategy.hash(key);
+        long search = getHashIndex(hashTable, key, hash);
+        int index = indexOf(search);
+        long probes = probesOf(search);
 
         if ((hashTable[index] != null) && (hashTable[index] != AVAILABLE)) {
-            // Key found; flag entry as removed and return its value
+            // Key found; flag entry as removed (or shift its cluster back over it) and return its value
             removedValue = hashTable[index].getValue();
-            hashTable[index] = AVAILABLE;
+            if (backwardShiftDeletion) {
+                probes += backwardShift(index);
+            } else {
+                hashTable[index] = AVAILABLE;
+                tombstoneCount++;
+            }
             numberOfEntries--;
+        } else {
+            long previousSearch = findInPreviousTable(key, hash);
+            probes += probesOf(previousSearch);
+            int previousIndex = indexOf(previousSearch);
+            if (previousIndex != -1) {
+                // Key found in the table being resized, which is always left in the available state, since shifting
+                // entries back could move them behind migrationIndex
+                removedValue = previousTable[previousIndex].getValue();
+                previousTable[previousIndex] = AVAILABLE;
+                numberOfEntries--;
+            }
         }
         // Else not found; result is null
+
+        recordProbes(ProbeHistogram.Operation.REMOVE, probes);
+        recordWork(work + probes);
         return removedValue;
     }
 
@@ -194,13 +542,48 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     public V getValue(K key) {
         checkIntegrity();
         V result = null;
+        long work = (previousTable != null) ? migrate(MIGRATION_STEP) : 0;
 
-        int index = getHashIndex(key);
+        int hash = hashStrategy.hash(key);
+        long search = getHashIndex(hashTable, key, hash);
+        int index = indexOf(search);
+        long probes = probesOf(search);
 
-        if ((hashTable[index] != null) && (hashTable[index] != AVAILABLE))
+        if ((hashTable[index] != null) && (hashTable[index] != AVAILABLE)) {
             result = hashTable[index].getValue(); // Key found; get value
+        } else {
+            long previousSearch = findInPreviousTable(key, hash);
+            probes += probesOf(previousSearch);
+            int previousIndex = indexOf(previousSearch);
+            if (previousIndex != -1)
+                result = previousTable[previousIndex].getValue(); // Key found in the table being resized
+        }
         // Else not found; result is null
 
+        recordProbes((result != null)
+                ? ProbeHistogram.Operation.SUCCESSFUL_SEARCH : ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH, probes);
+        recordWork(work + probes);
+        return result;
+    }
+
+
+    /**
+     * Searches for a key the way getValue does, but without counting probes or moving entries of an incremental
+     * resize, so it writes nothing at all. It is meant for a reader that runs while another thread may be changing the
+     * dictionary and checks afterwards whether one did (see OptimisticReadHashingWithCount). Each table is read once,
+     * and the search of it gives up after visiting every location, so a table changing underneath it can give a wrong
+     * answer but can't keep it searching forever or make it index outside the table.
+     * @param key An object search key
+     * @return the key's value, or null if it was not found
+     */
+    public V peekValue(K key) {
+        checkIntegrity();
+        int hash = hashStrategy.hash(key);
+        V result = peek(hashTable, key, hash);
+
+        Entry<K, V>[] previous = previousTable;
+        if ((result == null) && (previous != null))
+            result = peek(previous, key, hash); // The key may not have been moved yet
         return result;
     }
 
@@ -257,7 +640,9 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
         for (int index = 0; index < hashTable.length; index++)
             hashTable[index] = null;
 
+        previousTable = null;
         numberOfEntries = 0;
+        tombstoneCount = 0;
     }
 
 
@@ -281,43 +666,234 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
 
     /**
      * Finds and retrieves an unused or available hashIndex for this key.
+     * @param table the hashTable, or the table being resized
      * @param key An object search key we want hashIndex for
-     * @return first available or unused hashIndex for this search key
+     * @param hash hash code of the key, so it is only computed once per operation
+     * @return first available or unused hashIndex for this search key, packed with the probes made finding it (see
+     *         probeResult)
      */
-    private int getHashIndex(K key) {
-        int hashIndex = key.hashCode() % hashTable.length;
+    private long getHashIndex(Entry<K, V>[] table, K key, int hash) {
+        int hashIndex = getHomeIndex(hash, table.length);
+
+        // Check for and resolve collision
+        return linearProbe(table, hashIndex, key, hash);
+    }
 
-        if (hashIndex < 0) {
-            hashIndex = hashIndex + hashTable.length;
+
+    /**
+     * Packs the index a probe sequence ended at and the probes it made into one long, so each operation can keep its
+     * probe tally in a local variable rather than a field that every thread using the dictionary would write.
+     * @param index index the probe sequence ended at, or -1
+     * @param probes number of probes made, less than 2^31
+     * @return the index in the low 32 bits and the probes in the high 32 bits
+     */
+    private static long probeResult(int index, long probes) {
+        return (probes << 32) | (index & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Returns the index packed by probeResult.
+     * @param probeResult an index packed with a probe count
+     * @return the index
+     */
+    private static int indexOf(long probeResult) {
+        return (int) probeResult;
+    }
+
+
+    /**
+     * Returns the probe count packed by probeResult.
+     * @param probeResult an index packed with a probe count
+     * @return the probe count
+     */
+    private static long probesOf(long probeResult) {
+        return probeResult >>> 32;
+    }
+
+
+    /**
+     * Returns the home index of a hash code, the location its probe sequence starts at.
+     * @param hash hash code of a search key
+     * @param length length of the table
+     * @return the home index
+     */
+    private int getHomeIndex(int hash, int length) {
+        int hashIndex;
+
+        if (powerOfTwoSizing) {
+            hashIndex = mix(hash) & (length - 1);
+        } else {
+            hashIndex = hash % length;
+
+            if (hashIndex < 0) {
+                hashIndex = hashIndex + length;
+            }
         }
 
-        probeCount++; // count initial probe
+        return hashIndex;
+    }
+
 
-        // Check for and resolve collision
-        return linearProbe(hashIndex, key);
+    /**
+     * Looks for a search key in the table being resized, if there is one.
+     * @param key An object search key we want to find
+     * @param hash hash code of the key
+     * @return the index of the key in previousTable, or -1 if it is not there or no resize is running, packed with the
+     *         probes made looking for it (see probeResult)
+     */
+    private long findInPreviousTable(K key, int hash) {
+        if (previousTable == null)
+            return probeResult(-1, 0);
+
+        long search = getHashIndex(previousTable, key, hash);
+        int index = indexOf(search);
+        if ((previousTable[index] != null) && (previousTable[index] != AVAILABLE))
+            return search;
+        return probeResult(-1, probesOf(search));
+    }
+
+
+    /**
+     * Looks for a search key in one table without counting probes, for peekValue.
+     * @param table the hashTable, or the table being resized
+     * @param key An object search key we want to find
+     * @param hash hash code of the key
+     * @return the key's value, or null if it is not in the table
+     */
+    private V peek(Entry<K, V>[] table, K key, int hash) {
+        int index = getHomeIndex(hash, table.length);
+        for (int probes = 0; probes < table.length; probes++)
+        {
+            Entry<K, V> entry = table[index];
+            if (entry == null)
+                return null; // Key not found
+            if ((entry != AVAILABLE) && (hash == entry.getHash()) && key.equals(entry.getKey()))
+                return entry.getValue();
+            index = nextIndex(index, table.length);
+        }
+        return null;
+    }
+
+
+    /**
+     * Records the probes an operation made in the histogram of its kind, and adds them to probeCount. These are the
+     * probes of its search, and of the backward shift of a remove, but not those made moving entries of a resize.
+     * @param operation the kind of operation
+     * @param probes number of probes the operation made
+     */
+    private void recordProbes(ProbeHistogram.Operation operation, long probes) {
+        probeHistograms.record(operation, probes);
+        probeCount.add(probes);
+    }
+
+
+    /**
+     * Records the work done by an add, remove or getValue if it is the most done by one operation so far.
+     * @param work probes the operation made plus locations of a resize it visited
+     */
+    private void recordWork(long work) {
+        maxOperationWork.accumulate(work);
+    }
+
+
+    /**
+     * Moves the entries in the next locations of previousTable into the hashTable. A moved entry leaves the available
+     * state behind so that searches of previousTable still get past its location. Once every location has been moved,
+     * previousTable is dropped. The probes made placing the entries are added to probeCount.
+     * @param locations number of locations to move
+     * @return work done, the probes made plus the locations moved
+     */
+    private long migrate(int locations) {
+        long probes = 0;
+        int moved = 0;
+        for (; (moved < locations) && (migrationIndex < previousTable.length); moved++)
+        {
+            Entry<K, V> entry = previousTable[migrationIndex];
+            if ( (entry != null) && (entry != AVAILABLE) ) {
+                long search = getHashIndex(hashTable, entry.getKey(), entry.getHash());
+                int index = indexOf(search);
+                probes += probesOf(search);
+                if (hashTable[index] == AVAILABLE)
+                    tombstoneCount--;
+                hashTable[index] = entry;
+                previousTable[migrationIndex] = AVAILABLE;
+            }
+            migrationIndex++;
+        }
+
+        if (migrationIndex == previousTable.length)
+            previousTable = null;
+        probeCount.add(probes);
+        return probes + moved;
+    }
+
+
+    /**
+     * Empties the location of a removed entry using Knuth's Algorithm R: walks the rest of the cluster and moves back
+     * into the gap every entry whose home index is not between the gap and its current location (cyclically), since a
+     * search for it would otherwise stop at the gap. Each moved entry leaves a new gap, and the walk ends at the first
+     * null location. Every location looked at during the walk counts as a probe.
+     * @param index location of the entry being removed
+     * @return number of probes made
+     */
+    private long backwardShift(int index) {
+        int gap = index;
+        int next = nextIndex(gap, hashTable.length);
+        long probes = 1;
+
+        while (hashTable[next] != null)
+        {
+            int home = getHomeIndex(hashTable[next].getHash(), hashTable.length);
+            boolean homeInRange = (gap <= next) ? (gap < home && home <= next) : (gap < home || home <= next);
+            if (!homeInRange)
+            { // A search for this entry passes the gap, so move it there
+                hashTable[gap] = hashTable[next];
+                gap = next;
+            }
+            next = nextIndex(next, hashTable.length);
+            probes++;
+        }
+
+        hashTable[gap] = null;
+        return probes;
     }
 
 
     /**
      * Check to see if the initial hashIndex is unused or available, and if it is not, finds one via linear probing.
+     * The cached hash codes are compared first, so equals() is only called on entries that are likely to match.
+     * @param table the hashTable, or the table being resized
      * @param index the initial hashIndex for this key
      * @param key An object search key we want hashIndex for
-     * @return the initial hashIndex if it is unused or available, or the first available or unused one.
+     * @param hash hash code of the key
+     * @return the initial hashIndex if it is unused or available, or the first available or unused one, packed with the
+     *         probes made, the initial one included (see probeResult).
      * Time Complexity: O(n), possibly needs to check every index in the hash table.
+     * @throws IllegalStateException if the probe sequence has visited every location of the table without finding the
+     *                               key or a location it can use
      */
-    private int linearProbe(int index, K key) {
+    private long linearProbe(Entry<K, V>[] table, int index, K key, int hash) {
+        long probes = 1; // count initial probe
         boolean found = false;
         int availableIndex = -1; // Index of first available location (from which an entry was removed)
 
-        while ( !found && (hashTable[index] != null) )
+        while ( !found && (table[index] != null) )
         {
-            if (hashTable[index] != AVAILABLE)
+            if (probes > table.length) { // The probe sequence has gone round without reaching null
+                if (availableIndex == -1)
+                    throw new IllegalStateException("Linear probe sequence cannot reach an empty location; every " +
+                            "location of the hash table of " + table.length + " is full.");
+                return probeResult(availableIndex, probes);
+            }
+
+            if (table[index] != AVAILABLE)
             {
-                if (key.equals(hashTable[index].getKey())) {
+                if ( (hash == table[index].getHash()) && key.equals(table[index].getKey()) ) {
                     found = true; // Key found
                 } else { // Follow probe sequence
-                    index = (index + 1) % hashTable.length; // Linear probing
-                    probeCount++; // Add to probe count for every linear probe we do.
+                    index = nextIndex(index, table.length); // Linear probing
+                    probes++; // Add to probe count for every linear probe we do.
                 }
             }
             else { // Skip entries that were removed.
@@ -328,54 +904,162 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
 
                 // if we hit this code, then we have found another AVAILABLE entry, but we don't need to save the info,
                 // just continue to search until we find null or find the key. Still consider this a probe.
-                index = (index + 1) % hashTable.length; // Linear probing
-                probeCount++;
+                index = nextIndex(index, table.length); // Linear probing
+                probes++;
             }
         }
 
-        // Assertion: Either key or null is found at hashTable[index]
+        // Assertion: Either key or null is found at table[index]
         if (found || (availableIndex == -1) ) { // Index of either key or null
-            return index;
+            return probeResult(index, probes);
         } else { // Index of an available location
-            return availableIndex;
+            return probeResult(availableIndex, probes);
         }
     } // end linearProbe
 
 
     /**
-     * Increases the size of a hash table to a prime greater than or equal to twice its old size.
-     * Then, rehashes the entries.
+     * Returns the index after the given one in the linear probe sequence, wrapping around at the end of the table.
+     * @param index current index
+     * @param length length of the table
+     * @return the next index
      */
-    private void enlargeHashTable() {
-        Entry<K, V>[] oldTable = hashTable;
+    private int nextIndex(int index, int length) {
+        if (powerOfTwoSizing) {
+            return (index + 1) & (length - 1);
+        } else {
+            return (index + 1) % length;
+        }
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that masking off the low bits for a power of
+     * two table still depends on every bit of the hash code.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given integer.
+     * @param anInteger any positive integer
+     * @return a power of two
+     */
+    private static int nextPowerOfTwo(int anInteger) {
+        return Integer.highestOneBit(anInteger - 1) << 1;
+    }
+
+
+    /**
+     * Increases the size of a hash table to a prime greater than or equal to twice its old size (or to exactly twice
+     * its old size with power of two sizing). If the table is mostly full of locations in the available state rather
+     * than entries, it keeps its size instead, and the rehash just clears them. Then, rehashes the entries, or with
+     * incremental resizing, keeps the old table as previousTable for the following operations to move. If there is
+     * no room for a larger table, the hashTable is left as it is, fuller than maxLoadFactor. The probes made placing
+     * the entries are added to probeCount.
+     * @return work done, the probes made plus the locations visited, or -1 if the hashTable was left as it is
+     */
+    private long enlargeHashTable() {
         int oldSize = hashTable.length;
-        int newSize = getNextPrime(oldSize + oldSize);
-        checkSize(newSize); // Check that the prime size is not too large
-        tableSize = newSize;
+        int newSize = oldSize; // Mostly available locations, which a rehash at the same size clears
+        if (numberOfEntries > SAME_SIZE_REHASH_FRACTION * maxLoadFactor * oldSize) {
+            newSize = getEnlargedSize(oldSize);
+            if (newSize == oldSize)
+                return -1; // No room to grow, so the table stays too full until there is
+        }
+
+        long work = 0;
+        if (previousTable != null)
+            work += migrate(previousTable.length); // Finish the resize that is still running first
 
+        Entry<K, V>[] oldTable = hashTable;
         // The cast is safe because the new array contains null entries
         @SuppressWarnings({"unchecked", "rawtypes"})
-        Entry<K, V>[] tempTable = (Entry<K, V>[])new Entry[newSize]; // Increase size of array
-        hashTable = tempTable;
+        Entry<K, V>[] newTable = (Entry<K, V>[]) new Entry[newSize]; // Increase size of array
+        tableSize = newSize;
+        hashTable = newTable;
+        tombstoneCount = 0;
+
+        if (incrementalResizing) { // Following operations move the old entries a few locations at a time
+            previousTable = oldTable;
+            migrationIndex = 0;
+            return work;
+        }
+
         numberOfEntries = 0; // Reset number of dictionary entries, since
-        // it will be incremented by add during rehash
+        // it will be incremented by rehash
 
         // Rehash dictionary entries from old array to the new and bigger array;
         // skip both null locations and removed entries
+        long probes = 0;
         for (int index = 0; index < oldSize; index++)
         {
             if ( (oldTable[index] != null) && (oldTable[index] != AVAILABLE) )
-                add(oldTable[index].getKey(), oldTable[index].getValue());
+                probes += rehash(oldTable[index]);
         }
+        probeCount.add(probes);
+        return work + probes + oldSize;
     }
 
 
     /**
-     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
-     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     * Moves an existing entry into the (new) hashTable during enlargeHashTable(). The entry's cached hash code is used
+     * and the Entry object itself is reused, so a resize neither calls hashCode() nor allocates entries.
+     * @param entry an entry from the old hashTable
+     * @return number of probes made
+     */
+    private long rehash(Entry<K, V> entry) {
+        long search = getHashIndex(hashTable, entry.getKey(), entry.getHash());
+        hashTable[indexOf(search)] = entry;
+        numberOfEntries++;
+        return probesOf(search);
+    }
+
+
+    /**
+     * Returns the size to enlarge the hashTable to: a prime greater than or equal to twice its old size, or exactly
+     * twice its old size with power of two sizing. The new table is created while the old one is still in use, so if
+     * MAX_SIZE or the heap's free memory leaves no room for that, a prime size is cut back to the largest prime that
+     * fits. The free memory doesn't count garbage a collection would reclaim, so it errs on the low side. A table that
+     * can't grow by at least a quarter of its size (or double, with power of two sizing) keeps its size, since a
+     * smaller step would soon need another rehash; the following adds try again once there is room.
+     * @param oldSize current size of the hashTable
+     * @return the new size of the hashTable, or oldSize if it can't grow
+     */
+    private int getEnlargedSize(int oldSize) {
+        Runtime runtime = Runtime.getRuntime();
+        long freeHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        long limit = Math.min(MAX_SIZE, freeHeap / BYTES_PER_LOCATION);
+        long doubledSize = 2L * oldSize;
+
+        if (powerOfTwoSizing)
+            return (doubledSize <= limit) ? (int) doubledSize : oldSize;
+        if (limit < oldSize + oldSize / 4)
+            return oldSize;
+        int newSize = getNextPrime((int) Math.min(doubledSize, limit));
+        if (newSize > limit)
+            newSize = getPreviousPrime((int) limit);
+        return (newSize < oldSize + oldSize / 4) ? oldSize : newSize;
+    }
+
+
+    /**
+     * Checks if the entries and the locations in the available state together fill more than maxLoadFactor of the
+     * hashTable. Counting the available locations keeps some locations null however long entries are removed and
+     * added, so every probe sequence still ends.
+     * @return true if the hashTable is too full; otherwise returns false.
      */
     private boolean isHashTableTooFull() {
-        return numberOfEntries > MAX_LOAD_FACTOR * hashTable.length;
+        return numberOfEntries + tombstoneCount > maxLoadFactor * hashTable.length;
     }
 
 
@@ -401,6 +1085,24 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     } // end getNextPrime
 
 
+    /**
+     * Returns the largest prime integer that is less than or equal to the given integer.
+     * @param anInteger any integer greater than or equal to 5
+     * @return a prime integer
+     */
+    private int getPreviousPrime(int anInteger) {
+        // if even, subtract 1 to make odd
+        if (anInteger % 2 == 0)
+            anInteger--;
+
+        // test odd integers
+        while (!isPrime(anInteger))
+            anInteger = anInteger - 2;
+
+        return anInteger;
+    }
+
+
     /**
      * Determines whether an integer is prime.
      * @param anInteger any integer
@@ -426,7 +1128,7 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
 
             // a prime is odd and not divisible by every odd integer up to its square root
             result = true; // assume prime
-            for (int divisor = 3; divisor * divisor <= anInteger; divisor = divisor + 2)
+            for (int divisor = 3; (long) divisor * divisor <= anInteger; divisor = divisor + 2)
             {
                 if (anInteger % divisor == 0) {
                     result = false; // divisible; not prime
@@ -478,6 +1180,17 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
     }
 
 
+    /**
+     * Returns the entry at a location, counting the locations of the table being resized as coming after the
+     * hashTable's, so the iterators can see the entries that haven't been moved yet.
+     * @param index location in the hashTable, or hashTable.length plus the location in previousTable
+     * @return the entry, null, or AVAILABLE
+     */
+    private Entry<K, V> getEntry(int index) {
+        return (index < hashTable.length) ? hashTable[index] : previousTable[index - hashTable.length];
+    }
+
+
     /**
      * Iterator object that iterates through the keys of this dictionary
      */
@@ -518,11 +1231,11 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
 
             if (hasNext()) {
                 // Skip table locations that do not contain a current entry
-                while ( (hashTable[currentIndex] == null) || hashTable[currentIndex] == AVAILABLE ) {
+                while ( (getEntry(currentIndex) == null) || getEntry(currentIndex) == AVAILABLE ) {
                     currentIndex++;
                 } // end while
 
-                result = hashTable[currentIndex].getKey();
+                result = getEntry(currentIndex).getKey();
                 numberLeft--;
                 currentIndex++;
             } else {
@@ -585,12 +1298,12 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
             if (hasNext())
             {
                 // Skip table locations that do not contain a current entry
-                while ( (hashTable[currentIndex] == null) || hashTable[currentIndex] == AVAILABLE )
+                while ( (getEntry(currentIndex) == null) || getEntry(currentIndex) == AVAILABLE )
                 {
                     currentIndex++;
                 } // end while
 
-                result = hashTable[currentIndex].getValue();
+                result = getEntry(currentIndex).getValue();
                 numberLeft--;
                 currentIndex++;
             }
@@ -623,16 +1336,29 @@ public class LinearProbingWithCount<K, V> implements DictionaryInterface<K, V>
         private final K key;
         /** Value for this dictionary */
         private V value;
+        /** Hash code of the search key, cached so probes can compare it before calling equals() */
+        private final int hash;
 
 
         /**
          * Full constructor for Entry
          * @param searchKey object search key we want to store
          * @param dataValue value we want to store with this search key
+         * @param hashCode hash code of the search key
          */
-        private Entry(K searchKey, V dataValue) {
+        private Entry(K searchKey, V dataValue, int hashCode) {
             key = searchKey;
             value = dataValue;
+            hash = hashCode;
+        }
+
+
+        /**
+         * Returns the cached hash code of the search key for this Entry.
+         * @return hash code of the search key
+         */
+        private int getHash() {
+            return hash;
         }
 
 
@@ -0,0 +1,607 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe Hashed Dictionary that resolves collisions with linear probing and uses no locks, modelled on Cliff
+ * Click's NonBlockingHashMap. Every change is a single compareAndSet on one location of an AtomicReferenceArray, so a
+ * thread that stalls never holds up the others.
+ *
+ * A location's key and value change separately. A key is put into an empty location with compareAndSet and then never
+ * leaves it, so a search never has to worry about a key moving under it. Removing an entry sets its value to
+ * TOMBSTONE, the lock-free version of the AVAILABLE state: searches keep probing past it, and adding the same key again
+ * gives it a new value in the same location. Tombstones are dropped when the table is copied.
+ *
+ * Resizing is cooperative. The thread that finds the table too full hangs a new table off it, and from then on every
+ * add and remove that reaches the old table copies a chunk of it before carrying on in the new one. Copying a location
+ * first freezes its value by wrapping it in a Prime, so no other thread can change it, then adds it to the new table,
+ * and finally replaces it with TOMBPRIME, which sends every later operation on that key to the new table. Once every
+ * location is copied the new table replaces the old one. No thread ever waits for the copy to finish.
+ *
+ * A location whose key never got a value is finished with EMPTY_PRIME instead. The difference matters to a copying
+ * thread that falls behind: its entry may already have been copied by another thread, then removed, and that table
+ * copied on in turn. TOMBPRIME tells it the key had a value in that table, so the entry is stale and must not be
+ * copied again, while EMPTY_PRIME means the thread that claimed the location was itself still copying.
+ *
+ * getValue and contains are wait-free: they never write to the table, never retry, and finish after at most one pass
+ * over the probe sequence of each table in the chain. A frozen Prime value is still the current value, since no
+ * thread writes to the key in the new table until the old location has been finished.
+ *
+ * The size is kept in a LongAdder, so getSize is exact when no other thread is changing the dictionary and close to
+ * it otherwise. The iterators work on a copy of the entries taken without locking, so they see every entry that was
+ * in the dictionary for the whole time the copy was made, and may or may not see the ones changed while it was made.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class LockFreeLinearProbingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private final LongAdder numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary. */
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    // The hash table:
+
+    /** Table where dictionary elements are stored, and which every operation starts from */
+    private final AtomicReference<Table> top;
+    /** Maximum size of the hashTable */
+    private static final int MAX_SIZE = 1 << 30;
+    /** Fraction of the hash table's locations that can be taken by keys before it is copied. */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    /** Number of locations an add or remove copies when it finds a resize running */
+    private static final int COPY_CHUNK = 16;
+    /** Value of a removed entry, and key of an empty location that was closed off by a resize */
+    private static final Object TOMBSTONE = new Object();
+    /** Value of a location that has been copied to the next table, or whose value was removed before it was copied */
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE);
+    /** Value of a location that was copied before its key was ever given a value */
+    private static final Prime EMPTY_PRIME = new Prime(TOMBSTONE);
+
+    //With Probe:
+
+    /** Number of probes total when using any function that searches the hashTable until the counter is reset using
+     * resetProbeCount() */
+    private final ProbeCounter probeCount;
+
+
+    /**
+     * Default Constructor
+     */
+    public LockFreeLinearProbingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next power of
+     *                        two).
+     */
+    public LockFreeLinearProbingWithCount(int initialCapacity)
+    {
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = new LongAdder();    // Dictionary is empty
+        probeCount = new ProbeCounter();  // No searches have been done yet
+
+        // Set up hash table:
+        top = new AtomicReference<>(new Table(nextPowerOfTwo(initialCapacity)));
+    }
+
+
+    /**
+     * Retrieves the current probeCount
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount.sum();
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount.reset();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        @SuppressWarnings("unchecked")
+        V oldValue = (V) put(top.get(), key, mix(key.hashCode()), value, false);
+        return oldValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        @SuppressWarnings("unchecked")
+        V removedValue = (V) put(top.get(), key, mix(key.hashCode()), TOMBSTONE, false);
+        return removedValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        @SuppressWarnings("unchecked")
+        V result = (V) get(top.get(), key, mix(key.hashCode()));
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        ArrayList<K> keys = new ArrayList<>();
+        snapshot(keys, null);
+        return Collections.unmodifiableList(keys).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        ArrayList<V> values = new ArrayList<>();
+        snapshot(null, values);
+        return Collections.unmodifiableList(values).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.max(0, numberOfEntries.sum());
+    }
+
+
+    /**
+     * Removes every entry that was in the dictionary when clear was called, one at a time. An entry added by another
+     * thread while clear runs may be left in the dictionary. Like the other dictionaries, clear never shrinks the
+     * hashTable.
+     */
+    @Override
+    public void clear() {
+        ArrayList<K> keys = new ArrayList<>();
+        snapshot(keys, null);
+        for (K key : keys)
+            remove(key);
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) getSize() / top.get().length;
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return top.get().length;
+    }
+
+
+    /**
+     * Searches a table, and the tables it is being copied to, for a key.
+     * @param table table to start from
+     * @param key An object search key we want to find
+     * @param hash mixed hash code of the key
+     * @return the key's value, or null if the key is not in the dictionary
+     */
+    private Object get(Table table, Object key, int hash) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        int probes = 1;
+
+        while (true)
+        {
+            Object k = table.keys.get(index);
+            if (k == null) { // The key would have been added here, so it is not in the dictionary
+                probeCount.add(probes);
+                return null;
+            }
+
+            Object v = table.values.get(index);
+            if (matches(k, key))
+            {
+                if ((v == TOMBPRIME) || (v == EMPTY_PRIME))
+                    break; // Copied, the value is in the next table
+                probeCount.add(probes);
+                if (v instanceof Prime) // Frozen but not copied yet, so still the current value
+                    return ((Prime) v).value;
+                return (v == TOMBSTONE) ? null : v; // null if another thread is still adding it
+            }
+
+            if ((k == TOMBSTONE) || (probes == table.length))
+                break; // The key can only be in the next table
+            index = (index + 1) & mask;
+            probes++;
+        }
+
+        probeCount.add(probes);
+        Table next = table.next.get();
+        return (next == null) ? null : get(next, key, hash);
+    }
+
+
+    /**
+     * Sets the value of a key in a table, or in the table it is being copied to. Adds the key if it isn't there,
+     * unless the value is TOMBSTONE (a remove), in which case there is nothing to do.
+     * @param table table to start from
+     * @param key An object search key
+     * @param hash mixed hash code of the key
+     * @param putValue the new value, or TOMBSTONE to remove the key
+     * @param copying true when copying an entry into the next table during a resize: the value is only set if the
+     *                key has none yet, and the size of the dictionary doesn't change
+     * @return the key's old value, or null if it had none
+     */
+    private Object put(Table table, K key, int hash, Object putValue, boolean copying) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        int probes = 1;
+        boolean found = false;
+        Object k;
+
+        while (true)
+        {
+            k = table.keys.get(index);
+            if (k == null)
+            {
+                if (putValue == TOMBSTONE) { // Removing a key that isn't there
+                    probeCount.add(probes);
+                    return null;
+                }
+                if (table.keys.compareAndSet(index, null, key)) {
+                    table.claimedLocations.incrementAndGet();
+                    found = true;
+                    break;
+                }
+                k = table.keys.get(index); // Another thread took the location, maybe for the same key
+            }
+
+            if (matches(k, key)) {
+                found = true;
+                break;
+            }
+            if ((k == TOMBSTONE) || (probes == table.length))
+                break; // The key can only go in the next table
+            index = (index + 1) & mask;
+            probes++;
+        }
+        probeCount.add(probes);
+
+        if (!found)
+        {
+            Table next = startResize(table);
+            if (!copying)
+                helpCopy(table);
+            return put(next, key, hash, putValue, copying);
+        }
+
+        Table next = table.next.get();
+        if ((next == null) && isTableTooFull(table))
+            next = startResize(table);
+
+        Object v = table.values.get(index);
+        while (true)
+        {
+            if (copying && (v != null) && (v != EMPTY_PRIME))
+                return v; // The key already had a value in this table, so another thread copied this entry
+            if ((next != null) || (v instanceof Prime))
+            { // A resize is running, so the key's value must be changed in the next table
+                if (copySlot(table, index))
+                    finishCopy(table, 1);
+                if (!copying)
+                    helpCopy(table);
+                return put(table.next.get(), key, hash, putValue, copying);
+            }
+            if ((putValue == TOMBSTONE) && ((v == null) || (v == TOMBSTONE)))
+                return null; // Removing a key that has no value
+
+            if (table.values.compareAndSet(index, v, putValue))
+                break;
+            v = table.values.get(index);
+        }
+
+        boolean wasPresent = (v != null) && (v != TOMBSTONE);
+        if (!copying)
+        {
+            if (!wasPresent && (putValue != TOMBSTONE))
+                numberOfEntries.increment();
+            else if (wasPresent && (putValue == TOMBSTONE))
+                numberOfEntries.decrement();
+        }
+        return wasPresent ? v : null;
+    }
+
+
+    /**
+     * Returns the table a table is being copied to, first creating it if no thread has yet. The new table is twice the
+     * size of the old one, unless most of the old table's taken locations belong to removed keys, in which case a
+     * table of the same size has room for the live entries once the removed ones are left behind.
+     * @param table table that is too full
+     * @return the table it is being copied to
+     * @throws IllegalStateException if the new table would be larger than MAX_SIZE
+     */
+    private Table startResize(Table table) {
+        Table next = table.next.get();
+        if (next != null)
+            return next;
+
+        long newLength = table.length;
+        if ((numberOfEntries.sum() > MAX_LOAD_FACTOR * table.length / 2) ||
+                (table.claimedLocations.get() >= table.length))
+            newLength *= 2;
+        if (newLength > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+
+        table.next.compareAndSet(null, new Table((int) newLength)); // Only one thread's table is used
+        return table.next.get();
+    }
+
+
+    /**
+     * Copies the next chunk of a table that is being resized, if there is any left to hand out.
+     * @param table table being copied
+     */
+    private void helpCopy(Table table) {
+        int copied = 0;
+        if (table.copyIndex.get() < table.length)
+        {
+            int start = table.copyIndex.getAndAdd(COPY_CHUNK);
+            for (int index = start; index < Math.min(start + COPY_CHUNK, table.length); index++)
+            {
+                if (copySlot(table, index))
+                    copied++;
+            }
+        }
+        finishCopy(table, copied);
+    }
+
+
+    /**
+     * Records locations of a table that have been copied, and once all of them have, makes the next table the one
+     * every operation starts from.
+     * @param table table being copied
+     * @param copied number of locations this thread has just finished
+     */
+    private void finishCopy(Table table, int copied) {
+        int done = (copied == 0) ? table.copyDone.get() : table.copyDone.addAndGet(copied);
+        if (done == table.length)
+            top.compareAndSet(table, table.next.get());
+    }
+
+
+    /**
+     * Copies one location of a table to the next table. An empty location has its key closed off with TOMBSTONE, so
+     * nothing can be added to it. Then the value is frozen in a Prime, copied unless it was removed, and replaced by
+     * TOMBPRIME, or by EMPTY_PRIME if it was never set. Any number of threads can copy the same location at once;
+     * exactly one of them finishes it.
+     * @param table table being copied
+     * @param index location to copy
+     * @return true if this thread finished the location, so it counts as copied
+     */
+    private boolean copySlot(Table table, int index) {
+        Object k = table.keys.get(index);
+        while (k == null) {
+            k = table.keys.compareAndSet(index, null, TOMBSTONE) ? TOMBSTONE : table.keys.get(index);
+        }
+
+        Object v = table.values.get(index);
+        while (!(v instanceof Prime))
+        {
+            Prime frozen = (v == null) ? EMPTY_PRIME : (v == TOMBSTONE) ? TOMBPRIME : new Prime(v);
+            if (table.values.compareAndSet(index, v, frozen)) {
+                if (frozen.value == TOMBSTONE)
+                    return true; // Nothing to copy
+                v = frozen;
+                break;
+            }
+            v = table.values.get(index);
+        }
+        if (((Prime) v).value == TOMBSTONE)
+            return false; // Another thread finished this location
+
+        @SuppressWarnings("unchecked")
+        K key = (K) k;
+        put(table.next.get(), key, mix(key.hashCode()), ((Prime) v).value, true);
+        return table.values.compareAndSet(index, v, TOMBPRIME);
+    }
+
+
+    /**
+     * Collects the keys and values of every entry, walking the table every operation starts from and then any table it
+     * is being copied to. A key whose location was already copied is skipped, it is picked up from the next table.
+     * @param keys list to add the keys to, or null
+     * @param values list to add the values to, or null
+     */
+    @SuppressWarnings("unchecked")
+    private void snapshot(ArrayList<K> keys, ArrayList<V> values) {
+        HashSet<Object> seen = new HashSet<>();
+        for (Table table = top.get(); table != null; table = table.next.get())
+        {
+            for (int index = 0; index < table.length; index++)
+            {
+                Object k = table.keys.get(index);
+                if ((k == null) || (k == TOMBSTONE))
+                    continue;
+                Object v = table.values.get(index);
+                if (v instanceof Prime)
+                    v = ((Prime) v).value; // TOMBPRIME and EMPTY_PRIME become TOMBSTONE
+                if ((v == null) || (v == TOMBSTONE) || !seen.add(k))
+                    continue;
+                if (keys != null)
+                    keys.add((K) k);
+                if (values != null)
+                    values.add((V) v);
+            }
+        }
+    }
+
+
+    /**
+     * Checks whether the key in a location is the search key.
+     * @param k key in the location, null or TOMBSTONE included
+     * @param key An object search key
+     * @return true if they are the same key
+     */
+    private static boolean matches(Object k, Object key) {
+        return (k == key) || ((k != null) && (k != TOMBSTONE) && key.equals(k));
+    }
+
+
+    /**
+     * Checks if the keys in a table have taken more than MAX_LOAD_FACTOR of its locations, counting removed ones,
+     * since their locations stay taken until the table is copied.
+     * @param table table to check
+     * @return true if the table should be copied
+     */
+    private static boolean isTableTooFull(Table table) {
+        return table.claimedLocations.get() > MAX_LOAD_FACTOR * table.length;
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that masking off the low bits for a power of
+     * two table still depends on every bit of the hash code.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given integer.
+     * @param anInteger any positive integer
+     * @return a power of two
+     */
+    private static int nextPowerOfTwo(int anInteger) {
+        return Integer.highestOneBit(anInteger - 1) << 1;
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private static int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * One hash table in the chain. Keys and values are kept in separate arrays so each can be changed with its own
+     * compareAndSet.
+     */
+    private static final class Table {
+        /** Key of each location: null if empty, TOMBSTONE if closed off by a resize */
+        private final AtomicReferenceArray<Object> keys;
+        /** Value of each location: null if not set yet, TOMBSTONE if removed, a Prime if frozen by a resize */
+        private final AtomicReferenceArray<Object> values;
+        /** Number of locations in the table */
+        private final int length;
+        /** Number of locations that have been given a key, removed ones included */
+        private final AtomicInteger claimedLocations = new AtomicInteger();
+        /** Table this one is being copied to, null while no resize is running */
+        private final AtomicReference<Table> next = new AtomicReference<>();
+        /** First location not yet handed out to a thread to copy */
+        private final AtomicInteger copyIndex = new AtomicInteger();
+        /** Number of locations that have been copied */
+        private final AtomicInteger copyDone = new AtomicInteger();
+
+
+        /**
+         * Full Constructor
+         * @param length number of locations
+         */
+        private Table(int length) {
+            this.length = length;
+            keys = new AtomicReferenceArray<>(length);
+            values = new AtomicReferenceArray<>(length);
+        }
+    }
+
+
+    /**
+     * A value frozen by a resize. No thread can change a location's value once it is a Prime.
+     */
+    private static final class Prime {
+        /** The frozen value */
+        private final Object value;
+
+
+        /**
+         * Full Constructor
+         * @param value the value to freeze
+         */
+        private Prime(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -53,14 +53,23 @@ public class Main {
             System.out.println("2. Run Project Experiment with different name set.");
             System.out.println("3. Run Experiment with Double Hashing Table with different primes.");
             System.out.println("4. Program Description.");
+            System.out.println("5. Compare memory footprint of Entry[] and parallel array hash tables.");
+            System.out.println("6. Compare prime and power of two hash table sizing.");
+            System.out.println("7. Compare collision resolution schemes (linear, double, Robin Hood, cuckoo, SwissTable).");
+            System.out.println("8. Run insert/delete churn with and without backward shift deletion.");
+            System.out.println("9. Compare all at once and incremental hash table resizing.");
+            System.out.println("10. Run linear probing and double hashing with 10^6 to 10^8 entries.");
+            System.out.println("11. Sweep load factors from 0.05 to 0.95 and print the probes as CSV.");
+            System.out.println("12. Rerun one trial of an experiment from its seed.");
+            System.out.println("13. Compare hash functions (identity, Murmur3, xxHash64, FNV-1a, wyhash).");
             System.out.println("0. Quit");
-            System.out.print("Choose an option 0-4: ");
+            System.out.print("Choose an option 0-13: ");
 
             while (!console.hasNextInt()) {
                 console.next();
                 System.out.println();
                 System.out.println("That is not a valid option.");
-                System.out.print("Choose an option O-4: ");
+                System.out.print("Choose an option O-13: ");
             }
 
             mode = console.nextInt();
@@ -79,8 +88,35 @@ public class Main {
                 case 4:
                     printDescription();
                     break;
+                case 5:
+                    runFootprintComparison();
+                    break;
+                case 6:
+                    runSizingComparison();
+                    break;
+                case 7:
+                    runSchemeComparison();
+                    break;
+                case 8:
+                    runChurnExperiment();
+                    break;
+                case 9:
+                    runResizeComparison();
+                    break;
+                case 10:
+                    runScalingExperiment();
+                    break;
+                case 11:
+                    runLoadFactorSweep();
+                    break;
+                case 12:
+                    rerunTrial(console);
+                    break;
+                case 13:
+                    runHashStrategyComparison();
+                    break;
                 default:
-                    System.out.println("Please choose an option 0-4.");
+                    System.out.println("Please choose an option 0-13.");
                     break;
             }
         } while (mode != 0);
@@ -95,7 +131,7 @@ public class Main {
             newStat.runExperiment(100, 1000, true);
             newStat.runExperiment(100, 10000, false);
             printExperimentAnalysis();
-        } catch (IndexOutOfBoundsException e) {
+        } catch (IndexOutOfBoundsException | IllegalStateException e) {
             System.out.print("Experiment failed. This happened because when we run a double hashing function on a table that" +
                     "is a composite number (300) sometimes the data set will cause an infinite loop. The only way to truly" +
                     "prevent this is to use a prime number as the table size for double hashing. This experiment also required" +
@@ -122,7 +158,7 @@ public class Main {
             System.out.println("As you can see, our number are similar in this experiment, although they are are all " +
                     "a bit lower across the board. This shows that the way you generate the disjoint sets of unique " +
                     "names may have at least a modest effect on your results.");
-        } catch (IndexOutOfBoundsException e) {
+        } catch (IndexOutOfBoundsException | IllegalStateException e) {
             System.out.println("Experiment failed. This happened because when we run a double hashing function on a table that " +
                     "is a composite number (300) sometimes the data set will cause an infinite loop. The only way to truly " +
                     "prevent this is to use a prime number as the table size for double hashing. This experiment also required " +
@@ -174,6 +210,137 @@ public class Main {
 
     }
 
+    public static void runFootprintComparison() {
+        System.out.println("********* Memory Footprint of Entry[] vs Parallel Array Hash Tables *********");
+        GetStatistics newStat = new GetStatistics(false);
+        newStat.printFootprintComparison(1000);
+        newStat.printFootprintComparison(5000);
+        System.out.println("The Entry[] tables pay 4 bytes per location plus a 24 byte Entry per entry, the parallel " +
+                "array tables pay 12 bytes per location (key, value and cached hash) and nothing per entry. The " +
+                "parallel arrays come out ahead once a table is more than a third full, and they never allocate " +
+                "on add.");
+        System.out.println();
+        System.out.println("********* End Memory Footprint Comparison *********");
+    }
+
+    public static void runSizingComparison() {
+        System.out.println("********* Prime vs Power of Two Hash Table Sizing *********");
+        GetStatistics newStat = new GetStatistics(100, 1.5, 19, false);
+        newStat.runSizingComparison(100, 1000, 325);
+        System.out.println("Power of two tables replace the % on every probe with a bit mask, and need a strong mixing " +
+                "function so the low bits they keep still depend on the whole hash code. Double hashing forces the " +
+                "step to be odd so every location is still reachable.");
+        System.out.println();
+        System.out.println("********* End Sizing Comparison *********");
+    }
+
+    public static void runSchemeComparison() {
+        System.out.println("********* Collision Resolution Scheme Comparison *********");
+        GetStatistics newStat = new GetStatistics(100, 1.5, 19, false);
+        newStat.runSchemeComparison(100, 1000, 325);
+        System.out.println("Robin Hood hashing probes the same locations as linear probing, but keeps every entry " +
+                "about as far from its home index as the others, so an unsuccessful search can stop as soon as it " +
+                "passes an entry that is closer to home than the search key would be. Cuckoo hashing looks at one " +
+                "location per hash function and a small stash, so its average is higher at this load factor but no " +
+                "search ever takes more probes than that. The SwissTable counts groups of 16 locations rather than " +
+                "single locations, and nearly every search finishes after checking one group.");
+        System.out.println();
+        System.out.println("********* End Scheme Comparison *********");
+    }
+
+    public static void runChurnExperiment() {
+        System.out.println("********* Insert/Delete Churn: Available State vs Backward Shift Deletion *********");
+        GetStatistics newStat = new GetStatistics(false);
+        newStat.runChurnExperiment(100, 1000000, 325);
+        System.out.println("The entry count never changes, so the table never grows and nothing clears the removed " +
+                "entries left in the available state. Searches have to walk over them, and they keep piling up. " +
+                "Backward shift deletion moves the rest of the cluster back over a removed entry, so the table " +
+                "always looks like the entries were just added and the probes per search stay where they started.");
+        System.out.println();
+        System.out.println("********* End Churn Experiment *********");
+    }
+
+    public static void runResizeComparison() {
+        System.out.println("********* All at Once vs Incremental Resizing *********");
+        GetStatistics newStat = new GetStatistics(false);
+        newStat.runResizeComparison(5000, 325);
+        System.out.println("Resizing all at once makes the add that crosses the maximum load factor visit every " +
+                "location of the old table and re-add every entry. Incremental resizing keeps the old table and " +
+                "moves 4 of its locations per operation, so the worst operation stays small, at the cost of " +
+                "searching both tables while a resize is running.");
+        System.out.println();
+        System.out.println("********* End Resize Comparison *********");
+    }
+
+    public static void runScalingExperiment() {
+        System.out.println("********* Scaling to 10^8 Entries *********");
+        GetStatistics newStat = new GetStatistics(false);
+        newStat.runScalingExperiment(325, 1000000, 10000000, 100000000);
+        System.out.println("The probes per search stay close to the 1.5 the tables were sized for at every size, " +
+                "since they only depend on the load factor. The time per search does not: once the table is much " +
+                "larger than the CPU caches, nearly every probe is a cache miss, and linear probing's next location " +
+                "is usually in the same cache line while double hashing jumps somewhere else in the table.");
+        System.out.println();
+        System.out.println("********* End Scaling Experiment *********");
+    }
+
+    public static void runLoadFactorSweep() {
+        System.out.println("********* Load Factor Sweep *********");
+        GetStatistics newStat = new GetStatistics(false);
+        newStat.runLoadFactorSweep(1000, 325, System.out, GetStatistics.loadFactorGrid(0.05, 0.95, 0.05));
+        System.out.println();
+        System.out.println("Both tables follow the formulas closely up to about 0.85. Linear probing's unsuccessful " +
+                "searches pass 2.5 probes a little above 0.5 and then climb steeply, while double hashing stays " +
+                "under 2.5 until about 0.6, so 0.5 is a sensible limit for linear probing and double hashing can " +
+                "be filled further. Past 0.9 the table is too small for the formulas' infinite table limit.");
+        System.out.println();
+        System.out.println("********* End Load Factor Sweep *********");
+    }
+
+    public static void rerunTrial(Scanner console) {
+        System.out.println("********* Rerun One Trial *********");
+        System.out.print("Seed printed with the experiment's results: ");
+        while (!console.hasNextLong()) {
+            console.next();
+            System.out.print("That is not a valid seed, enter a whole number: ");
+        }
+        long seed = console.nextLong();
+        System.out.print("Trial to rerun (0-999): ");
+        while (!console.hasNextInt()) {
+            console.next();
+            System.out.print("That is not a valid trial, enter a whole number: ");
+        }
+        int trial = console.nextInt();
+        System.out.print("Names searched per trial (100, 1000 or 10000 in the base experiment): ");
+        while (!console.hasNextInt()) {
+            console.next();
+            System.out.print("That is not a valid number, enter a whole number: ");
+        }
+        int namesToSearch = console.nextInt();
+        System.out.println();
+        try {
+            new GetStatistics(false).runTrial(100, namesToSearch, seed, trial);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+        System.out.println();
+        System.out.println("********* End Rerun One Trial *********");
+    }
+
+    public static void runHashStrategyComparison() {
+        System.out.println("********* Hash Function Comparison *********");
+        GetStatistics newStat = new GetStatistics(100, 1.5, 19, false);
+        newStat.runHashStrategyComparison(100, 1000, 325);
+        System.out.println("String.hashCode() gives names that share a prefix nearby hash codes, and linear probing " +
+                "turns those into clusters, so it takes more probes than the other functions, which spread the names " +
+                "evenly and stay close to the 1.5 the tables were sized for. Double hashing's step breaks the " +
+                "clusters up, so the function matters less there. A String caches its own hash code but the other " +
+                "functions hash the name again on every search, so compare the time per search between runs of the " +
+                "same function rather than taking the first function's, which also pays for the JIT warming up.");
+        System.out.println();
+        System.out.println("********* End Hash Function Comparison *********");
+    }
+
     public static void printDescription() {
        System.out.println("This program allows you analyze the results of three different experiments.");
     }
@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Keys read from a file with one UTF-8 key per line, for replaying real key sets of tens of millions of keys. The file
+ * is memory mapped, and constructing the corpus only records where each key starts, 4 bytes per key; a key is read
+ * and decoded into a String when get asks for it, so the operating system pages in just the parts of the file that
+ * are used. Lines may end in "\n" or "\r\n", and empty lines are skipped.
+ *
+ * Keys are only read with absolute gets, which leave the buffer unchanged, so any number of threads can read a corpus
+ * at once. A mapping holds at most 2 GB, which is the limit on the file size.
+ */
+public final class MappedKeyCorpus implements KeyCorpus
+{
+    /** Marks an unused location of the table findDuplicateKey and findSharedKey build */
+    private static final int EMPTY = -1;
+
+    /** Contents of the file */
+    private final MappedByteBuffer buffer;
+    /** Offset of the first byte of each key */
+    private final int[] keyStarts;
+
+
+    /**
+     * Full Constructor, maps the file and finds where every key starts in one pass over it.
+     * @param file the file of keys, one per line
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file is larger than 2 GB
+     */
+    public MappedKeyCorpus(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Key files larger than 2 GB can't be mapped.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Stays valid after closing
+        }
+
+        int[] starts = new int[1024];
+        int count = 0;
+        int limit = buffer.limit();
+        for (int position = 0; position < limit; position++) {
+            byte first = buffer.get(position);
+            if (first != '\n' && !(first == '\r' && position + 1 < limit && buffer.get(position + 1) == '\n')) {
+                if (count == starts.length)
+                    starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = position;
+            }
+            while (position < limit && buffer.get(position) != '\n') // Move to the end of the line
+                position++;
+        }
+        keyStarts = Arrays.copyOf(starts, count);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return keyStarts.length;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, keyStarts.length);
+        byte[] bytes = new byte[keyLength(index)];
+        buffer.get(keyStarts[index], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Looks for a key that is in the corpus more than once, without making a String of any key that isn't one. Adding
+     * such a key to a dictionary replaces the first, so the dictionary ends up with fewer entries than intended.
+     * @return a repeated key, or null if every key is different
+     */
+    public String findDuplicateKey() {
+        int[] table = new int[2 * tableCapacity(size())];
+        Arrays.fill(table, EMPTY);
+        for (int index = 0; index < size(); index++) {
+            if (findOrInsert(table, this, index, true) != EMPTY)
+                return get(index);
+        }
+        return null;
+    }
+
+
+    /**
+     * Looks for a key that is in both this corpus and other, without making a String of any key that isn't one. The
+     * keys of this corpus are put in a table of their numbers and hashes, and other is streamed past it, so only this
+     * corpus needs memory for the check: 16 to 32 bytes per key. Make this the smaller corpus.
+     * @param other the other corpus, which isn't changed
+     * @return a key in both corpora, or null if they are disjoint
+     */
+    public String findSharedKey(MappedKeyCorpus other) {
+        int[] table = new int[2 * tableCapacity(size())];
+        Arrays.fill(table, EMPTY);
+        for (int index = 0; index < size(); index++)
+            findOrInsert(table, this, index, true);
+        for (int index = 0; index < other.size(); index++) {
+            if (findOrInsert(table, other, index, false) != EMPTY)
+                return other.get(index);
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns a power of two capacity that keeps a table of keys at most half full.
+     * @param keys number of keys in the table
+     * @return the capacity
+     */
+    private static int tableCapacity(int keys) {
+        return Integer.highestOneBit(Math.max(1, keys - 1)) << 2;
+    }
+
+
+    /**
+     * Finds a key in a table of this corpus's key numbers, resolving collisions with linear probing, and optionally
+     * inserts it if it isn't there. Each location holds a key number followed by the key's hash, next to each other so
+     * that a probe touches one cache line, and keys are only compared byte by byte when their hashes are equal.
+     * @param table the table of key numbers and hashes, with EMPTY numbers where no key has been inserted
+     * @param corpus corpus the key is in
+     * @param index number of the key in corpus
+     * @param insert true to insert the key's number if the key isn't found, in which case corpus must be this
+     * @return number of the equal key of this corpus, or EMPTY if it isn't in the table
+     */
+    private int findOrInsert(int[] table, MappedKeyCorpus corpus, int index, boolean insert) {
+        int mask = table.length / 2 - 1;
+        int hash = corpus.keyHash(index);
+        int location = hash & mask;
+        while (table[2 * location] != EMPTY) {
+            if (table[2 * location + 1] == hash && keysEqual(table[2 * location], corpus, index))
+                return table[2 * location];
+            location = (location + 1) & mask;
+        }
+        if (insert) {
+            table[2 * location] = index;
+            table[2 * location + 1] = hash;
+        }
+        return EMPTY;
+    }
+
+
+    /**
+     * Returns whether a key of this corpus has the same bytes as a key of another.
+     * @param index number of the key in this corpus
+     * @param other the other corpus
+     * @param otherIndex number of the key in other
+     * @return true if the keys are equal
+     */
+    private boolean keysEqual(int index, MappedKeyCorpus other, int otherIndex) {
+        int length = keyLength(index);
+        if (length != other.keyLength(otherIndex))
+            return false;
+        int start = keyStarts[index];
+        int otherStart = other.keyStarts[otherIndex];
+        for (int offset = 0; offset < length; offset++) {
+            if (buffer.get(start + offset) != other.buffer.get(otherStart + offset))
+                return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns an FNV-1a hash of the bytes of a key, with its bits spread so the low ones can index a table.
+     * @param index number of the key
+     * @return the hash
+     */
+    private int keyHash(int index) {
+        int hash = 0x811C9DC5;
+        int limit = buffer.limit();
+        for (int position = keyStarts[index]; position < limit; position++) { // One pass to the end of the line
+            byte next = buffer.get(position);
+            if (next == '\n' || (next == '\r' && (position + 1 == limit || buffer.get(position + 1) == '\n')))
+                break;
+            hash = (hash ^ (next & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * Returns the number of bytes in a key, leaving out the line ending.
+     * @param index number of the key
+     * @return the length of the key
+     */
+    private int keyLength(int index) {
+        int start = keyStarts[index];
+        int end = start;
+        int limit = buffer.limit();
+        while (end < limit && buffer.get(end) != '\n')
+            end++;
+        if (end > start && buffer.get(end - 1) == '\r')
+            end--;
+        return end - start;
+    }
+}
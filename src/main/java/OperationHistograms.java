@@ -0,0 +1,89 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One ProbeHistogram for each kind of operation, that any number of threads can record in at once without losing
+ * operations or writing to the same buckets. Each thread records in histograms of its own, and reading the histograms
+ * adds up those of every thread, the way ProbeCounter adds up its LongAdder cells. The thread that created them finds
+ * its own histograms without a ThreadLocal lookup, so a dictionary only ever used by one thread pays nothing extra.
+ *
+ * Operations recorded while the histograms are read or reset may or may not be included.
+ */
+final class OperationHistograms
+{
+    /** Thread that created the histograms */
+    private final Thread owner;
+    /** Histograms the owner records in, indexed by ProbeHistogram.Operation.ordinal() */
+    private final ProbeHistogram[] ownerHistograms;
+    /** Histograms each other thread records in, created the first time it records an operation */
+    private final ThreadLocal<ProbeHistogram[]> threadHistograms = ThreadLocal.withInitial(this::register);
+    /** Histograms of every thread that has recorded an operation, and of the owner */
+    private final CopyOnWriteArrayList<ProbeHistogram[]> allHistograms = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * Default Constructor, for empty histograms owned by the current thread.
+     */
+    OperationHistograms()
+    {
+        owner = Thread.currentThread();
+        ownerHistograms = register();
+    }
+
+
+    /**
+     * Creates one empty histogram for each kind of operation, for a thread to record in.
+     * @return the histograms, indexed by ProbeHistogram.Operation.ordinal()
+     */
+    private ProbeHistogram[] register() {
+        ProbeHistogram[] histograms = ProbeHistogram.forEachOperation();
+        allHistograms.add(histograms);
+        return histograms;
+    }
+
+
+    /**
+     * Records one operation in the current thread's histogram of its kind.
+     * @param operation the kind of operation
+     * @param probes number of probes the operation took
+     */
+    void record(ProbeHistogram.Operation operation, long probes) {
+        ProbeHistogram[] histograms = (Thread.currentThread() == owner) ? ownerHistograms : threadHistograms.get();
+        histograms[operation.ordinal()].record(probes);
+    }
+
+
+    /**
+     * Adds the operations of one kind that every thread has recorded to a histogram.
+     * @param operation the kind of operation
+     * @param histogram the histogram to add to
+     */
+    void addTo(ProbeHistogram.Operation operation, ProbeHistogram histogram) {
+        for (ProbeHistogram[] histograms : allHistograms) {
+            histogram.add(histograms[operation.ordinal()]);
+        }
+    }
+
+
+    /**
+     * Returns the operations of one kind that every thread has recorded, in a histogram of their own.
+     * @param operation the kind of operation
+     * @return the histogram, which doesn't change as more operations are recorded
+     */
+    ProbeHistogram copy(ProbeHistogram.Operation operation) {
+        ProbeHistogram copy = new ProbeHistogram();
+        addTo(operation, copy);
+        return copy;
+    }
+
+
+    /**
+     * Removes every recorded operation, of every thread.
+     */
+    void reset() {
+        for (ProbeHistogram[] histograms : allHistograms) {
+            for (ProbeHistogram histogram : histograms) {
+                histogram.reset();
+            }
+        }
+    }
+}
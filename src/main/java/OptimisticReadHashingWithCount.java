@@ -0,0 +1,270 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread safe Hashed Dictionary for tables that are read far more often than they are written: a linear probing or
+ * double hashing table guarded by a StampedLock. add, remove and clear take the write lock, as a synchronized wrapper
+ * would, but getValue and contains take no lock at all. They note the lock's stamp, search the table, and then check
+ * that no write lock was taken in between. Only when one was (an add or remove, and with it any enlargeHashTable,
+ * ran while they searched) is the search done again, this time holding the read lock.
+ *
+ * An optimistic search writes nothing that is shared: not the lock, and not the probe count either, since it uses the
+ * table's peekValue rather than getValue. So readers on different cores never wait for each other or take each
+ * other's cache lines. The price is that searches don't count probes; getProbeCount only counts the probes of add and
+ * remove.
+ *
+ * The other methods that read the dictionary (getSize, the iterators...) take the read lock, which lets readers in
+ * together but still writes to the lock. The iterators work on a copy of the entries taken under it.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class OptimisticReadHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    /** Default capacity of the dictionary when using empty constructor */
+    private static final int DEFAULT_CAPACITY = 11;
+
+    /** The table, only changed while holding the write lock */
+    private final ProbeCountingDictionary<K, V> dictionary;
+    /** True if the table is a DoubleHashingWithCount, false if it is a LinearProbingWithCount */
+    private final boolean doubleHashing;
+    /** Lock whose stamps tell a search whether the table changed while it ran */
+    private final StampedLock lock;
+
+
+    /**
+     * Default Constructor
+     */
+    public OptimisticReadHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call next constructor
+    }
+
+
+    /**
+     * Constructor that uses a linear probing table.
+     * @param initialCapacity Initial capacity you want to set your hashTable at.
+     */
+    public OptimisticReadHashingWithCount(int initialCapacity)
+    {
+        this(initialCapacity, false); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at.
+     * @param doubleHashing true for a double hashing table, false for a linear probing table
+     */
+    public OptimisticReadHashingWithCount(int initialCapacity, boolean doubleHashing)
+    {
+        this.doubleHashing = doubleHashing;
+        dictionary = doubleHashing
+                ? new DoubleHashingWithCount<>(initialCapacity)
+                : new LinearProbingWithCount<>(initialCapacity);
+        lock = new StampedLock();
+    }
+
+
+    /**
+     * Retrieves the probes made by add and remove since the last reset. Searches are not counted.
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return dictionary.getProbeCount(); // A ProbeCounter, so no lock is needed
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        dictionary.resetProbeCount();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            return dictionary.add(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        long stamp = lock.writeLock();
+        try {
+            return dictionary.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * Searches for a key without locking, and searches again under the read lock only if a write ran at the same time.
+     * An exception thrown while the table was changing underneath the search is put down to the change and the search
+     * retried; one thrown by a search that validates (a null key, say) is thrown on to the caller.
+     * @param key An object search key
+     * @return the key's value, or null if it is not in the dictionary
+     */
+    @Override
+    public V getValue(K key) {
+        long stamp = lock.tryOptimisticRead(); // 0 if a writer holds the lock right now
+        if (stamp != 0)
+        {
+            V result = null;
+            RuntimeException failure = null;
+            try {
+                result = peek(key);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            if (lock.validate(stamp)) { // No write lock was taken, so the search saw a table nobody was changing
+                if (failure != null)
+                    throw failure;
+                return result;
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return peek(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        ArrayList<K> keys = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            Iterator<K> tableKeys = dictionary.getKeyIterator();
+            while (tableKeys.hasNext())
+                keys.add(tableKeys.next());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return Collections.unmodifiableList(keys).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        ArrayList<V> values = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            Iterator<V> tableValues = dictionary.getValueIterator();
+            while (tableValues.hasNext())
+                values.add(tableValues.next());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return Collections.unmodifiableList(values).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        long stamp = lock.readLock();
+        try {
+            return dictionary.getSize();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            dictionary.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        long stamp = lock.readLock();
+        try {
+            return dictionary.getLoadFactor();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        long stamp = lock.readLock();
+        try {
+            return dictionary.getHashTableSize();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * Searches the table for a key without writing to it.
+     * @param key An object search key
+     * @return the key's value, or null if it was not found
+     */
+    private V peek(K key) {
+        if (doubleHashing)
+            return ((DoubleHashingWithCount<K, V>) dictionary).peekValue(key);
+        return ((LinearProbingWithCount<K, V>) dictionary).peekValue(key);
+    }
+}
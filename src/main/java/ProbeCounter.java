@@ -0,0 +1,132 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Probe counter that any number of threads can add to at once without losing counts or fighting over one cache line.
+ * The count is kept in a LongAdder, which spreads contended additions over several cells and only adds them up when
+ * the count is read, so a dictionary can count every operation and still be shared between threads. Dictionaries add
+ * the probes of an operation once, when it finishes, rather than one at a time.
+ *
+ * A thread can also measure just its own probes, over every dictionary it uses, while other threads use the same
+ * dictionaries:
+ *
+ *     try (ProbeCounter.Measurement measurement = ProbeCounter.startMeasurement()) {
+ *         dictionary.getValue(key);
+ *         probes = measurement.getProbeCount();
+ *     }
+ *
+ * Measurements can be nested, and each one counts every probe made while it is open. Adding to a counter only looks
+ * for the thread's measurements while some thread has one open, so they cost nothing when no one is measuring.
+ */
+public final class ProbeCounter
+{
+    /** Innermost measurement open on each thread, null if it has none */
+    private static final ThreadLocal<Measurement> openMeasurement = new ThreadLocal<>();
+    /** Number of measurements open on every thread put together */
+    private static final AtomicInteger openMeasurementCount = new AtomicInteger();
+
+    /** Probes counted since the last reset */
+    private final LongAdder total = new LongAdder();
+
+
+    /**
+     * Adds probes to the count, and to every measurement open on this thread.
+     * @param probes number of probes made
+     */
+    public void add(long probes) {
+        total.add(probes);
+        if (openMeasurementCount.get() != 0) {
+            for (Measurement measurement = openMeasurement.get(); measurement != null; measurement = measurement.outer)
+                measurement.probes += probes;
+        }
+    }
+
+
+    /**
+     * Returns the probes counted since the last reset, by every thread. Additions made while the sum is taken may or
+     * may not be included.
+     * @return the probe count
+     */
+    public long sum() {
+        return total.sum();
+    }
+
+
+    /**
+     * Resets the count to 0. Additions made while it is reset may be lost. Open measurements are not changed.
+     */
+    public void reset() {
+        total.reset();
+    }
+
+
+    /**
+     * Starts measuring the probes this thread makes, in any dictionary, until the measurement is closed.
+     * @return the new measurement
+     */
+    public static Measurement startMeasurement() {
+        Measurement measurement = new Measurement(openMeasurement.get());
+        openMeasurement.set(measurement);
+        openMeasurementCount.incrementAndGet();
+        return measurement;
+    }
+
+
+    /**
+     * The probes made by one thread since it started the measurement. Only the thread that started it uses it.
+     */
+    public static final class Measurement implements AutoCloseable
+    {
+        /** Thread that started the measurement */
+        private final Thread owner;
+        /** Measurement that was open on the thread when this one started, null if none was */
+        private final Measurement outer;
+        /** Probes made since the measurement started */
+        private long probes;
+        /** True until the measurement is closed */
+        private boolean open;
+
+
+        /**
+         * Full Constructor
+         * @param outer measurement that is open on this thread, or null
+         */
+        private Measurement(Measurement outer) {
+            owner = Thread.currentThread();
+            this.outer = outer;
+            open = true;
+        }
+
+
+        /**
+         * Returns the probes this thread has made since the measurement started, up to when it was closed.
+         * @return the probe count
+         */
+        public long getProbeCount() {
+            return probes;
+        }
+
+
+        /**
+         * Stops the measurement. Closing it again does nothing.
+         * @throws IllegalStateException if called by another thread, or while a measurement started inside this one
+         *                               is still open
+         */
+        @Override
+        public void close() {
+            if (Thread.currentThread() != owner)
+                throw new IllegalStateException("A measurement must be closed by the thread that started it.");
+            if (!open)
+                return;
+            if (openMeasurement.get() != this)
+                throw new IllegalStateException("Nested measurements must be closed before the one around them.");
+
+            open = false;
+            if (outer == null)
+                openMeasurement.remove();
+            else
+                openMeasurement.set(outer);
+            openMeasurementCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * A hashed dictionary that counts the probes it makes, so GetStatistics can run the same experiment on any collision
+ * resolution scheme.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public interface ProbeCountingDictionary<K, V> extends DictionaryInterface<K, V> {
+    /** Retrieves the number of probes made since the last reset.
+     @return  The current probe count. */
+    public long getProbeCount();
+
+    /** Resets the probe count to 0. */
+    public void resetProbeCount();
+
+    /** Gets the current load factor of the hash table.
+     @return  The number of entries divided by the size of the hash table. */
+    public double getLoadFactor();
+
+    /** Gets the size of the hash table.
+     @return  The number of locations in the hash table. */
+    public int getHashTableSize();
+}
@@ -0,0 +1,212 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of the probes taken by single operations, so the long tail hidden by an average probe count can be seen.
+ * The probe counts are kept in log-scaled buckets: counts below 8 each get their own bucket, and every power of two
+ * above that is split into 4 buckets, so a percentile is exact for short probe sequences and within 25% of the true
+ * value for long ones, while 248 buckets cover every possible count. Recording a count only computes its bucket and
+ * adds 1 to it, so it never allocates and costs about the same as counting a probe.
+ *
+ * A histogram is not thread safe. The dictionaries give each thread histograms of its own (see OperationHistograms)
+ * and hand out copies (see LinearProbingWithCount.getProbeHistogram), which can be read and merged freely.
+ */
+public final class ProbeHistogram
+{
+    /**
+     * The kinds of operation a dictionary keeps a separate histogram for.
+     */
+    public enum Operation {
+        /** getValue or contains of a key that is in the dictionary */
+        SUCCESSFUL_SEARCH,
+        /** getValue or contains of a key that is not in the dictionary */
+        UNSUCCESSFUL_SEARCH,
+        /** add, whether the key was new or its value was replaced */
+        INSERT,
+        /** remove, whether the key was there or not */
+        REMOVE
+    }
+
+    /** Number of counts, from 0, that each have their own bucket */
+    private static final int EXACT_COUNTS = 8;
+    /** Log base 2 of the number of buckets each power of two above EXACT_COUNTS is split into */
+    private static final int SUB_BUCKET_BITS = 2;
+    /** Number of buckets each power of two above EXACT_COUNTS is split into */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Log base 2 of EXACT_COUNTS, the first power of two that is split */
+    private static final int FIRST_SPLIT_EXPONENT = 3;
+    /** Number of buckets, enough for any non-negative long */
+    private static final int BUCKET_COUNT = EXACT_COUNTS + (63 - FIRST_SPLIT_EXPONENT) * SUB_BUCKETS;
+
+    /** Number of operations recorded in each bucket */
+    private final long[] buckets;
+    /** Number of operations recorded */
+    private long count;
+    /** Total probes of every operation recorded */
+    private long total;
+    /** Most probes taken by one operation */
+    private long max;
+
+
+    /**
+     * Default Constructor, for an empty histogram.
+     */
+    public ProbeHistogram()
+    {
+        buckets = new long[BUCKET_COUNT];
+    }
+
+
+    /**
+     * Creates one empty histogram for each kind of operation, indexed by Operation.ordinal().
+     * @return the histograms
+     */
+    static ProbeHistogram[] forEachOperation() {
+        ProbeHistogram[] histograms = new ProbeHistogram[Operation.values().length];
+        for (int index = 0; index < histograms.length; index++) {
+            histograms[index] = new ProbeHistogram();
+        }
+        return histograms;
+    }
+
+
+    /**
+     * Records one operation.
+     * @param probes number of probes the operation took
+     * @throws IllegalArgumentException if probes is negative
+     */
+    public void record(long probes) {
+        if (probes < 0)
+            throw new IllegalArgumentException("An operation cannot take a negative number of probes.");
+        buckets[getBucketIndex(probes)]++;
+        count++;
+        total += probes;
+        if (probes > max)
+            max = probes;
+    }
+
+
+    /**
+     * Adds every operation recorded by another histogram to this one.
+     * @param other the histogram to add
+     */
+    public void add(ProbeHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            buckets[index] += other.buckets[index];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+
+    /**
+     * Returns a copy of this histogram, which does not change when this one does.
+     * @return the copy
+     */
+    public ProbeHistogram copy() {
+        ProbeHistogram copy = new ProbeHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+
+    /**
+     * Removes every recorded operation.
+     */
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+
+    /**
+     * Returns the number of operations recorded.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /**
+     * Returns the total probes of every operation recorded.
+     * @return the total
+     */
+    public long getTotal() {
+        return total;
+    }
+
+
+    /**
+     * Returns the average probes per operation.
+     * @return the mean, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        return (count == 0) ? 0 : (double) total / count;
+    }
+
+
+    /**
+     * Returns the most probes taken by one operation.
+     * @return the maximum, or 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+
+    /**
+     * Returns the probes taken by the operation at the given percentile: at least that percentage of the operations
+     * took this many probes or fewer. The answer is the top of the bucket the operation is in (but never more than the
+     * maximum), so it is exact below 8 probes and may be up to 25% too high above.
+     * @param percentile a percentage, from 0 to 100
+     * @return the probes at the percentile, or 0 if nothing has been recorded
+     * @throws IllegalArgumentException if percentile is not between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count)); // Operations at or below the answer
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += buckets[index];
+            if (seen >= rank)
+                return Math.min(getBucketUpperBound(index), max);
+        }
+        return max;
+    }
+
+
+    /**
+     * Returns the bucket a probe count is recorded in.
+     * @param probes a non-negative probe count
+     * @return index of its bucket
+     */
+    static int getBucketIndex(long probes) {
+        if (probes < EXACT_COUNTS)
+            return (int) probes;
+        int exponent = 63 - Long.numberOfLeadingZeros(probes); // probes is in [2^exponent, 2^(exponent + 1))
+        int subBucket = (int) (probes >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_COUNTS + (exponent - FIRST_SPLIT_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * Returns the largest probe count recorded in a bucket.
+     * @param index index of a bucket
+     * @return the largest count that getBucketIndex maps to it
+     */
+    static long getBucketUpperBound(int index) {
+        if (index < EXACT_COUNTS)
+            return index;
+        int exponent = (index - EXACT_COUNTS) / SUB_BUCKETS + FIRST_SPLIT_EXPONENT;
+        int subBucket = (index - EXACT_COUNTS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS); // Counts per bucket in this power of two
+        return (SUB_BUCKETS + subBucket) * width + (width - 1);
+    }
+}
@@ -0,0 +1,654 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hashed Dictionary that resolves collisions with Robin Hood hashing. It probes linearly like LinearProbingWithCount,
+ * but an entry being inserted takes the location of any entry that is closer to its home index than the new one is
+ * ("takes from the rich, gives to the poor"), and the displaced entry carries on probing instead. That keeps every
+ * entry's distance from its home index close to the average, which cuts down the long probe sequences that primary
+ * clustering causes.
+ *
+ * Because entries along a probe sequence are ordered by distance from home, an unsuccessful search can stop as soon as
+ * it reaches an entry that is closer to home than the search key would be, instead of walking to the end of the
+ * cluster. Removal shifts the following entries of the cluster back one location (backward shift deletion), so the
+ * table never holds removed-state markers.
+ *
+ * Probes are counted the same way as the other dictionaries: one for the initial location and one more for every
+ * location visited after it.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class RobinHoodHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private int numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary. */
+    private static final int MAX_CAPACITY = 10000;
+
+    // The hash table:
+
+    /** Table where dictionary elements are stored. */
+    private Entry<K, V>[] hashTable;
+    /** Maximum size of the hashTable */
+    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Checks that nothing went wrong during hashTable initialization */
+    private boolean integrityOK = false;
+    /** Fraction of the hash table that can be filled. */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    //With Probe:
+
+    /** Number of probes total when using any function that searches the hashTable until the counter is reset using
+     * resetProbeCount() */
+    private long probeCount;
+
+
+    /**
+     * Default Constructor
+     */
+    public RobinHoodHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next highest
+     *                        prime number on rehash).
+     */
+    public RobinHoodHashingWithCount(int initialCapacity)
+    {
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = 0;    // Dictionary is empty
+        probeCount = 0;  // No searches have been done yet
+
+        // Set up hash table:
+        checkSize(initialCapacity); // Check that the size is not too large
+
+        // The cast is safe because the new array contains null entries
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<K, V>[] temp = (Entry<K, V>[])new Entry[initialCapacity];
+        hashTable = temp;
+        integrityOK = true;
+    }
+
+
+    /**
+     * Displays the hashTable, with each entry's distance from its home index.
+     */
+    public void displayHashTable()
+    {
+        checkIntegrity();
+        for (int index = 0; index < hashTable.length; index++)
+        {
+            if (hashTable[index] == null)
+                System.out.println("null ");
+            else
+                System.out.println(hashTable[index].getKey() + " " + hashTable[index].getValue() +
+                        " (distance " + distanceFromHome(index) + ")");
+        }
+        System.out.println();
+    } // end displayHashTable
+
+
+    /**
+     * Retrieves the current probeCount
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        checkIntegrity();
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        int hash = key.hashCode();
+        int index = getHomeIndex(hash);
+        int distance = 0; // Distance of the entry being placed from its home index
+        Entry<K, V> carried = null; // Entry being placed, created the first time it is needed
+        probeCount++; // count initial probe
+
+        while (hashTable[index] != null)
+        {
+            Entry<K, V> resident = hashTable[index];
+            if ( (carried == null) && (resident.getHash() == hash) && key.equals(resident.getKey()) )
+            { // Key found; get old value for return and then replace it
+                V oldValue = resident.getValue();
+                resident.setValue(value);
+                return oldValue;
+            }
+
+            int residentDistance = distanceFromHome(index);
+            if (residentDistance < distance)
+            { // The resident is better off than the entry being placed, so they swap places
+                if (carried == null) {
+                    // The search key can't be further along, it would have been placed here or earlier
+                    carried = new Entry<>(key, value, hash);
+                }
+                hashTable[index] = carried;
+                carried = resident;
+                distance = residentDistance;
+            }
+
+            index = (index + 1) % hashTable.length; // Linear probing
+            distance++;
+            probeCount++;
+        }
+
+        // Assertion: index is an empty location
+        hashTable[index] = (carried == null) ? new Entry<>(key, value, hash) : carried;
+        numberOfEntries++;
+
+        // Ensure that hash table is large enough for another add
+        if (isHashTableTooFull())
+            enlargeHashTable();
+
+        return null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        checkIntegrity();
+        V removedValue = null;
+
+        int index = locate(key);
+
+        if (index != -1) {
+            // Key found; shift the rest of the cluster back over it and return its value
+            removedValue = hashTable[index].getValue();
+            backwardShift(index);
+            numberOfEntries--;
+        }
+        // Else not found; result is null
+        return removedValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        checkIntegrity();
+        V result = null;
+
+        int index = locate(key);
+
+        if (index != -1)
+            result = hashTable[index].getValue(); // Key found; get value
+        // Else not found; result is null
+
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) numberOfEntries/hashTable.length;
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return hashTable.length;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return numberOfEntries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void clear() {
+        checkIntegrity();
+        for (int index = 0; index < hashTable.length; index++)
+            hashTable[index] = null;
+
+        numberOfEntries = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        return new KeyIterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        return new ValueIterator();
+    }
+
+
+    /**
+     * Finds the location of a search key. The search stops at an empty location, or as soon as it reaches an entry
+     * that is closer to its home index than the search key would be at that location, since Robin Hood insertion
+     * would have placed the key before that entry.
+     * @param key An object search key we want to find
+     * @return the index of the key, or -1 if it is not in the dictionary
+     * Time Complexity: O(n) in the worst case, but an unsuccessful search only walks as far as a successful one would.
+     */
+    private int locate(K key) {
+        int hash = key.hashCode();
+        int index = getHomeIndex(hash);
+        int distance = 0; // Distance of the search key from its home index at this location
+        probeCount++; // count initial probe
+
+        while (hashTable[index] != null)
+        {
+            if ( (hashTable[index].getHash() == hash) && key.equals(hashTable[index].getKey()) )
+                return index; // Key found
+            if (distanceFromHome(index) < distance)
+                return -1; // Early termination; key would have been placed before this entry
+
+            index = (index + 1) % hashTable.length; // Linear probing
+            distance++;
+            probeCount++;
+        }
+
+        return -1; // Empty location reached
+    }
+
+
+    /**
+     * Removes the entry at index by moving every following entry of its cluster back one location, stopping at an
+     * empty location or at an entry that is already at its home index. Afterwards the table looks exactly as if the
+     * removed entry had never been added.
+     * @param index location of the entry to remove
+     */
+    private void backwardShift(int index) {
+        int next = (index + 1) % hashTable.length;
+        while ( (hashTable[next] != null) && (distanceFromHome(next) > 0) )
+        {
+            hashTable[index] = hashTable[next];
+            index = next;
+            next = (next + 1) % hashTable.length;
+        }
+        hashTable[index] = null;
+    }
+
+
+    /**
+     * Returns the home index of a hash code, the location its probe sequence starts at.
+     * @param hash hash code of a search key
+     * @return the home index
+     */
+    private int getHomeIndex(int hash) {
+        int hashIndex = hash % hashTable.length;
+
+        if (hashIndex < 0) {
+            hashIndex = hashIndex + hashTable.length;
+        }
+
+        return hashIndex;
+    }
+
+
+    /**
+     * Returns how far the entry at a location is from its home index, going forward through the table.
+     * @param index location of an entry
+     * @return number of locations between the entry's home index and index
+     */
+    private int distanceFromHome(int index) {
+        int distance = index - getHomeIndex(hashTable[index].getHash());
+        return (distance < 0) ? distance + hashTable.length : distance;
+    }
+
+
+    /**
+     * Increases the size of a hash table to a prime greater than or equal to twice its old size.
+     * Then, rehashes the entries.
+     */
+    private void enlargeHashTable() {
+        Entry<K, V>[] oldTable = hashTable;
+        int oldSize = hashTable.length;
+        int newSize = getNextPrime(oldSize + oldSize);
+        checkSize(newSize); // Check that the prime size is not too large
+
+        // The cast is safe because the new array contains null entries
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Entry<K, V>[] tempTable = (Entry<K, V>[])new Entry[newSize]; // Increase size of array
+        hashTable = tempTable;
+        numberOfEntries = 0; // Reset number of dictionary entries, since
+        // it will be incremented by add during rehash
+
+        // Rehash dictionary entries from old array to the new and bigger array
+        for (int index = 0; index < oldSize; index++)
+        {
+            if (oldTable[index] != null)
+                add(oldTable[index].getKey(), oldTable[index].getValue());
+        }
+    }
+
+
+    /**
+     * Checks if the current load factor (lambda) is greater than MAX_LOAD_FACTOR
+     * @return true if lambda is greater than MAX_LOAD_FACTOR for hash table; otherwise returns false.
+     */
+    private boolean isHashTableTooFull() {
+        return numberOfEntries > MAX_LOAD_FACTOR * hashTable.length;
+    }
+
+
+    /**
+     * Returns a prime integer that is greater than or equal to the given integer, but less than or equal to MAX_SIZE.
+     * @param anInteger any positive integer
+     * @return a prime integer
+     */
+    private int getNextPrime(int anInteger) {
+        // if even, add 1 to make odd
+        if (anInteger % 2 == 0)
+        {
+            anInteger++;
+        } // end if
+
+        // test odd integers
+        while (!isPrime(anInteger))
+        {
+            anInteger = anInteger + 2;
+        } // end while
+
+        return anInteger;
+    } // end getNextPrime
+
+
+    /**
+     * Determines whether an odd integer greater than 3 is prime.
+     * @param anInteger any odd integer greater than 3
+     * @return true if the given integer is prime, false otherwise.
+     */
+    private boolean isPrime(int anInteger) {
+        // a prime is odd and not divisible by every odd integer up to its square root
+        for (int divisor = 3; divisor * divisor <= anInteger; divisor = divisor + 2)
+        {
+            if (anInteger % divisor == 0) {
+                return false; // divisible; not prime
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Throws an exception if this object is not initialized.
+     * @throws SecurityException if object is not initialized
+     */
+    private void checkIntegrity() {
+        if (!integrityOK)
+            throw new SecurityException ("HashedDictionary object is corrupt.");
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * Verifies size of the hashTable itself.
+     * @param size current size of hashTable
+     * @throws IllegalStateException if hashTable exceeds MAX_SIZE
+     */
+    private void checkSize(int size)
+    {
+        if (size > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+    }
+
+
+    /**
+     * Iterator object that iterates through the keys of this dictionary
+     */
+    private class KeyIterator implements Iterator<K>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for KeyIterator
+         */
+        private KeyIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (hashTable[currentIndex] == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return hashTable[currentIndex++].getKey();
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end KeyIterator
+
+
+    /**
+     * Iterator object that iterates through the values of this dictionary.
+     */
+    private class ValueIterator implements Iterator<V>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for ValueIterator
+         */
+        private ValueIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (hashTable[currentIndex] == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            return hashTable[currentIndex++].getValue();
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end ValueIterator
+
+
+    /**
+     * Object that holds the key, value pairs for this dictionary
+     * @param <K> generic of type K, for key
+     * @param <V> generic of type V, for value
+     */
+    protected static final class Entry<K, V>
+    {
+        /** Object search key for this dictionary */
+        private final K key;
+        /** Value for this dictionary */
+        private V value;
+        /** Hash code of the search key, cached so the home index can be found without calling hashCode() */
+        private final int hash;
+
+
+        /**
+         * Full constructor for Entry
+         * @param searchKey object search key we want to store
+         * @param dataValue value we want to store with this search key
+         * @param hashCode hash code of the search key
+         */
+        private Entry(K searchKey, V dataValue, int hashCode) {
+            key = searchKey;
+            value = dataValue;
+            hash = hashCode;
+        }
+
+
+        /**
+         * Returns the search key for this Entry.
+         * @return search key for this Entry
+         */
+        private K getKey() {
+            return key;
+        }
+
+
+        /**
+         * Returns the Value for this Entry.
+         * @return Value for this Entry
+         */
+        private V getValue() {
+            return value;
+        } // end getValue
+
+
+        /**
+         * sets a new value for this Entry
+         * @param newValue new value to set for this Entry
+         */
+        private void setValue(V newValue) {
+            value = newValue;
+        }
+
+
+        /**
+         * Returns the cached hash code of the search key for this Entry.
+         * @return hash code of the search key
+         */
+        private int getHash() {
+            return hash;
+        }
+    } // end Entry
+} // end RobinHoodHashingWithCount
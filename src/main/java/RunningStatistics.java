@@ -0,0 +1,172 @@
+/**
+ * Mean, variance, minimum and maximum of a stream of values, updated one value at a time with Welford's algorithm so
+ * the values themselves never have to be kept. Memory stays the same however many values are added, and since each
+ * update only moves the mean by (value - mean) / count, the variance doesn't lose its precision the way summing the
+ * squares does when the values are large and close together.
+ *
+ * Statistics gathered separately, by parallel workers for example, can be merged into one (Chan et al.'s pairwise
+ * update), giving the same result as if every value had been added to a single one, up to rounding.
+ *
+ * Like ProbeHistogram, this is not thread safe; give each thread its own and merge them when the threads are done.
+ */
+public final class RunningStatistics
+{
+    /** Two sided 95% critical values of Student's t distribution for 1 to 30 degrees of freedom */
+    private static final double[] T_CRITICAL_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+    /** Two sided 95% critical value of the normal distribution */
+    private static final double Z_CRITICAL_95 = 1.959964;
+
+    /** Number of values added */
+    private long count;
+    /** Mean of the values added */
+    private double mean;
+    /** Sum of the squared differences between each value and the mean */
+    private double sumOfSquares;
+    /** Smallest value added */
+    private double min;
+    /** Largest value added */
+    private double max;
+
+
+    /**
+     * Default Constructor, for statistics of no values.
+     */
+    public RunningStatistics()
+    {
+        count = 0;
+        mean = 0;
+        sumOfSquares = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+
+    /**
+     * Adds one value.
+     * @param value the value
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (value - mean); // The old and the new difference from the mean
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+
+    /**
+     * Adds every value added to other to this, without needing the values.
+     * @param other the statistics to merge in, which are not changed
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0)
+            return;
+        long combined = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / combined;
+        sumOfSquares += other.sumOfSquares + delta * delta * ((double) count * other.count / combined);
+        count = combined;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+
+    /**
+     * Returns the number of values added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /**
+     * Returns the mean of the values.
+     * @return the mean, or 0 if no values have been added
+     */
+    public double getMean() {
+        return mean;
+    }
+
+
+    /**
+     * Returns the sample variance of the values, dividing by count - 1 as computeStandardDeviation does.
+     * @return the variance, or 0 if fewer than two values have been added
+     */
+    public double getVariance() {
+        return (count < 2) ? 0 : sumOfSquares / (count - 1);
+    }
+
+
+    /**
+     * Returns the sample standard deviation of the values.
+     * @return the standard deviation, or 0 if fewer than two values have been added
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+
+    /**
+     * Returns the smallest value.
+     * @return the minimum, or positive infinity if no values have been added
+     */
+    public double getMin() {
+        return min;
+    }
+
+
+    /**
+     * Returns the largest value.
+     * @return the maximum, or negative infinity if no values have been added
+     */
+    public double getMax() {
+        return max;
+    }
+
+
+    /**
+     * Returns the half width of the 95% confidence interval for the mean: the interval from getMean() minus this to
+     * getMean() plus this covers the true mean in 95% of experiments. It is the t critical value for count - 1 degrees
+     * of freedom times the standard error, which for more than 30 values is close enough to the normal distribution's
+     * that a correction term is used instead of a table.
+     * @return the half width, or positive infinity if fewer than two values have been added
+     */
+    public double getConfidenceHalfWidth() {
+        if (count < 2)
+            return Double.POSITIVE_INFINITY;
+        return tCritical95(count - 1) * getStandardDeviation() / Math.sqrt(count);
+    }
+
+
+    /**
+     * Returns the two sided 95% critical value of Student's t distribution, from the table up to 30 degrees of freedom
+     * and from the first two terms of its Cornish-Fisher expansion around the normal distribution above that, which
+     * is within 0.001 of the exact value there.
+     * @param degreesOfFreedom degrees of freedom, at least 1
+     * @return the critical value
+     */
+    static double tCritical95(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T_CRITICAL_95.length)
+            return T_CRITICAL_95[(int) degreesOfFreedom - 1];
+        double z = Z_CRITICAL_95;
+        double z3 = z * z * z;
+        double df = degreesOfFreedom;
+        return z + (z3 + z) / (4 * df) + (5 * z3 * z * z + 16 * z3 + 3 * z) / (96 * df * df);
+    }
+
+
+    /**
+     * Returns the mean with its 95% confidence interval, and the count, standard deviation, minimum and maximum.
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("mean %.4f ± %.4f (n %d, SD %.4f, min %.4f, max %.4f)", mean, getConfidenceHalfWidth(),
+                count, getStandardDeviation(), min, max);
+    }
+}
@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread safe Hashed Dictionary that splits the key space into segments, each one an independent linear probing or
+ * double hashing table with its own read-write lock. The high bits of a key's mixed hash code pick its segment, and
+ * only that segment is locked while the key is added, removed or searched for, so threads working on keys in different
+ * segments never wait for each other. Every segment enlarges its own table when it gets too full, which locks out only
+ * the keys of that segment, and only for the time it takes to rehash a table a fraction of the size of the whole.
+ *
+ * Searches only take their segment's read lock, so any number of them can run in the same segment at once; adds and
+ * removes take the write lock. A search changes nothing a concurrent search reads: each operation keeps its probe tally
+ * in a local variable, and the probe counts and histograms it records them in are ProbeCounters and per thread
+ * histograms (see OperationHistograms), which any thread can read or reset without a lock.
+ *
+ * The methods that cover the whole dictionary (getSize, clear, the iterators...) lock one segment at a time rather
+ * than all of them at once, so they never stop the whole dictionary. The price is that their results are put together
+ * from segments at slightly different moments while other threads are still changing it. The iterators work on a copy
+ * of the entries taken in this way, so they never fail because of concurrent changes, and don't see the changes made
+ * after their segment was copied.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class StripedHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    /** Default capacity of the whole dictionary when using empty constructor */
+    private static final int DEFAULT_CAPACITY = 176;
+    /** Default number of segments */
+    private static final int DEFAULT_SEGMENT_COUNT = 16;
+    /** Largest number of segments allowed */
+    private static final int MAX_SEGMENT_COUNT = 1 << 16;
+
+    /** The segments, each an independent hash table, only used while holding the lock with the same index */
+    private final ProbeCountingDictionary<K, V>[] segments;
+    /** Lock of each segment, read locked by searches and write locked by changes */
+    private final ReentrantReadWriteLock[] locks;
+    /** Number of bits the mixed hash code is shifted right by to get a segment index */
+    private final int segmentShift;
+
+
+    /**
+     * Default Constructor
+     */
+    public StripedHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call next constructor
+    }
+
+
+    /**
+     * Constructor that uses 16 linear probing segments.
+     * @param initialCapacity Initial capacity of the whole dictionary, split evenly between the segments.
+     */
+    public StripedHashingWithCount(int initialCapacity)
+    {
+        this(initialCapacity, DEFAULT_SEGMENT_COUNT, false); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity of the whole dictionary, split evenly between the segments (each segment
+     *                        then rounds its share up to its own minimum size).
+     * @param segmentCount number of segments, rounded up to a power of two. More segments let more threads work at
+     *                     once, at the cost of more small tables.
+     * @param doubleHashing true for double hashing segments, false for linear probing segments
+     * @throws IllegalArgumentException if segmentCount is less than 1 or more than 65536
+     */
+    public StripedHashingWithCount(int initialCapacity, int segmentCount, boolean doubleHashing)
+    {
+        if (segmentCount < 1 || segmentCount > MAX_SEGMENT_COUNT) {
+            throw new IllegalArgumentException("Must use between 1 and " + MAX_SEGMENT_COUNT + " segments.");
+        }
+        segmentCount = (segmentCount == 1) ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        int segmentCapacity = (Math.max(initialCapacity, 1) + segmentCount - 1) / segmentCount;
+
+        // The cast is safe because the new array contains null entries
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ProbeCountingDictionary<K, V>[] temp =
+                (ProbeCountingDictionary<K, V>[]) new ProbeCountingDictionary[segmentCount];
+        segments = temp;
+        locks = new ReentrantReadWriteLock[segmentCount];
+        for (int index = 0; index < segmentCount; index++) {
+            segments[index] = doubleHashing
+                    ? new DoubleHashingWithCount<>(segmentCapacity)
+                    : new LinearProbingWithCount<>(segmentCapacity);
+            locks[index] = new ReentrantReadWriteLock();
+        }
+    }
+
+
+    /**
+     * Returns the number of segments.
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+
+    /**
+     * Retrieves the probes made by every segment since they were last reset, without locking any of them.
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        long total = 0;
+        for (ProbeCountingDictionary<K, V> segment : segments) {
+            total += segment.getProbeCount();
+        }
+        return total;
+    }
+
+
+    /**
+     * resets the probeCount of every segment to 0.
+     */
+    public void resetProbeCount() {
+        for (ProbeCountingDictionary<K, V> segment : segments) {
+            segment.resetProbeCount();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        int segment = getSegmentIndex(key);
+        locks[segment].writeLock().lock();
+        try {
+            return segments[segment].add(key, value);
+        } finally {
+            locks[segment].writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        int segment = getSegmentIndex(key);
+        locks[segment].writeLock().lock();
+        try {
+            return segments[segment].remove(key);
+        } finally {
+            locks[segment].writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        int segment = getSegmentIndex(key);
+        locks[segment].readLock().lock();
+        try {
+            return segments[segment].getValue(key);
+        } finally {
+            locks[segment].readLock().unlock();
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        ArrayList<K> keys = new ArrayList<>();
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].readLock().lock();
+            try {
+                Iterator<K> segmentKeys = segments[index].getKeyIterator();
+                while (segmentKeys.hasNext())
+                    keys.add(segmentKeys.next());
+            } finally {
+                locks[index].readLock().unlock();
+            }
+        }
+        return Collections.unmodifiableList(keys).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        ArrayList<V> values = new ArrayList<>();
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].readLock().lock();
+            try {
+                Iterator<V> segmentValues = segments[index].getValueIterator();
+                while (segmentValues.hasNext())
+                    values.add(segmentValues.next());
+            } finally {
+                locks[index].readLock().unlock();
+            }
+        }
+        return Collections.unmodifiableList(values).iterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].readLock().lock();
+            try {
+                size += segments[index].getSize();
+            } finally {
+                locks[index].readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].writeLock().lock();
+            try {
+                segments[index].clear();
+            } finally {
+                locks[index].writeLock().unlock();
+            }
+        }
+    }
+
+
+    /** Returns the current load factor of the dictionary, over every segment
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        int entries = 0;
+        long locations = 0;
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].readLock().lock();
+            try {
+                entries += segments[index].getSize();
+                locations += segments[index].getHashTableSize();
+            } finally {
+                locks[index].readLock().unlock();
+            }
+        }
+        return (double) entries / locations;
+    }
+
+
+    /** Returns the number of locations in every segment's hash table put together
+     * @return hash table length, summed over the segments
+     */
+    public int getHashTableSize() {
+        int locations = 0;
+        for (int index = 0; index < segments.length; index++) {
+            locks[index].readLock().lock();
+            try {
+                locations += segments[index].getHashTableSize();
+            } finally {
+                locks[index].readLock().unlock();
+            }
+        }
+        return locations;
+    }
+
+
+    /**
+     * Returns the segment a key belongs to. The segment tables reduce the hash code themselves, from its low bits (or
+     * from all of it, with %), so the segment is taken from the high bits of a mixed copy of it, keeping the two
+     * choices independent.
+     * @param key a search key
+     * @return index of the key's segment
+     */
+    private int getSegmentIndex(K key) {
+        if (segments.length == 1)
+            return 0;
+        return mix(key.hashCode()) >>> segmentShift;
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that the high bits used to pick a segment
+     * depend on every bit of the hash code.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
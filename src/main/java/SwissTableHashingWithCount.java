@@ -0,0 +1,661 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hashed Dictionary modelled on the SwissTable design. Next to the keys and values, the table keeps one control byte
+ * per location: EMPTY, DELETED, or for an occupied location a 7 bit tag taken from the key's hash code. The locations
+ * are split into groups of 16, and a probe checks a whole group at once: the group's 16 control bytes are held in two
+ * longs, and SWAR ("SIMD within a register") bit tricks compare all 16 tags with the search key's tag, or look for an
+ * empty location, in a handful of long operations. Only locations whose tag matches have their key compared, which
+ * happens for about 1 in 128 of the other entries.
+ *
+ * A search stops at the first group that has an empty location, so at the load factors these experiments use nearly
+ * every unsuccessful search is finished after checking a single group. Groups are visited in triangular order
+ * (1, 2, 3... groups along), which visits every group because the number of groups is a power of two.
+ *
+ * Probes are counted per group checked, not per location, and that count is reported through getProbeCount.
+ *
+ * @param <K> generic of type K for the search key
+ * @param <V> generic of type V for the value
+ */
+public class SwissTableHashingWithCount<K, V> implements ProbeCountingDictionary<K, V>
+{
+    // The dictionary:
+
+    /** Number of elements in the dictionary. */
+    private int numberOfEntries;
+    /** Default capacity of the dictionary when using empty constructor*/
+    private static final int DEFAULT_CAPACITY = 11;
+    /** Max capacity of the dictionary. */
+    private static final int MAX_CAPACITY = 10000;
+
+    // The hash table:
+
+    /** Search keys of the dictionary, null for an empty or deleted location */
+    private Object[] keys;
+    /** Values of the dictionary, parallel to keys */
+    private Object[] values;
+    /** Control bytes of the locations, eight to a long, two longs per group, lowest byte first */
+    private long[] control;
+    /** Number of locations that are occupied or DELETED, the ones a search can't stop at */
+    private int usedLocations;
+    /** Maximum size of the hashTable */
+    private static final int MAX_SIZE = 2 * MAX_CAPACITY;
+    /** Checks that nothing went wrong during hashTable initialization */
+    private boolean integrityOK = false;
+    /** Fraction of the hash table that can be used before it is rehashed, higher than the other tables because a
+     * search checks 16 locations at a time */
+    private static final double MAX_LOAD_FACTOR = 0.875;
+
+    // Control bytes:
+
+    /** Number of locations in a group */
+    private static final int GROUP_SIZE = 16;
+    /** Control byte of a location that has never been used */
+    private static final long EMPTY = 0x80L;
+    /** Control byte of a location whose entry was removed */
+    private static final long DELETED = 0xFEL;
+    /** The lowest bit of every byte of a long */
+    private static final long LOW_BITS = 0x0101010101010101L;
+    /** The highest bit of every byte of a long */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    //With Probe:
+
+    /** Number of groups checked when using any function that searches the hashTable until the counter is reset using
+     * resetProbeCount() */
+    private long probeCount;
+
+
+    /**
+     * Default Constructor
+     */
+    public SwissTableHashingWithCount()
+    {
+        this(DEFAULT_CAPACITY); // Call full constructor
+    }
+
+
+    /**
+     * Full Constructor
+     * @param initialCapacity Initial capacity you want to set your hashTable at, (will change to the next power of two
+     *                        that is at least 16).
+     */
+    public SwissTableHashingWithCount(int initialCapacity)
+    {
+        initialCapacity = checkCapacity(initialCapacity);
+        numberOfEntries = 0;    // Dictionary is empty
+        probeCount = 0;  // No searches have been done yet
+
+        // Set up hash table:
+        allocate(Math.max(GROUP_SIZE, nextPowerOfTwo(initialCapacity)));
+        integrityOK = true;
+    }
+
+
+    /**
+     * Displays the hashTable one group at a time, with the control byte of each location in hexadecimal.
+     */
+    public void displayHashTable()
+    {
+        checkIntegrity();
+        for (int index = 0; index < keys.length; index++)
+        {
+            if (index % GROUP_SIZE == 0)
+                System.out.println("group " + (index / GROUP_SIZE) + ":");
+            long controlByte = getControlByte(index);
+            if (controlByte == EMPTY)
+                System.out.println("null ");
+            else if (controlByte == DELETED)
+                System.out.println("available ");
+            else
+                System.out.println(keys[index] + " " + values[index] + " (tag " + Long.toHexString(controlByte) + ")");
+        }
+        System.out.println();
+    } // end displayHashTable
+
+
+    /**
+     * Retrieves the current probeCount, the number of groups checked
+     *
+     * @return the current probeCount
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * resets the probeCount to 0.
+     */
+    public void resetProbeCount() {
+        probeCount = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V add(K key, V value) {
+        checkIntegrity();
+        if ((key == null) || (value == null))
+            throw new IllegalArgumentException("Cannot add null to a dictionary.");
+
+        int hash = mix(key.hashCode());
+        int index = locate(key, hash);
+
+        if (index != -1)
+        { // Key found; get old value for return and then replace it
+            @SuppressWarnings("unchecked")
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+
+        insert(key, value, hash);
+        numberOfEntries++;
+
+        // Ensure that hash table is large enough for another add
+        if (isHashTableTooFull())
+            enlargeHashTable();
+
+        return null;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(K key) {
+        checkIntegrity();
+        V removedValue = null;
+
+        int index = locate(key, mix(key.hashCode()));
+
+        if (index != -1)
+        { // Key found; flag entry as removed and return its value
+            @SuppressWarnings("unchecked")
+            V oldValue = (V) values[index];
+            removedValue = oldValue;
+            keys[index] = null;
+            values[index] = null;
+
+            // A search only reaches the next group when this one has no empty location, so if it has one the
+            // location can go back to EMPTY
+            int group = index / GROUP_SIZE;
+            if (matchEmpty(control[2 * group]) != 0 || matchEmpty(control[2 * group + 1]) != 0) {
+                setControlByte(index, EMPTY);
+                usedLocations--;
+            } else {
+                setControlByte(index, DELETED);
+            }
+            numberOfEntries--;
+        }
+        // Else not found; result is null
+        return removedValue;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getValue(K key) {
+        checkIntegrity();
+        V result = null;
+
+        int index = locate(key, mix(key.hashCode()));
+
+        if (index != -1)
+        { // Key found; get value
+            @SuppressWarnings("unchecked")
+            V value = (V) values[index];
+            result = value;
+        }
+        // Else not found; result is null
+
+        return result;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+
+    /** Returns the current load factor of the dictionary
+     * @return load factor
+     */
+    public double getLoadFactor() {
+        return (double) numberOfEntries/keys.length;
+    }
+
+
+    /** Returns the size of the hash table
+     * @return hash table length
+     */
+    public int getHashTableSize() {
+        return keys.length;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return numberOfEntries;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void clear() {
+        checkIntegrity();
+        for (int index = 0; index < keys.length; index++)
+        {
+            keys[index] = null;
+            values[index] = null;
+        }
+        for (int word = 0; word < control.length; word++)
+            control[word] = EMPTY * LOW_BITS;
+
+        usedLocations = 0;
+        numberOfEntries = 0;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<K> getKeyIterator() {
+        return new KeyIterator();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<V> getValueIterator() {
+        return new ValueIterator();
+    }
+
+
+    /**
+     * Finds the location of a search key, checking a group of 16 locations per probe. In each group, only the
+     * locations whose tag matches the key's are compared with equals(), and the search ends at the first group with an
+     * empty location.
+     * @param key An object search key we want to find
+     * @param hash mixed hash code of the search key
+     * @return the index of the key, or -1 if it is not in the dictionary
+     * Time Complexity: O(n) in the worst case, O(1) on average with one group checked for most searches.
+     */
+    private int locate(K key, int hash) {
+        long tags = (hash & 0x7F) * LOW_BITS; // The key's tag copied into every byte
+        int groupMask = keys.length / GROUP_SIZE - 1;
+        int group = (hash >>> 7) & groupMask;
+
+        for (int step = 1; step <= groupMask + 1; step++)
+        {
+            probeCount++;
+            for (int half = 0; half < 2; half++)
+            {
+                long word = control[2 * group + half];
+                for (long matches = matchByte(word, tags); matches != 0; matches &= matches - 1)
+                {
+                    int index = group * GROUP_SIZE + half * 8 + (Long.numberOfTrailingZeros(matches) >>> 3);
+                    if (key.equals(keys[index]))
+                        return index; // Key found
+                }
+            }
+            if (matchEmpty(control[2 * group]) != 0 || matchEmpty(control[2 * group + 1]) != 0)
+                return -1; // An empty location means the key was never added past this group
+
+            group = (group + step) & groupMask; // Triangular probing over groups
+        }
+
+        return -1; // Every group checked
+    }
+
+
+    /**
+     * Places an entry at the first empty or DELETED location along its probe sequence. The key must not already be
+     * in the dictionary.
+     * @param key search key
+     * @param value value to store with the key
+     * @param hash mixed hash code of the search key
+     */
+    private void insert(Object key, Object value, int hash) {
+        int groupMask = keys.length / GROUP_SIZE - 1;
+        int group = (hash >>> 7) & groupMask;
+
+        for (int step = 1; ; step++)
+        {
+            probeCount++;
+            for (int half = 0; half < 2; half++)
+            {
+                long free = matchEmptyOrDeleted(control[2 * group + half]);
+                if (free != 0)
+                {
+                    int index = group * GROUP_SIZE + half * 8 + (Long.numberOfTrailingZeros(free) >>> 3);
+                    if (getControlByte(index) == EMPTY)
+                        usedLocations++;
+                    setControlByte(index, hash & 0x7F);
+                    keys[index] = key;
+                    values[index] = value;
+                    return;
+                }
+            }
+            group = (group + step) & groupMask; // Triangular probing over groups
+        }
+    }
+
+
+    /**
+     * Returns a word with the high bit set in every byte of word that equals the tag in that byte of tags. A byte
+     * just above a match can also be flagged when it is one more than the tag, so every flagged location still has to
+     * have its key compared.
+     * @param word eight control bytes
+     * @param tags the tag to look for, copied into every byte
+     * @return the matching bytes' high bits
+     */
+    private static long matchByte(long word, long tags) {
+        long difference = word ^ tags; // zero bytes where the tag matches
+        return (difference - LOW_BITS) & ~difference & HIGH_BITS;
+    }
+
+
+    /**
+     * Returns a word with the high bit set in every byte of word that is EMPTY. EMPTY is the only control byte with
+     * the high bit set and bit 1 clear.
+     * @param word eight control bytes
+     * @return the EMPTY bytes' high bits
+     */
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & HIGH_BITS;
+    }
+
+
+    /**
+     * Returns a word with the high bit set in every byte of word that is EMPTY or DELETED. They are the only control
+     * bytes with the high bit set and bit 0 clear.
+     * @param word eight control bytes
+     * @return the EMPTY and DELETED bytes' high bits
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & ~(word << 7) & HIGH_BITS;
+    }
+
+
+    /**
+     * Returns the control byte of a location.
+     * @param index location in the hash table
+     * @return the control byte, from 0 to 255
+     */
+    private long getControlByte(int index) {
+        return (control[index >>> 3] >>> ((index & 7) * 8)) & 0xFF;
+    }
+
+
+    /**
+     * Sets the control byte of a location.
+     * @param index location in the hash table
+     * @param controlByte new control byte, from 0 to 255
+     */
+    private void setControlByte(int index, long controlByte) {
+        int shift = (index & 7) * 8;
+        control[index >>> 3] = (control[index >>> 3] & ~(0xFFL << shift)) | (controlByte << shift);
+    }
+
+
+    /**
+     * Rehashes the entries into a table twice the size, or into a table of the same size when most of the used
+     * locations are DELETED, which only clears them out.
+     */
+    private void enlargeHashTable() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int newSize = (numberOfEntries > MAX_LOAD_FACTOR * keys.length / 2) ? keys.length + keys.length : keys.length;
+        checkSize(newSize); // Check that the size is not too large
+
+        allocate(newSize);
+
+        // Rehash dictionary entries from old arrays to the new ones
+        for (int index = 0; index < oldKeys.length; index++)
+        {
+            if (oldKeys[index] != null)
+                insert(oldKeys[index], oldValues[index], mix(oldKeys[index].hashCode()));
+        }
+    }
+
+
+    /**
+     * Creates empty arrays for a hash table of the given size.
+     * @param size number of locations, a power of two that is at least GROUP_SIZE
+     */
+    private void allocate(int size) {
+        checkSize(size); // Check that the size is not too large
+        keys = new Object[size];
+        values = new Object[size];
+        control = new long[size / 8];
+        for (int word = 0; word < control.length; word++)
+            control[word] = EMPTY * LOW_BITS;
+        usedLocations = 0;
+    }
+
+
+    /**
+     * Checks if the occupied and DELETED locations are more than MAX_LOAD_FACTOR of the hash table, since either kind
+     * makes searches longer.
+     * @return true if too much of the hash table is used; otherwise returns false.
+     */
+    private boolean isHashTableTooFull() {
+        return usedLocations > MAX_LOAD_FACTOR * keys.length;
+    }
+
+
+    /**
+     * Spreads the bits of a hash code with the MurmurHash3 finalizer, so that both the group (high bits) and the tag
+     * (low 7 bits) depend on every bit of the hash code.
+     * @param hash a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given integer.
+     * @param anInteger any positive integer
+     * @return a power of two
+     */
+    private static int nextPowerOfTwo(int anInteger) {
+        return Integer.highestOneBit(anInteger - 1) << 1;
+    }
+
+
+    /**
+     * Throws an exception if this object is not initialized.
+     * @throws SecurityException if object is not initialized
+     */
+    private void checkIntegrity() {
+        if (!integrityOK)
+            throw new SecurityException ("HashedDictionary object is corrupt.");
+    }
+
+
+    /**
+     * Ensures that the client requests a capacity that is not too small or too large.
+     * @param capacity integer capacity to check
+     * @return capacity if it's less than MAX_CAPACITY
+     * @throws IllegalStateException if there is an attempt to create a dictionary larger than MAX_CAPACITY
+     */
+    private int checkCapacity(int capacity) {
+        if (capacity < DEFAULT_CAPACITY)
+            capacity = DEFAULT_CAPACITY;
+        else if (capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Attempt to create a dictionary " +
+                    "whose capacity is larger than " +
+                    MAX_CAPACITY);
+        return capacity;
+    }
+
+
+    /**
+     * Verifies size of the hashTable itself.
+     * @param size current size of hashTable
+     * @throws IllegalStateException if hashTable exceeds MAX_SIZE
+     */
+    private void checkSize(int size)
+    {
+        if (size > MAX_SIZE)
+            throw new IllegalStateException("Dictionary has become too large.");
+    }
+
+
+    /**
+     * Iterator object that iterates through the keys of this dictionary
+     */
+    private class KeyIterator implements Iterator<K>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for KeyIterator
+         */
+        private KeyIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (keys[currentIndex] == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            @SuppressWarnings("unchecked")
+            K key = (K) keys[currentIndex++];
+            return key;
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end KeyIterator
+
+
+    /**
+     * Iterator object that iterates through the values of this dictionary.
+     */
+    private class ValueIterator implements Iterator<V>
+    {
+        /** Current position in hash table */
+        private int currentIndex;
+        /** Number of entries left in iteration */
+        private int numberLeft;
+
+
+        /**
+         * Default Constructor for ValueIterator
+         */
+        private ValueIterator() {
+            currentIndex = 0;
+            numberLeft = numberOfEntries;
+        }
+
+
+        /**
+         * Checks if there is another element in the iteration.
+         * @return True if there is another element in iteration, false otherwise.
+         */
+        public boolean hasNext() {
+            return numberLeft > 0;
+        }
+
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next element in the iteration.
+         * @throws NoSuchElementException If there is no next element in the iteration.
+         */
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            // Skip table locations that do not contain an entry
+            while (keys[currentIndex] == null) {
+                currentIndex++;
+            }
+
+            numberLeft--;
+            @SuppressWarnings("unchecked")
+            V value = (V) values[currentIndex++];
+            return value;
+        }
+
+
+        /**
+         * Remove method not supported for this iterator.
+         * @throws UnsupportedOperationException this iterator does not allow you to remove elements
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    } // end ValueIterator
+} // end SwissTableHashingWithCount
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws samples of unique integers from 0 (inclusive) to a fixed endpoint (exclusive) without allocating anything
+ * once it has drawn a sample of the largest size it is asked for. A sample is a partial Fisher-Yates shuffle of a pool
+ * holding every integer in the interval: the i-th value is swapped with a random one at or after i, so the first n
+ * values are n unique integers in a random order, for n random numbers however close n is to the endpoint.
+ *
+ * The pool is never stored. A location holds its own index until a swap moves another value into it, and only those
+ * moved values are kept, in a small open addressing table that is emptied before the next sample. Memory therefore
+ * grows with the sample size and not with the endpoint, so a sampler can pick a few names out of a corpus of millions,
+ * and every sample starts from the same pool and depends only on the random stream it is given.
+ *
+ * Samplers are not thread safe; give each thread its own.
+ */
+public final class UniqueIntegerSampler
+{
+    /** Marks an unused location of the moved value table */
+    private static final int EMPTY = -1;
+    /** Amount a SplittableRandom made from a seed adds to its state for each random number */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Number of integers in the interval */
+    private final int intervalEndpoint;
+    /** Integers of the current sample, in order */
+    private int[] values;
+    /** Pool locations whose values have been moved by the current sample, or EMPTY */
+    private int[] movedLocations;
+    /** Value now at each location in movedLocations */
+    private int[] movedValues;
+    /** Number of integers in the current sample */
+    private int size;
+
+
+    /**
+     * Full Constructor
+     * @param intervalEndpoint the endpoint of the interval to sample (between 0 and this number, exclusive)
+     * @throws IllegalArgumentException if intervalEndpoint is negative
+     */
+    public UniqueIntegerSampler(int intervalEndpoint)
+    {
+        if (intervalEndpoint < 0)
+            throw new IllegalArgumentException("Interval endpoint cannot be negative.");
+        this.intervalEndpoint = intervalEndpoint;
+        values = new int[0];
+        movedLocations = new int[0];
+        movedValues = new int[0];
+        size = 0;
+    }
+
+
+    /**
+     * Replaces the current sample with n unique random integers, taking every random number from the given stream so
+     * the sample can be reproduced.
+     * @param n number of unique random integers in the sample
+     * @param random the random stream to draw from
+     * @throws IllegalArgumentException if n is negative or more than the number of integers in the interval
+     */
+    public void sample(int n, SplittableRandom random) {
+        startSample(n);
+        for (int i = 0; i < n; i++) {
+            swap(i, i + random.nextInt(intervalEndpoint - i));
+        }
+        size = n;
+    }
+
+
+    /**
+     * Replaces the current sample with n unique random integers, drawn from the stream of new SplittableRandom(seed)
+     * and the same as sample(n, new SplittableRandom(seed)) would draw, but without creating the SplittableRandom:
+     * its state is a single long, which is kept in a local variable. The state left at the end is returned, so a
+     * following sample can continue the same stream, as new SplittableRandom(returned seed) would.
+     * @param n number of unique random integers in the sample
+     * @param seed seed of the random stream to draw from
+     * @return the seed that the rest of the stream starts from
+     * @throws IllegalArgumentException if n is negative or more than the number of integers in the interval
+     */
+    public long sample(int n, long seed) {
+        startSample(n);
+        for (int i = 0; i < n; i++) {
+            // SplittableRandom.nextInt(bound): the high bits of a mixed state, rejecting the last partial range
+            int bound = intervalEndpoint - i;
+            int m = bound - 1;
+            seed += GOLDEN_GAMMA;
+            int r = mix32(seed);
+            if ((bound & m) == 0) {
+                r &= m;
+            } else {
+                for (int u = r >>> 1; u + m - (r = u % bound) < 0; ) {
+                    seed += GOLDEN_GAMMA;
+                    u = mix32(seed) >>> 1;
+                }
+            }
+            swap(i, i + r);
+        }
+        size = n;
+        return seed;
+    }
+
+
+    /**
+     * Checks the size of a new sample, makes room for it and empties the moved value table.
+     * @param n number of unique random integers in the sample
+     * @throws IllegalArgumentException if n is negative or more than the number of integers in the interval
+     */
+    private void startSample(int n) {
+        if (n < 0 || n > intervalEndpoint)
+            throw new IllegalArgumentException("Cannot sample " + n + " unique integers from " + intervalEndpoint
+                    + ".");
+        if (n > values.length) {
+            values = new int[n];
+            // At most n locations are moved, so the table stays at most half full
+            int capacity = Integer.highestOneBit(Math.max(1, n - 1)) << 2;
+            movedLocations = new int[capacity];
+            movedValues = new int[capacity];
+        }
+        Arrays.fill(movedLocations, EMPTY);
+    }
+
+
+    /**
+     * Takes the value at a random location at or after i as the i-th integer of the sample, moving the value at i
+     * into its place.
+     * @param i position in the sample
+     * @param other the random location, from i to intervalEndpoint - 1
+     */
+    private void swap(int i, int other) {
+        values[i] = valueAt(other);
+        if (other != i)
+            moveValue(other, valueAt(i)); // Location i is never read again, so it needn't be written
+    }
+
+
+    /**
+     * Returns one integer of the current sample.
+     * @param index position of the integer in the sample, from 0 to size() - 1
+     * @return the integer
+     * @throws IndexOutOfBoundsException if index is not in the sample
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in a sample of " + size + ".");
+        return values[index];
+    }
+
+
+    /**
+     * Returns the number of integers in the current sample.
+     * @return the sample size
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the value at a location of the pool.
+     * @param location the location
+     * @return the value moved there, or the location itself if none has been
+     */
+    private int valueAt(int location) {
+        int mask = movedLocations.length - 1;
+        for (int index = mix(location) & mask; movedLocations[index] != EMPTY; index = (index + 1) & mask) {
+            if (movedLocations[index] == location)
+                return movedValues[index];
+        }
+        return location;
+    }
+
+
+    /**
+     * Puts a value at a location of the pool.
+     * @param location the location
+     * @param value the value
+     */
+    private void moveValue(int location, int value) {
+        int mask = movedLocations.length - 1;
+        int index = mix(location) & mask;
+        while (movedLocations[index] != EMPTY && movedLocations[index] != location)
+            index = (index + 1) & mask;
+        movedLocations[index] = location;
+        movedValues[index] = value;
+    }
+
+
+    /**
+     * Mixes the state of a random stream into a random int, as SplittableRandom does.
+     * @param z the state
+     * @return the random int
+     */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+
+    /**
+     * Spreads the bits of a location, so neighbouring locations don't fill neighbouring slots of the table.
+     * @param location the location
+     * @return the mixed bits
+     */
+    private static int mix(int location) {
+        int h = location * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
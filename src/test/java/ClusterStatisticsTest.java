@@ -0,0 +1,37 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ClusterStatisticsTest {
+
+    @Test
+    void theoreticalUnsuccessfulProbes() {
+        assertEquals(1.0, ClusterStatistics.getTheoreticalUnsuccessfulProbes(0));
+        assertEquals(2.5, ClusterStatistics.getTheoreticalUnsuccessfulProbes(0.5));
+        assertEquals(50.5, ClusterStatistics.getTheoreticalUnsuccessfulProbes(0.9), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, ClusterStatistics.getTheoreticalUnsuccessfulProbes(1));
+        assertThrows(IllegalArgumentException.class, () -> ClusterStatistics.getTheoreticalUnsuccessfulProbes(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> ClusterStatistics.getTheoreticalUnsuccessfulProbes(1.5));
+    }
+
+    @Test
+    void derivedValues() {
+        ProbeHistogram lengths = new ProbeHistogram();
+        lengths.record(1);
+        lengths.record(3);
+        ClusterStatistics clusters = new ClusterStatistics(10, lengths, 4, 4, 2, 1 + 6);
+        assertEquals(2, clusters.getClusterCount());
+        assertEquals(2.0, clusters.getMeanClusterLength());
+        assertEquals(3, clusters.getLargestClusterLength());
+        assertEquals(0.5, clusters.getTombstoneDensity());
+        assertEquals(0.4, clusters.getEffectiveLoadFactor());
+        assertEquals(1.7, clusters.getExpectedUnsuccessfulProbes(), 1e-9);
+        assertTrue(clusters.toString().startsWith("2 clusters in 10 locations"));
+
+        clusters.getClusterLengths().record(5); // a copy
+        assertEquals(2, clusters.getClusterCount());
+    }
+}
@@ -0,0 +1,190 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CuckooHashingWithCountTest {
+
+    @Test
+    void add() {
+        CuckooHashingWithCount<String, String> ch1 = new CuckooHashingWithCount<>();
+        String str = ch1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = ch1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        ch1.add("str3", "what");
+        ch1.add("str4", "how");
+        ch1.add("str5", "who");
+        assertEquals(4, ch1.getSize());
+        assertThrows(IllegalArgumentException.class, () -> ch1.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> ch1.add("error!", null));
+        assertThrows(IllegalArgumentException.class, () -> new CuckooHashingWithCount<>(11, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CuckooHashingWithCount<>(11, 5));
+    }
+
+    @Test
+    void removeAndGetValue() {
+        CuckooHashingWithCount<String, Double> mathConstants = new CuckooHashingWithCount<>();
+        mathConstants.add("e", 2.718);
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("pi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertEquals(1, mathConstants.getSize());
+    }
+
+    @Test
+    void probeCountIsBounded() {
+        CuckooHashingWithCount<Integer, Integer> ch2 = new CuckooHashingWithCount<>(2000, 2);
+        for (int i = 0; i < 1000; i++) {
+            ch2.add(i, i);
+        }
+        for (int i = 0; i < 2000; i++) {
+            ch2.resetProbeCount();
+            assertEquals(i < 1000, ch2.contains(i));
+            assertTrue(ch2.getProbeCount() <= 2 + 4); // one location per hash function, plus the stash
+        }
+        ch2.resetProbeCount();
+        assertEquals(0, ch2.getProbeCount());
+    }
+
+    @Test
+    void matchesHashMap() {
+        for (int hashFunctions = 2; hashFunctions <= 4; hashFunctions++) {
+            CuckooHashingWithCount<Integer, Integer> ch3 = new CuckooHashingWithCount<>(11, hashFunctions);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(hashFunctions);
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(2000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), ch3.remove(key));
+                } else {
+                    assertEquals(expected.put(key, i), ch3.add(key, i));
+                }
+                assertEquals(expected.size(), ch3.getSize());
+            }
+            for (int key = 0; key < 2000; key++) {
+                assertEquals(expected.get(key), ch3.getValue(key));
+            }
+            assertTrue(ch3.getLoadFactor() <= 0.5);
+        }
+    }
+
+    @Test
+    void collidingKeysGrowTheStash() {
+        // Every key has hash code 0, so only two fit in the sub-tables and four in the stash, the rest go in the stash
+        // as it grows instead of making the table rehash and double until it is too large
+        CuckooHashingWithCount<CollidingKey, Integer> ch4 = new CuckooHashingWithCount<>();
+        for (int i = 0; i < 6; i++) {
+            ch4.add(new CollidingKey(i), i);
+        }
+        assertEquals(0, ch4.getRehashCount());
+        for (int i = 6; i < 100; i++) {
+            ch4.add(new CollidingKey(i), i);
+        }
+        assertEquals(100, ch4.getSize());
+        assertTrue(ch4.getHashTableSize() <= 512); // Only grown for the load factor
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(i, ch4.remove(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals((i % 2 == 0) ? null : Integer.valueOf(i), ch4.getValue(new CollidingKey(i)));
+        }
+    }
+
+    @Test
+    void stringsWithEqualHashCodes() {
+        // "Aa" and "BB" have the same hash code, so all 8 strings made of three of them do too
+        String[] pairs = {"Aa", "BB"};
+        CuckooHashingWithCount<String, String> ch7 = new CuckooHashingWithCount<>(11, 3);
+        for (int i = 0; i < 8; i++) {
+            String key = pairs[i >> 2] + pairs[(i >> 1) & 1] + pairs[i & 1];
+            assertEquals("AaAaAa".hashCode(), key.hashCode());
+            ch7.add(key, key);
+            ch7.add("other" + i, "other");
+        }
+        assertEquals(16, ch7.getSize());
+        assertTrue(ch7.getHashTableSize() < 100);
+        assertEquals("BBAaBB", ch7.getValue("BBAaBB"));
+        assertEquals("other", ch7.getValue("other7"));
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        CuckooHashingWithCount<Integer, String> ch5 = new CuckooHashingWithCount<>();
+        ch5.add(2, "two");
+        ch5.add(5, "five");
+        ch5.add(1, "one");
+        ch5.add(3, "three");
+        ch5.remove(5);
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = ch5.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(1, 2, 3)), keys);
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+
+        HashSet<String> values = new HashSet<>();
+        Iterator<String> valueIterator = ch5.getValueIterator();
+        while (valueIterator.hasNext()) {
+            values.add(valueIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of("one", "two", "three")), values);
+    }
+
+    @Test
+    void isEmptyAndClear() {
+        CuckooHashingWithCount<String, String> ch6 = new CuckooHashingWithCount<>();
+        assertTrue(ch6.isEmpty());
+        ch6.add("thunder", "lightning");
+        assertFalse(ch6.isEmpty());
+        ch6.clear();
+        assertTrue(ch6.isEmpty());
+        assertFalse(ch6.contains("thunder"));
+    }
+
+    @Test
+    void getHashTableSize() {
+        assertEquals(12, new CuckooHashingWithCount<Integer, String>().getHashTableSize());
+        assertEquals(342, new CuckooHashingWithCount<Integer, String>(342).getHashTableSize());
+        assertEquals(345, new CuckooHashingWithCount<Integer, String>(343, 3).getHashTableSize());
+    }
+
+
+    /**
+     * Search key whose hash codes all collide.
+     */
+    private static final class CollidingKey {
+        /** Tells keys apart */
+        private final int id;
+
+        private CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (other instanceof CollidingKey) && ((CollidingKey) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
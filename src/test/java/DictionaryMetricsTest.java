@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class DictionaryMetricsTest {
+
+    @Test
+    void attributesAreReadThroughTheMBeanServer() throws Exception {
+        LinearProbingWithCount<Integer, Integer> dictionary = new LinearProbingWithCount<>(11);
+        DictionaryMetrics metrics = DictionaryMetrics.register(dictionary, "linear test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.getObjectName();
+        try {
+            for (int i = 0; i < 100; i++) {
+                dictionary.add(i, i);
+            }
+            for (int i = 0; i < 10; i++) {
+                dictionary.remove(i);
+            }
+            assertEquals(90, server.getAttribute(name, "EntryCount"));
+            assertEquals(dictionary.getHashTableSize(), server.getAttribute(name, "HashTableSize"));
+            assertEquals(dictionary.getLoadFactor(), server.getAttribute(name, "LoadFactor"));
+            assertEquals(10, server.getAttribute(name, "TombstoneCount"));
+            assertEquals(dictionary.getProbeCount(), server.getAttribute(name, "ProbeCount"));
+            assertTrue((long) server.getAttribute(name, "ResizeCount") > 0);
+            assertTrue((double) server.getAttribute(name, "ResizeMillis") > 0);
+
+            dictionary.add(0, 0); // reuses the tombstone left by removing 0
+            assertEquals(9, server.getAttribute(name, "TombstoneCount"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+        metrics.unregister(); // does nothing the second time
+    }
+
+    @Test
+    void recentProbesPerLookup() {
+        DoubleHashingWithCount<Integer, Integer> dictionary = new DoubleHashingWithCount<>(1000);
+        for (int i = 0; i < 100; i++) {
+            dictionary.add(i, i);
+        }
+        DictionaryMetrics metrics = DictionaryMetrics.register(dictionary, "double test");
+        try {
+            assertEquals(0.0, metrics.getRecentProbesPerLookup()); // only the sample taken at registration
+
+            dictionary.resetProbeCount();
+            metrics.sample();
+            for (int i = 0; i < 100; i++) {
+                dictionary.getValue(i);
+            }
+            metrics.sample();
+            ProbeHistogram found = dictionary.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH);
+            assertEquals(found.getMean(), metrics.getRecentProbesPerLookup(), 1e-9);
+
+            // After a reset the window only covers the lookups made since
+            dictionary.resetProbeCount();
+            dictionary.getValue(1000);
+            metrics.sample();
+            assertEquals(0.0, metrics.getRecentProbesPerLookup());
+            dictionary.getValue(1000);
+            metrics.sample();
+            ProbeHistogram notFound = dictionary.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH);
+            assertEquals(notFound.getTotal() / 2.0, metrics.getRecentProbesPerLookup(), 1e-9);
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    void namesMustBeUnique() {
+        LinearProbingWithCount<Integer, Integer> first = new LinearProbingWithCount<>();
+        LinearProbingWithCount<Integer, Integer> second = new LinearProbingWithCount<>();
+        DictionaryMetrics metrics = DictionaryMetrics.register(first, "unique test");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> DictionaryMetrics.register(second, "unique test"));
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
@@ -192,4 +192,159 @@ class DoubleHashingWithCountTest {
         DoubleHashingWithCount<String, Double> dh7 = new DoubleHashingWithCount<>(300);
         assertEquals(7, dh7.findCoPrime());
     }
-}
\ No newline at end of file
+
+    @Test
+    void powerOfTwoSizing() {
+        DoubleHashingWithCount<Integer, Integer> dh8 = new DoubleHashingWithCount<>(20, true);
+        assertEquals(32, dh8.getHashTableSize());
+        for (int i = 0; i < 16; i++) {
+            dh8.add(i * 32, i); // fills the table right up to MAX_LOAD_FACTOR
+        }
+        assertEquals(32, dh8.getHashTableSize());
+        dh8.add(-1, -1);
+        assertEquals(64, dh8.getHashTableSize());
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, dh8.getValue(i * 32));
+        }
+        assertNull(dh8.getValue(17 * 32));
+    }
+
+    @Test
+    void largeCapacity() {
+        DoubleHashingWithCount<Integer, Integer> dh9 = new DoubleHashingWithCount<>(1000003, 19);
+        assertEquals(1000003, dh9.getHashTableSize());
+        assertEquals(1 << 21, new DoubleHashingWithCount<Integer, Integer>(1 << 21, true).getHashTableSize());
+        assertThrows(IllegalStateException.class, () -> new DoubleHashingWithCount<Integer, Integer>(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void stepNotCoprime() {
+        // Even keys get a step of 2, which only reaches the 6 even locations of a table of 12
+        DoubleHashingWithCount<Integer, Integer> dh10 = new DoubleHashingWithCount<>(12, 2);
+        for (int i = 0; i < 6; i++) {
+            dh10.add(i * 12, i);
+        }
+        assertEquals(12, dh10.getHashTableSize());
+        assertThrows(IllegalStateException.class, () -> dh10.add(72, 6));
+        assertThrows(IllegalStateException.class, () -> dh10.getValue(72));
+
+        // Once the sequence has a removed entry on it, the search can end there
+        assertEquals(3, dh10.remove(36));
+        assertNull(dh10.getValue(72));
+        assertNull(dh10.add(72, 6));
+        assertEquals(6, dh10.getValue(72));
+    }
+
+    @Test
+    void peekValue() {
+        DoubleHashingWithCount<Integer, Integer> dh11 = new DoubleHashingWithCount<>(12, 2);
+        for (int i = 0; i < 6; i++) {
+            dh11.add(i * 12, i);
+        }
+        assertEquals(3, dh11.remove(36));
+        dh11.resetProbeCount();
+        for (int i = 0; i < 6; i++) {
+            assertEquals((i == 3) ? null : i, dh11.peekValue(i * 12));
+        }
+        assertNull(dh11.peekValue(72)); // the sequence never reaches null, so the search gives up
+        assertEquals(0, dh11.getProbeCount());
+    }
+
+    @Test
+    void probeHistograms() {
+        DoubleHashingWithCount<Integer, Integer> dh12 = new DoubleHashingWithCount<>(101);
+        for (int i = 0; i < 20; i++) {
+            dh12.add(i, i); // small keys all have their own home index
+        }
+        assertEquals(20, dh12.getProbeHistogram(ProbeHistogram.Operation.INSERT).getCount());
+        assertEquals(1, dh12.getProbeHistogram(ProbeHistogram.Operation.INSERT).getMax());
+        ProbeHistogram inserts = new ProbeHistogram();
+        dh12.addProbeHistogramTo(ProbeHistogram.Operation.INSERT, inserts);
+        assertEquals(20, inserts.getCount());
+        dh12.resetProbeCount();
+        for (int i = 0; i < 30; i++) {
+            dh12.contains(i);
+        }
+        dh12.remove(3);
+        assertEquals(20, dh12.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH).getCount());
+        assertEquals(10, dh12.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH).getCount());
+        assertEquals(1, dh12.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH).getValueAtPercentile(99));
+        assertEquals(1, dh12.getProbeHistogram(ProbeHistogram.Operation.REMOVE).getCount());
+        assertEquals(0, dh12.getProbeHistogram(ProbeHistogram.Operation.INSERT).getCount());
+    }
+
+    @Test
+    void maxLoadFactor() {
+        DoubleHashingWithCount<Integer, Integer> dh13 = new DoubleHashingWithCount<>(101, 7, 0.9);
+        for (int i = 0; i < 90; i++) {
+            dh13.add(i, i);
+        }
+        assertEquals(101, dh13.getHashTableSize()); // 90 of 101 is still below 0.9
+        dh13.add(90, 90);
+        dh13.add(91, 91);
+        assertTrue(dh13.getHashTableSize() > 101);
+        assertEquals(1, dh13.getResizeCount());
+        assertThrows(IllegalArgumentException.class, () -> new DoubleHashingWithCount<>(101, 7, 1.0));
+    }
+
+    @Test
+    void hashStrategy() {
+        for (HashStrategy strategy : HashStrategy.values()) {
+            DoubleHashingWithCount<String, Integer> dh14 = new DoubleHashingWithCount<>(11, 7, 0.5, strategy);
+            for (int i = 0; i < 500; i++) {
+                dh14.add("name" + i, i);
+            }
+            assertTrue(dh14.getHashTableSize() > 1000); // Rehashed with the same strategy
+            for (int i = 0; i < 500; i += 2) {
+                assertEquals(i, dh14.remove("name" + i));
+            }
+            for (int i = 0; i < 500; i++) {
+                assertEquals((i % 2 == 0) ? null : Integer.valueOf(i), dh14.getValue("name" + i), strategy + " " + i);
+            }
+            assertFalse(dh14.contains("name500"));
+            assertEquals(250, dh14.getSize());
+        }
+        assertThrows(NullPointerException.class, () -> new DoubleHashingWithCount<>(11, 7, 0.5, null));
+    }
+
+    @Test
+    void fullConstructor() {
+        DoubleHashingWithCount<String, Integer> dh16 =
+                new DoubleHashingWithCount<>(20, 0, true, 0.75, HashStrategy.MURMUR3);
+        assertEquals(32, dh16.getHashTableSize());
+        for (int i = 0; i < 24; i++) {
+            dh16.add("name" + i, i); // fills the table right up to the max load factor
+        }
+        assertEquals(32, dh16.getHashTableSize());
+        dh16.add("name24", 24);
+        assertEquals(64, dh16.getHashTableSize());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, dh16.getValue("name" + i));
+        }
+        DoubleHashingWithCount<Integer, Integer> dh17 = new DoubleHashingWithCount<>(11, 0, false, 0.5,
+                HashStrategy.IDENTITY);
+        for (int i = 0; i < 5; i++) {
+            dh17.add(i * 11, i); // Every key starts at location 0, so each needs the picked double hash prime
+        }
+        assertEquals(11, dh17.getHashTableSize());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, dh17.getValue(i * 11));
+        }
+    }
+
+    @Test
+    void negativeHashCodes() {
+        // -4 % 7 gave a step of 11, a whole table length, so -4 never left the location 7 was already in
+        DoubleHashingWithCount<Integer, String> dh15 = new DoubleHashingWithCount<>(11, 7);
+        dh15.add(7, "seven");
+        dh15.add(-4, "minus four");
+        assertEquals("minus four", dh15.getValue(-4));
+        assertEquals("seven", dh15.getValue(7));
+        for (int key = -5; key > -40; key -= 11) { // Every one of these starts where 7 does
+            dh15.add(key, "negative");
+        }
+        for (int key = -5; key > -40; key -= 11) {
+            assertEquals("negative", dh15.getValue(key));
+        }
+    }
+}
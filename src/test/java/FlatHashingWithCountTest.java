@@ -0,0 +1,262 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class FlatHashingWithCountTest {
+
+    /**
+     * I learned how to test print methods in this way from this StackOverflow post:
+     * https://stackoverflow.com/questions/32241057/how-to-test-a-print-method-in-java-using-junit
+     */
+    @Test
+    void displayHashTable() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>();
+        mathConstants.add("pi", 3.1415);
+        mathConstants.add("e", 2.718);
+        mathConstants.add("tau", 6.28);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        mathConstants.displayHashTable();
+
+        String expectedOutput = "null \nnull \n" + "pi 3.1415\n" + "e 2.718\n" + "tau 6.28\n" + "null \n" +
+                "null \n" +
+                "null \n" +
+                "null \n" +
+                "null \n" +
+                "null \n\n";
+        assertEquals(expectedOutput, outContent.toString());
+    }
+
+    @Test
+    void add() {
+        FlatHashingWithCount<String, String> fh1 = new FlatHashingWithCount<>();
+        String str = fh1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = fh1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        fh1.add("str3", "what");
+        fh1.add("str4", "how");
+        fh1.add("str5", "who");
+        assertThrows(IllegalArgumentException.class, () -> fh1.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> fh1.add("error!", null));
+
+    }
+
+    @Test
+    void remove() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>();
+        mathConstants.add("e", 2.718);
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("phi"));
+    }
+
+    @Test
+    void getValueAndContains() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>();
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertNull(mathConstants.getValue("pi"));
+    }
+
+    @Test
+    void containsAndProbeCount() {
+        FlatHashingWithCount<Integer, String> fh3 = new FlatHashingWithCount<>();
+        assertEquals(0, fh3.getProbeCount());
+        fh3.add(2, "two");
+        fh3.resetProbeCount();
+        assertTrue(fh3.contains(2));
+        assertEquals(1, fh3.getProbeCount());
+        assertFalse(fh3.contains(13));
+        assertEquals(3, fh3.getProbeCount());
+        assertFalse(fh3.contains(4));
+        assertEquals(4, fh3.getProbeCount());
+        fh3.resetProbeCount();
+        assertEquals(0, fh3.getProbeCount());
+    }
+
+    @Test
+    void isEmpty() {
+        FlatHashingWithCount<String, String> emptyDictionary = new FlatHashingWithCount<>();
+        assertTrue(emptyDictionary.isEmpty());
+        emptyDictionary.add("thunder", "lightning");
+        assertFalse(emptyDictionary.isEmpty());
+    }
+
+    @Test
+    void getSize() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>();
+        assertEquals(0, mathConstants.getSize());
+        mathConstants.add("pi", 3.1415);
+        mathConstants.add("e", 2.718);
+        assertEquals(2, mathConstants.getSize());
+        mathConstants.add("tau", 6.28);
+        mathConstants.add("phi", 1.6180);
+        mathConstants.add("Catalan", 0.91596);
+        assertEquals(5, mathConstants.getSize());
+        mathConstants.remove("pi");
+        assertEquals(4, mathConstants.getSize());
+    }
+
+    @Test
+    void clear() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>();
+        mathConstants.add("pi", 3.1415);
+        mathConstants.add("e", 2.718);
+        mathConstants.add("tau", 6.28);
+        mathConstants.add("phi", 1.6180);
+        mathConstants.add("Catalan", 0.91596);
+        assertEquals(5, mathConstants.getSize());
+        mathConstants.clear();
+        assertEquals(0, mathConstants.getSize());
+    }
+
+    @Test
+    void getKeyIterator() {
+        FlatHashingWithCount<Integer, String> fh4 = new FlatHashingWithCount<>();
+        fh4.add(2, "two");
+        fh4.add(5, "five");
+        fh4.add(1, "one");
+        fh4.add(3, "three");
+        fh4.add(7, "seven");
+        fh4.add(10, "ten");
+        fh4.remove(5);
+        Iterator<Integer> mcIterator = fh4.getKeyIterator();
+        assertTrue(mcIterator.hasNext());
+        assertEquals(1, mcIterator.next());
+        assertEquals(2, mcIterator.next());
+        assertEquals(3, mcIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> mcIterator.remove());
+        assertEquals(7, mcIterator.next());
+        assertEquals(10, mcIterator.next());
+        assertThrows(NoSuchElementException.class, () -> mcIterator.next());
+        assertFalse(mcIterator.hasNext());
+    }
+
+    @Test
+    void getValueIterator() {
+        FlatHashingWithCount<Integer, String> fh5 = new FlatHashingWithCount<>();
+        fh5.add(2, "two");
+        fh5.add(5, "five");
+        fh5.add(1, "one");
+        fh5.add(3, "three");
+        fh5.add(7, "seven");
+        fh5.add(10, "ten");
+        fh5.remove(5);
+        Iterator<String> mcIterator = fh5.getValueIterator();
+        assertTrue(mcIterator.hasNext());
+        assertEquals("one", mcIterator.next());
+        assertEquals("two", mcIterator.next());
+        assertEquals("three", mcIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> mcIterator.remove());
+        assertEquals("seven", mcIterator.next());
+        assertEquals("ten", mcIterator.next());
+        assertThrows(NoSuchElementException.class, () -> mcIterator.next());
+        assertFalse(mcIterator.hasNext());
+    }
+
+    @Test
+    void getLoadFactor() {
+        FlatHashingWithCount<Integer, String> fh6 = new FlatHashingWithCount<>();
+        fh6.add(2, "two");
+        fh6.add(5, "five");
+        fh6.add(1, "one");
+        fh6.add(3, "three");
+        fh6.add(7, "seven");
+        double expectedValue = 5.0/11.0;
+        assertEquals(expectedValue, fh6.getLoadFactor());
+    }
+
+    @Test
+    void getHashTableSize() {
+        FlatHashingWithCount<Integer, String> fh7 = new FlatHashingWithCount<>();
+        assertEquals(11, fh7.getHashTableSize());
+    }
+
+    @Test
+    void displayHashTableDoubleHashing() {
+        FlatHashingWithCount<String, Double> mathConstants = new FlatHashingWithCount<>(11, true);
+        mathConstants.add("pi", 3.1415);
+        mathConstants.add("e", 2.718);
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        mathConstants.displayHashTable();
+
+        String expectedOutput = "null \n" + "null \n"  + "pi 3.1415\n" + "null \n" +
+                "null \n" +
+                "null \n" +
+                "e 2.718\n" +
+                "null \n" +
+                "null \n" +
+                "null \n" +
+                "null \n\n";
+        assertEquals(expectedOutput, outContent.toString());
+    }
+
+    @Test
+    void probeCountMatchesEntryLayout() {
+        LinearProbingWithCount<String, String> lp8 = new LinearProbingWithCount<>();
+        DoubleHashingWithCount<String, String> dh8 = new DoubleHashingWithCount<>();
+        FlatHashingWithCount<String, String> flatLinear = new FlatHashingWithCount<>(11, false);
+        FlatHashingWithCount<String, String> flatDouble = new FlatHashingWithCount<>(11, true);
+        for (int i = 0; i < 300; i++) {
+            String name = "name" + i;
+            lp8.add(name, name);
+            dh8.add(name, name);
+            flatLinear.add(name, name);
+            flatDouble.add(name, name);
+        }
+        for (int i = 0; i < 300; i += 3) {
+            lp8.remove("name" + i);
+            dh8.remove("name" + i);
+            flatLinear.remove("name" + i);
+            flatDouble.remove("name" + i);
+        }
+        assertEquals(lp8.getHashTableSize(), flatLinear.getHashTableSize());
+        assertEquals(dh8.getHashTableSize(), flatDouble.getHashTableSize());
+        lp8.resetProbeCount();
+        dh8.resetProbeCount();
+        flatLinear.resetProbeCount();
+        flatDouble.resetProbeCount();
+        for (int i = 0; i < 600; i++) {
+            String name = "name" + i;
+            assertEquals(lp8.getValue(name), flatLinear.getValue(name));
+            assertEquals(dh8.getValue(name), flatDouble.getValue(name));
+        }
+        assertEquals(lp8.getProbeCount(), flatLinear.getProbeCount());
+        assertEquals(dh8.getProbeCount(), flatDouble.getProbeCount());
+    }
+
+    @Test
+    void doubleHashingNegativeKeys() {
+        FlatHashingWithCount<Integer, String> flat1 = new FlatHashingWithCount<>(11, true);
+        flat1.add(7, "x");
+        flat1.add(-4, "y"); // Same initial index as 7, and -4 % 7 used to give a step of 11
+        assertEquals("y", flat1.getValue(-4));
+
+        FlatHashingWithCount<Integer, Integer> flat2 = new FlatHashingWithCount<>(11, true);
+        DoubleHashingWithCount<Integer, Integer> dh9 = new DoubleHashingWithCount<>();
+        for (int key = -1; key > -400; key -= 3) {
+            flat2.add(key, key);
+            dh9.add(key, key);
+        }
+        flat2.resetProbeCount();
+        dh9.resetProbeCount();
+        for (int key = -1; key > -400; key--) {
+            assertEquals(dh9.getValue(key), flat2.getValue(key));
+        }
+        assertEquals(dh9.getProbeCount(), flat2.getProbeCount());
+    }
+}
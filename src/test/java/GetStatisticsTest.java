@@ -1,9 +1,16 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.SplittableRandom;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class GetStatisticsTest {
@@ -68,11 +75,256 @@ class GetStatisticsTest {
         assertEquals(11000, allNames.size());
     }
 
+    @Test
+    void createDisjointNameArrays2Seeded() {
+        GetStatistics testStat = new GetStatistics(100, 1.5, 19, true, 7);
+        GetStatistics sameSeed = new GetStatistics(100, 1.5, 19, true, 7);
+        assertEquals(7, testStat.getNameSeed());
+        assertArrayEquals(testStat.getAddNames(), sameSeed.getAddNames());
+        assertArrayEquals(testStat.getSearchNames(), sameSeed.getSearchNames());
+        for (long seed = 0; seed < 20; seed++) { // Replacement characters used to make some seeds overlap
+            HashSet<String> allNames = new HashSet<>();
+            GetStatistics seeded = new GetStatistics(100, 1.5, 19, true, seed);
+            allNames.addAll(Arrays.asList(seeded.getAddNames()));
+            allNames.addAll(Arrays.asList(seeded.getSearchNames()));
+            assertEquals(11000, allNames.size());
+        }
+    }
+
     @Test
     void runExperiment() {
 
     }
 
+    @Test
+    void runExperimentParallelMatchesSerial() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+
+        ByteArrayOutputStream serialOut = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(serialOut));
+        testStat.runExperiment(100, 100, true, 42, false);
+
+        ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(parallelOut));
+        testStat.runExperiment(100, 100, true, 42, true);
+        System.setOut(originalOut);
+
+        assertEquals(serialOut.toString(), parallelOut.toString());
+        assertTrue(serialOut.toString().contains("using linear probing collision resolution were: p50 "));
+        assertTrue(serialOut.toString().contains("The 95% confidence interval for the average number of probes using "
+                + "double hashing collision resolution was: "));
+    }
+
+    @Test
+    void parallelStatisticsMatchSerialBitForBit() {
+        GetStatistics testStat = new GetStatistics(false);
+        RunningStatistics[] serial = testStat.getExperimentStatistics(300, 300, 42, false);
+        RunningStatistics[] parallel = testStat.getExperimentStatistics(300, 300, 42, true);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(1000, parallel[i].getCount());
+            assertEquals(Double.doubleToLongBits(serial[i].getMean()), Double.doubleToLongBits(parallel[i].getMean()));
+            assertEquals(Double.doubleToLongBits(serial[i].getVariance()),
+                    Double.doubleToLongBits(parallel[i].getVariance()));
+        }
+    }
+
+    @Test
+    void runTrialMatchesExperiment() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runExperiment(100, 100, true, 42, true);
+        long[] trial17 = testStat.runTrial(100, 100, 42, 17);
+        long[] trial999 = testStat.runTrial(100, 100, 42, 999);
+        System.setOut(originalOut);
+
+        String[] lines = outContent.toString().split(System.lineSeparator());
+        long[] linearProbes = null;
+        long[] doubleHashProbes = null;
+        for (int i = 0; i < lines.length - 1; i++) {
+            if (lines[i].startsWith("Table for Linear Probing Experiment")) {
+                linearProbes = parseArray(lines[i + 1]);
+            } else if (lines[i].startsWith("Table for Double Hashing Experiment")) {
+                doubleHashProbes = parseArray(lines[i + 1]);
+            }
+        }
+        assertEquals(linearProbes[17], trial17[0]);
+        assertEquals(doubleHashProbes[17], trial17[1]);
+        assertEquals(linearProbes[999], trial999[0]);
+        assertEquals(doubleHashProbes[999], trial999[1]);
+
+        int slowest = 0;
+        for (int i = 1; i < linearProbes.length; i++) {
+            if (linearProbes[i] > linearProbes[slowest]) {
+                slowest = i;
+            }
+        }
+        assertTrue(outContent.toString().contains("Seed: 42 (name set seed "));
+        assertTrue(outContent.toString().contains("The trials with the most probes were " + slowest + " using linear"));
+        assertTrue(outContent.toString().contains("Trial 17 of seed 42: " + trial17[0] + " probes"));
+        assertThrows(IllegalArgumentException.class, () -> testStat.runTrial(100, 100, 42, 1000));
+    }
+
+    private static long[] parseArray(String line) {
+        String[] values = line.substring(1, line.length() - 1).split(", ");
+        long[] parsed = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            parsed[i] = Long.parseLong(values[i]);
+        }
+        return parsed;
+    }
+
+    @Test
+    void runSizingComparison() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runSizingComparison(100, 100, 42);
+        System.setOut(originalOut);
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Linear probing, power of two sizing (table size 512"));
+        assertTrue(output.contains("Double hashing, power of two sizing (table size 512"));
+    }
+
+    @Test
+    void runSchemeComparison() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runSchemeComparison(100, 100, 42);
+        System.setOut(originalOut);
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Linear probing (table size"));
+        assertTrue(output.contains("Double hashing (table size"));
+        assertTrue(output.contains("Robin Hood hashing (table size"));
+        assertTrue(output.contains("Cuckoo hashing, 2 hash functions (table size 342"));
+        assertTrue(output.contains("SwissTable group probing (table size 512"));
+    }
+
+    @Test
+    void runHashStrategyComparison() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runHashStrategyComparison(100, 100, 42);
+        System.setOut(originalOut);
+
+        String output = outContent.toString();
+        for (HashStrategy strategy : HashStrategy.values()) {
+            assertTrue(output.contains("Linear probing, " + strategy + " (table size"));
+            assertTrue(output.contains("Double hashing, " + strategy + " (table size"));
+        }
+        assertTrue(output.contains("ns per search"));
+    }
+
+    @Test
+    void runChurnExperiment() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runChurnExperiment(100, 20000, 42);
+        System.setOut(originalOut);
+
+        String[] lines = outContent.toString().trim().split("\\R");
+        assertEquals("20000", lines[lines.length - 1].trim().split("\\s+")[0]);
+        double availableSum = 0;
+        double backwardShiftSum = 0;
+        for (int i = lines.length - 10; i < lines.length; i++) {
+            String[] columns = lines[i].trim().split("\\s+");
+            // Removed entries count towards the max load factor, so they are rehashed away before they fill the table
+            assertTrue(Double.parseDouble(columns[1]) < 4, lines[i]);
+            availableSum += Double.parseDouble(columns[1]);
+            backwardShiftSum += Double.parseDouble(columns[2]);
+        }
+        // The removed entries left behind slow down the searches, backward shift deletion leaves nothing behind
+        assertTrue(availableSum > 1.2 * backwardShiftSum);
+    }
+
+    @Test
+    void runResizeComparison() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runResizeComparison(5000, 42);
+        System.setOut(originalOut);
+
+        String output = outContent.toString();
+        assertTrue(output.contains("All at once resizing (table size 12853)"));
+        assertTrue(output.contains("Incremental resizing (table size 12853)"));
+    }
+
+    @Test
+    void runScalingExperiment() {
+        GetStatistics testStat = new GetStatistics(false);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runScalingExperiment(42, 1000, 100000);
+        System.setOut(originalOut);
+
+        String[] lines = outContent.toString().trim().split("\\R");
+        String[] linear = lines[lines.length - 2].trim().split("\\s+");
+        String[] doubleHashing = lines[lines.length - 1].trim().split("\\s+");
+        assertEquals("100000", linear[0]);
+        assertEquals("341423", linear[3]); // the prime capacity for 1.5 probes per unsuccessful search
+        assertEquals("300007", doubleHashing[3]);
+        // Both tables were sized for 1.5 probes per unsuccessful search
+        assertEquals(1.5, Double.parseDouble(linear[5]), 0.1);
+        assertEquals(1.5, Double.parseDouble(doubleHashing[5]), 0.1);
+    }
+
+    @Test
+    void expectedProbes() {
+        assertEquals(1.5, GetStatistics.expectedLinearProbes(1 - Math.sqrt(0.5), false), 1e-9);
+        assertEquals(1.5, GetStatistics.expectedLinearProbes(0.5, true));
+        assertEquals(2.5, GetStatistics.expectedLinearProbes(0.5, false));
+        assertEquals(1.5, GetStatistics.expectedDoubleProbes(1.0 / 3, false), 1e-9);
+        assertEquals(2 * Math.log(2), GetStatistics.expectedDoubleProbes(0.5, true), 1e-9);
+        assertEquals(1.0, GetStatistics.expectedDoubleProbes(0, true));
+    }
+
+    @Test
+    void loadFactorGrid() {
+        double[] grid = GetStatistics.loadFactorGrid(0.05, 0.95, 0.05);
+        assertEquals(19, grid.length);
+        assertEquals(0.05, grid[0]);
+        assertEquals(0.15, grid[2]);
+        assertEquals(0.95, grid[18]);
+        assertThrows(IllegalArgumentException.class, () -> GetStatistics.loadFactorGrid(0.5, 0.1, 0.1));
+    }
+
+    @Test
+    void runLoadFactorSweep() {
+        GetStatistics testStat = new GetStatistics(false);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        testStat.runLoadFactorSweep(100, 42, new PrintStream(csv), 0.1, 0.5, 0.75);
+
+        String[] lines = csv.toString().trim().split("\\R");
+        assertEquals(7, lines.length); // header, then linear and double for each load factor
+        assertTrue(lines[0].startsWith("load_factor,entries,table_size,scheme,successful_mean"));
+        for (int i = 1; i < lines.length; i++) {
+            String[] row = lines[i].split(",");
+            assertEquals(10, row.length);
+            // The measurements stay close to the formulas, within 15% even at 0.75 where the tail is long
+            assertEquals(Double.parseDouble(row[6]), Double.parseDouble(row[4]), 0.15 * Double.parseDouble(row[6]));
+            assertEquals(Double.parseDouble(row[9]), Double.parseDouble(row[7]), 0.15 * Double.parseDouble(row[9]));
+        }
+        String[] linearAtHalf = lines[3].split(",");
+        assertEquals("0.4995", linearAtHalf[0]); // 504 entries in 1009 locations
+        assertEquals("504", linearAtHalf[1]);
+        assertEquals("linear", linearAtHalf[3]);
+        assertThrows(IllegalArgumentException.class, () -> testStat.runLoadFactorSweep(100, 42, System.out, 0.995));
+    }
+
     @Test
     void generateNUniqueIntegers() {
         GetStatistics testStat = new GetStatistics(false);
@@ -84,6 +336,17 @@ class GetStatisticsTest {
 
     }
 
+    @Test
+    void generateNUniqueIntegersSeeded() {
+        GetStatistics testStat = new GetStatistics(false);
+        ArrayList<Integer> testSet = testStat.generateNUniqueIntegers(5, 11, new SplittableRandom(7));
+        assertEquals(5, new HashSet<>(testSet).size());
+        for (int num: testSet) {
+            assertEquals(5, num, 5);
+        }
+        assertEquals(testSet, testStat.generateNUniqueIntegers(5, 11, new SplittableRandom(7)));
+    }
+
     @Test
     void computeAverageOfArray() {
         GetStatistics testStat = new GetStatistics(false);
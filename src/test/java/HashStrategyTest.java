@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class HashStrategyTest {
+
+    private static long hash(HashStrategy strategy, String ascii) {
+        return strategy.hashBytes(ascii.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void murmur3() {
+        assertEquals(0L, hash(HashStrategy.MURMUR3, ""));
+        assertEquals(0x248bfa47L, hash(HashStrategy.MURMUR3, "hello"));
+        assertEquals(0x2e4ff723L, hash(HashStrategy.MURMUR3, "The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void xxHash64() {
+        assertEquals(0xef46db3751d8e999L, hash(HashStrategy.XXHASH64, ""));
+        assertEquals(0xd24ec4f1a98c6e5bL, hash(HashStrategy.XXHASH64, "a"));
+        assertEquals(0x44bc2cf5ad770999L, hash(HashStrategy.XXHASH64, "abc"));
+        assertEquals(0x0b242d361fda71bcL, hash(HashStrategy.XXHASH64, "The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void fnv1a() {
+        assertEquals(0x811c9dc5L, hash(HashStrategy.FNV1A, ""));
+        assertEquals(0xe40c292cL, hash(HashStrategy.FNV1A, "a"));
+    }
+
+    @Test
+    void wyhash() {
+        assertEquals(0x93228a4de0eec5a2L, hash(HashStrategy.WYHASH, ""));
+        assertEquals(0xaced12527fe5bff8L, hash(HashStrategy.WYHASH, "a"));
+        assertEquals(0x989b4a209c1011c9L, hash(HashStrategy.WYHASH, "abc"));
+        assertEquals(0x309ab4c045215e8fL, hash(HashStrategy.WYHASH, "message digest"));
+        assertEquals(0xccaeadc12a061176L, hash(HashStrategy.WYHASH, "abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    @Test
+    void stringsHashTheirUtf16Bytes() {
+        String[] keys = {"", "a", "name1", "Zoë", "0123456789abcdef",
+                "a name long enough for the 48 byte loop of wyhash",
+                "a name long enough for the 32 byte stripes of xxHash64, and then some"};
+        for (HashStrategy strategy : HashStrategy.values()) {
+            if (strategy == HashStrategy.IDENTITY)
+                continue;
+            for (String key : keys) {
+                long hash = strategy.hashBytes(key.getBytes(StandardCharsets.UTF_16LE));
+                assertEquals((int) (hash ^ (hash >>> 32)), strategy.hash(key), strategy + " \"" + key + "\"");
+            }
+        }
+        assertEquals(0xa834567d04532a63L, HashStrategy.XXHASH64.hashBytes("name1".getBytes(StandardCharsets.UTF_16LE)));
+    }
+
+    @Test
+    void identity() {
+        assertEquals("name1".hashCode(), HashStrategy.IDENTITY.hash("name1"));
+        assertEquals(Integer.valueOf(42).hashCode(), HashStrategy.IDENTITY.hash(42));
+    }
+
+    @Test
+    void otherKeysHashTheirHashCode() {
+        for (HashStrategy strategy : HashStrategy.values()) {
+            assertEquals(strategy.hash(7), strategy.hash(Integer.valueOf(7)));
+            assertEquals(strategy.hash(7L), strategy.hash(Long.valueOf(7)));
+        }
+        assertEquals(HashStrategy.MURMUR3.hashBytes(new byte[] {7, 0, 0, 0}),
+                HashStrategy.MURMUR3.hash(7) & 0xFFFFFFFFL);
+    }
+
+    @Test
+    void spreadsSequentialNames() {
+        // Names that differ only in their last digits should still spread evenly over the low bits
+        for (HashStrategy strategy : HashStrategy.values()) {
+            if (strategy == HashStrategy.IDENTITY)
+                continue;
+            int[] bucketCounts = new int[16];
+            for (int i = 0; i < 1600; i++) {
+                bucketCounts[strategy.hash("name" + i) & 15]++;
+            }
+            for (int count : bucketCounts) {
+                assertTrue(count > 50 && count < 150, strategy + " " + count);
+            }
+        }
+    }
+}
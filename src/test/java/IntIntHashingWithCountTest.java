@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class IntIntHashingWithCountTest {
+
+    @Test
+    void addGetValueAndRemove() {
+        IntIntHashingWithCount ii1 = new IntIntHashingWithCount(11, false, -1);
+        assertEquals(-1, ii1.getMissingValue());
+        assertEquals(-1, ii1.add(4, 16));
+        assertEquals(16, ii1.add(4, 17));
+        assertEquals(17, ii1.getValue(4));
+        assertEquals(-1, ii1.getValue(5));
+        assertEquals(17, ii1.remove(4));
+        assertEquals(-1, ii1.remove(4));
+        assertTrue(ii1.isEmpty());
+    }
+
+    @Test
+    void containsWithMissingValueStored() {
+        IntIntHashingWithCount ii2 = new IntIntHashingWithCount();
+        ii2.add(8, 0);
+        assertTrue(ii2.contains(8));
+        assertFalse(ii2.contains(9));
+    }
+
+    @Test
+    void doubleHashingEnlargeAndIterators() {
+        IntIntHashingWithCount ii3 = new IntIntHashingWithCount(11, true, 0);
+        for (int key = 1; key <= 200; key++) {
+            ii3.add(key * 31, key);
+        }
+        assertEquals(200, ii3.getSize());
+        assertTrue(ii3.getLoadFactor() <= 0.5);
+        int keySum = 0;
+        PrimitiveIterator.OfInt keys = ii3.getKeyIterator();
+        while (keys.hasNext()) {
+            keySum += keys.nextInt();
+        }
+        int valueSum = 0;
+        PrimitiveIterator.OfInt values = ii3.getValueIterator();
+        while (values.hasNext()) {
+            valueSum += values.nextInt();
+        }
+        assertEquals(31 * 20100, keySum);
+        assertEquals(20100, valueSum);
+        ii3.clear();
+        assertEquals(0, ii3.getSize());
+    }
+
+    @Test
+    void doubleHashingNegativeKeys() {
+        IntIntHashingWithCount ii4 = new IntIntHashingWithCount(11, true, 0);
+        ii4.add(7, 7);
+        ii4.add(-4, -4); // Same initial index as 7, and -4 % 7 used to give a step of 11
+        assertEquals(-4, ii4.getValue(-4));
+        for (int key = -1; key > -400; key -= 3) {
+            ii4.add(key, key);
+        }
+        for (int key = -1; key > -400; key -= 3) {
+            assertEquals(key, ii4.getValue(key));
+        }
+        assertFalse(ii4.contains(-2));
+    }
+
+    @Test
+    void largeCapacity() {
+        IntIntHashingWithCount ii5 = new IntIntHashingWithCount(20011, true, 0);
+        assertEquals(20011, ii5.getHashTableSize());
+        for (int key = 0; key < 20000; key++) {
+            ii5.add(key, key);
+        }
+        assertTrue(ii5.getHashTableSize() > 40000);
+    }
+}
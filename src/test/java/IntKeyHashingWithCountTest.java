@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class IntKeyHashingWithCountTest {
+
+    @Test
+    void add() {
+        IntKeyHashingWithCount<String> ik1 = new IntKeyHashingWithCount<>();
+        assertNull(ik1.add(1, "one"));
+        assertEquals("one", ik1.add(1, "uno"));
+        assertEquals("uno", ik1.getValue(1));
+        assertThrows(IllegalArgumentException.class, () -> ik1.add(2, null));
+    }
+
+    @Test
+    void removeAndContains() {
+        IntKeyHashingWithCount<String> ik2 = new IntKeyHashingWithCount<>();
+        ik2.add(-7, "minus seven");
+        assertTrue(ik2.contains(-7));
+        assertEquals("minus seven", ik2.remove(-7));
+        assertFalse(ik2.contains(-7));
+        assertNull(ik2.remove(-7));
+        assertTrue(ik2.isEmpty());
+    }
+
+    @Test
+    void probeCountMatchesLinearProbingWithCount() {
+        IntKeyHashingWithCount<String> ik3 = new IntKeyHashingWithCount<>();
+        LinearProbingWithCount<Integer, String> lp3 = new LinearProbingWithCount<>();
+        int[] keys = {2, 13, 24, 5, 16};
+        for (int key : keys) {
+            ik3.add(key, "value");
+            lp3.add(key, "value");
+        }
+        ik3.resetProbeCount();
+        lp3.resetProbeCount();
+        for (int key = 0; key < 30; key++) {
+            assertEquals(lp3.contains(key), ik3.contains(key));
+        }
+        assertEquals(lp3.getProbeCount(), ik3.getProbeCount());
+        ik3.resetProbeCount();
+        assertEquals(0, ik3.getProbeCount());
+    }
+
+    @Test
+    void doubleHashingAndEnlarge() {
+        IntKeyHashingWithCount<Integer> ik4 = new IntKeyHashingWithCount<>(11, true);
+        for (int key = 0; key < 500; key += 11) { // every key starts at the same index
+            ik4.add(key, key * 2);
+        }
+        assertEquals(46, ik4.getSize());
+        assertTrue(ik4.getHashTableSize() > 92);
+        assertTrue(ik4.getLoadFactor() <= 0.5);
+        for (int key = 0; key < 500; key += 11) {
+            assertEquals(key * 2, ik4.getValue(key));
+        }
+        assertNull(ik4.getValue(1));
+    }
+
+    @Test
+    void clear() {
+        IntKeyHashingWithCount<String> ik5 = new IntKeyHashingWithCount<>();
+        ik5.add(3, "three");
+        ik5.add(4, "four");
+        ik5.clear();
+        assertEquals(0, ik5.getSize());
+        assertFalse(ik5.contains(3));
+    }
+
+    @Test
+    void getKeyIteratorAndValueIterator() {
+        IntKeyHashingWithCount<String> ik6 = new IntKeyHashingWithCount<>();
+        ik6.add(2, "two");
+        ik6.add(5, "five");
+        ik6.add(1, "one");
+        ik6.remove(5);
+        PrimitiveIterator.OfInt keyIterator = ik6.getKeyIterator();
+        assertEquals(1, keyIterator.nextInt());
+        assertEquals(2, keyIterator.nextInt());
+        assertFalse(keyIterator.hasNext());
+        assertThrows(NoSuchElementException.class, keyIterator::nextInt);
+        Iterator<String> valueIterator = ik6.getValueIterator();
+        assertEquals("one", valueIterator.next());
+        assertEquals("two", valueIterator.next());
+        assertThrows(UnsupportedOperationException.class, valueIterator::remove);
+        assertThrows(NoSuchElementException.class, valueIterator::next);
+    }
+
+    @Test
+    void doubleHashingNegativeKeys() {
+        IntKeyHashingWithCount<String> ik7 = new IntKeyHashingWithCount<>(11, true);
+        ik7.add(7, "seven");
+        ik7.add(-4, "minus four"); // Same initial index as 7, and -4 % 7 used to give a step of 11
+        assertEquals("minus four", ik7.getValue(-4));
+
+        IntKeyHashingWithCount<Integer> ik8 = new IntKeyHashingWithCount<>(11, true);
+        DoubleHashingWithCount<Integer, Integer> dh8 = new DoubleHashingWithCount<>(11);
+        for (int key = -1; key > -400; key -= 3) {
+            ik8.add(key, key);
+            dh8.add(key, key);
+        }
+        ik8.resetProbeCount();
+        dh8.resetProbeCount();
+        for (int key = -1; key > -400; key--) {
+            assertEquals(dh8.getValue(key), ik8.getValue(key));
+        }
+        assertEquals(dh8.getProbeCount(), ik8.getProbeCount()); // Same probe sequences as DoubleHashingWithCount
+    }
+
+    @Test
+    void largeCapacity() {
+        IntKeyHashingWithCount<Integer> ik9 = new IntKeyHashingWithCount<>(20011, true);
+        assertEquals(20011, ik9.getHashTableSize());
+        for (int key = 0; key < 20000; key++) {
+            ik9.add(key, key);
+        }
+        assertTrue(ik9.getHashTableSize() > 40000);
+        assertThrows(IllegalStateException.class, () -> new IntKeyHashingWithCount<Integer>(Integer.MAX_VALUE, true));
+    }
+}
@@ -2,8 +2,16 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -183,4 +191,352 @@ class LinearProbingWithCountTest {
         LinearProbingWithCount<Integer, String> lp7 = new LinearProbingWithCount<>();
         assertEquals(11, lp7.getHashTableSize());
     }
-}
\ No newline at end of file
+
+    @Test
+    void largeCapacity() {
+        LinearProbingWithCount<Integer, Integer> lp12 = new LinearProbingWithCount<>(1000003);
+        assertEquals(1000003, lp12.getHashTableSize());
+        for (int i = 0; i < 500001; i++) {
+            lp12.add(i, i);
+        }
+        assertEquals(1000003, lp12.getHashTableSize());
+        lp12.add(-1, -1); // more than half full, so the table grows past the old limit of 20,000
+        assertEquals(2000029, lp12.getHashTableSize());
+        assertEquals(250000, lp12.getValue(250000));
+        assertThrows(IllegalStateException.class, () -> new LinearProbingWithCount<Integer, Integer>(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void powerOfTwoSizing() {
+        LinearProbingWithCount<Integer, Integer> lp8 = new LinearProbingWithCount<>(100, true);
+        assertEquals(128, lp8.getHashTableSize());
+        for (int i = 0; i < 100; i++) {
+            lp8.add(i * 128, i); // would all start at the same index without mixing
+        }
+        assertEquals(256, lp8.getHashTableSize());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, lp8.getValue(i * 128));
+        }
+        assertEquals(50, lp8.remove(50 * 128));
+        assertFalse(lp8.contains(50 * 128));
+        assertEquals(99, lp8.getSize());
+    }
+
+    @Test
+    void backwardShiftDeletion() {
+        LinearProbingWithCount<Integer, Integer> lp9 = new LinearProbingWithCount<>(11, false, true);
+        lp9.add(1, 1);
+        lp9.add(12, 12);
+        lp9.add(23, 23);
+        lp9.add(10, 10);
+        lp9.add(21, 21); // wraps around to index 0
+        assertEquals(12, lp9.remove(12));
+        assertEquals(10, lp9.remove(10));
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        lp9.displayHashTable();
+        System.setOut(originalOut);
+        String expectedOutput = "null \n" + "1 1\n" + "23 23\n" +
+                "null \nnull \nnull \nnull \nnull \nnull \nnull \n" + "21 21\n\n";
+        assertEquals(expectedOutput, outContent.toString());
+
+        lp9.resetProbeCount();
+        assertTrue(lp9.contains(23));
+        assertEquals(2, lp9.getProbeCount());
+        assertFalse(lp9.contains(12));
+        assertEquals(5, lp9.getProbeCount());
+    }
+
+    @Test
+    void churnKeepsNullLocations() {
+        // Every round removes a key and adds a new one. The removed keys used to fill every null location, after
+        // which adds and unsuccessful searches never ended
+        LinearProbingWithCount<Integer, Integer> lp20 = new LinearProbingWithCount<>(347);
+        for (int i = 0; i < 100; i++) {
+            lp20.add(i, i);
+        }
+        for (int round = 0; round < 20000; round++) {
+            assertEquals(round, lp20.remove(round));
+            assertNull(lp20.add(round + 100, round + 100));
+            assertNull(lp20.getValue(-1));
+            assertTrue(100 + lp20.getTombstoneCount() <= 0.5 * lp20.getHashTableSize());
+        }
+        assertEquals(347, lp20.getHashTableSize()); // Rehashed at the same size, never enlarged
+        assertEquals(100, lp20.getSize());
+        for (int i = 20000; i < 20100; i++) {
+            assertEquals(i, lp20.getValue(i));
+        }
+    }
+
+    @Test
+    void backwardShiftDeletionMatchesHashMap() {
+        LinearProbingWithCount<Integer, Integer> lp10 = new LinearProbingWithCount<>(11, false, true);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), lp10.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), lp10.add(key, i));
+            }
+        }
+        assertEquals(expected.size(), lp10.getSize());
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), lp10.getValue(key));
+        }
+    }
+
+    @Test
+    void incrementalResizing() {
+        LinearProbingWithCount<Integer, Integer> lp11 = new LinearProbingWithCount<>(11, false, false, true);
+        for (int i = 0; i < 6; i++) {
+            lp11.add(i, i);
+        }
+        // The sixth add enlarged the table, but the entries are still in the old one
+        assertEquals(23, lp11.getHashTableSize());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, lp11.getValue(i));
+        }
+        assertEquals(3, lp11.remove(3));
+        assertEquals(4, lp11.add(4, 40));
+        assertEquals(40, lp11.getValue(4));
+        assertEquals(5, lp11.getSize());
+
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = lp11.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(0, 1, 2, 4, 5)), keys);
+    }
+
+    @Test
+    void incrementalResizingMatchesHashMap() {
+        LinearProbingWithCount<Integer, Integer> lp12 = new LinearProbingWithCount<>(11, false, true, true);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(12);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(3000);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                assertEquals(expected.remove(key), lp12.remove(key));
+            } else if (operation == 1) {
+                assertEquals(expected.get(key), lp12.getValue(key));
+            } else {
+                assertEquals(expected.put(key, i), lp12.add(key, i));
+            }
+        }
+        assertEquals(expected.size(), lp12.getSize());
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(key), lp12.getValue(key));
+        }
+    }
+
+    @Test
+    void maxOperationWork() {
+        LinearProbingWithCount<Integer, Integer> allAtOnce = new LinearProbingWithCount<>(11, false, false, false);
+        LinearProbingWithCount<Integer, Integer> incremental = new LinearProbingWithCount<>(11, false, false, true);
+        for (int i = 0; i < 5; i++) {
+            allAtOnce.add(i, i);
+            incremental.add(i, i);
+        }
+        assertEquals(1, allAtOnce.getMaxOperationWork());
+        allAtOnce.add(5, 5); // one probe, then 11 old locations visited and 6 entries placed
+        incremental.add(5, 5); // one probe, the old table is kept
+        assertEquals(18, allAtOnce.getMaxOperationWork());
+        assertEquals(1, incremental.getMaxOperationWork());
+        incremental.resetMaxOperationWork();
+        assertEquals(0, incremental.getMaxOperationWork());
+    }
+
+    @Test
+    void peekValue() {
+        LinearProbingWithCount<Integer, Integer> lp13 = new LinearProbingWithCount<>(11, false, false, true);
+        for (int i = 0; i < 6; i++) {
+            lp13.add(i, i);
+        }
+        lp13.remove(2);
+        lp13.resetProbeCount();
+        lp13.resetMaxOperationWork();
+        for (int i = 0; i < 6; i++) {
+            assertEquals((i == 2) ? null : i, lp13.peekValue(i)); // found in the table being resized too
+        }
+        assertNull(lp13.peekValue(100));
+        assertEquals(0, lp13.getProbeCount());
+        assertEquals(0, lp13.getMaxOperationWork());
+    }
+
+    @Test
+    void probeHistograms() {
+        LinearProbingWithCount<Integer, Integer> lp14 = new LinearProbingWithCount<>(101);
+        for (int i = 0; i < 10; i++) {
+            lp14.add(i * 101, i); // every key has home index 0, so the i-th add takes i + 1 probes
+        }
+        ProbeHistogram inserts = lp14.getProbeHistogram(ProbeHistogram.Operation.INSERT);
+        assertEquals(10, inserts.getCount());
+        assertEquals(5.5, inserts.getMean());
+        assertEquals(5, inserts.getValueAtPercentile(50));
+        assertEquals(10, inserts.getMax());
+
+        lp14.resetProbeCount();
+        assertEquals(0, lp14.getProbeHistogram(ProbeHistogram.Operation.INSERT).getCount());
+        lp14.getValue(0);
+        lp14.getValue(9 * 101);
+        lp14.getValue(10 * 101); // unsuccessful, probes past all 10 keys
+        lp14.remove(101);
+        assertEquals(2, lp14.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH).getCount());
+        assertEquals(10, lp14.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH).getMax());
+        assertEquals(11, lp14.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH).getMax());
+        assertEquals(2, lp14.getProbeHistogram(ProbeHistogram.Operation.REMOVE).getMax());
+        assertEquals(0, lp14.getProbeHistogram(ProbeHistogram.Operation.INSERT).getCount());
+
+        ProbeHistogram searches = new ProbeHistogram();
+        lp14.addProbeHistogramTo(ProbeHistogram.Operation.SUCCESSFUL_SEARCH, searches);
+        lp14.addProbeHistogramTo(ProbeHistogram.Operation.SUCCESSFUL_SEARCH, searches);
+        assertEquals(4, searches.getCount());
+        assertEquals(10, searches.getMax());
+    }
+
+    @Test
+    void concurrentSearchesRecordEveryProbe() throws Exception {
+        LinearProbingWithCount<Integer, Integer> lp21 = new LinearProbingWithCount<>();
+        for (int i = 0; i < 1000; i++) {
+            lp21.add(i, i);
+        }
+        lp21.resetProbeCount();
+        for (int i = 0; i < 1000; i++) {
+            lp21.getValue(i);
+        }
+        long probesPerPass = lp21.getProbeCount();
+        lp21.resetProbeCount();
+
+        int threads = 4;
+        int passes = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int pass = 0; pass < passes; pass++) {
+                        for (int i = 0; i < 1000; i++) {
+                            assertEquals(i, lp21.getValue(i));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Searches write nothing that other searches share, so no probe or histogram record is lost
+        ProbeHistogram searches = lp21.getProbeHistogram(ProbeHistogram.Operation.SUCCESSFUL_SEARCH);
+        assertEquals(threads * passes * 1000L, searches.getCount());
+        assertEquals(threads * passes * probesPerPass, searches.getTotal());
+        assertEquals(threads * passes * probesPerPass, lp21.getProbeCount());
+    }
+
+    @Test
+    void analyzeClusters() {
+        LinearProbingWithCount<Integer, Integer> lp15 = new LinearProbingWithCount<>(23);
+        ClusterStatistics empty = lp15.analyzeClusters();
+        assertEquals(0, empty.getClusterCount());
+        assertEquals(-1, empty.getLargestClusterStart());
+        assertEquals(1.0, empty.getExpectedUnsuccessfulProbes());
+
+        for (int key : new int[] {0, 1, 2, 5, 28, 22}) { // 28 has home index 5, 22 wraps around into 0
+            lp15.add(key, key);
+        }
+        lp15.remove(1);
+        ClusterStatistics clusters = lp15.analyzeClusters();
+        assertEquals(2, clusters.getClusterCount()); // 22, 0, 1, 2 and 5, 6
+        assertEquals(4, clusters.getLargestClusterLength());
+        assertEquals(22, clusters.getLargestClusterStart());
+        assertEquals(3.0, clusters.getMeanClusterLength());
+        assertEquals(6, clusters.getClusterLocations());
+        assertEquals(1, clusters.getTombstoneCount());
+        assertEquals(1.0 / 6, clusters.getTombstoneDensity());
+        assertEquals((23 + 10 + 3) / 23.0, clusters.getExpectedUnsuccessfulProbes()); // 1 + 2 + 3 + 4 and 1 + 2
+        assertEquals(0, lp15.getProbeHistogram(ProbeHistogram.Operation.UNSUCCESSFUL_SEARCH).getCount());
+    }
+
+    @Test
+    void analyzeClustersMatchesUnsuccessfulSearches() {
+        LinearProbingWithCount<Integer, Integer> lp16 = new LinearProbingWithCount<>(1009);
+        SplittableRandom random = new SplittableRandom(16);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(1500);
+            if (random.nextInt(4) == 0) {
+                lp16.remove(key);
+            } else {
+                lp16.add(key, key);
+            }
+        }
+        int length = lp16.getHashTableSize();
+        ClusterStatistics clusters = lp16.analyzeClusters();
+        assertEquals(lp16.getSize() + lp16.getTombstoneCount(), clusters.getClusterLocations());
+
+        // Search once from every home index for a key that is not there, the keys from -length to -1 have home
+        // indices 0 to length - 1
+        lp16.resetProbeCount();
+        for (int home = 0; home < length; home++) {
+            assertNull(lp16.getValue(home - length));
+        }
+        assertEquals((double) lp16.getProbeCount() / length, clusters.getExpectedUnsuccessfulProbes(), 1e-9);
+    }
+
+    @Test
+    void maxLoadFactor() {
+        LinearProbingWithCount<Integer, Integer> lp17 = new LinearProbingWithCount<>(101, false, false, false, 0.9);
+        for (int i = 0; i < 90; i++) {
+            lp17.add(i, i);
+        }
+        assertEquals(101, lp17.getHashTableSize()); // 90 of 101 is still below 0.9
+        lp17.add(90, 90);
+        lp17.add(91, 91);
+        assertTrue(lp17.getHashTableSize() > 101);
+        assertEquals(1, lp17.getResizeCount());
+        assertThrows(IllegalArgumentException.class, () -> new LinearProbingWithCount<>(101, false, false, false, 1.0));
+    }
+
+    @Test
+    void hashStrategy() {
+        for (HashStrategy strategy : HashStrategy.values()) {
+            LinearProbingWithCount<String, Integer> lp18 = new LinearProbingWithCount<>(11, strategy);
+            for (int i = 0; i < 500; i++) {
+                lp18.add("name" + i, i);
+            }
+            assertTrue(lp18.getHashTableSize() > 1000); // Rehashed with the same strategy
+            for (int i = 0; i < 500; i += 2) {
+                assertEquals(i, lp18.remove("name" + i));
+            }
+            for (int i = 0; i < 500; i++) {
+                assertEquals((i % 2 == 0) ? null : Integer.valueOf(i), lp18.getValue("name" + i), strategy + " " + i);
+            }
+            assertFalse(lp18.contains("name500"));
+            assertEquals(250, lp18.getSize());
+        }
+        assertThrows(NullPointerException.class, () -> new LinearProbingWithCount<>(11, null));
+    }
+
+    @Test
+    void hashStrategyWithPowerOfTwoSizing() {
+        for (HashStrategy strategy : HashStrategy.values()) {
+            LinearProbingWithCount<String, Integer> lp19 =
+                    new LinearProbingWithCount<>(16, true, true, false, 0.75, strategy);
+            for (int i = 0; i < 500; i++) {
+                lp19.add("name" + i, i);
+            }
+            assertEquals(1024, lp19.getHashTableSize()); // 500 of 512 would be above 0.75
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i, lp19.getValue("name" + i), strategy + " " + i);
+            }
+            assertFalse(lp19.contains("name500"));
+        }
+    }
+}
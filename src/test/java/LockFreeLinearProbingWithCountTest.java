@@ -0,0 +1,325 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LockFreeLinearProbingWithCountTest {
+
+    @Test
+    void add() {
+        LockFreeLinearProbingWithCount<String, String> lf1 = new LockFreeLinearProbingWithCount<>();
+        String str = lf1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = lf1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        lf1.add("str3", "what");
+        lf1.add("str4", "how");
+        lf1.add("str5", "who");
+        assertEquals(4, lf1.getSize());
+        assertThrows(IllegalArgumentException.class, () -> lf1.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> lf1.add("error!", null));
+    }
+
+    @Test
+    void removeAndGetValue() {
+        LockFreeLinearProbingWithCount<String, Double> mathConstants = new LockFreeLinearProbingWithCount<>();
+        mathConstants.add("e", 2.718);
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("e"));
+        assertNull(mathConstants.remove("pi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertEquals(1, mathConstants.getSize());
+        assertNull(mathConstants.add("e", 1.0)); // added back into its old location
+        assertEquals(2, mathConstants.getSize());
+    }
+
+    @Test
+    void containsAndProbeCount() {
+        LockFreeLinearProbingWithCount<Integer, Integer> lf2 = new LockFreeLinearProbingWithCount<>(1024);
+        for (int i = 0; i < 100; i++) {
+            lf2.add(i, i);
+        }
+        lf2.resetProbeCount();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(lf2.contains(i));
+        }
+        assertTrue(lf2.getProbeCount() >= 100);
+        lf2.resetProbeCount();
+        assertEquals(0, lf2.getProbeCount());
+    }
+
+    @Test
+    void getHashTableSize() {
+        LockFreeLinearProbingWithCount<Integer, Integer> lf3 = new LockFreeLinearProbingWithCount<>();
+        assertEquals(16, lf3.getHashTableSize());
+        for (int i = 0; i < 8; i++) {
+            lf3.add(i, i);
+        }
+        assertEquals(16, lf3.getHashTableSize());
+        lf3.add(8, 8); // More than half of the locations taken, so the table is copied to one twice the size
+        assertEquals(32, lf3.getHashTableSize()); // A table of 16 is a single chunk, so the add copies all of it
+        for (int i = 0; i < 9; i++) {
+            assertEquals(i, lf3.getValue(i));
+        }
+    }
+
+    @Test
+    void removedKeysAreDroppedByResize() {
+        // The same 4 keys added and removed with ever new values keep the table at its size, since the copies only
+        // need room for the live entries
+        LockFreeLinearProbingWithCount<Integer, Integer> lf4 = new LockFreeLinearProbingWithCount<>();
+        for (int i = 0; i < 1000; i++) {
+            lf4.add(i, i);
+            if (i >= 4) {
+                assertEquals(i - 4, lf4.remove(i - 4));
+            }
+        }
+        assertEquals(4, lf4.getSize());
+        assertEquals(16, lf4.getHashTableSize());
+    }
+
+    @Test
+    void matchesHashMap() {
+        LockFreeLinearProbingWithCount<Integer, Integer> lf5 = new LockFreeLinearProbingWithCount<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), lf5.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), lf5.add(key, i));
+            }
+            assertEquals(expected.size(), lf5.getSize());
+        }
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(key), lf5.getValue(key));
+        }
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        LockFreeLinearProbingWithCount<Integer, String> lf6 = new LockFreeLinearProbingWithCount<>();
+        lf6.add(2, "two");
+        lf6.add(5, "five");
+        lf6.add(1, "one");
+        lf6.add(3, "three");
+        lf6.remove(5);
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = lf6.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(1, 2, 3)), keys);
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+
+        HashSet<String> values = new HashSet<>();
+        Iterator<String> valueIterator = lf6.getValueIterator();
+        while (valueIterator.hasNext()) {
+            values.add(valueIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of("one", "two", "three")), values);
+    }
+
+    @Test
+    void isEmptyAndClear() {
+        LockFreeLinearProbingWithCount<String, String> lf7 = new LockFreeLinearProbingWithCount<>();
+        assertTrue(lf7.isEmpty());
+        lf7.add("thunder", "lightning");
+        assertFalse(lf7.isEmpty());
+        lf7.clear();
+        assertTrue(lf7.isEmpty());
+        assertFalse(lf7.contains("thunder"));
+    }
+
+
+    // Stress tests: many threads on one dictionary, growing from the default size so that resizes run all the time
+
+    /** Number of threads in each stress test */
+    private static final int THREADS = 8;
+
+    @Test
+    void stressDisjointKeys() throws Exception {
+        // Each thread owns its keys, so it knows exactly what every one of its operations must return
+        LockFreeLinearProbingWithCount<Integer, Integer> lf8 = new LockFreeLinearProbingWithCount<>();
+        runThreads(thread -> {
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(thread);
+            for (int i = 0; i < 100000; i++) {
+                int key = random.nextInt(5000) * THREADS + thread;
+                int operation = random.nextInt(4);
+                if (operation == 0) {
+                    assertEquals(expected.remove(key), lf8.remove(key));
+                } else if (operation == 1) {
+                    assertEquals(expected.get(key), lf8.getValue(key));
+                } else {
+                    assertEquals(expected.put(key, i), lf8.add(key, i));
+                }
+            }
+            return expected;
+        }, results -> {
+            int size = 0;
+            for (HashMap<Integer, Integer> expected : results) {
+                for (Integer key : expected.keySet()) {
+                    assertEquals(expected.get(key), lf8.getValue(key));
+                }
+                size += expected.size();
+            }
+            assertEquals(size, lf8.getSize());
+            assertIteratorsMatchSize(lf8);
+        });
+    }
+
+    @Test
+    void stressSharedKeys() throws Exception {
+        // Every thread adds and removes the same small set of keys. Each key is in the dictionary at the end exactly
+        // when the adds that found it missing outnumber the removes that found it present.
+        int keys = 64;
+        LockFreeLinearProbingWithCount<Integer, Integer> lf9 = new LockFreeLinearProbingWithCount<>();
+        runThreads(thread -> {
+            int[] balance = new int[keys];
+            SplittableRandom random = new SplittableRandom(100 + thread);
+            for (int i = 0; i < 200000; i++) {
+                int key = random.nextInt(keys);
+                if (random.nextBoolean()) {
+                    if (lf9.add(key, i) == null)
+                        balance[key]++;
+                } else {
+                    if (lf9.remove(key) != null)
+                        balance[key]--;
+                }
+            }
+            return balance;
+        }, results -> {
+            int size = 0;
+            for (int key = 0; key < keys; key++) {
+                int balance = 0;
+                for (int[] threadBalance : results) {
+                    balance += threadBalance[key];
+                }
+                assertEquals(balance, lf9.contains(key) ? 1 : 0);
+                size += balance;
+            }
+            assertEquals(size, lf9.getSize());
+            assertIteratorsMatchSize(lf9);
+        });
+    }
+
+    @Test
+    void stressReadersDuringResize() throws Exception {
+        // Keys that are never removed must be found by every getValue, however many resizes run underneath
+        LockFreeLinearProbingWithCount<Integer, Integer> lf10 = new LockFreeLinearProbingWithCount<>();
+        for (int key = 0; key < 1000; key++) {
+            lf10.add(key, key);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        runThreads(thread -> {
+            if (thread < THREADS / 2) { // Writers grow the table to over a million locations with other keys
+                for (int i = 0; i < 100000; i++) {
+                    int key = 1000 + i * (THREADS / 2) + thread;
+                    lf10.add(key, key);
+                    if (i % 3 == 0)
+                        lf10.remove(key);
+                }
+                writing.set(false);
+            } else {
+                SplittableRandom random = new SplittableRandom(thread);
+                while (writing.get()) {
+                    int key = random.nextInt(1000);
+                    assertEquals(key, lf10.getValue(key));
+                }
+            }
+            return null;
+        }, results -> assertIteratorsMatchSize(lf10));
+    }
+
+
+    /**
+     * Runs the same task on THREADS threads, all started together, then checks their results.
+     * @param task the work of one thread, given the thread's number, returning what the check needs
+     * @param check checks the results of every thread once they have all finished
+     * @param <T> type of a thread's result
+     */
+    private static <T> void runThreads(ThreadTask<T> task, ResultCheck<T> check) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(thread);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            check.check(results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Checks that both iterators give exactly getSize() entries, each key once.
+     * @param dictionary a dictionary no thread is changing
+     */
+    private static void assertIteratorsMatchSize(LockFreeLinearProbingWithCount<Integer, Integer> dictionary) {
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = dictionary.getKeyIterator();
+        int count = 0;
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+            count++;
+        }
+        assertEquals(dictionary.getSize(), count);
+        assertEquals(count, keys.size());
+
+        count = 0;
+        Iterator<Integer> valueIterator = dictionary.getValueIterator();
+        while (valueIterator.hasNext()) {
+            valueIterator.next();
+            count++;
+        }
+        assertEquals(dictionary.getSize(), count);
+    }
+
+
+    /** Work done by one thread of a stress test */
+    private interface ThreadTask<T> {
+        T run(int thread) throws Exception;
+    }
+
+
+    /** Check made once every thread of a stress test has finished */
+    private interface ResultCheck<T> {
+        void check(List<T> results);
+    }
+}
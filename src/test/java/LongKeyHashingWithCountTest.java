@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LongKeyHashingWithCountTest {
+
+    @Test
+    void addGetValueAndRemove() {
+        LongKeyHashingWithCount<String> lk1 = new LongKeyHashingWithCount<>();
+        long bigKey = 1L << 40;
+        assertNull(lk1.add(bigKey, "big"));
+        assertNull(lk1.add(-bigKey, "small"));
+        assertEquals("big", lk1.add(bigKey, "bigger"));
+        assertEquals("bigger", lk1.getValue(bigKey));
+        assertEquals("small", lk1.remove(-bigKey));
+        assertFalse(lk1.contains(-bigKey));
+        assertEquals(1, lk1.getSize());
+    }
+
+    @Test
+    void probeCountMatchesLinearProbingWithCount() {
+        LongKeyHashingWithCount<String> lk2 = new LongKeyHashingWithCount<>();
+        LinearProbingWithCount<Long, String> lp2 = new LinearProbingWithCount<>();
+        for (long key = 0; key < 40; key += 3) {
+            lk2.add(key << 32, "value");
+            lp2.add(key << 32, "value");
+        }
+        lk2.resetProbeCount();
+        lp2.resetProbeCount();
+        for (long key = 0; key < 40; key++) {
+            assertEquals(lp2.contains(key << 32), lk2.contains(key << 32));
+        }
+        assertEquals(lp2.getProbeCount(), lk2.getProbeCount());
+    }
+
+    @Test
+    void doubleHashingAndKeyIterator() {
+        LongKeyHashingWithCount<Long> lk3 = new LongKeyHashingWithCount<>(11, true);
+        for (long key = 0; key < 100; key++) {
+            lk3.add(key * 1000003L, key);
+        }
+        assertEquals(100, lk3.getSize());
+        long sum = 0;
+        PrimitiveIterator.OfLong keys = lk3.getKeyIterator();
+        while (keys.hasNext()) {
+            sum += keys.nextLong() / 1000003L;
+        }
+        assertEquals(4950, sum);
+        assertTrue(lk3.contains(99 * 1000003L));
+    }
+
+    @Test
+    void doubleHashingNegativeHashCodes() {
+        // Long.hashCode of these keys is -4, -5, -6 and so on
+        LongKeyHashingWithCount<Long> lk4 = new LongKeyHashingWithCount<>(11, true);
+        lk4.add(7L, 7L);
+        lk4.add(0xFFFFFFFCL, 0xFFFFFFFCL); // Same initial index as 7, and -4 % 7 used to give a step of 11
+        assertEquals(0xFFFFFFFCL, lk4.getValue(0xFFFFFFFCL));
+        for (long key = 0xFFFFFFFBL; key > 0xFFFFFFFFL - 400; key -= 3) {
+            lk4.add(key, key);
+        }
+        for (long key = 0xFFFFFFFBL; key > 0xFFFFFFFFL - 400; key -= 3) {
+            assertEquals(key, lk4.getValue(key));
+        }
+        assertFalse(lk4.contains(0xFFFFFFFAL));
+    }
+
+    @Test
+    void largeCapacity() {
+        LongKeyHashingWithCount<Long> lk5 = new LongKeyHashingWithCount<>(20011, false);
+        assertEquals(20011, lk5.getHashTableSize());
+        for (long key = 0; key < 20000; key++) {
+            lk5.add(key, key);
+        }
+        assertTrue(lk5.getHashTableSize() > 40000);
+    }
+}
@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class MappedKeyCorpusTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String contents) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private Path writeKeys(String name, String prefix, int count) throws IOException {
+        ArrayList<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(prefix + i);
+        }
+        Path file = directory.resolve(name);
+        Files.write(file, keys, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    void readsKeysOnDemand() throws IOException {
+        MappedKeyCorpus corpus = new MappedKeyCorpus(write("keys.txt", "alpha\r\n\nbeta\n\r\ngrüße\nlast"));
+        assertEquals(4, corpus.size());
+        assertEquals("alpha", corpus.get(0));
+        assertEquals("beta", corpus.get(1));
+        assertEquals("grüße", corpus.get(2));
+        assertEquals("last", corpus.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> corpus.get(4));
+        assertEquals(0, new MappedKeyCorpus(write("empty.txt", "")).size());
+    }
+
+    @Test
+    void findDuplicateKey() throws IOException {
+        assertNull(new MappedKeyCorpus(writeKeys("unique.txt", "key", 5000)).findDuplicateKey());
+        MappedKeyCorpus repeated = new MappedKeyCorpus(write("repeated.txt", "a\nbb\nccc\nbb\r\n"));
+        assertEquals("bb", repeated.findDuplicateKey());
+    }
+
+    @Test
+    void findSharedKey() throws IOException {
+        MappedKeyCorpus add = new MappedKeyCorpus(writeKeys("add.txt", "add", 5000));
+        MappedKeyCorpus search = new MappedKeyCorpus(writeKeys("search.txt", "search", 20000));
+        assertNull(add.findSharedKey(search));
+        MappedKeyCorpus overlapping = new MappedKeyCorpus(write("overlap.txt", "search1\nadd4999\n"));
+        assertEquals("add4999", add.findSharedKey(overlapping));
+    }
+
+    @Test
+    void getStatisticsRunsOnCorpora() throws IOException {
+        MappedKeyCorpus add = new MappedKeyCorpus(writeKeys("add.txt", "add", 5000));
+        MappedKeyCorpus search = new MappedKeyCorpus(writeKeys("search.txt", "search", 20000));
+        GetStatistics testStat = new GetStatistics(2000, 1.5, 19, add, search);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+        testStat.runExperiment(2000, 15000, false, 42, true);
+        System.setOut(originalOut);
+
+        assertTrue(outContent.toString().contains("15000 unique names were searched"));
+        assertTrue(outContent.toString().contains("Seed: 42 (names from a key corpus)"));
+        assertThrows(IllegalArgumentException.class, () -> testStat.runExperiment(5001, 100, false));
+
+        MappedKeyCorpus overlapping = new MappedKeyCorpus(write("overlap.txt", "search1\nadd4999\n"));
+        assertThrows(IllegalArgumentException.class, () -> new GetStatistics(2, 1.5, 19, overlapping, add));
+        MappedKeyCorpus repeated = new MappedKeyCorpus(write("repeated.txt", "a\nb\na\n"));
+        assertThrows(IllegalArgumentException.class, () -> new GetStatistics(2, 1.5, 19, repeated, search));
+    }
+}
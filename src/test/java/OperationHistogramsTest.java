@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class OperationHistogramsTest {
+
+    @Test
+    void recordCopyAndReset() {
+        OperationHistograms histograms = new OperationHistograms();
+        histograms.record(ProbeHistogram.Operation.INSERT, 1);
+        histograms.record(ProbeHistogram.Operation.INSERT, 3);
+        histograms.record(ProbeHistogram.Operation.REMOVE, 7);
+
+        ProbeHistogram inserts = histograms.copy(ProbeHistogram.Operation.INSERT);
+        assertEquals(2, inserts.getCount());
+        assertEquals(4, inserts.getTotal());
+        assertEquals(0, histograms.copy(ProbeHistogram.Operation.SUCCESSFUL_SEARCH).getCount());
+
+        histograms.record(ProbeHistogram.Operation.INSERT, 5);
+        assertEquals(2, inserts.getCount()); // the copy doesn't change
+
+        ProbeHistogram removes = new ProbeHistogram();
+        removes.record(2);
+        histograms.addTo(ProbeHistogram.Operation.REMOVE, removes);
+        assertEquals(2, removes.getCount());
+        assertEquals(7, removes.getMax());
+
+        histograms.reset();
+        assertEquals(0, histograms.copy(ProbeHistogram.Operation.INSERT).getCount());
+        assertEquals(0, histograms.copy(ProbeHistogram.Operation.REMOVE).getCount());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        OperationHistograms histograms = new OperationHistograms();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100000; i++) {
+                        histograms.record(ProbeHistogram.Operation.SUCCESSFUL_SEARCH, 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        histograms.record(ProbeHistogram.Operation.SUCCESSFUL_SEARCH, 2); // the owner's histograms count too
+
+        ProbeHistogram searches = histograms.copy(ProbeHistogram.Operation.SUCCESSFUL_SEARCH);
+        assertEquals(threads * 100000L + 1, searches.getCount());
+        assertEquals(2 * (threads * 100000L + 1), searches.getTotal());
+    }
+}
@@ -0,0 +1,166 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class OptimisticReadHashingWithCountTest {
+
+    @Test
+    void add() {
+        OptimisticReadHashingWithCount<String, String> or1 = new OptimisticReadHashingWithCount<>();
+        String str = or1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = or1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        or1.add("str3", "what");
+        or1.add("str4", "how");
+        or1.add("str5", "who");
+        assertEquals(4, or1.getSize());
+        assertThrows(IllegalArgumentException.class, () -> or1.add(null,"error!"));
+        assertThrows(NullPointerException.class, () -> or1.getValue(null)); // thrown on, not put down to a writer
+    }
+
+    @Test
+    void removeAndGetValue() {
+        OptimisticReadHashingWithCount<String, Double> mathConstants = new OptimisticReadHashingWithCount<>();
+        mathConstants.add("e", 2.718);
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("pi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertEquals(1, mathConstants.getSize());
+    }
+
+    @Test
+    void searchesAreNotCounted() {
+        OptimisticReadHashingWithCount<Integer, Integer> or2 = new OptimisticReadHashingWithCount<>(100);
+        for (int i = 0; i < 40; i++) {
+            or2.add(i, i);
+        }
+        assertTrue(or2.getProbeCount() >= 40);
+        or2.resetProbeCount();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(or2.contains(i));
+        }
+        assertEquals(0, or2.getProbeCount());
+    }
+
+    @Test
+    void matchesHashMap() {
+        for (boolean doubleHashing : new boolean[] {false, true}) {
+            OptimisticReadHashingWithCount<Integer, Integer> or3 = new OptimisticReadHashingWithCount<>(11, doubleHashing);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(15);
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(2000);
+                int operation = random.nextInt(4);
+                if (operation == 0) {
+                    assertEquals(expected.remove(key), or3.remove(key));
+                } else if (operation == 1) {
+                    assertEquals(expected.get(key), or3.getValue(key));
+                } else {
+                    assertEquals(expected.put(key, i), or3.add(key, i));
+                }
+            }
+            assertEquals(expected.size(), or3.getSize());
+            for (int key = 0; key < 2000; key++) {
+                assertEquals(expected.get(key), or3.getValue(key));
+            }
+        }
+    }
+
+    @Test
+    void readersDuringWrites() throws Exception {
+        // Keys that are never removed must be found by every reader, however many enlargeHashTables run underneath
+        for (boolean doubleHashing : new boolean[] {false, true}) {
+            OptimisticReadHashingWithCount<Integer, Integer> or4 = new OptimisticReadHashingWithCount<>(11, doubleHashing);
+            for (int key = 0; key < 500; key++) {
+                or4.add(key, key);
+            }
+            int readers = 6;
+            AtomicBoolean writing = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                futures.add(executor.submit(() -> {
+                    for (int key = 500; key < 100000; key++) {
+                        or4.add(key, key);
+                        if (key % 3 == 0)
+                            or4.remove(key);
+                    }
+                    writing.set(false);
+                }));
+                for (int t = 0; t < readers; t++) {
+                    int seed = t;
+                    futures.add(executor.submit(() -> {
+                        SplittableRandom random = new SplittableRandom(seed);
+                        while (writing.get()) {
+                            int key = random.nextInt(500);
+                            assertEquals(key, or4.getValue(key));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(500 + 99500 - 33167, or4.getSize());
+        }
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        OptimisticReadHashingWithCount<Integer, String> or5 = new OptimisticReadHashingWithCount<>();
+        or5.add(2, "two");
+        or5.add(5, "five");
+        or5.add(1, "one");
+        or5.add(3, "three");
+        or5.remove(5);
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = or5.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(1, 2, 3)), keys);
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+
+        HashSet<String> values = new HashSet<>();
+        Iterator<String> valueIterator = or5.getValueIterator();
+        while (valueIterator.hasNext()) {
+            values.add(valueIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of("one", "two", "three")), values);
+    }
+
+    @Test
+    void isEmptyAndClear() {
+        OptimisticReadHashingWithCount<String, String> or6 = new OptimisticReadHashingWithCount<>();
+        assertTrue(or6.isEmpty());
+        or6.add("thunder", "lightning");
+        assertFalse(or6.isEmpty());
+        or6.clear();
+        assertTrue(or6.isEmpty());
+        assertFalse(or6.contains("thunder"));
+    }
+}
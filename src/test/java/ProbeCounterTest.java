@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ProbeCounterTest {
+
+    @Test
+    void addSumAndReset() {
+        ProbeCounter counter = new ProbeCounter();
+        assertEquals(0, counter.sum());
+        counter.add(3);
+        counter.add(4);
+        assertEquals(7, counter.sum());
+        counter.reset();
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        ProbeCounter counter = new ProbeCounter();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100000; i++) {
+                        counter.add(1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * 100000L, counter.sum());
+    }
+
+    @Test
+    void measurement() {
+        ProbeCounter counter = new ProbeCounter();
+        counter.add(5); // before the measurement
+        try (ProbeCounter.Measurement outer = ProbeCounter.startMeasurement()) {
+            counter.add(2);
+            try (ProbeCounter.Measurement inner = ProbeCounter.startMeasurement()) {
+                counter.add(3);
+                new ProbeCounter().add(4); // any counter the thread adds to
+                assertEquals(7, inner.getProbeCount());
+                assertThrows(IllegalStateException.class, outer::close); // inner is still open
+            }
+            counter.add(1);
+            assertEquals(10, outer.getProbeCount());
+        }
+        assertEquals(11, counter.sum());
+    }
+
+    @Test
+    void measurementOnlyCountsItsOwnThread() throws Exception {
+        // One thread measures its own searches while others search the same dictionary
+        StripedHashingWithCount<Integer, Integer> dictionary = new StripedHashingWithCount<>(1000);
+        for (int i = 0; i < 500; i++) {
+            dictionary.add(i, i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int searches = (t + 1) * 1000;
+                futures.add(executor.submit(() -> {
+                    try (ProbeCounter.Measurement measurement = ProbeCounter.startMeasurement()) {
+                        for (int i = 0; i < searches; i++) {
+                            dictionary.getValue(i % 500);
+                        }
+                        return measurement.getProbeCount();
+                    }
+                }));
+            }
+            long total = 0;
+            for (int t = 0; t < 4; t++) {
+                long probes = futures.get(t).get();
+                // Every thread searches the same keys in the same order, so the probes only differ by the number of
+                // rounds over them
+                assertEquals((t + 1) * futures.get(0).get(), probes);
+                total += probes;
+            }
+            assertTrue(total <= dictionary.getProbeCount());
+        } finally {
+            executor.shutdown();
+        }
+
+        ProbeCounter.Measurement[] other = new ProbeCounter.Measurement[1];
+        Thread thread = new Thread(() -> other[0] = ProbeCounter.startMeasurement());
+        thread.start();
+        thread.join();
+        assertThrows(IllegalStateException.class, other[0]::close); // started by another thread
+    }
+}
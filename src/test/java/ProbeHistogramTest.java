@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ProbeHistogramTest {
+
+    @Test
+    void buckets() {
+        for (long probes = 0; probes < 8; probes++) {
+            assertEquals(probes, ProbeHistogram.getBucketIndex(probes)); // exact below 8
+        }
+        assertEquals(8, ProbeHistogram.getBucketIndex(8));
+        assertEquals(8, ProbeHistogram.getBucketIndex(9));
+        assertEquals(9, ProbeHistogram.getBucketIndex(10));
+        assertEquals(11, ProbeHistogram.getBucketIndex(15));
+        assertEquals(12, ProbeHistogram.getBucketIndex(16));
+        assertEquals(19, ProbeHistogram.getBucketUpperBound(12));
+        assertEquals(247, ProbeHistogram.getBucketIndex(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, ProbeHistogram.getBucketUpperBound(247));
+
+        // Every count is in the bucket whose upper bound is the first one at or above it
+        for (long probes = 1; probes < 5000; probes++) {
+            int index = ProbeHistogram.getBucketIndex(probes);
+            assertTrue(probes <= ProbeHistogram.getBucketUpperBound(index));
+            assertTrue(probes > ProbeHistogram.getBucketUpperBound(index - 1));
+        }
+    }
+
+    @Test
+    void percentiles() {
+        ProbeHistogram histogram = new ProbeHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        for (int probes = 1; probes <= 100; probes++) {
+            histogram.record(probes);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean());
+        assertEquals(100, histogram.getMax());
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(55, histogram.getValueAtPercentile(50)); // 50 is in the bucket 48 to 55
+        assertEquals(95, histogram.getValueAtPercentile(90)); // 90 is in the bucket 80 to 95
+        assertEquals(100, histogram.getValueAtPercentile(99)); // capped at the maximum
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+
+    @Test
+    void addCopyAndReset() {
+        ProbeHistogram first = new ProbeHistogram();
+        ProbeHistogram second = new ProbeHistogram();
+        first.record(1);
+        first.record(2);
+        second.record(7);
+        ProbeHistogram copy = first.copy();
+        first.add(second);
+        assertEquals(3, first.getCount());
+        assertEquals(7, first.getMax());
+        assertEquals(2, first.getValueAtPercentile(50));
+        assertEquals(2, copy.getCount()); // the copy is not changed by the add
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getMax());
+        assertEquals(0.0, first.getMean());
+    }
+}
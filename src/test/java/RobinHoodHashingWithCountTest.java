@@ -0,0 +1,172 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class RobinHoodHashingWithCountTest {
+
+    @Test
+    void displayHashTable() {
+        RobinHoodHashingWithCount<Integer, String> rh1 = new RobinHoodHashingWithCount<>();
+        rh1.add(2, "two");
+        rh1.add(1, "one");
+        rh1.add(12, "twelve"); // home index 1, takes index 2 from "two", which is at its home index
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+        rh1.displayHashTable();
+        System.setOut(originalOut);
+
+        String expectedOutput = "null \n" + "1 one (distance 0)\n" + "12 twelve (distance 1)\n" +
+                "2 two (distance 1)\n" +
+                "null \nnull \nnull \nnull \nnull \nnull \nnull \n\n";
+        assertEquals(expectedOutput, outContent.toString());
+    }
+
+    @Test
+    void add() {
+        RobinHoodHashingWithCount<String, String> rh2 = new RobinHoodHashingWithCount<>();
+        String str = rh2.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = rh2.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        rh2.add("str3", "what");
+        rh2.add("str4", "how");
+        rh2.add("str5", "who");
+        assertEquals(4, rh2.getSize());
+        assertThrows(IllegalArgumentException.class, () -> rh2.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> rh2.add("error!", null));
+    }
+
+    @Test
+    void remove() {
+        RobinHoodHashingWithCount<Integer, String> rh3 = new RobinHoodHashingWithCount<>();
+        rh3.add(1, "one");
+        rh3.add(12, "twelve");
+        rh3.add(2, "two");
+        assertEquals("one", rh3.remove(1));
+        assertFalse(rh3.contains(1));
+        assertNull(rh3.remove(23));
+
+        // The rest of the cluster shifted back, so both entries are at their home index
+        rh3.resetProbeCount();
+        assertTrue(rh3.contains(12));
+        assertEquals(1, rh3.getProbeCount());
+        assertTrue(rh3.contains(2));
+        assertEquals(2, rh3.getProbeCount());
+    }
+
+    @Test
+    void getValueAndContains() {
+        RobinHoodHashingWithCount<String, Double> mathConstants = new RobinHoodHashingWithCount<>();
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertTrue(mathConstants.contains("phi"));
+        assertFalse(mathConstants.contains("pi"));
+    }
+
+    @Test
+    void containsAndProbeCount() {
+        RobinHoodHashingWithCount<Integer, String> rh4 = new RobinHoodHashingWithCount<>();
+        assertEquals(0, rh4.getProbeCount());
+        rh4.add(1, "one");
+        rh4.add(2, "two");
+        rh4.add(3, "three");
+        rh4.resetProbeCount();
+        assertTrue(rh4.contains(2));
+        assertEquals(1, rh4.getProbeCount());
+        // 12 would be at index 2, one away from home, but "two" is at its home index so the search stops there
+        assertFalse(rh4.contains(12));
+        assertEquals(3, rh4.getProbeCount());
+        assertFalse(rh4.contains(4));
+        assertEquals(4, rh4.getProbeCount());
+        rh4.resetProbeCount();
+        assertEquals(0, rh4.getProbeCount());
+    }
+
+    @Test
+    void matchesHashMap() {
+        RobinHoodHashingWithCount<Integer, Integer> rh5 = new RobinHoodHashingWithCount<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), rh5.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), rh5.add(key, i));
+            }
+            assertEquals(expected.size(), rh5.getSize());
+        }
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), rh5.getValue(key));
+        }
+    }
+
+    @Test
+    void isEmpty() {
+        RobinHoodHashingWithCount<String, String> emptyDictionary = new RobinHoodHashingWithCount<>();
+        assertTrue(emptyDictionary.isEmpty());
+        emptyDictionary.add("thunder", "lightning");
+        assertFalse(emptyDictionary.isEmpty());
+    }
+
+    @Test
+    void clear() {
+        RobinHoodHashingWithCount<String, Double> mathConstants = new RobinHoodHashingWithCount<>();
+        mathConstants.add("pi", 3.1415);
+        mathConstants.add("e", 2.718);
+        mathConstants.add("tau", 6.28);
+        assertEquals(3, mathConstants.getSize());
+        mathConstants.clear();
+        assertEquals(0, mathConstants.getSize());
+        assertFalse(mathConstants.contains("pi"));
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        RobinHoodHashingWithCount<Integer, String> rh6 = new RobinHoodHashingWithCount<>();
+        rh6.add(2, "two");
+        rh6.add(5, "five");
+        rh6.add(1, "one");
+        rh6.add(3, "three");
+        rh6.remove(5);
+        Iterator<Integer> keyIterator = rh6.getKeyIterator();
+        Iterator<String> valueIterator = rh6.getValueIterator();
+        assertEquals(1, keyIterator.next());
+        assertEquals(2, keyIterator.next());
+        assertEquals(3, keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+        assertFalse(keyIterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertEquals("one", valueIterator.next());
+        assertEquals("two", valueIterator.next());
+        assertEquals("three", valueIterator.next());
+        assertFalse(valueIterator.hasNext());
+    }
+
+    @Test
+    void getLoadFactorAndHashTableSize() {
+        RobinHoodHashingWithCount<Integer, String> rh7 = new RobinHoodHashingWithCount<>();
+        assertEquals(11, rh7.getHashTableSize());
+        for (int i = 0; i < 5; i++) {
+            rh7.add(i, "value");
+        }
+        assertEquals(5.0/11.0, rh7.getLoadFactor());
+        rh7.add(5, "value");
+        assertEquals(23, rh7.getHashTableSize());
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class RunningStatisticsTest {
+
+    @Test
+    void empty() {
+        RunningStatistics statistics = new RunningStatistics();
+        assertEquals(0, statistics.getCount());
+        assertEquals(0.0, statistics.getMean());
+        assertEquals(0.0, statistics.getStandardDeviation());
+        assertEquals(Double.POSITIVE_INFINITY, statistics.getConfidenceHalfWidth());
+    }
+
+    @Test
+    void matchesTwoPass() {
+        GetStatistics testStat = new GetStatistics(false);
+        long[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        RunningStatistics statistics = new RunningStatistics();
+        for (long value : values) {
+            statistics.add(value);
+        }
+        assertEquals(8, statistics.getCount());
+        assertEquals(testStat.computeAverageOfArray(values), statistics.getMean(), 1e-12);
+        assertEquals(testStat.computeStandardDeviation(values), statistics.getStandardDeviation(), 1e-12);
+        assertEquals(2.0, statistics.getMin());
+        assertEquals(9.0, statistics.getMax());
+        // t for 7 degrees of freedom is 2.365
+        assertEquals(2.365 * Math.sqrt(32.0 / 7) / Math.sqrt(8), statistics.getConfidenceHalfWidth(), 1e-12);
+    }
+
+    @Test
+    void largeOffsetKeepsPrecision() {
+        RunningStatistics statistics = new RunningStatistics();
+        for (int i = 0; i < 1000; i++) {
+            statistics.add(1e9 + (i % 2));
+        }
+        assertEquals(1e9 + 0.5, statistics.getMean(), 1e-6);
+        assertEquals(Math.sqrt(250.0 / 999), statistics.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    void mergeMatchesSequential() {
+        SplittableRandom random = new SplittableRandom(7);
+        RunningStatistics all = new RunningStatistics();
+        RunningStatistics first = new RunningStatistics();
+        RunningStatistics second = new RunningStatistics();
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextInt(500);
+            all.add(value);
+            (i < 300 ? first : second).add(value);
+        }
+        first.merge(second);
+        first.merge(new RunningStatistics());
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMean(), first.getMean(), 1e-9);
+        assertEquals(all.getVariance(), first.getVariance(), 1e-6);
+        assertEquals(all.getMin(), first.getMin());
+        assertEquals(all.getMax(), first.getMax());
+
+        RunningStatistics empty = new RunningStatistics();
+        empty.merge(all);
+        assertEquals(all.getMean(), empty.getMean());
+        assertEquals(all.getVariance(), empty.getVariance(), 1e-6);
+    }
+
+    @Test
+    void tCriticalValues() {
+        assertEquals(12.706, RunningStatistics.tCritical95(1));
+        assertEquals(2.042, RunningStatistics.tCritical95(30));
+        assertEquals(2.021, RunningStatistics.tCritical95(40), 0.001);
+        assertEquals(1.984, RunningStatistics.tCritical95(100), 0.001);
+        assertEquals(1.962, RunningStatistics.tCritical95(999), 0.001);
+        assertTrue(RunningStatistics.tCritical95(31) < RunningStatistics.tCritical95(30));
+    }
+}
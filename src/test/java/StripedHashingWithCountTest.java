@@ -0,0 +1,201 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class StripedHashingWithCountTest {
+
+    @Test
+    void add() {
+        StripedHashingWithCount<String, String> sh1 = new StripedHashingWithCount<>();
+        String str = sh1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = sh1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        sh1.add("str3", "what");
+        sh1.add("str4", "how");
+        sh1.add("str5", "who");
+        assertEquals(4, sh1.getSize());
+        assertThrows(IllegalArgumentException.class, () -> sh1.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> sh1.add("error!", null));
+        assertThrows(IllegalArgumentException.class, () -> new StripedHashingWithCount<>(11, 0, false));
+    }
+
+    @Test
+    void removeAndGetValue() {
+        StripedHashingWithCount<String, Double> mathConstants = new StripedHashingWithCount<>();
+        mathConstants.add("e", 2.718);
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("pi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertEquals(1, mathConstants.getSize());
+    }
+
+    @Test
+    void segments() {
+        assertEquals(16, new StripedHashingWithCount<Integer, Integer>().getSegmentCount());
+        assertEquals(8, new StripedHashingWithCount<Integer, Integer>(100, 5, false).getSegmentCount());
+        StripedHashingWithCount<Integer, Integer> sh2 = new StripedHashingWithCount<>(1000, 4, true);
+        assertEquals(4, sh2.getSegmentCount());
+        assertEquals(4 * 250, sh2.getHashTableSize()); // each segment gets a quarter of the capacity
+    }
+
+    @Test
+    void probeCountIsSummedOverSegments() {
+        StripedHashingWithCount<Integer, Integer> sh3 = new StripedHashingWithCount<>(4000, 8, false);
+        for (int i = 0; i < 500; i++) {
+            sh3.add(i, i);
+        }
+        sh3.resetProbeCount();
+        assertEquals(0, sh3.getProbeCount());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sh3.contains(i));
+        }
+        assertTrue(sh3.getProbeCount() >= 500); // at least one probe per search, whichever segment it is in
+    }
+
+    @Test
+    void matchesHashMap() {
+        for (boolean doubleHashing : new boolean[] {false, true}) {
+            StripedHashingWithCount<Integer, Integer> sh4 = new StripedHashingWithCount<>(11, 4, doubleHashing);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(13);
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(2000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), sh4.remove(key));
+                } else {
+                    assertEquals(expected.put(key, i), sh4.add(key, i));
+                }
+                assertEquals(expected.size(), sh4.getSize());
+            }
+            for (int key = 0; key < 2000; key++) {
+                assertEquals(expected.get(key), sh4.getValue(key));
+            }
+        }
+    }
+
+    @Test
+    void concurrentAddAndRemove() throws Exception {
+        // Each thread adds its own range of keys, growing every segment many times over, and removes every other one
+        StripedHashingWithCount<Integer, Integer> sh5 = new StripedHashingWithCount<>();
+        int threads = 8;
+        int keysPerThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * keysPerThread;
+                futures.add(executor.submit(() -> {
+                    for (int key = first; key < first + keysPerThread; key++) {
+                        sh5.add(key, key);
+                    }
+                    for (int key = first; key < first + keysPerThread; key += 2) {
+                        assertEquals(key, sh5.remove(key));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * keysPerThread / 2, sh5.getSize());
+        for (int key = 0; key < threads * keysPerThread; key++) {
+            assertEquals((key % 2 == 0) ? null : key, sh5.getValue(key));
+        }
+    }
+
+    @Test
+    void concurrentSearchesShareASegment() throws Exception {
+        // One segment, so every search reads the same table at once under its read lock
+        StripedHashingWithCount<Integer, Integer> sh6 = new StripedHashingWithCount<>(100, 1, true);
+        for (int key = 0; key < 1000; key++) {
+            sh6.add(key, key);
+        }
+        sh6.resetProbeCount();
+        for (int key = 0; key < 2000; key++) {
+            sh6.getValue(key);
+        }
+        long probesPerPass = sh6.getProbeCount();
+        sh6.resetProbeCount();
+
+        int threads = 4;
+        int passes = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int pass = 0; pass < passes; pass++) {
+                        for (int key = 0; key < 2000; key++) {
+                            assertEquals((key < 1000) ? key : null, sh6.getValue(key));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * passes * probesPerPass, sh6.getProbeCount());
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        StripedHashingWithCount<Integer, String> sh6 = new StripedHashingWithCount<>();
+        sh6.add(2, "two");
+        sh6.add(5, "five");
+        sh6.add(1, "one");
+        sh6.add(3, "three");
+        sh6.remove(5);
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = sh6.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(1, 2, 3)), keys);
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+
+        HashSet<String> values = new HashSet<>();
+        Iterator<String> valueIterator = sh6.getValueIterator();
+        while (valueIterator.hasNext()) {
+            values.add(valueIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of("one", "two", "three")), values);
+    }
+
+    @Test
+    void isEmptyAndClear() {
+        StripedHashingWithCount<String, String> sh7 = new StripedHashingWithCount<>();
+        assertTrue(sh7.isEmpty());
+        sh7.add("thunder", "lightning");
+        assertFalse(sh7.isEmpty());
+        sh7.clear();
+        assertTrue(sh7.isEmpty());
+        assertFalse(sh7.contains("thunder"));
+    }
+}
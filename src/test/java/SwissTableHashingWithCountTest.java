@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SwissTableHashingWithCountTest {
+
+    @Test
+    void add() {
+        SwissTableHashingWithCount<String, String> st1 = new SwissTableHashingWithCount<>();
+        String str = st1.add("hello", "goodbye");
+        assertNull(str);
+        String str2 = st1.add("hello", "farewell");
+        assertEquals(str2, "goodbye");
+        st1.add("str3", "what");
+        st1.add("str4", "how");
+        st1.add("str5", "who");
+        assertEquals(4, st1.getSize());
+        assertThrows(IllegalArgumentException.class, () -> st1.add(null,"error!"));
+        assertThrows(IllegalArgumentException.class, () -> st1.add("error!", null));
+    }
+
+    @Test
+    void removeAndGetValue() {
+        SwissTableHashingWithCount<String, Double> mathConstants = new SwissTableHashingWithCount<>();
+        mathConstants.add("e", 2.718);
+        mathConstants.add("phi", 1.6180);
+        assertEquals(1.6180, mathConstants.getValue("phi"));
+        assertEquals(2.718, mathConstants.remove("e"));
+        assertFalse(mathConstants.contains("e"));
+        assertNull(mathConstants.remove("pi"));
+        assertNull(mathConstants.getValue("pi"));
+        assertEquals(1, mathConstants.getSize());
+    }
+
+    @Test
+    void containsAndProbeCount() {
+        SwissTableHashingWithCount<Integer, Integer> st2 = new SwissTableHashingWithCount<>(512);
+        for (int i = 0; i < 100; i++) {
+            st2.add(i, i);
+        }
+        st2.resetProbeCount();
+        for (int i = 100; i < 1100; i++) {
+            assertFalse(st2.contains(i));
+        }
+        // Every group still has empty locations, so each unsuccessful search checks exactly one group
+        assertEquals(1000, st2.getProbeCount());
+        st2.resetProbeCount();
+        assertEquals(0, st2.getProbeCount());
+    }
+
+    @Test
+    void matchesHashMap() {
+        SwissTableHashingWithCount<Integer, Integer> st3 = new SwissTableHashingWithCount<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(23);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextInt(2) == 0) {
+                assertEquals(expected.remove(key), st3.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), st3.add(key, i));
+            }
+            assertEquals(expected.size(), st3.getSize());
+        }
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(key), st3.getValue(key));
+        }
+    }
+
+    @Test
+    void collidingKeys() {
+        // Every key has the same group and tag, so every search compares keys and walks over full groups
+        SwissTableHashingWithCount<CollidingKey, Integer> st4 = new SwissTableHashingWithCount<>();
+        for (int i = 0; i < 40; i++) {
+            st4.add(new CollidingKey(i), i);
+        }
+        for (int i = 0; i < 40; i += 2) {
+            assertEquals(i, st4.remove(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 40; i++) {
+            assertEquals((i % 2 == 0) ? null : i, st4.getValue(new CollidingKey(i)));
+        }
+        assertEquals(20, st4.getSize());
+    }
+
+    @Test
+    void getKeyAndValueIterator() {
+        SwissTableHashingWithCount<Integer, String> st5 = new SwissTableHashingWithCount<>();
+        st5.add(2, "two");
+        st5.add(5, "five");
+        st5.add(1, "one");
+        st5.add(3, "three");
+        st5.remove(5);
+        HashSet<Integer> keys = new HashSet<>();
+        Iterator<Integer> keyIterator = st5.getKeyIterator();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of(1, 2, 3)), keys);
+        assertThrows(NoSuchElementException.class, () -> keyIterator.next());
+        assertThrows(UnsupportedOperationException.class, () -> keyIterator.remove());
+
+        HashSet<String> values = new HashSet<>();
+        Iterator<String> valueIterator = st5.getValueIterator();
+        while (valueIterator.hasNext()) {
+            values.add(valueIterator.next());
+        }
+        assertEquals(new HashSet<>(List.of("one", "two", "three")), values);
+    }
+
+    @Test
+    void isEmptyAndClear() {
+        SwissTableHashingWithCount<String, String> st6 = new SwissTableHashingWithCount<>();
+        assertTrue(st6.isEmpty());
+        st6.add("thunder", "lightning");
+        assertFalse(st6.isEmpty());
+        st6.clear();
+        assertTrue(st6.isEmpty());
+        assertFalse(st6.contains("thunder"));
+    }
+
+    @Test
+    void getHashTableSize() {
+        SwissTableHashingWithCount<Integer, Integer> st7 = new SwissTableHashingWithCount<>();
+        assertEquals(16, st7.getHashTableSize());
+        assertEquals(512, new SwissTableHashingWithCount<Integer, Integer>(342).getHashTableSize());
+        for (int i = 0; i < 14; i++) {
+            st7.add(i, i);
+        }
+        assertEquals(16, st7.getHashTableSize());
+        st7.add(14, 14); // 15 of 16 locations is more than 7/8
+        assertEquals(32, st7.getHashTableSize());
+        assertEquals(15.0 / 32.0, st7.getLoadFactor());
+    }
+
+
+    /**
+     * Search key whose hash codes all collide.
+     */
+    private static final class CollidingKey {
+        /** Tells keys apart */
+        private final int id;
+
+        private CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (other instanceof CollidingKey) && ((CollidingKey) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+class UniqueIntegerSamplerTest {
+
+    @Test
+    void sampleIsUniqueAndInRange() {
+        UniqueIntegerSampler sampler = new UniqueIntegerSampler(11);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int n : new int[] {0, 5, 11, 3}) {
+            sampler.sample(n, random);
+            assertEquals(n, sampler.size());
+            HashSet<Integer> seen = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                int num = sampler.get(i);
+                assertTrue(num >= 0 && num < 11);
+                assertTrue(seen.add(num));
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> sampler.get(3));
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(12, random));
+        assertThrows(IllegalArgumentException.class, () -> new UniqueIntegerSampler(-1));
+    }
+
+    @Test
+    void sampleDependsOnlyOnRandomStream() {
+        UniqueIntegerSampler used = new UniqueIntegerSampler(100);
+        used.sample(60, new SplittableRandom(1));
+        used.sample(30, new SplittableRandom(2));
+        UniqueIntegerSampler fresh = new UniqueIntegerSampler(100);
+        fresh.sample(30, new SplittableRandom(2));
+        for (int i = 0; i < 30; i++) {
+            assertEquals(fresh.get(i), used.get(i));
+        }
+    }
+
+    @Test
+    void seededSampleMatchesSplittableRandom() {
+        // Power of two and other bounds, and a pool large enough for nextInt to reject some of its draws
+        for (int endpoint : new int[] {1, 64, 1000, 1_500_000_000}) {
+            UniqueIntegerSampler fromSeed = new UniqueIntegerSampler(endpoint);
+            UniqueIntegerSampler fromRandom = new UniqueIntegerSampler(endpoint);
+            for (long seed = -3; seed < 20; seed++) {
+                SplittableRandom random = new SplittableRandom(seed);
+                int n = Math.min(endpoint, 50);
+                long rest = fromSeed.sample(n, seed);
+                fromRandom.sample(n, random);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(fromRandom.get(i), fromSeed.get(i));
+                }
+                assertEquals(random.nextLong(), new SplittableRandom(rest).nextLong()); // the stream continues
+            }
+        }
+    }
+
+    @Test
+    void everyValueIsEquallyLikely() {
+        UniqueIntegerSampler sampler = new UniqueIntegerSampler(10);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] firstCounts = new int[10];
+        for (int trial = 0; trial < 100000; trial++) {
+            sampler.sample(3, random);
+            firstCounts[sampler.get(0)]++;
+        }
+        for (int count : firstCounts) {
+            assertEquals(10000, count, 500);
+        }
+    }
+
+    @Test
+    void sampleAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        UniqueIntegerSampler sampler = new UniqueIntegerSampler(10000);
+        SplittableRandom random = new SplittableRandom(42);
+        long sum = 0;
+        for (int i = 0; i < 1000; i++) { // Warm up, so class loading doesn't count
+            sampler.sample(100, random);
+            sum += sampler.get(99);
+        }
+
+        long seed = 42;
+        for (int i = 0; i < 1000; i++) {
+            seed = sampler.sample(100, seed);
+            sum += sampler.get(99);
+        }
+
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1000; i++) {
+            sampler.sample(100, random);
+            sum += sampler.get(99);
+            seed = sampler.sample(100, seed);
+            sum += sampler.get(99);
+        }
+        assertEquals(before, bean.getCurrentThreadAllocatedBytes());
+        assertTrue(sum > 0);
+    }
+}